@@ -5,7 +5,12 @@
  */
 package io.jooby;
 
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.jooby.internal.converter.CompiledBeanConverter;
 
 /**
  * Value converter for complex values that come from query, path, form, etc... parameters into more
@@ -31,4 +36,82 @@ public interface BeanConverter extends ValueConverter<ValueNode> {
    * @return Converted value.
    */
   Object convert(@NonNull ValueNode node, @NonNull Class type);
+
+  /**
+   * Convert a node value into more specific type.
+   *
+   * @param node Value value.
+   * @param type Requested type.
+   * @param allowEmptyBean True to create a bean when none of its properties are present.
+   * @return Converted value.
+   */
+  default Object convert(@NonNull ValueNode node, @NonNull Class type, boolean allowEmptyBean) {
+    return convert(node, type);
+  }
+
+  /**
+   * Bean converter generated at compile time by <code>jooby-apt</code> for beans used as <code>
+   * &#64;QueryParam</code> or <code>&#64;FormParam</code> of MVC routes. Constructor and setters
+   * are resolved at compile time (same rules of the reflective bean converter) and invoked via
+   * generated lambdas. Application bean converters always take precedence over compiled ones.
+   *
+   * <p>This is used by generated code, you don't need to use it directly.
+   */
+  interface Compiled extends BeanConverter {
+    /**
+     * Add a bean.
+     *
+     * @param type Bean type.
+     * @param emptyBean True when bean is annotated with {@link io.jooby.annotation.EmptyBean}.
+     * @param factory Constructor call.
+     * @return This converter.
+     */
+    @NonNull Compiled bean(
+        @NonNull Class<?> type, boolean emptyBean, @NonNull Function<Object[], Object> factory);
+
+    /**
+     * Add a constructor argument to current bean.
+     *
+     * @param name Parameter name.
+     * @param type Parameter type.
+     * @param elementType Element type for collection and optional parameters or <code>null</code>.
+     * @param nullable True for nullable parameters.
+     * @param error Error message when conversion fails.
+     * @return This converter.
+     */
+    @NonNull Compiled arg(
+        @NonNull String name,
+        @NonNull Class<?> type,
+        @Nullable Class<?> elementType,
+        boolean nullable,
+        @NonNull String error);
+
+    /**
+     * Add a setter to current bean.
+     *
+     * @param method Method name.
+     * @param type Parameter type.
+     * @param elementType Element type for collection and optional parameters or <code>null</code>.
+     * @param nullable True for nullable parameters.
+     * @param error Error message when conversion fails.
+     * @param setter Setter call.
+     * @return This converter.
+     */
+    @NonNull Compiled setter(
+        @NonNull String method,
+        @NonNull Class<?> type,
+        @Nullable Class<?> elementType,
+        boolean nullable,
+        @NonNull String error,
+        @NonNull BiConsumer<Object, Object> setter);
+  }
+
+  /**
+   * Creates a new compiled bean converter. Used by generated code.
+   *
+   * @return A new compiled bean converter.
+   */
+  static @NonNull Compiled compiled() {
+    return new CompiledBeanConverter();
+  }
 }
@@ -0,0 +1,45 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Message encoder that writes straight into a server provided {@link Output}. Output might be
+ * backed by pooled memory (like Netty), so encoded bytes don't need to be materialized as a <code>
+ * byte[]</code> before sending them to the client.
+ *
+ * <p>The default {@link #encode(Context, Object)} implementation encodes into a heap output and
+ * copies the result into a byte array, so existing callers of the byte array contract keep working.
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+public interface BufferedMessageEncoder extends MessageEncoder {
+
+  /**
+   * Encode a value into the given output.
+   *
+   * @param ctx Web context.
+   * @param value Value to encode.
+   * @param output Output to write to.
+   * @return True when value was written into output. False when the value isn't supported or when
+   *     the response was sent by other means.
+   * @throws Exception If something goes wrong.
+   */
+  boolean encode(@NonNull Context ctx, @NonNull Object value, @NonNull Output output)
+      throws Exception;
+
+  @Override
+  default @Nullable byte[] encode(@NonNull Context ctx, @NonNull Object value) throws Exception {
+    Output output = Output.create();
+    if (encode(ctx, value, output)) {
+      return output.toByteArray();
+    }
+    return null;
+  }
+}
@@ -1170,6 +1170,14 @@ public interface Context extends Registry {
    */
   @NonNull Sender responseSender();
 
+  /**
+   * Creates a new response output buffer. Web servers might back the output with pooled memory.
+   * Output must be sent via {@link #send(Output)} or discarded via {@link Output#release()}.
+   *
+   * @return A new response output buffer.
+   */
+  @NonNull Output newOutput();
+
   /**
    * HTTP response channel as response writer.
    *
@@ -1296,6 +1304,15 @@ public interface Context extends Registry {
    */
   @NonNull Context send(@NonNull ByteBuffer[] data);
 
+  /**
+   * Send response data. The output is owned by the server after this call and must not be used
+   * again.
+   *
+   * @param output Response.
+   * @return This context.
+   */
+  @NonNull Context send(@NonNull Output output);
+
   /**
    * Send response data.
    *
@@ -13,19 +13,16 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-
 import com.typesafe.config.Config;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -42,6 +39,11 @@ public class Cookie {
   /** Algorithm name. */
   public static final String HMAC_SHA256 = "HmacSHA256";
 
+  /** Signers by secret, see {@link #signer(String)}. */
+  private static final Map<String, Signer> signers = new ConcurrentHashMap<>();
+
+  private static final int MAX_SIGNERS = 64;
+
   private static final DateTimeFormatter fmt =
       DateTimeFormatter.ofPattern("EEE, dd-MMM-yyyy HH:mm:ss z", Locale.US)
           .withZone(ZoneId.of("GMT"));
@@ -452,19 +454,14 @@ public class Cookie {
    *   [signed value] '|' [raw value]
    * </pre>
    *
+   * See {@link Signer#hmac(String, String...)} for key rotation.
+   *
    * @param value A value to sign.
    * @param secret A secret key.
    * @return A signed value.
    */
   public static @NonNull String sign(final @NonNull String value, final @NonNull String secret) {
-    try {
-      Mac mac = Mac.getInstance(HMAC_SHA256);
-      mac.init(new SecretKeySpec(secret.getBytes(), HMAC_SHA256));
-      byte[] bytes = mac.doFinal(value.getBytes());
-      return Base64.getEncoder().withoutPadding().encodeToString(bytes) + "|" + value;
-    } catch (Exception x) {
-      throw SneakyThrows.propagate(x);
-    }
+    return signer(secret).sign(value);
   }
 
   /**
@@ -476,12 +473,19 @@ public class Cookie {
    * @return A new signed value or null.
    */
   public static @Nullable String unsign(final @NonNull String value, final @NonNull String secret) {
-    int sep = value.indexOf("|");
-    if (sep <= 0) {
-      return null;
+    return signer(secret).unsign(value);
+  }
+
+  private static Signer signer(String secret) {
+    Signer signer = signers.get(secret);
+    if (signer == null) {
+      signer = Signer.hmac(secret);
+      // applications use one or two secrets, don't grow when secrets are generated
+      if (signers.size() < MAX_SIGNERS) {
+        signers.put(secret, signer);
+      }
     }
-    String str = value.substring(sep + 1);
-    return sign(str, secret).equals(value) ? str : null;
+    return signer;
   }
 
   /**
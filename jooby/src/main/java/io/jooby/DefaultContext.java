@@ -463,6 +463,25 @@ public interface DefaultContext extends Context {
     try {
       Route route = getRoute();
       MessageEncoder encoder = route.getEncoder();
+      if (encoder instanceof BufferedMessageEncoder buffered) {
+        Output output = newOutput();
+        boolean encoded;
+        try {
+          encoded = buffered.encode(this, value, output);
+        } catch (Throwable cause) {
+          output.release();
+          throw cause;
+        }
+        if (encoded) {
+          send(output);
+        } else {
+          output.release();
+          if (!isResponseStarted()) {
+            throw new IllegalStateException("The response was not encoded");
+          }
+        }
+        return this;
+      }
       byte[] bytes = encoder.encode(this, value);
       if (bytes == null) {
         if (!isResponseStarted()) {
@@ -560,6 +579,21 @@ public interface DefaultContext extends Context {
     return send(data, StandardCharsets.UTF_8);
   }
 
+  @Override
+  default @NonNull Context send(@NonNull Output output) {
+    ByteBuffer[] buffers = output.toByteBuffers();
+    return switch (buffers.length) {
+      case 0 -> send(new byte[0]);
+      case 1 -> send(buffers[0]);
+      default -> send(buffers);
+    };
+  }
+
+  @Override
+  default @NonNull Output newOutput() {
+    return Output.create();
+  }
+
   @Override
   default @NonNull Context send(@NonNull FileDownload file) {
     setResponseHeader("Content-Disposition", file.getContentDisposition());
@@ -86,5 +86,40 @@ public enum ExecutionMode {
    * }
    * }</pre>
    */
-  DEFAULT
+  DEFAULT,
+
+  /**
+   * Execute handler in a new virtual thread (blocking). Handler is allowed to block, each request
+   * gets its own virtual thread, so blocking calls don't exhaust the worker thread pool. Requires
+   * Java 21 or higher.
+   *
+   * <p>Virtual threads are pinned to their carrier thread while blocking inside a <code>
+   * synchronized</code> block or a native call. Routes that do so should use the worker executor:
+   *
+   * <pre>{@code
+   * {
+   *   setExecutionMode(VIRTUAL);
+   *
+   *   get("/virtual", ctx -> {
+   *     // remote call: another service, database, etc..
+   *     return "Safe to block";
+   *   });
+   *
+   *   // Opt-out: run on worker thread
+   *   dispatch(() -> {
+   *     get("/pinned", ctx -> {
+   *       return legacySynchronizedCall();
+   *     });
+   *   });
+   *
+   *   // Opt-out for a single route
+   *   get("/pinned-route", ctx -> legacySynchronizedCall())
+   *       .setExecutorKey("worker");
+   * }
+   * }</pre>
+   *
+   * Web socket handlers always run in the worker executor. Virtual thread counters are available
+   * from {@link VirtualThreadExecutor}.
+   */
+  VIRTUAL
 }
@@ -9,7 +9,9 @@ import java.util.Collection;
 import java.util.List;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import io.jooby.internal.MultipartNode;
+import io.jooby.internal.UrlParser;
 
 /**
  * Form class for direct MVC parameter provisioning.
@@ -93,4 +95,16 @@ public interface Formdata extends ValueNode {
   static @NonNull Formdata create(@NonNull Context ctx) {
     return new MultipartNode(ctx);
   }
+
+  /**
+   * Creates a formdata object from an <code>application/x-www-form-urlencoded</code> body. Fields
+   * are decoded on first access.
+   *
+   * @param ctx Current context.
+   * @param body Urlencoded body.
+   * @return Formdata instance.
+   */
+  static @NonNull Formdata create(@NonNull Context ctx, @Nullable String body) {
+    return UrlParser.form(ctx, body);
+  }
 }
@@ -659,6 +659,17 @@ public class ForwardingContext implements Context {
     return this;
   }
 
+  @NonNull @Override
+  public Context send(@NonNull Output output) {
+    ctx.send(output);
+    return this;
+  }
+
+  @NonNull @Override
+  public Output newOutput() {
+    return ctx.newOutput();
+  }
+
   @Override
   @NonNull public Context send(@NonNull ReadableByteChannel channel) {
     ctx.send(channel);
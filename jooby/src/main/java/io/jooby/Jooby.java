@@ -49,10 +49,12 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import io.jooby.exception.RegistryException;
 import io.jooby.exception.StartupException;
+import io.jooby.handler.AssetHandler;
 import io.jooby.internal.LocaleUtils;
 import io.jooby.internal.MutedServer;
 import io.jooby.internal.RegistryRef;
 import io.jooby.internal.RouterImpl;
+import io.jooby.internal.SseKeepAlive;
 import jakarta.inject.Provider;
 
 /**
@@ -127,6 +129,8 @@ public class Jooby implements Router, Registry {
 
   private Server server;
 
+  private boolean sseKeepAlive;
+
   /** Creates a new Jooby instance. */
   public Jooby() {
     if (owner == null) {
@@ -492,6 +496,13 @@ public class Jooby implements Router, Registry {
 
   @NonNull @Override
   public Route sse(@NonNull String pattern, @NonNull ServerSentEmitter.Handler handler) {
+    if (!sseKeepAlive) {
+      sseKeepAlive = true;
+      // scoped to this application, stopping it doesn't affect others
+      SseKeepAlive keepAlive = new SseKeepAlive();
+      getServices().put(SseKeepAlive.class, keepAlive);
+      onStop(keepAlive);
+    }
     return router.sse(pattern, handler);
   }
 
@@ -508,6 +519,10 @@ public class Jooby implements Router, Registry {
 
   @NonNull @Override
   public Router use(@NonNull Route.Filter filter) {
+    if (filter instanceof AutoCloseable closeable) {
+      // release filter resources (threads, files, etc.) with the application
+      onStop(closeable);
+    }
     router.use(filter);
     return this;
   }
@@ -600,6 +615,12 @@ public class Jooby implements Router, Registry {
     return router.route(method, pattern, handler);
   }
 
+  @NonNull @Override
+  public Route assets(@NonNull String pattern, @NonNull AssetHandler handler) {
+    onStop(handler);
+    return route(GET, pattern, handler);
+  }
+
   @NonNull @Override
   public Match match(@NonNull Context ctx) {
     return router.match(ctx);
@@ -63,6 +63,9 @@ public final class MediaType implements Comparable<MediaType> {
   /** YAML. */
   public static final String YAML = "text/yaml";
 
+  /** Newline delimited JSON. */
+  public static final String NDJSON = "application/x-ndjson";
+
   /** ALL. */
   public static final String ALL = "*/*";
 
@@ -72,6 +75,9 @@ public final class MediaType implements Comparable<MediaType> {
   /** YAML. */
   public static final MediaType yaml = new MediaType(YAML, UTF_8);
 
+  /** Newline delimited JSON. */
+  public static final MediaType ndjson = new MediaType(NDJSON, UTF_8);
+
   /** APPLICATION_XML. */
   public static final MediaType xml = new MediaType(XML, UTF_8);
 
@@ -246,6 +252,20 @@ public final class MediaType implements Comparable<MediaType> {
     return subtype.equals("json") || subtype.endsWith("+json");
   }
 
+  /**
+   * Indicates whenever this is a newline delimited json mediatype, like <code>
+   * application/x-ndjson</code> or <code>application/jsonl</code> (JSON Lines).
+   *
+   * @return True for newline delimited json mediatype.
+   */
+  public boolean isNdjson() {
+    String subtype = getSubtype();
+    return subtype.equals("x-ndjson")
+        || subtype.equals("ndjson")
+        || subtype.equals("jsonl")
+        || subtype.equals("x-jsonlines");
+  }
+
   /**
    * Charset or <code>null</code>.
    *
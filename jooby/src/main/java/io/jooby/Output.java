@@ -0,0 +1,168 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.internal.ByteBufferOutput;
+
+/**
+ * Response output buffer. Instances are created by the web server via {@link Context#newOutput()}
+ * and might be backed by pooled memory, so bytes written here reach the client without an
+ * intermediate <code>byte[]</code> copy.
+ *
+ * <p>An output is consumed by {@link Context#send(Output)}. Once sent, the output must not be used
+ * again. An output that was never sent must be released via {@link #release()}.
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+public interface Output {
+
+  /** Default initial buffer size. */
+  int BUFFER_SIZE = 1024;
+
+  /**
+   * Number of written bytes.
+   *
+   * @return Number of written bytes.
+   */
+  int size();
+
+  /**
+   * Write a single byte.
+   *
+   * @param b Byte to write.
+   * @return This output.
+   */
+  @NonNull Output write(byte b);
+
+  /**
+   * Write a byte array.
+   *
+   * @param source Bytes to write.
+   * @return This output.
+   */
+  default @NonNull Output write(@NonNull byte[] source) {
+    return write(source, 0, source.length);
+  }
+
+  /**
+   * Write a portion of a byte array.
+   *
+   * @param source Bytes to write.
+   * @param offset Start offset.
+   * @param length Number of bytes to write.
+   * @return This output.
+   */
+  @NonNull Output write(@NonNull byte[] source, int offset, int length);
+
+  /**
+   * Write the remaining bytes of a byte buffer.
+   *
+   * @param source Bytes to write.
+   * @return This output.
+   */
+  @NonNull Output write(@NonNull ByteBuffer source);
+
+  /**
+   * Write a string using the given charset.
+   *
+   * @param source String to write.
+   * @param charset Charset.
+   * @return This output.
+   */
+  default @NonNull Output write(@NonNull String source, @NonNull Charset charset) {
+    return write(source.getBytes(charset));
+  }
+
+  /**
+   * Output as {@link OutputStream}. Closing the stream has no effect, the output must be sent or
+   * released.
+   *
+   * @return Output as {@link OutputStream}.
+   */
+  default @NonNull OutputStream asOutputStream() {
+    return new OutputStream() {
+      @Override
+      public void write(int b) {
+        Output.this.write((byte) b);
+      }
+
+      @Override
+      public void write(@NonNull byte[] b, int off, int len) {
+        Output.this.write(b, off, len);
+      }
+    };
+  }
+
+  /**
+   * Output as {@link Writer}. Characters are encoded using the given charset. The writer buffers
+   * encoded bytes, it must be flushed (or closed) once done. Closing the writer has no effect on
+   * this output.
+   *
+   * @param charset Charset.
+   * @return Output as {@link Writer}.
+   */
+  default @NonNull Writer asWriter(@NonNull Charset charset) {
+    return new OutputStreamWriter(asOutputStream(), charset);
+  }
+
+  /**
+   * Read-only views of written bytes. Views share content with this output, no bytes are copied.
+   *
+   * @return Read-only views of written bytes.
+   */
+  @NonNull ByteBuffer[] toByteBuffers();
+
+  /**
+   * Copy written bytes into a new byte array.
+   *
+   * @return Written bytes.
+   */
+  default @NonNull byte[] toByteArray() {
+    byte[] result = new byte[size()];
+    int offset = 0;
+    for (ByteBuffer buffer : toByteBuffers()) {
+      int len = buffer.remaining();
+      buffer.get(result, offset, len);
+      offset += len;
+    }
+    return result;
+  }
+
+  /**
+   * Release resources (if any) held by this output. Only required when the output is discarded and
+   * never sent.
+   */
+  default void release() {}
+
+  /**
+   * Creates a heap output made of chunks. Content grows by appending chunks, so written bytes are
+   * never copied while growing.
+   *
+   * @return Heap output.
+   */
+  static @NonNull Output create() {
+    return create(BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a heap output made of chunks. Content grows by appending chunks, so written bytes are
+   * never copied while growing.
+   *
+   * @param bufferSize Minimum chunk size.
+   * @return Heap output.
+   */
+  static @NonNull Output create(int bufferSize) {
+    return new ByteBufferOutput(bufferSize);
+  }
+}
@@ -19,10 +19,29 @@ import io.jooby.internal.handler.ConcurrentHandler;
  */
 public class ReactiveSupport {
 
+  /**
+   * Route attribute: number of items requested from a {@link Flow.Publisher} at once. Default is
+   * <code>64</code>.
+   *
+   * <pre>{@code
+   * get("/export", ctx -> Flux.fromIterable(rows))
+   *     .attribute(ReactiveSupport.REQUEST, 256);
+   * }</pre>
+   */
+  public static final String REQUEST = "reactive.request";
+
+  /**
+   * Route attribute: max number of bytes coalesced into a single chunk before the publisher is
+   * asked for more items. Default is {@link ServerOptions#getBufferSize()}.
+   */
+  public static final String BUFFER_SIZE = "reactive.bufferSize";
+
   private static final Route.Filter CONCURRENT = new ConcurrentHandler();
 
   /**
-   * Creates a subscriber from web context.
+   * Creates a subscriber from web context. Items are sent as a chunked response: a JSON array for
+   * JSON responses, one item per line for {@link MediaType#ndjson} responses or items as they are
+   * for any other type.
    *
    * @param ctx Web Context.
    * @param <T> Flow type.
@@ -523,7 +523,8 @@ public interface Router extends Registry {
   @NonNull Router setDefaultWorker(@NonNull Executor worker);
 
   /**
-   * Attach a filter to the route pipeline.
+   * Attach a filter to the route pipeline. Filters implementing {@link AutoCloseable} are closed
+   * when the application stops.
    *
    * @param filter Filter.
    * @return This router.
@@ -93,6 +93,18 @@ public interface Sender {
    */
   @NonNull Sender write(@NonNull byte[] data, @NonNull Callback callback);
 
+  /**
+   * Write an output chunk. Chunk is flushed immediately. Ownership of the output is transferred to
+   * the sender, it must not be used after this call.
+   *
+   * @param output Output chunk. See {@link Context#newOutput()}.
+   * @param callback Callback.
+   * @return This sender.
+   */
+  @NonNull default Sender write(@NonNull Output output, @NonNull Callback callback) {
+    return write(output.toByteArray(), callback);
+  }
+
   /** Close the sender. */
   void close();
 }
@@ -5,6 +5,7 @@
  */
 package io.jooby;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -13,6 +14,7 @@ import org.slf4j.LoggerFactory;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import io.jooby.internal.SseKeepAlive;
 
 /**
  * Server-Sent message emitter.
@@ -29,36 +31,57 @@ import edu.umd.cs.findbugs.annotations.Nullable;
  */
 public interface ServerSentEmitter {
 
-  /** Keep-alive task. */
+  /**
+   * Keep-alive support. Emitters of an application share one scheduler thread and emitters with the
+   * same period are grouped in one task, so the cost of a tick doesn't depend on the number of
+   * emitters. Each tick sends the same pre-encoded comment frame, see {@link #heartbeat()}. The
+   * scheduler is shutdown when the application stops.
+   */
   class KeepAlive implements Runnable {
 
-    private final Logger log = LoggerFactory.getLogger(ServerSentEmitter.class);
+    /** Comment frame (an empty comment line) used as heartbeat. Shared, must not be modified. */
+    public static final byte[] FRAME = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final Logger log = LoggerFactory.getLogger(ServerSentEmitter.class);
 
-    private ServerSentEmitter emitter;
+    private final ServerSentEmitter emitter;
 
-    private long retry;
+    private final long period;
 
     /**
      * Creates a KeepAlive.
      *
      * @param emitter not null.
      * @param retry keepAlive for the emitter.
+     * @deprecated Use {@link ServerSentEmitter#keepAlive(long)}, it schedules emitters on a shared
+     *     scheduler.
      */
+    @Deprecated
     public KeepAlive(final ServerSentEmitter emitter, final long retry) {
       this.emitter = emitter;
-      this.retry = retry;
+      this.period = retry;
+    }
+
+    /**
+     * Send heartbeats to the given emitter every <code>period</code> milliseconds, until the
+     * emitter is closed. A new period replaces the previous one.
+     *
+     * @param emitter Emitter.
+     * @param period Period in millis.
+     */
+    public static void schedule(@NonNull ServerSentEmitter emitter, long period) {
+      SseKeepAlive.of(emitter).schedule(emitter, period);
     }
 
     @Override
     public void run() {
+      // Deprecated single emitter task: moves the emitter to the shared scheduler
       if (emitter.isOpen()) {
-        String sseId = emitter.getId();
         try {
-          log.debug("running heart beat for {}", sseId);
-          emitter.send(":" + sseId + "\n");
-          emitter.keepAlive(retry);
+          emitter.heartbeat();
+          emitter.keepAlive(period);
         } catch (Exception x) {
-          log.debug("connection lost for {}", sseId, x);
+          log.debug("connection lost for {}", emitter.getId(), x);
           emitter.close();
         }
       }
@@ -198,7 +221,32 @@ public interface ServerSentEmitter {
    * @param timeInMillis Period of time in millis.
    * @return This emitter.
    */
-  @NonNull ServerSentEmitter keepAlive(long timeInMillis);
+  default @NonNull ServerSentEmitter keepAlive(long timeInMillis) {
+    if (isOpen()) {
+      KeepAlive.schedule(this, timeInMillis);
+    }
+    return this;
+  }
+
+  /**
+   * Send an empty comment line ({@link KeepAlive#FRAME}) to the client, unless there are queued
+   * events (a busy connection doesn't need a heartbeat).
+   *
+   * <p>Default implementation sends <code>:id</code>, like previous versions did.
+   */
+  default void heartbeat() {
+    send(":" + getId() + "\n");
+  }
+
+  /**
+   * Number of bytes waiting to be written to the client. Events are queued while the connection
+   * isn't writable, see {@link ServerSentQueue}.
+   *
+   * @return Number of queued bytes. Default is: <code>0</code>.
+   */
+  default long getQueuedBytes() {
+    return 0;
+  }
 
   /**
    * Read the <code>Last-Event-ID</code> header and retrieve it. Might be null.
@@ -0,0 +1,161 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+
+import com.typesafe.config.Config;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Bounded queue of encoded Server-Sent events. Servers write events directly while the connection
+ * is writable and queue them otherwise. Queue size is bounded in bytes by the <code>
+ * sse.maxQueueSize</code> property (default is <code>1m</code>). Once the bound is reached the
+ * {@link Overflow} policy from <code>sse.overflow</code> property applies.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+public final class ServerSentQueue {
+
+  /** What to do when a queue is full. */
+  public enum Overflow {
+    /** Discard oldest events until the new event fits. This is the default. */
+    DROP_OLDEST,
+
+    /**
+     * Replace a queued event that has the same ID (newer state wins), then discard oldest events if
+     * the new event still doesn't fit.
+     */
+    COALESCE,
+
+    /** Close the connection. */
+    DISCONNECT
+  }
+
+  /** Default max queue size in bytes. */
+  public static final long MAX_QUEUE_SIZE = 1024 * 1024;
+
+  private record Frame(@Nullable Object id, byte[] data) {}
+
+  private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+
+  private final long maxSize;
+
+  private final Overflow overflow;
+
+  private long size;
+
+  /**
+   * Creates a new queue.
+   *
+   * @param maxSize Max queue size in bytes.
+   * @param overflow Overflow policy.
+   */
+  public ServerSentQueue(long maxSize, @NonNull Overflow overflow) {
+    this.maxSize = maxSize;
+    this.overflow = overflow;
+  }
+
+  /**
+   * Creates a new queue from <code>sse.maxQueueSize</code> and <code>sse.overflow</code>
+   * properties.
+   *
+   * @param conf Application configuration.
+   * @return New queue.
+   */
+  public static @NonNull ServerSentQueue create(@NonNull Config conf) {
+    long maxSize =
+        conf.hasPath("sse.maxQueueSize") ? conf.getBytes("sse.maxQueueSize") : MAX_QUEUE_SIZE;
+    Overflow overflow =
+        conf.hasPath("sse.overflow")
+            ? Overflow.valueOf(
+                conf.getString("sse.overflow").trim().replace('-', '_').toUpperCase(Locale.ROOT))
+            : Overflow.DROP_OLDEST;
+    return new ServerSentQueue(maxSize, overflow);
+  }
+
+  /**
+   * Add an encoded event.
+   *
+   * @param id Event ID or <code>null</code>.
+   * @param data Encoded event.
+   * @return False when the queue is full and the policy is {@link Overflow#DISCONNECT}.
+   */
+  public synchronized boolean offer(@Nullable Object id, @NonNull byte[] data) {
+    if (overflow == Overflow.COALESCE && id != null) {
+      // the new event supersedes the queued one and goes last, so order of events is preserved
+      remove(id);
+    }
+    if (size + data.length > maxSize) {
+      if (overflow == Overflow.DISCONNECT) {
+        return false;
+      }
+      while (!frames.isEmpty() && size + data.length > maxSize) {
+        size -= frames.removeFirst().data.length;
+      }
+    }
+    frames.addLast(new Frame(id, data));
+    size += data.length;
+    return true;
+  }
+
+  /**
+   * Remove next event.
+   *
+   * @return Next event or <code>null</code>.
+   */
+  public synchronized @Nullable byte[] poll() {
+    Frame frame = frames.pollFirst();
+    if (frame == null) {
+      return null;
+    }
+    size -= frame.data.length;
+    return frame.data;
+  }
+
+  /**
+   * True when there is no queued events.
+   *
+   * @return True when there is no queued events.
+   */
+  public synchronized boolean isEmpty() {
+    return frames.isEmpty();
+  }
+
+  /**
+   * Number of queued bytes.
+   *
+   * @return Number of queued bytes.
+   */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  /** Discard all queued events. */
+  public synchronized void clear() {
+    frames.clear();
+    size = 0;
+  }
+
+  private void remove(Object id) {
+    Iterator<Frame> it = frames.iterator();
+    while (it.hasNext()) {
+      Frame frame = it.next();
+      if (Objects.equals(id, frame.id)) {
+        it.remove();
+        size -= frame.data.length;
+        return;
+      }
+    }
+  }
+}
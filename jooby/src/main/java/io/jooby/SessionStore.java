@@ -307,6 +307,22 @@ public interface SessionStore {
     return new MemorySessionStore(token, timeout);
   }
 
+  /**
+   * Creates a session store that save data in memory. Session data is not keep after restart.
+   *
+   * <p>Once <code>maxSessions</code> is reached, the least recently used session is evicted. For
+   * large values eviction is approximated per segment of sessions.
+   *
+   * @param token Session token.
+   * @param timeout Expires session after amount of inactivity time.
+   * @param maxSessions Max number of sessions to keep in memory. Use <code>0</code> for no limit.
+   * @return Session store.
+   */
+  static @NonNull SessionStore memory(
+      @NonNull SessionToken token, @NonNull Duration timeout, int maxSessions) {
+    return new MemorySessionStore(token, timeout, maxSessions);
+  }
+
   /**
    * Creates a session store that uses (un)signed data. Session data is signed it using <code>
    * HMAC_SHA256</code>.
@@ -345,9 +361,34 @@ public interface SessionStore {
    * @return A browser session store.
    */
   static @NonNull SessionStore signed(@NonNull String secret, @NonNull SessionToken token) {
+    return signed(Signer.hmac(secret), token);
+  }
+
+  /**
+   * Creates a session store that uses (un)signed data. Use it for key rotation:
+   *
+   * <pre>{@code
+   * setSessionStore(SessionStore.signed(Signer.hmac(newSecret, oldSecret)));
+   * }</pre>
+   *
+   * @param signer Signer to use.
+   * @return A browser session store.
+   */
+  static @NonNull SessionStore signed(@NonNull Signer signer) {
+    return signed(signer, SessionToken.signedCookie(SessionToken.SID));
+  }
+
+  /**
+   * Creates a session store that uses (un)signed data.
+   *
+   * @param signer Signer to use.
+   * @param token Session token to use.
+   * @return A browser session store.
+   */
+  static @NonNull SessionStore signed(@NonNull Signer signer, @NonNull SessionToken token) {
     SneakyThrows.Function<String, Map<String, String>> decoder =
         value -> {
-          String unsign = Cookie.unsign(value, secret);
+          String unsign = signer.unsign(value);
           if (unsign == null) {
             return null;
           }
@@ -355,7 +396,7 @@ public interface SessionStore {
         };
 
     SneakyThrows.Function<Map<String, String>, String> encoder =
-        attributes -> Cookie.sign(Cookie.encode(attributes), secret);
+        attributes -> signer.sign(Cookie.encode(attributes));
 
     return signed(token, decoder, encoder);
   }
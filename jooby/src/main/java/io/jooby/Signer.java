@@ -0,0 +1,58 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.jooby.internal.HmacSigner;
+
+/**
+ * Sign and verify values. Signed value looks like:
+ *
+ * <pre>
+ *   [signature] '|' [raw value]
+ * </pre>
+ *
+ * Signers are thread-safe and meant to be created once and reused, see {@link #hmac(String,
+ * String...)}.
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+public interface Signer {
+
+  /**
+   * Sign a value.
+   *
+   * @param value Value to sign.
+   * @return Signed value.
+   */
+  @NonNull String sign(@NonNull String value);
+
+  /**
+   * Verify a signed value and returns the raw value.
+   *
+   * @param value Signed value.
+   * @return Raw value or <code>null</code> when signature is invalid.
+   */
+  @Nullable String unsign(@NonNull String value);
+
+  /**
+   * Creates a {@link Cookie#HMAC_SHA256} signer. Values are signed with the given secret and
+   * verified with the secret or any of the previous secrets, which allows key rotation: sign new
+   * values with a new secret while values signed with an old secret are still valid.
+   *
+   * <p>Verification runs in constant time. Initialized {@link javax.crypto.Mac} instances are
+   * cached per thread and per secret.
+   *
+   * @param secret Secret used to sign and verify values.
+   * @param previousSecrets Secrets used to verify values only.
+   * @return A new signer.
+   */
+  static @NonNull Signer hmac(@NonNull String secret, @NonNull String... previousSecrets) {
+    return new HmacSigner(secret, previousSecrets);
+  }
+}
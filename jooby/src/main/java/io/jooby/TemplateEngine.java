@@ -18,7 +18,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  * @since 2.0.0
  * @author edgar
  */
-public interface TemplateEngine extends MessageEncoder {
+public interface TemplateEngine extends BufferedMessageEncoder {
 
   /** Name of application property that defines the template path. */
   String TEMPLATE_PATH = "templates.path";
@@ -36,15 +36,40 @@ public interface TemplateEngine extends MessageEncoder {
    */
   String render(Context ctx, ModelAndView modelAndView) throws Exception;
 
+  /**
+   * Render a model and view instance into the given output (UTF-8). Output is provided by the web
+   * server and might be backed by pooled memory, so the rendered template is never materialized as
+   * a String or byte array.
+   *
+   * <p>Default implementation writes the result of {@link #render(Context, ModelAndView)}. Template
+   * engines able to write into a {@link java.io.Writer} should override it, see {@link
+   * Output#asWriter(java.nio.charset.Charset)}.
+   *
+   * <p>Engines overriding <code>byte[] encode(Context, Object)</code> (the pre 3.1 contract) are
+   * still rendered through that method, and this method isn't called for them.
+   *
+   * @param ctx Web context.
+   * @param modelAndView Model and view.
+   * @param output Output.
+   * @throws Exception If something goes wrong.
+   * @since 3.1.0
+   */
+  default void render(
+      @NonNull Context ctx, @NonNull ModelAndView modelAndView, @NonNull Output output)
+      throws Exception {
+    output.write(render(ctx, modelAndView), StandardCharsets.UTF_8);
+  }
+
   @Override
-  default byte[] encode(@NonNull Context ctx, @NonNull Object value) throws Exception {
+  default boolean encode(@NonNull Context ctx, @NonNull Object value, @NonNull Output output)
+      throws Exception {
     // initialize flash and session attributes (if any)
     ctx.flash();
     ctx.sessionOrNull();
 
     ctx.setDefaultResponseType(MediaType.html);
-    String output = render(ctx, (ModelAndView) value);
-    return output.getBytes(StandardCharsets.UTF_8);
+    render(ctx, (ModelAndView) value, output);
+    return true;
   }
 
   /**
@@ -0,0 +1,204 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Executor that runs each task on a new virtual thread. Used by {@link ExecutionMode#VIRTUAL}, it
+ * is available from the service registry once application has been started:
+ *
+ * <pre>{@code
+ * {
+ *   setExecutionMode(ExecutionMode.VIRTUAL);
+ *
+ *   onStarted(() -> {
+ *     VirtualThreadExecutor executor = require(VirtualThreadExecutor.class);
+ *     executor.trackPinned(Duration.ofMillis(20));
+ *   });
+ * }
+ * }</pre>
+ *
+ * Virtual threads require Java 21 or higher, see {@link #isSupported()}.
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+public class VirtualThreadExecutor implements Executor, AutoCloseable {
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private static final MethodHandle FACTORY = factory();
+
+  private final ThreadFactory threadFactory;
+
+  private final LongAdder submitted = new LongAdder();
+
+  private final AtomicInteger active = new AtomicInteger();
+
+  private final LongAdder pinned = new LongAdder();
+
+  private RecordingStream pinnedStream;
+
+  /**
+   * Creates a new virtual thread executor.
+   *
+   * @param name Thread name prefix. Threads are named <code>name-N</code>.
+   * @throws IllegalStateException If virtual threads are not supported by the running JVM.
+   */
+  public VirtualThreadExecutor(@NonNull String name) {
+    if (FACTORY == null) {
+      throw new IllegalStateException(
+          "Virtual threads require Java 21 or higher, found: " + Runtime.version().feature());
+    }
+    try {
+      this.threadFactory = (ThreadFactory) FACTORY.invoke(name + "-", 0L);
+    } catch (Throwable cause) {
+      throw SneakyThrows.propagate(cause);
+    }
+  }
+
+  /**
+   * True when the running JVM supports virtual threads.
+   *
+   * @return True when the running JVM supports virtual threads.
+   */
+  public static boolean isSupported() {
+    return FACTORY != null;
+  }
+
+  @Override
+  public void execute(@NonNull Runnable task) {
+    submitted.increment();
+    active.incrementAndGet();
+    threadFactory
+        .newThread(
+            () -> {
+              try {
+                task.run();
+              } finally {
+                active.decrementAndGet();
+              }
+            })
+        .start();
+  }
+
+  /**
+   * Number of tasks submitted since creation.
+   *
+   * @return Number of tasks submitted since creation.
+   */
+  public long getSubmitted() {
+    return submitted.sum();
+  }
+
+  /**
+   * Number of tasks running or waiting to be mounted on a carrier thread.
+   *
+   * @return Number of in-flight tasks.
+   */
+  public int getActive() {
+    return active.get();
+  }
+
+  /**
+   * Number of carrier (platform) threads used by the virtual thread scheduler.
+   *
+   * @return Number of carrier threads.
+   */
+  public int getParallelism() {
+    return Integer.getInteger(
+        "jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Number of times a virtual thread blocked while pinned to its carrier thread (usually inside a
+   * <code>synchronized</code> block or native call). Always <code>0</code> unless {@link
+   * #trackPinned(Duration)} has been called.
+   *
+   * @return Number of pinned events.
+   */
+  public long getPinned() {
+    return pinned.sum();
+  }
+
+  /**
+   * Start counting pinned virtual threads. Uses the <code>jdk.VirtualThreadPinned</code> flight
+   * recorder event, so only pinned operations longer than <code>threshold</code> are counted.
+   * Routes that pin frequently should run on the worker executor, see {@link
+   * ExecutionMode#VIRTUAL}.
+   *
+   * @param threshold Minimum pinned duration.
+   * @return This executor.
+   */
+  public synchronized @NonNull VirtualThreadExecutor trackPinned(@NonNull Duration threshold) {
+    if (pinnedStream == null) {
+      RecordingStream stream = new RecordingStream();
+      stream.enable(PINNED_EVENT).withThreshold(threshold);
+      stream.onEvent(PINNED_EVENT, event -> pinned.increment());
+      stream.startAsync();
+      pinnedStream = stream;
+    }
+    return this;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (pinnedStream != null) {
+      pinnedStream.close();
+      pinnedStream = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "virtual{submitted: "
+        + getSubmitted()
+        + ", active: "
+        + getActive()
+        + ", pinned: "
+        + getPinned()
+        + "}";
+  }
+
+  /**
+   * Lookup <code>Thread.ofVirtual().name(prefix, start).factory()</code>. Core is compiled for Java
+   * 17, so the builder API is accessed via method handles.
+   *
+   * @return Method handle of type <code>(String, long)ThreadFactory</code> or <code>null</code>.
+   */
+  private static @Nullable MethodHandle factory() {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+      MethodHandle newBuilder =
+          lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtual));
+      MethodHandle name =
+          lookup.findVirtual(
+              ofVirtual, "name", MethodType.methodType(ofVirtual, String.class, long.class));
+      Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      MethodHandle factory =
+          lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+      // (String, long) -> Thread.ofVirtual().name(String, long).factory()
+      MethodHandle named = MethodHandles.foldArguments(name, newBuilder);
+      return MethodHandles.filterReturnValue(
+          named, factory.asType(MethodType.methodType(ThreadFactory.class, ofVirtual)));
+    } catch (ReflectiveOperationException | LinkageError x) {
+      return null;
+    }
+  }
+}
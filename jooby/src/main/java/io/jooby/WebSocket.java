@@ -7,6 +7,7 @@ package io.jooby;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -117,6 +118,18 @@ public interface WebSocket {
     void operationComplete(@NonNull WebSocket ws, @Nullable Throwable cause);
   }
 
+  /**
+   * What to do with a session that can't keep up with a broadcast. Set it with the <code>
+   * websocket.slowConsumer</code> property: <code>drop</code> or <code>close</code>.
+   */
+  enum SlowConsumer {
+    /** Skip the message for the slow session. This is the default. */
+    DROP,
+
+    /** Close the slow session with {@link WebSocketCloseStatus#SERVICE_OVERLOAD}. */
+    CLOSE
+  }
+
   /** Max message size for websocket (128K). */
   int MAX_BUFFER_SIZE = 131072;
 
@@ -193,6 +206,44 @@ public interface WebSocket {
    */
   void forEach(SneakyThrows.Consumer<WebSocket> callback);
 
+  /**
+   * Send a text message to all the live sessions (including this). See {@link #broadcast(Object,
+   * boolean, Predicate)}.
+   *
+   * @param message Message: String, byte array or any other value supported by a {@link
+   *     MessageEncoder}.
+   */
+  default void broadcast(@NonNull Object message) {
+    broadcast(message, false, ws -> true);
+  }
+
+  /**
+   * Send a binary message to all the live sessions (including this). See {@link #broadcast(Object,
+   * boolean, Predicate)}.
+   *
+   * @param message Message: String, byte array or any other value supported by a {@link
+   *     MessageEncoder}.
+   */
+  default void broadcastBinary(@NonNull Object message) {
+    broadcast(message, true, ws -> true);
+  }
+
+  /**
+   * Send a message to all the live sessions (including this) matching the given filter.
+   *
+   * <p>Unlike {@link #forEach(SneakyThrows.Consumer)} the message is encoded once and the same
+   * frame content is shared by all the sessions. Sessions with too many pending writes are
+   * considered slow consumers and handled according to {@link SlowConsumer}. The number of pending
+   * writes is set by the <code>websocket.maxPendingMessages</code> property (default is <code>64
+   * </code>). On Netty a session is slow when its channel isn't writable.
+   *
+   * @param message Message: String, byte array or any other value supported by a {@link
+   *     MessageEncoder}.
+   * @param binary True for binary message.
+   * @param filter Session filter.
+   */
+  void broadcast(@NonNull Object message, boolean binary, @NonNull Predicate<WebSocket> filter);
+
   /**
    * Send a text message to client.
    *
@@ -0,0 +1,61 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import com.typesafe.config.Config;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.internal.WebSocketBroadcaster;
+
+/**
+ * Broadcast settings and message encoding shared by web server implementations of {@link
+ * WebSocket#broadcast(Object, boolean, java.util.function.Predicate)}.
+ *
+ * <p>This interface is part of Public API, but direct usage is discouraged.
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+public interface WebSocketBroadcast {
+
+  /**
+   * Encode a message once, so it can be shared across sessions. Strings and byte arrays are sent as
+   * they are, anything else goes through the route encoder (like {@link WebSocket#render(Object)}).
+   *
+   * @param ctx Web context.
+   * @param ws Web socket.
+   * @param binary True for binary message.
+   * @param message Message.
+   * @return Encoded message.
+   */
+  @NonNull byte[] encode(
+      @NonNull Context ctx, @NonNull WebSocket ws, boolean binary, @NonNull Object message);
+
+  /**
+   * Slow consumer policy from <code>websocket.slowConsumer</code> property. Default is: {@link
+   * WebSocket.SlowConsumer#DROP}.
+   *
+   * @return Slow consumer policy.
+   */
+  @NonNull WebSocket.SlowConsumer getSlowConsumer();
+
+  /**
+   * Max pending writes from <code>websocket.maxPendingMessages</code> property. Default is: <code>
+   * 64</code>.
+   *
+   * @return Max pending writes.
+   */
+  int getMaxPendingMessages();
+
+  /**
+   * Creates broadcast settings from application configuration.
+   *
+   * @param conf Application configuration.
+   * @return Broadcast settings.
+   */
+  static @NonNull WebSocketBroadcast create(@NonNull Config conf) {
+    return new WebSocketBroadcaster(conf);
+  }
+}
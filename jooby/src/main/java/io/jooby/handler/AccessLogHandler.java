@@ -7,6 +7,8 @@ package io.jooby.handler;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -14,8 +16,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +30,8 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.Context;
 import io.jooby.Route;
 import io.jooby.Router;
+import io.jooby.internal.handler.AccessLogBuffer;
+import io.jooby.internal.handler.RotatingFileWriter;
 
 /**
  * Access Log Handler.
@@ -143,10 +151,40 @@ import io.jooby.Router;
  * }
  * }</pre>
  *
+ * <p>The default formatter (with or without a custom time zone) is applied once per second, log
+ * lines within the same second reuse the formatted date.
+ *
+ * <h2>async</h2>
+ *
+ * <p>By default the log line is built and written from the thread that completes the request. In
+ * async mode, the request thread copies the log fields into a preallocated ring buffer and a
+ * background thread formats and writes them in batches:
+ *
+ * <pre>{@code
+ * {
+ *   AccessLogHandler accessLog = new AccessLogHandler()
+ *       .file(Path.of("logs", "access.log"));
+ *
+ *   use(accessLog);
+ * }
+ * }</pre>
+ *
+ * <p>Lines are written to the given file (rotated by size) or to the log function when no file was
+ * set. When the buffer is full, new entries are dropped (never blocks the request) and counted, see
+ * {@link #getDropped()}. The background thread, the file and the JVM shutdown hook are released
+ * when the application stops, after writing pending entries. A handler that isn't added with <code>
+ * use</code> (composed with another filter, for example) must be registered with <code>onStop
+ * </code>.
+ *
+ * <h2>json</h2>
+ *
+ * <p>The {@link #json()} option writes one JSON object per line (JSON lines) instead of <code>NCSA
+ * </code>.
+ *
  * @author edgar
  * @since 2.5.2
  */
-public class AccessLogHandler implements Route.Filter {
+public class AccessLogHandler implements Route.Filter, AutoCloseable {
   private static final String USER_AGENT = "User-Agent";
 
   private static final String REFERER = "Referer";
@@ -166,6 +204,21 @@ public class AccessLogHandler implements Route.Filter {
   /** Default buffer size. */
   private static final int MESSAGE_SIZE = 256;
 
+  /** Default async buffer capacity. */
+  private static final int ASYNC_CAPACITY = 8192;
+
+  /** Max number of entries written by the background thread per batch. */
+  private static final int BATCH_SIZE = 512;
+
+  private static final long IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private static final long DEFAULT_MAX_FILE_SIZE = 100 * 1024 * 1024;
+
+  private static final int DEFAULT_MAX_FILES = 10;
+
+  /** Formatted date for a given second. */
+  private record CachedDate(long second, String value) {}
+
   /** The logging system. */
   private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -179,6 +232,32 @@ public class AccessLogHandler implements Route.Filter {
 
   private List<String> responseHeaders = Collections.emptyList();
 
+  private boolean cacheBySecond;
+
+  private volatile CachedDate cachedDate = new CachedDate(Long.MIN_VALUE, null);
+
+  private boolean json;
+
+  private int capacity;
+
+  private Path file;
+
+  private long maxFileSize;
+
+  private int maxFiles;
+
+  private AccessLogBuffer buffer;
+
+  private Thread writer;
+
+  private Thread shutdownHook;
+
+  private RotatingFileWriter fileWriter;
+
+  private volatile boolean running;
+
+  private final LongAdder written = new LongAdder();
+
   /**
    * Creates a new {@link AccessLogHandler} and use the given function and userId provider. Please
    * note, if the user isn't present this function is allowed to returns <code>-</code> (dash
@@ -188,7 +267,7 @@ public class AccessLogHandler implements Route.Filter {
    */
   public AccessLogHandler(@NonNull Function<Context, String> userId) {
     this.userId = requireNonNull(userId, "User ID provider required.");
-    dateFormatter(FORMATTER);
+    dateFormatter(FORMATTER, true);
   }
 
   /** Creates a new {@link AccessLogHandler} without user identifier. */
@@ -198,53 +277,385 @@ public class AccessLogHandler implements Route.Filter {
 
   @NonNull @Override
   public Route.Handler apply(@NonNull Route.Handler next) {
-    long timestamp = System.currentTimeMillis();
+    AccessLogBuffer buffer = capacity > 0 ? start() : null;
     return ctx -> {
+      long timestamp = System.currentTimeMillis();
       // Take remote address here (less chances of loosing it on interrupted requests).
       String remoteAddr = ctx.getRemoteAddress();
       ctx.onComplete(
           context -> {
-            StringBuilder sb = new StringBuilder(MESSAGE_SIZE);
-            sb.append(remoteAddr);
-            sb.append(SP).append(DASH).append(SP);
-            sb.append(userId.apply(ctx));
-            sb.append(SP);
-            sb.append(BL).append(df.apply(timestamp)).append(BR);
-            sb.append(SP);
-            sb.append(Q).append(ctx.getMethod());
-            sb.append(SP);
-            sb.append(ctx.getRequestPath());
-            sb.append(ctx.queryString());
-            sb.append(SP);
-            sb.append(ctx.getProtocol());
-            sb.append(Q).append(SP);
-            sb.append(ctx.getResponseCode().value());
-            sb.append(SP);
-            long responseLength = ctx.getResponseLength();
-            sb.append(responseLength >= 0 ? responseLength : DASH);
-            long now = System.currentTimeMillis();
-            sb.append(SP);
-            sb.append(now - timestamp);
-            appendHeaders(sb, requestHeaders, h -> ctx.header(h).valueOrNull());
-            appendHeaders(sb, responseHeaders, h -> ctx.getResponseHeader(h));
-            logRecord.accept(sb.toString());
+            if (buffer == null) {
+              StringBuilder sb = new StringBuilder(MESSAGE_SIZE);
+              format(sb, ctx, remoteAddr, timestamp);
+              logRecord.accept(sb.toString());
+            } else {
+              long position = buffer.claim();
+              if (position >= 0) {
+                try {
+                  fill(buffer.entry(position), ctx, remoteAddr, timestamp);
+                } finally {
+                  buffer.publish(position);
+                }
+              }
+            }
           });
       return next.apply(ctx);
     };
   }
 
-  private void appendHeaders(
-      StringBuilder buff, List<String> requestHeaders, Function<String, String> headers) {
+  /**
+   * Number of log entries dropped because the async buffer was full.
+   *
+   * @return Number of log entries dropped because the async buffer was full.
+   */
+  public long getDropped() {
+    AccessLogBuffer buffer = this.buffer;
+    return buffer == null ? 0 : buffer.getDropped();
+  }
+
+  /**
+   * Number of log entries written by the async writer.
+   *
+   * @return Number of log entries written by the async writer.
+   */
+  public long getWritten() {
+    return written.sum();
+  }
+
+  /**
+   * Stop the async writer (if any) after writing pending entries.
+   *
+   * @throws InterruptedException If interrupted while waiting for the writer.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    Thread writer;
+    synchronized (this) {
+      writer = this.writer;
+      running = false;
+      if (shutdownHook != null && shutdownHook != Thread.currentThread()) {
+        try {
+          Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException x) {
+          // shutdown in progress
+        }
+      }
+      shutdownHook = null;
+    }
+    if (writer != null) {
+      LockSupport.unpark(writer);
+      writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+  }
+
+  private synchronized AccessLogBuffer start() {
+    if (buffer == null) {
+      buffer = new AccessLogBuffer(capacity, requestHeaders.size(), responseHeaders.size());
+      if (file != null) {
+        fileWriter = new RotatingFileWriter(file, maxFileSize, maxFiles);
+      }
+      running = true;
+      writer = new Thread(this::writeLoop, "access-log");
+      writer.setDaemon(true);
+      writer.start();
+      // flush pending entries on JVM shutdown, when the application isn't stopped
+      shutdownHook = new Thread(this::shutdown, "access-log-shutdown");
+      Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+    return buffer;
+  }
+
+  private void shutdown() {
+    try {
+      close();
+    } catch (InterruptedException x) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void writeLoop() {
+    AccessLogBuffer buffer = this.buffer;
+    StringBuilder batch = new StringBuilder(MESSAGE_SIZE * BATCH_SIZE);
+    Consumer<AccessLogBuffer.Entry> reader;
+    if (fileWriter == null) {
+      reader =
+          entry -> {
+            format(batch, entry);
+            logRecord.accept(batch.toString());
+            batch.setLength(0);
+          };
+    } else {
+      reader = entry -> format(batch, entry).append(System.lineSeparator());
+    }
+    while (true) {
+      // read flag before draining, so nothing published before close is lost
+      boolean running = this.running;
+      int count;
+      try {
+        count = buffer.drain(reader, BATCH_SIZE);
+        if (fileWriter != null && batch.length() > 0) {
+          fileWriter.write(batch);
+        }
+      } catch (Exception x) {
+        log.error("access log write resulted in exception", x);
+        count = 0;
+      } finally {
+        batch.setLength(0);
+      }
+      written.add(count);
+      if (count == 0) {
+        if (!running) {
+          break;
+        }
+        LockSupport.parkNanos(IDLE_WAIT);
+      }
+    }
+    if (fileWriter != null) {
+      try {
+        fileWriter.close();
+      } catch (IOException x) {
+        log.error("access log close resulted in exception", x);
+      }
+    }
+  }
+
+  private void fill(AccessLogBuffer.Entry entry, Context ctx, String remoteAddr, long timestamp) {
+    entry.remoteAddress = remoteAddr;
+    entry.user = userId.apply(ctx);
+    entry.timestamp = timestamp;
+    entry.method = ctx.getMethod();
+    entry.path = ctx.getRequestPath();
+    entry.query = ctx.queryString();
+    entry.protocol = ctx.getProtocol();
+    entry.status = ctx.getResponseCode().value();
+    entry.length = ctx.getResponseLength();
+    entry.latency = System.currentTimeMillis() - timestamp;
+    for (int i = 0; i < entry.requestHeaders.length; i++) {
+      entry.requestHeaders[i] = ctx.header(requestHeaders.get(i)).valueOrNull();
+    }
+    for (int i = 0; i < entry.responseHeaders.length; i++) {
+      entry.responseHeaders[i] = ctx.getResponseHeader(responseHeaders.get(i));
+    }
+  }
+
+  /** Format a buffered entry (async mode). */
+  private StringBuilder format(StringBuilder sb, AccessLogBuffer.Entry entry) {
+    if (json) {
+      json(
+          sb,
+          entry.remoteAddress,
+          entry.user,
+          entry.timestamp,
+          entry.method,
+          entry.path,
+          entry.query,
+          entry.protocol,
+          entry.status,
+          entry.length,
+          entry.latency);
+      jsonHeaders(sb, "requestHeaders", requestHeaders, i -> entry.requestHeaders[i]);
+      jsonHeaders(sb, "responseHeaders", responseHeaders, i -> entry.responseHeaders[i]);
+      return sb.append('}');
+    }
+    ncsa(
+        sb,
+        entry.remoteAddress,
+        entry.user,
+        entry.timestamp,
+        entry.method,
+        entry.path,
+        entry.query,
+        entry.protocol,
+        entry.status,
+        entry.length,
+        entry.latency);
+    for (String value : entry.requestHeaders) {
+      appendHeader(sb, value);
+    }
+    for (String value : entry.responseHeaders) {
+      appendHeader(sb, value);
+    }
+    return sb;
+  }
+
+  /** Format straight from the context (sync mode), without copying fields into an entry. */
+  private StringBuilder format(StringBuilder sb, Context ctx, String remoteAddr, long timestamp) {
+    String user = userId.apply(ctx);
+    long length = ctx.getResponseLength();
+    long latency = System.currentTimeMillis() - timestamp;
+    if (json) {
+      json(
+          sb,
+          remoteAddr,
+          user,
+          timestamp,
+          ctx.getMethod(),
+          ctx.getRequestPath(),
+          ctx.queryString(),
+          ctx.getProtocol(),
+          ctx.getResponseCode().value(),
+          length,
+          latency);
+      jsonHeaders(
+          sb,
+          "requestHeaders",
+          requestHeaders,
+          i -> ctx.header(requestHeaders.get(i)).valueOrNull());
+      jsonHeaders(
+          sb,
+          "responseHeaders",
+          responseHeaders,
+          i -> ctx.getResponseHeader(responseHeaders.get(i)));
+      return sb.append('}');
+    }
+    ncsa(
+        sb,
+        remoteAddr,
+        user,
+        timestamp,
+        ctx.getMethod(),
+        ctx.getRequestPath(),
+        ctx.queryString(),
+        ctx.getProtocol(),
+        ctx.getResponseCode().value(),
+        length,
+        latency);
     for (String header : requestHeaders) {
-      String value = headers.apply(header);
-      if (value == null) {
-        buff.append(SP).append(Q).append(DASH).append(Q);
-      } else {
-        buff.append(SP).append(Q).append(value).append(Q);
+      appendHeader(sb, ctx.header(header).valueOrNull());
+    }
+    for (String header : responseHeaders) {
+      appendHeader(sb, ctx.getResponseHeader(header));
+    }
+    return sb;
+  }
+
+  private void ncsa(
+      StringBuilder sb,
+      String remoteAddress,
+      String user,
+      long timestamp,
+      String method,
+      String path,
+      String query,
+      String protocol,
+      int status,
+      long length,
+      long latency) {
+    sb.append(remoteAddress);
+    sb.append(SP).append(DASH).append(SP);
+    sb.append(user);
+    sb.append(SP);
+    sb.append(BL).append(date(timestamp)).append(BR);
+    sb.append(SP);
+    sb.append(Q).append(method);
+    sb.append(SP);
+    sb.append(path);
+    sb.append(query);
+    sb.append(SP);
+    sb.append(protocol);
+    sb.append(Q).append(SP);
+    sb.append(status);
+    sb.append(SP);
+    if (length >= 0) {
+      sb.append(length);
+    } else {
+      sb.append(DASH);
+    }
+    sb.append(SP);
+    sb.append(latency);
+  }
+
+  private static void appendHeader(StringBuilder buff, String value) {
+    buff.append(SP).append(Q).append(value == null ? DASH : value).append(Q);
+  }
+
+  /** Write all the fields but headers, object is left open. */
+  private void json(
+      StringBuilder sb,
+      String remoteAddress,
+      String user,
+      long timestamp,
+      String method,
+      String path,
+      String query,
+      String protocol,
+      int status,
+      long length,
+      long latency) {
+    sb.append('{');
+    jsonField(sb, "remoteAddress", remoteAddress).append(',');
+    jsonField(sb, "user", user).append(',');
+    jsonField(sb, "date", date(timestamp)).append(',');
+    sb.append("\"timestamp\":").append(timestamp).append(',');
+    jsonField(sb, "method", method).append(',');
+    jsonField(sb, "path", path).append(',');
+    jsonField(sb, "query", query.isEmpty() ? null : query).append(',');
+    jsonField(sb, "protocol", protocol).append(',');
+    sb.append("\"status\":").append(status).append(',');
+    sb.append("\"length\":");
+    if (length >= 0) {
+      sb.append(length);
+    } else {
+      sb.append("null");
+    }
+    sb.append(',');
+    sb.append("\"latency\":").append(latency);
+  }
+
+  private static void jsonHeaders(
+      StringBuilder sb, String name, List<String> names, IntFunction<String> values) {
+    if (!names.isEmpty()) {
+      sb.append(",\"").append(name).append("\":{");
+      for (int i = 0; i < names.size(); i++) {
+        if (i > 0) {
+          sb.append(',');
+        }
+        jsonField(sb, names.get(i), values.apply(i));
       }
+      sb.append('}');
     }
   }
 
+  private static StringBuilder jsonField(StringBuilder sb, String name, String value) {
+    jsonString(sb, name).append(':');
+    return value == null ? sb.append("null") : jsonString(sb, value);
+  }
+
+  private static StringBuilder jsonString(StringBuilder sb, String value) {
+    sb.append(Q);
+    for (int i = 0; i < value.length(); i++) {
+      char ch = value.charAt(i);
+      switch (ch) {
+        case '"' -> sb.append("\\\"");
+        case '\\' -> sb.append("\\\\");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        case '\t' -> sb.append("\\t");
+        default -> {
+          if (ch < 0x20) {
+            sb.append(String.format("\\u%04x", (int) ch));
+          } else {
+            sb.append(ch);
+          }
+        }
+      }
+    }
+    return sb.append(Q);
+  }
+
+  private String date(long timestamp) {
+    if (!cacheBySecond) {
+      return df.apply(timestamp);
+    }
+    long second = Math.floorDiv(timestamp, 1000L);
+    CachedDate cached = this.cachedDate;
+    if (cached.second != second) {
+      cached = new CachedDate(second, df.apply(timestamp));
+      this.cachedDate = cached;
+    }
+    return cached.value;
+  }
+
   /**
    * Log an NCSA line to somewhere.
    *
@@ -271,7 +682,13 @@ public class AccessLogHandler implements Route.Filter {
    * @return This instance.
    */
   public @NonNull AccessLogHandler dateFormatter(@NonNull DateTimeFormatter formatter) {
-    return dateFormatter(ts -> formatter.format(Instant.ofEpochMilli(ts)));
+    return dateFormatter(formatter, false);
+  }
+
+  private AccessLogHandler dateFormatter(DateTimeFormatter formatter, boolean cacheBySecond) {
+    dateFormatter(ts -> formatter.format(Instant.ofEpochMilli(ts)));
+    this.cacheBySecond = cacheBySecond;
+    return this;
   }
 
   /**
@@ -283,6 +700,8 @@ public class AccessLogHandler implements Route.Filter {
   public @NonNull AccessLogHandler dateFormatter(final Function<Long, String> formatter) {
     requireNonNull(formatter, "Formatter required.");
     this.df = formatter;
+    this.cacheBySecond = false;
+    this.cachedDate = new CachedDate(Long.MIN_VALUE, null);
     return this;
   }
 
@@ -293,7 +712,7 @@ public class AccessLogHandler implements Route.Filter {
    * @return This instance.
    */
   public @NonNull AccessLogHandler dateFormatter(@NonNull ZoneId zoneId) {
-    return dateFormatter(FORMATTER.withZone(zoneId));
+    return dateFormatter(FORMATTER.withZone(zoneId), true);
   }
 
   /**
@@ -326,4 +745,74 @@ public class AccessLogHandler implements Route.Filter {
     this.responseHeaders = Arrays.asList(names);
     return this;
   }
+
+  /**
+   * Write log entries as JSON lines, one JSON object per request:
+   *
+   * <pre>{@code
+   * {"remoteAddress":"127.0.0.1","user":"-","date":"04/Oct/2016:17:51:42 +0000","timestamp":1475603502000,"method":"GET","path":"/","query":null,"protocol":"HTTP/1.1","status":200,"length":2,"latency":3}
+   * }</pre>
+   *
+   * @return This instance.
+   */
+  public @NonNull AccessLogHandler json() {
+    this.json = true;
+    return this;
+  }
+
+  /**
+   * Write log entries from a background thread. Log entries are copied into a ring buffer of <code>
+   * 8192</code> entries. Entries are dropped when the buffer is full.
+   *
+   * @return This instance.
+   */
+  public @NonNull AccessLogHandler async() {
+    return async(ASYNC_CAPACITY);
+  }
+
+  /**
+   * Write log entries from a background thread. Log entries are copied into a ring buffer of the
+   * given capacity (rounded up to a power of two). Entries are dropped when the buffer is full.
+   *
+   * @param capacity Buffer capacity.
+   * @return This instance.
+   */
+  public @NonNull AccessLogHandler async(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be greater than zero: " + capacity);
+    }
+    this.capacity = capacity;
+    return this;
+  }
+
+  /**
+   * Write log entries to the given file. File is rotated once it reaches <code>100mb</code>,
+   * keeping up to <code>10</code> rotated files. Turns on {@link #async()} mode.
+   *
+   * @param file Log file.
+   * @return This instance.
+   */
+  public @NonNull AccessLogHandler file(@NonNull Path file) {
+    return file(file, DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_FILES);
+  }
+
+  /**
+   * Write log entries to the given file. Turns on {@link #async()} mode.
+   *
+   * @param file Log file.
+   * @param maxFileSize File is rotated once it reaches this size in bytes. Zero or negative turns
+   *     off rotation.
+   * @param maxFiles Number of rotated files to keep, named <code>file.1</code>, <code>file.2</code>
+   *     , etc.
+   * @return This instance.
+   */
+  public @NonNull AccessLogHandler file(@NonNull Path file, long maxFileSize, int maxFiles) {
+    this.file = requireNonNull(file, "File required.");
+    this.maxFileSize = maxFileSize;
+    this.maxFiles = maxFiles;
+    if (capacity == 0) {
+      capacity = ASYNC_CAPACITY;
+    }
+    return this;
+  }
 }
@@ -7,8 +7,11 @@ package io.jooby.handler;
 
 import static java.util.Objects.requireNonNull;
 
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
-import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
@@ -17,7 +20,10 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.Context;
 import io.jooby.MediaType;
 import io.jooby.Route;
+import io.jooby.SneakyThrows;
 import io.jooby.StatusCode;
+import io.jooby.internal.AssetCache;
+import io.jooby.internal.AssetCompressor;
 
 /**
  * Handler for static resources represented by the {@link Asset} contract.
@@ -27,9 +33,12 @@ import io.jooby.StatusCode;
  * @author edgar
  * @since 2.0.0
  */
-public class AssetHandler implements Route.Handler {
+public class AssetHandler implements Route.Handler, AutoCloseable {
   private static final int ONE_SEC = 1000;
 
+  /** Sidecar encodings in order of preference. */
+  private static final List<String> ENCODINGS = List.of(AssetCompressor.BR, AssetCompressor.GZIP);
+
   private final AssetSource[] sources;
 
   private final CacheControl defaults = CacheControl.defaults();
@@ -42,6 +51,12 @@ public class AssetHandler implements Route.Handler {
 
   private Function<Asset, MediaType> mediaTypeResolver = Asset::getContentType;
 
+  private int maxPinnedSize;
+
+  private boolean precompressed;
+
+  private volatile AssetCache cache = new AssetCache(maxPinnedSize);
+
   /**
    * Creates a new asset handler that fallback to the given fallback asset when the asset is not
    * found. Instead of produces a <code>404</code> its fallback to the given asset.
@@ -73,49 +88,86 @@ public class AssetHandler implements Route.Handler {
 
   @NonNull @Override
   public Object apply(@NonNull Context ctx) throws Exception {
-    final String resolvedPath;
     String filepath = ctx.path(filekey).value("index.html");
-    Asset asset = resolve(filepath);
-    if (asset == null) {
-      if (fallback != null) {
-        asset = resolve(fallback);
-      }
-      // Still null?
-      if (asset == null) {
-        ctx.send(StatusCode.NOT_FOUND);
-        return ctx;
-      } else {
+    Asset asset = null;
+    AssetCache.Entry entry = lookup(filepath);
+    if (entry == null) {
+      String resolvedPath = filepath;
+      asset = resolve(filepath);
+      if (asset == null && fallback != null) {
         resolvedPath = fallback;
+        entry = lookup(fallback);
+        if (entry == null) {
+          asset = resolve(fallback);
+        }
+      }
+      if (entry == null) {
+        // Still null?
+        if (asset == null) {
+          ctx.send(StatusCode.NOT_FOUND);
+          return ctx;
+        }
+        AssetCache cache = this.cache;
+        if (cache == null) {
+          entry = AssetCache.newEntry(resolvedPath, asset, mediaTypeResolver);
+        } else {
+          entry = cache.put(resolvedPath, asset, mediaTypeResolver);
+          if (entry.getContent() != null) {
+            // pinned: asset was consumed
+            asset.close();
+            asset = null;
+          }
+        }
       }
-    } else {
-      resolvedPath = filepath;
     }
 
-    CacheControl cacheParams = cacheControl.apply(resolvedPath);
+    CacheControl cacheParams = cacheControl.apply(entry.getPath());
+
+    // pre-compressed variant, byte ranges are served from the original asset
+    AssetCache.Entry variant = null;
+    if (precompressed) {
+      ctx.setResponseHeader("Vary", "Accept-Encoding");
+      String acceptEncoding = ctx.header("Accept-Encoding").valueOrNull();
+      if (acceptEncoding != null && ctx.header("Range").isMissing()) {
+        AssetCache.Entry primary = entry;
+        for (String encoding : ENCODINGS) {
+          if (accepts(acceptEncoding, encoding)) {
+            variant = entry.getEncoded(encoding, key -> encoded(primary, key));
+            if (variant != null) {
+              close(asset);
+              asset = null;
+              ctx.setResponseHeader("Content-Encoding", encoding);
+              break;
+            }
+          }
+        }
+      }
+    }
+    AssetCache.Entry target = variant == null ? entry : variant;
 
     // handle If-None-Match
     if (cacheParams.isEtag()) {
       String ifnm = ctx.header("If-None-Match").valueOrNull();
-      if (ifnm != null && ifnm.equals(asset.getEtag())) {
+      if (ifnm != null && ifnm.equals(target.getEtag())) {
         ctx.send(StatusCode.NOT_MODIFIED);
-        asset.close();
+        close(asset);
         return ctx;
       } else {
-        ctx.setResponseHeader("ETag", asset.getEtag());
+        ctx.setResponseHeader("ETag", target.getEtag());
       }
     }
 
     // Handle If-Modified-Since
     if (cacheParams.isLastModified()) {
-      long lastModified = asset.getLastModified();
+      long lastModified = target.getLastModified();
       if (lastModified > 0) {
         long ifms = ctx.header("If-Modified-Since").longValue(-1);
         if (lastModified / ONE_SEC <= ifms / ONE_SEC) {
           ctx.send(StatusCode.NOT_MODIFIED);
-          asset.close();
+          close(asset);
           return ctx;
         }
-        ctx.setResponseHeader("Last-Modified", Instant.ofEpochMilli(lastModified));
+        ctx.setResponseHeader("Last-Modified", target.getLastModifiedHeader());
       }
     }
 
@@ -126,11 +178,30 @@ public class AssetHandler implements Route.Handler {
       ctx.setResponseHeader("Cache-Control", "no-store, must-revalidate");
     }
 
-    long length = asset.getSize();
+    ctx.setResponseType(entry.getContentType());
+
+    // pinned asset, byte ranges are handled by stream response
+    ByteBuffer content = target.getContent();
+    if (content != null && ctx.header("Range").isMissing()) {
+      close(asset);
+      return ctx.send(content);
+    }
+
+    long length = target.getSize();
     if (length != -1) {
       ctx.setResponseLength(length);
     }
-    ctx.setResponseType(mediaTypeResolver.apply(asset));
+    if (variant != null && variant.getFile() != null) {
+      return ctx.send(FileChannel.open(variant.getFile()));
+    }
+    if (asset == null) {
+      Path file = target.getFile();
+      asset = file == null ? resolve(target.getPath()) : Asset.create(file);
+      if (asset == null) {
+        ctx.send(StatusCode.NOT_FOUND);
+        return ctx;
+      }
+    }
     return ctx.send(asset.stream());
   }
 
@@ -217,6 +288,68 @@ public class AssetHandler implements Route.Handler {
     return this;
   }
 
+  /**
+   * Turn on/off the asset cache. The cache keeps asset metadata (size, last modified, etag and
+   * media type) so assets are resolved once. File system assets are invalidated when the file
+   * changes, classpath assets never change. Default is: <code>true</code>.
+   *
+   * @param cache True for turning on the cache.
+   * @return This handler.
+   */
+  public AssetHandler setCache(boolean cache) {
+    replaceCache(cache ? new AssetCache(maxPinnedSize) : null);
+    return this;
+  }
+
+  /**
+   * Keep assets up to given size (in bytes) in direct memory and send them without touching the
+   * source again. Pinned assets use a strong ETag computed from their content. Requires the asset
+   * cache, see {@link #setCache(boolean)}. Default is: <code>0</code> (off).
+   *
+   * @param maxSize Max size in bytes of a pinned asset.
+   * @return This handler.
+   */
+  public AssetHandler setMaxPinnedSize(int maxSize) {
+    this.maxPinnedSize = maxSize;
+    if (cache != null) {
+      replaceCache(new AssetCache(maxSize));
+    }
+    return this;
+  }
+
+  /**
+   * Release the asset cache and stop watching file system assets. Called on application shutdown
+   * when the handler was added via {@link io.jooby.Router#assets(String, AssetHandler)}.
+   */
+  @Override
+  public void close() {
+    replaceCache(null);
+  }
+
+  private void replaceCache(AssetCache cache) {
+    AssetCache previous = this.cache;
+    this.cache = cache;
+    if (previous != null) {
+      previous.close();
+    }
+  }
+
+  /**
+   * Turn on/off serving of pre-compressed assets. When on, a request with an {@code
+   * Accept-Encoding} header of <code>br</code> or <code>gzip</code> is served from a sidecar file (
+   * <code>app.js.br</code> or <code>app.js.gz</code>) if there is one. Sidecars are generated at
+   * build time by the <code>compress</code> goal of the Maven and Gradle plugins. Responses with a
+   * {@code Content-Encoding} header are not compressed again by the server. Default is: <code>false
+   * </code>.
+   *
+   * @param precompressed True for turning on.
+   * @return This handler.
+   */
+  public AssetHandler setPrecompressed(boolean precompressed) {
+    this.precompressed = precompressed;
+    return this;
+  }
+
   /**
    * Sets a custom function that provides caching configuration for each individual asset response
    * overriding the defaults set in {@link AssetHandler}.
@@ -230,6 +363,75 @@ public class AssetHandler implements Route.Handler {
     return this;
   }
 
+  private AssetCache.Entry lookup(String filepath) {
+    AssetCache cache = this.cache;
+    return cache == null ? null : cache.get(filepath);
+  }
+
+  /**
+   * Find sidecar of the given entry. File system assets look for a sibling file, anything else is
+   * resolved from asset sources.
+   */
+  private AssetCache.Entry encoded(AssetCache.Entry entry, String encoding) {
+    String path = entry.getPath() + AssetCompressor.extension(encoding);
+    Function<Asset, MediaType> type = it -> entry.getContentType();
+    Path file = entry.getFile();
+    if (file != null) {
+      Path sidecar = file.resolveSibling(file.getFileName() + AssetCompressor.extension(encoding));
+      return Files.isRegularFile(sidecar)
+          ? AssetCache.newEntry(path, Asset.create(sidecar), type)
+          : null;
+    }
+    Asset asset = resolve(path);
+    if (asset == null) {
+      return null;
+    }
+    try (asset) {
+      return AssetCache.newEntry(path, asset, type);
+    } catch (Exception x) {
+      throw SneakyThrows.propagate(x);
+    }
+  }
+
+  /**
+   * True when encoding is accepted (explicitly or by <code>*</code>) with a non zero quality.
+   *
+   * @param header Accept-Encoding header.
+   * @param encoding Encoding.
+   * @return True when encoding is accepted.
+   */
+  static boolean accepts(String header, String encoding) {
+    boolean wildcard = false;
+    for (String value : header.split(",")) {
+      String[] parts = value.split(";");
+      String name = parts[0].trim();
+      float q = 1;
+      for (int i = 1; i < parts.length; i++) {
+        String param = parts[i].trim();
+        if (param.startsWith("q=")) {
+          try {
+            q = Float.parseFloat(param.substring(2).trim());
+          } catch (NumberFormatException x) {
+            q = 0;
+          }
+        }
+      }
+      if (name.equalsIgnoreCase(encoding)) {
+        return q > 0;
+      }
+      if (name.equals("*")) {
+        wildcard = q > 0;
+      }
+    }
+    return wildcard;
+  }
+
+  private static void close(Asset asset) throws Exception {
+    if (asset != null) {
+      asset.close();
+    }
+  }
+
   private Asset resolve(String filepath) {
     for (AssetSource source : sources) {
       Asset asset = source.resolve(filepath);
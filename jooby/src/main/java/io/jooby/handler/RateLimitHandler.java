@@ -7,8 +7,8 @@ package io.jooby.handler;
 
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -18,6 +18,7 @@ import io.jooby.Context;
 import io.jooby.Route;
 import io.jooby.SneakyThrows;
 import io.jooby.StatusCode;
+import io.jooby.internal.handler.BoundedStore;
 
 /**
  * Rate limit handler using https://github.com/vladimir-bukhtoyarov/bucket4j.
@@ -77,9 +78,18 @@ import io.jooby.StatusCode;
  * @since 2.5.2
  */
 public class RateLimitHandler implements Route.Before {
+  /** Default maximum number of keys (per key buckets). */
+  public static final int DEFAULT_MAX_KEYS = 100_000;
+
+  /** Default idle timeout of per key buckets. */
+  public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofHours(1);
 
   private final Function<Context, Bucket> factory;
 
+  private final BoundedStore<Bucket> buckets;
+
+  private final LongAdder rejected = new LongAdder();
+
   /**
    * Rate limit per IP/Remote Address.
    *
@@ -109,7 +119,29 @@ public class RateLimitHandler implements Route.Before {
   public RateLimitHandler(
       @NonNull SneakyThrows.Function<String, Bucket> bucketFactory,
       @NonNull SneakyThrows.Function<Context, String> classifier) {
-    this(byKey(bucketFactory, classifier));
+    this(bucketFactory, classifier, DEFAULT_MAX_KEYS, DEFAULT_IDLE_TIMEOUT);
+  }
+
+  /**
+   * Rate limiter with a custom key provider and bounded bucket store. Buckets not used within the
+   * idle timeout are discarded. Once the store reaches the maximum number of keys, least recently
+   * used buckets are discarded. A discarded bucket is created again (full) on next request, so the
+   * idle timeout should be greater than the bucket refill period.
+   *
+   * @param bucketFactory Bucket factory.
+   * @param classifier Key provider.
+   * @param maxKeys Maximum number of buckets to keep in memory.
+   * @param idleTimeout Discard buckets not used within this time.
+   */
+  public RateLimitHandler(
+      @NonNull SneakyThrows.Function<String, Bucket> bucketFactory,
+      @NonNull SneakyThrows.Function<Context, String> classifier,
+      int maxKeys,
+      @NonNull Duration idleTimeout) {
+    this(
+        new BoundedStore<>(maxKeys, idleTimeout.toNanos(), System::nanoTime),
+        bucketFactory,
+        classifier);
   }
 
   /**
@@ -118,11 +150,19 @@ public class RateLimitHandler implements Route.Before {
    * @param bucket Bucket to use.
    */
   public RateLimitHandler(@NonNull Bucket bucket) {
-    this((Function<Context, Bucket>) ctx -> bucket);
+    this((Function<Context, Bucket>) ctx -> bucket, null);
+  }
+
+  private RateLimitHandler(
+      BoundedStore<Bucket> buckets,
+      SneakyThrows.Function<String, Bucket> bucketFactory,
+      SneakyThrows.Function<Context, String> classifier) {
+    this(ctx -> buckets.get(classifier.apply(ctx), bucketFactory), buckets);
   }
 
-  private RateLimitHandler(Function<Context, Bucket> factory) {
+  private RateLimitHandler(Function<Context, Bucket> factory, BoundedStore<Bucket> buckets) {
     this.factory = factory;
+    this.buckets = buckets;
   }
 
   /**
@@ -159,7 +199,7 @@ public class RateLimitHandler implements Route.Before {
       @NonNull SneakyThrows.Function<String, Bucket> proxyManager,
       @NonNull SneakyThrows.Function<Context, String> classifier) {
     return new RateLimitHandler(
-        (Function<Context, Bucket>) ctx -> proxyManager.apply(classifier.apply(ctx)));
+        (Function<Context, Bucket>) ctx -> proxyManager.apply(classifier.apply(ctx)), null);
   }
 
   @Override
@@ -173,14 +213,36 @@ public class RateLimitHandler implements Route.Before {
       ctx.setResponseHeader(
           "X-Rate-Limit-Retry-After-Milliseconds",
           NANOSECONDS.toMillis(probe.getNanosToWaitForRefill()));
+      rejected.increment();
       ctx.send(StatusCode.TOO_MANY_REQUESTS);
     }
   }
 
-  private static Function<Context, Bucket> byKey(
-      SneakyThrows.Function<String, Bucket> bucketFactory,
-      SneakyThrows.Function<Context, String> classifier) {
-    Map<String, Bucket> buckets = new ConcurrentHashMap<>();
-    return ctx -> buckets.computeIfAbsent(classifier.apply(ctx), bucketFactory);
+  /**
+   * Number of rejected requests.
+   *
+   * @return Number of rejected requests.
+   */
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  /**
+   * Number of per key buckets discarded due to idle timeout or maximum number of keys. Always
+   * <code>0</code> for shared and cluster buckets.
+   *
+   * @return Number of per key buckets discarded.
+   */
+  public long getEvicted() {
+    return buckets == null ? 0 : buckets.getEvicted();
+  }
+
+  /**
+   * Number of per key buckets in memory. Always <code>0</code> for shared and cluster buckets.
+   *
+   * @return Number of per key buckets in memory.
+   */
+  public int getKeys() {
+    return buckets == null ? 0 : buckets.size();
   }
 }
@@ -0,0 +1,408 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.jooby.Context;
+import io.jooby.MediaType;
+import io.jooby.SneakyThrows;
+import io.jooby.handler.Asset;
+
+/**
+ * Asset metadata cache used by {@link io.jooby.handler.AssetHandler}. Entries are keyed by asset
+ * path and hold everything required to answer a request without resolving the asset again.
+ *
+ * <ul>
+ *   <li>File system assets are invalidated by a {@link WatchService} registered on their parent
+ *       directory.
+ *   <li>Classpath assets (jar files or any other url) are immutable.
+ * </ul>
+ *
+ * Small assets might be pinned in direct memory, pinned assets get a strong ETag computed from
+ * their content.
+ *
+ * <p>The watch service is shared by all caches. It is created on first registration and closed once
+ * the last cache is closed.
+ */
+public class AssetCache implements AutoCloseable {
+
+  /** Asset metadata. */
+  public static class Entry {
+    private final String path;
+
+    private final long size;
+
+    private final long lastModified;
+
+    private final String lastModifiedHeader;
+
+    private final String etag;
+
+    private final MediaType type;
+
+    private final Path file;
+
+    private final ByteBuffer content;
+
+    /** Pre-compressed variants by content encoding, resolved on first access. */
+    private final Map<String, Optional<Entry>> encoded = new ConcurrentHashMap<>(2);
+
+    private Entry(
+        String path,
+        long size,
+        long lastModified,
+        String etag,
+        MediaType type,
+        Path file,
+        ByteBuffer content) {
+      this.path = path;
+      this.size = size;
+      this.lastModified = lastModified;
+      this.lastModifiedHeader =
+          lastModified > 0 ? Context.RFC1123.format(Instant.ofEpochMilli(lastModified)) : null;
+      this.etag = etag;
+      this.type = type;
+      this.file = file;
+      this.content = content;
+    }
+
+    /**
+     * Asset path, might be the fallback path.
+     *
+     * @return Asset path.
+     */
+    public @NonNull String getPath() {
+      return path;
+    }
+
+    public long getSize() {
+      return size;
+    }
+
+    public long getLastModified() {
+      return lastModified;
+    }
+
+    public @Nullable String getLastModifiedHeader() {
+      return lastModifiedHeader;
+    }
+
+    public @NonNull String getEtag() {
+      return etag;
+    }
+
+    public @NonNull MediaType getContentType() {
+      return type;
+    }
+
+    /**
+     * File system location or <code>null</code> for classpath assets.
+     *
+     * @return File system location or <code>null</code> for classpath assets.
+     */
+    public @Nullable Path getFile() {
+      return file;
+    }
+
+    /**
+     * Pinned content, a read-only view. Or <code>null</code> when asset isn't pinned.
+     *
+     * @return Pinned content or <code>null</code>.
+     */
+    public @Nullable ByteBuffer getContent() {
+      return content == null ? null : content.duplicate();
+    }
+
+    /**
+     * Pre-compressed variant of this asset (a sidecar file like <code>app.js.gz</code>). Loader is
+     * called once per encoding.
+     *
+     * @param encoding Content encoding.
+     * @param loader Variant loader, might returns <code>null</code>.
+     * @return Variant or <code>null</code>.
+     */
+    public @Nullable Entry getEncoded(
+        @NonNull String encoding, @NonNull Function<String, Entry> loader) {
+      return encoded
+          .computeIfAbsent(encoding, key -> Optional.ofNullable(loader.apply(key)))
+          .orElse(null);
+    }
+  }
+
+  private static final int MAX_ENTRIES = 4096;
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /** Incremented on invalidation. Entries read before an invalidation are not cached. */
+  private final AtomicLong generation = new AtomicLong();
+
+  private final int maxPinnedSize;
+
+  /**
+   * Creates a new cache.
+   *
+   * @param maxPinnedSize Assets up to this size (in bytes) are kept in direct memory. Zero or
+   *     negative turn off pinning.
+   */
+  public AssetCache(int maxPinnedSize) {
+    this.maxPinnedSize = maxPinnedSize;
+  }
+
+  /**
+   * Find a cached entry.
+   *
+   * @param path Asset path.
+   * @return Entry or <code>null</code>.
+   */
+  public @Nullable Entry get(@NonNull String path) {
+    AssetWatcher.poll();
+    return entries.get(path);
+  }
+
+  /**
+   * Creates an entry from asset and cache it. Asset is consumed when pinned.
+   *
+   * @param path Asset path.
+   * @param asset Asset.
+   * @param mediaTypeResolver Media type resolver.
+   * @return New entry.
+   */
+  public @NonNull Entry put(
+      @NonNull String path,
+      @NonNull Asset asset,
+      @NonNull Function<Asset, MediaType> mediaTypeResolver) {
+    Path file = asset instanceof FileAsset fileAsset ? fileAsset.getPath() : null;
+    long version = generation.get();
+    // register before reading metadata, so changes made meanwhile invalidate the entry
+    boolean cacheable = entries.size() < MAX_ENTRIES && (file == null || watch(file));
+    Entry entry = newEntry(path, asset, mediaTypeResolver, cacheable ? maxPinnedSize : 0);
+    if (cacheable && version == generation.get()) {
+      entries.put(path, entry);
+    }
+    return entry;
+  }
+
+  /**
+   * Creates an entry from asset without caching it. Asset is never consumed.
+   *
+   * @param path Asset path.
+   * @param asset Asset.
+   * @param mediaTypeResolver Media type resolver.
+   * @return New entry.
+   */
+  public static @NonNull Entry newEntry(
+      @NonNull String path,
+      @NonNull Asset asset,
+      @NonNull Function<Asset, MediaType> mediaTypeResolver) {
+    return newEntry(path, asset, mediaTypeResolver, 0);
+  }
+
+  private static Entry newEntry(
+      String path, Asset asset, Function<Asset, MediaType> mediaTypeResolver, int maxPinnedSize) {
+    Path file = asset instanceof FileAsset fileAsset ? fileAsset.getPath() : null;
+    long size = asset.getSize();
+    long lastModified = asset.getLastModified();
+    MediaType type = mediaTypeResolver.apply(asset);
+    if (maxPinnedSize > 0 && size >= 0 && size <= maxPinnedSize) {
+      try (InputStream stream = asset.stream()) {
+        byte[] bytes = stream.readAllBytes();
+        ByteBuffer content = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        return new Entry(
+            path,
+            bytes.length,
+            lastModified,
+            strongEtag(bytes),
+            type,
+            file,
+            content.asReadOnlyBuffer());
+      } catch (IOException x) {
+        throw SneakyThrows.propagate(x);
+      }
+    }
+    return new Entry(path, size, lastModified, asset.getEtag(), type, file, null);
+  }
+
+  private boolean watch(Path file) {
+    Path dir = file.getParent();
+    return dir != null && AssetWatcher.register(dir, this);
+  }
+
+  /** Stop watching directories and clear entries. */
+  @Override
+  public void close() {
+    AssetWatcher.unregister(this);
+    entries.clear();
+  }
+
+  private void invalidate(Path dir, @Nullable Set<String> names) {
+    generation.incrementAndGet();
+    entries
+        .values()
+        .removeIf(
+            entry ->
+                entry.file != null
+                    && dir.equals(entry.file.getParent())
+                    && (names == null || matches(names, entry.file.getFileName().toString())));
+  }
+
+  /**
+   * Match file name and sidecars of file name: <code>app.js</code>, <code>app.js.gz</code>, <code>
+   * app.js.br</code>.
+   */
+  /*package*/ static boolean matches(Set<String> names, String filename) {
+    return names.contains(filename)
+        || names.contains(filename + AssetCompressor.extension(AssetCompressor.GZIP))
+        || names.contains(filename + AssetCompressor.extension(AssetCompressor.BR));
+  }
+
+  private static String strongEtag(byte[] bytes) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+      return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + '"';
+    } catch (NoSuchAlgorithmException x) {
+      throw SneakyThrows.propagate(x);
+    }
+  }
+
+  /**
+   * One watch service for all caches. Events are drained by caches on lookup, so there is no extra
+   * thread.
+   */
+  private static class AssetWatcher {
+    private static volatile WatchService service;
+
+    /** Directory to caches. Caches are weakly referenced. Guarded by class lock. */
+    private static final Map<Path, Set<AssetCache>> listeners = new ConcurrentHashMap<>();
+
+    private static final Map<Path, WatchKey> keys = new ConcurrentHashMap<>();
+
+    static synchronized boolean register(Path dir, AssetCache cache) {
+      if (service == null) {
+        service = newWatchService();
+        if (service == null) {
+          return false;
+        }
+      }
+      Set<AssetCache> caches = listeners.get(dir);
+      if (caches == null) {
+        try {
+          keys.put(dir, dir.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
+        } catch (IOException | UnsupportedOperationException x) {
+          return false;
+        }
+        caches = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+        listeners.put(dir, caches);
+      }
+      caches.add(cache);
+      return true;
+    }
+
+    static synchronized void unregister(AssetCache cache) {
+      Iterator<Map.Entry<Path, Set<AssetCache>>> it = listeners.entrySet().iterator();
+      while (it.hasNext()) {
+        Map.Entry<Path, Set<AssetCache>> listener = it.next();
+        Set<AssetCache> caches = listener.getValue();
+        caches.remove(cache);
+        if (caches.isEmpty()) {
+          it.remove();
+          WatchKey key = keys.remove(listener.getKey());
+          if (key != null) {
+            key.cancel();
+          }
+        }
+      }
+      if (listeners.isEmpty() && service != null) {
+        try {
+          service.close();
+        } catch (IOException ignored) {
+          // nothing to do
+        }
+        service = null;
+      }
+    }
+
+    static void poll() {
+      WatchService service = AssetWatcher.service;
+      if (service == null) {
+        return;
+      }
+      WatchKey key;
+      try {
+        while ((key = service.poll()) != null) {
+          Path dir = (Path) key.watchable();
+          Set<String> names = new HashSet<>();
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+              names = null;
+              break;
+            }
+            names.add(event.context().toString());
+          }
+          boolean valid = key.reset();
+          Set<AssetCache> caches = listeners.get(dir);
+          if (!valid) {
+            // directory is gone
+            synchronized (AssetWatcher.class) {
+              if (keys.remove(dir, key)) {
+                listeners.remove(dir);
+              }
+            }
+            names = null;
+          }
+          if (caches != null) {
+            AssetCache[] array;
+            synchronized (caches) {
+              array = caches.toArray(new AssetCache[0]);
+            }
+            for (AssetCache cache : array) {
+              cache.invalidate(dir, names);
+            }
+          }
+        }
+      } catch (ClosedWatchServiceException expected) {
+        // last cache was closed
+      }
+    }
+
+    private static WatchService newWatchService() {
+      try {
+        return FileSystems.getDefault().newWatchService();
+      } catch (IOException | UnsupportedOperationException x) {
+        return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Generates pre-compressed sidecar files (<code>app.js.gz</code>, <code>app.js.br</code>) next to
+ * the original asset. Sidecars are served by <code>AssetHandler.setPrecompressed(true)</code>, so
+ * assets are compressed once at build time instead of on every request.
+ *
+ * <p>Gzip is always available. Brotli requires <a
+ * href="https://github.com/hyperxpro/Brotli4j">brotli4j</a> on classpath, see {@link
+ * #isBrotliAvailable()}.
+ *
+ * <p>Used by the <code>compress</code> goal of Maven and Gradle plugins.
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+public class AssetCompressor {
+
+  /** Brotli content encoding. */
+  public static final String BR = "br";
+
+  /** Gzip content encoding. */
+  public static final String GZIP = "gzip";
+
+  /** Default file extensions to compress. */
+  public static final Set<String> EXTENSIONS =
+      Set.of(
+          "css",
+          "csv",
+          "htm",
+          "html",
+          "js",
+          "json",
+          "map",
+          "md",
+          "mjs",
+          "svg",
+          "txt",
+          "wasm",
+          "webmanifest",
+          "xml");
+
+  private static final Method BROTLI = brotli();
+
+  private Set<String> extensions = EXTENSIONS;
+
+  private long minSize = 1024;
+
+  private List<String> encodings = List.of(BR, GZIP);
+
+  /**
+   * Sidecar file extension for the given content encoding.
+   *
+   * @param encoding Content encoding: <code>br</code> or <code>gzip</code>.
+   * @return Sidecar file extension.
+   */
+  public static @NonNull String extension(@NonNull String encoding) {
+    return switch (encoding) {
+      case BR -> ".br";
+      case GZIP -> ".gz";
+      default -> throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+    };
+  }
+
+  /**
+   * True when brotli4j is present on classpath.
+   *
+   * @return True when brotli4j is present on classpath.
+   */
+  public static boolean isBrotliAvailable() {
+    return BROTLI != null;
+  }
+
+  /**
+   * File extensions to compress (without dot). Default is {@link #EXTENSIONS}.
+   *
+   * @param extensions File extensions.
+   * @return This compressor.
+   */
+  public @NonNull AssetCompressor setExtensions(@NonNull Set<String> extensions) {
+    this.extensions =
+        extensions.stream()
+            .map(it -> it.toLowerCase(Locale.ROOT))
+            .map(it -> it.startsWith(".") ? it.substring(1) : it)
+            .collect(Collectors.toSet());
+    return this;
+  }
+
+  /**
+   * Files smaller than this are not compressed. Default is: <code>1024</code> bytes.
+   *
+   * @param minSize Min size in bytes.
+   * @return This compressor.
+   */
+  public @NonNull AssetCompressor setMinSize(long minSize) {
+    this.minSize = minSize;
+    return this;
+  }
+
+  /**
+   * Content encodings to generate. Default is: <code>br</code> and <code>gzip</code>. Brotli is
+   * ignored when brotli4j is not present.
+   *
+   * @param encodings Content encodings.
+   * @return This compressor.
+   */
+  public @NonNull AssetCompressor setEncodings(@NonNull List<String> encodings) {
+    encodings.forEach(AssetCompressor::extension);
+    this.encodings = List.copyOf(encodings);
+    return this;
+  }
+
+  /**
+   * Compress all matching files of given directory (recursively). Up to date sidecars and sidecars
+   * larger than the original file are skipped.
+   *
+   * @param dir Base directory.
+   * @return Generated files.
+   * @throws IOException If something goes wrong.
+   */
+  public @NonNull List<Path> compress(@NonNull Path dir) throws IOException {
+    return compress(dir, dir);
+  }
+
+  /**
+   * Compress all matching files of given directory (recursively) and write sidecars to the target
+   * directory, using the same relative path. Up to date sidecars and sidecars larger than the
+   * original file are skipped.
+   *
+   * @param dir Base directory.
+   * @param target Directory where sidecars are written.
+   * @return Generated files.
+   * @throws IOException If something goes wrong.
+   */
+  public @NonNull List<Path> compress(@NonNull Path dir, @NonNull Path target) throws IOException {
+    List<Path> files;
+    try (Stream<Path> stream = Files.walk(dir)) {
+      files = stream.filter(Files::isRegularFile).filter(this::accept).toList();
+    }
+    List<Path> result = new ArrayList<>();
+    for (Path file : files) {
+      byte[] content = null;
+      for (String encoding : encodings) {
+        if (encoding.equals(BR) && !isBrotliAvailable()) {
+          continue;
+        }
+        Path sidecar = target.resolve(dir.relativize(file) + extension(encoding));
+        if (Files.exists(sidecar)
+            && Files.getLastModifiedTime(sidecar).compareTo(Files.getLastModifiedTime(file)) >= 0) {
+          continue;
+        }
+        if (content == null) {
+          content = Files.readAllBytes(file);
+        }
+        byte[] compressed = encoding.equals(BR) ? brotli(content) : gzip(content);
+        if (compressed.length < content.length) {
+          Files.createDirectories(sidecar.getParent());
+          Files.write(sidecar, compressed);
+          result.add(sidecar);
+        } else {
+          Files.deleteIfExists(sidecar);
+        }
+      }
+    }
+    return result;
+  }
+
+  private boolean accept(Path file) {
+    String name = file.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    if (dot <= 0) {
+      return false;
+    }
+    try {
+      return extensions.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT))
+          && Files.size(file) >= minSize;
+    } catch (IOException x) {
+      return false;
+    }
+  }
+
+  private static byte[] gzip(byte[] content) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream(content.length / 2);
+    try (OutputStream gzip =
+        new GZIPOutputStream(output) {
+          {
+            def.setLevel(Deflater.BEST_COMPRESSION);
+          }
+        }) {
+      gzip.write(content);
+    }
+    return output.toByteArray();
+  }
+
+  private static byte[] brotli(byte[] content) throws IOException {
+    try {
+      return (byte[]) BROTLI.invoke(null, (Object) content);
+    } catch (ReflectiveOperationException x) {
+      throw new IOException("Brotli compression failed", x);
+    }
+  }
+
+  /**
+   * Lookup <code>com.aayushatharva.brotli4j.encoder.Encoder.compress(byte[])</code>, which uses
+   * brotli default (max) quality.
+   *
+   * @return Compress method or <code>null</code>.
+   */
+  private static @Nullable Method brotli() {
+    try {
+      Class<?> loader = Class.forName("com.aayushatharva.brotli4j.Brotli4jLoader");
+      loader.getMethod("ensureAvailability").invoke(null);
+      Class<?> encoder = Class.forName("com.aayushatharva.brotli4j.encoder.Encoder");
+      return encoder.getMethod("compress", byte[].class);
+    } catch (ReflectiveOperationException | LinkageError x) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.Output;
+
+/**
+ * Heap output backed by a list of chunks. Growing the output appends a new chunk, so written bytes
+ * are never copied.
+ */
+public class ByteBufferOutput implements Output {
+  private static final int MAX_CHUNK = 64 * 1024;
+
+  private final int bufferSize;
+
+  private final List<ByteBuffer> chunks = new ArrayList<>(2);
+
+  private ByteBuffer current;
+
+  private int size;
+
+  public ByteBufferOutput(int bufferSize) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+    }
+    this.bufferSize = bufferSize;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @NonNull @Override
+  public Output write(byte b) {
+    chunk(1).put(b);
+    size += 1;
+    return this;
+  }
+
+  @NonNull @Override
+  public Output write(@NonNull byte[] source, int offset, int length) {
+    int remaining = length;
+    int position = offset;
+    while (remaining > 0) {
+      ByteBuffer chunk = chunk(remaining);
+      int len = Math.min(chunk.remaining(), remaining);
+      chunk.put(source, position, len);
+      position += len;
+      remaining -= len;
+    }
+    size += length;
+    return this;
+  }
+
+  @NonNull @Override
+  public Output write(@NonNull ByteBuffer source) {
+    int length = source.remaining();
+    while (source.hasRemaining()) {
+      ByteBuffer chunk = chunk(source.remaining());
+      int len = Math.min(chunk.remaining(), source.remaining());
+      ByteBuffer slice = source.slice();
+      slice.limit(len);
+      chunk.put(slice);
+      source.position(source.position() + len);
+    }
+    size += length;
+    return this;
+  }
+
+  @NonNull @Override
+  public ByteBuffer[] toByteBuffers() {
+    ByteBuffer[] result = new ByteBuffer[chunks.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = chunks.get(i).asReadOnlyBuffer().flip();
+    }
+    return result;
+  }
+
+  private ByteBuffer chunk(int required) {
+    if (current == null || !current.hasRemaining()) {
+      // chunks grow with the output (up to MAX_CHUNK), so large payloads need just a few of them
+      int capacity = size == 0 ? required : Math.min(size, MAX_CHUNK);
+      current = ByteBuffer.allocate(Math.max(bufferSize, capacity));
+      chunks.add(current);
+    }
+    return current;
+  }
+}
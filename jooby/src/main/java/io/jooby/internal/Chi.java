@@ -5,10 +5,15 @@
  */
 package io.jooby.internal;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -109,6 +114,8 @@ class Chi implements RouteTree {
     void put(String method, StaticRouterMatch route);
 
     boolean matches(String method);
+
+    void forEach(BiConsumer<String, StaticRouterMatch> consumer);
   }
 
   private static class SingleMethodMatcher implements MethodMatcher {
@@ -131,6 +138,11 @@ class Chi implements RouteTree {
       return this.method.equals(method);
     }
 
+    @Override
+    public void forEach(BiConsumer<String, StaticRouterMatch> consumer) {
+      consumer.accept(method, route);
+    }
+
     public void clear() {
       this.method = null;
       this.route = null;
@@ -159,6 +171,11 @@ class Chi implements RouteTree {
     public boolean matches(String method) {
       return this.methods.containsKey(method);
     }
+
+    @Override
+    public void forEach(BiConsumer<String, StaticRouterMatch> consumer) {
+      methods.forEach(consumer);
+    }
   }
 
   static class StaticRoute {
@@ -791,6 +808,375 @@ class Chi implements RouteTree {
     }
   }
 
+  /**
+   * Static routes compiled into a perfect hash table (hash and displace) keyed by method and path.
+   * Every key lands on its own slot, so a lookup is one hash, one bucket read and one key check.
+   */
+  private static class StaticTable {
+    /** Give up (and keep the hash map lookup) when a bucket can't be placed. */
+    private static final int MAX_SEED = 1 << 16;
+
+    private final int mask;
+
+    /** Per bucket: seed for buckets with collisions or <code>-(slot + 1)</code> for single keys. */
+    private final int[] seeds;
+
+    private final String[] methods;
+
+    private final String[] paths;
+
+    private final StaticRouterMatch[] matches;
+
+    private StaticTable(
+        int mask, int[] seeds, String[] methods, String[] paths, StaticRouterMatch[] matches) {
+      this.mask = mask;
+      this.seeds = seeds;
+      this.methods = methods;
+      this.paths = paths;
+      this.matches = matches;
+    }
+
+    public StaticRouterMatch get(String method, String path) {
+      int hash = hash(method, path);
+      int seed = seeds[mix(hash, 0) & mask];
+      int slot = seed < 0 ? -seed - 1 : mix(hash, seed) & mask;
+      String candidate = paths[slot];
+      if (candidate != null && candidate.equals(path) && methods[slot].equals(method)) {
+        return matches[slot];
+      }
+      return null;
+    }
+
+    static StaticTable build(Map<Object, StaticRoute> staticPaths) {
+      List<String> methods = new ArrayList<>();
+      List<String> paths = new ArrayList<>();
+      List<StaticRouterMatch> matches = new ArrayList<>();
+      staticPaths.forEach(
+          (path, route) ->
+              route.matcher.forEach(
+                  (method, match) -> {
+                    methods.add(method);
+                    paths.add((String) path);
+                    matches.add(match);
+                  }));
+      int size = 1;
+      while (size < methods.size()) {
+        size <<= 1;
+      }
+      int mask = size - 1;
+      int[] hashes = new int[methods.size()];
+      int[][] buckets = new int[size][];
+      for (int i = 0; i < hashes.length; i++) {
+        hashes[i] = hash(methods.get(i), paths.get(i));
+        int bucket = mix(hashes[i], 0) & mask;
+        buckets[bucket] = append(buckets[bucket], i);
+      }
+      Integer[] order = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = i;
+      }
+      // Largest buckets first, they are the hardest to place
+      Arrays.sort(order, (b1, b2) -> length(buckets[b2]) - length(buckets[b1]));
+
+      int[] seeds = new int[size];
+      int[] slots = new int[size];
+      Arrays.fill(slots, -1);
+      int free = 0;
+      for (int bucket : order) {
+        int[] keys = buckets[bucket];
+        if (keys == null) {
+          break;
+        }
+        if (keys.length == 1) {
+          while (slots[free] >= 0) {
+            free++;
+          }
+          slots[free] = keys[0];
+          seeds[bucket] = -free - 1;
+        } else {
+          int seed = place(keys, hashes, slots, mask);
+          if (seed < 0) {
+            return null;
+          }
+          seeds[bucket] = seed;
+        }
+      }
+      String[] methodTable = new String[size];
+      String[] pathTable = new String[size];
+      StaticRouterMatch[] matchTable = new StaticRouterMatch[size];
+      for (int slot = 0; slot < size; slot++) {
+        int key = slots[slot];
+        if (key >= 0) {
+          methodTable[slot] = methods.get(key);
+          pathTable[slot] = paths.get(key);
+          matchTable[slot] = matches.get(key);
+        }
+      }
+      return new StaticTable(mask, seeds, methodTable, pathTable, matchTable);
+    }
+
+    /** Find a seed that sends all the keys of a bucket to free and distinct slots. */
+    private static int place(int[] keys, int[] hashes, int[] slots, int mask) {
+      int[] candidates = new int[keys.length];
+      for (int seed = 1; seed < MAX_SEED; seed++) {
+        int placed = 0;
+        for (; placed < keys.length; placed++) {
+          int slot = mix(hashes[keys[placed]], seed) & mask;
+          if (slots[slot] >= 0 || contains(candidates, placed, slot)) {
+            break;
+          }
+          candidates[placed] = slot;
+        }
+        if (placed == keys.length) {
+          for (int i = 0; i < keys.length; i++) {
+            slots[candidates[i]] = keys[i];
+          }
+          return seed;
+        }
+      }
+      return -1;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+      for (int i = 0; i < length; i++) {
+        if (values[i] == value) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static int length(int[] values) {
+      return values == null ? 0 : values.length;
+    }
+
+    private static int[] append(int[] values, int value) {
+      if (values == null) {
+        return new int[] {value};
+      }
+      int[] result = Arrays.copyOf(values, values.length + 1);
+      result[values.length] = value;
+      return result;
+    }
+
+    private static int hash(String method, String path) {
+      return path.hashCode() * 31 + method.hashCode();
+    }
+
+    /** Murmur3 finalizer. */
+    private static int mix(int hash, int seed) {
+      int h = hash ^ (seed * 0x9E3779B9);
+      h ^= h >>> 16;
+      h *= 0x85EBCA6B;
+      h ^= h >>> 13;
+      h *= 0xC2B2AE35;
+      h ^= h >>> 16;
+      return h;
+    }
+  }
+
+  /**
+   * Radix tree flattened into arrays. Nodes are identified by index (root is <code>0</code>),
+   * children of a node are stored contiguously and grouped by node type, so edges of node <code>n
+   * </code> and type <code>t</code> are in <code>[offsets[n * NODE_SIZE + t], offsets[n *
+   * NODE_SIZE + t + 1])</code>. Matching works on the request path and an index, no {@link Slice}
+   * is created.
+   */
+  private static class FrozenTree {
+    private final byte[] typ;
+
+    private final char[] tail;
+
+    private final String[] prefix;
+
+    private final Pattern[] rex;
+
+    private final Map<String, Route>[] endpoints;
+
+    private final int[] offsets;
+
+    private final int[] edges;
+
+    /** Label of each edge, sorted within static groups. */
+    private final char[] labels;
+
+    @SuppressWarnings("unchecked")
+    FrozenTree(Node root) {
+      List<Node> nodes = new ArrayList<>();
+      Map<Node, Integer> index = new IdentityHashMap<>();
+      ArrayDeque<Node> queue = new ArrayDeque<>();
+      queue.add(root);
+      index.put(root, 0);
+      int edgeCount = 0;
+      while (!queue.isEmpty()) {
+        Node node = queue.poll();
+        nodes.add(node);
+        for (Node[] group : node.children) {
+          if (group != null) {
+            for (Node child : group) {
+              index.put(child, index.size());
+              queue.add(child);
+              edgeCount++;
+            }
+          }
+        }
+      }
+      int size = nodes.size();
+      this.typ = new byte[size];
+      this.tail = new char[size];
+      this.prefix = new String[size];
+      this.rex = new Pattern[size];
+      this.endpoints = new Map[size];
+      this.offsets = new int[size * NODE_SIZE + 1];
+      this.edges = new int[edgeCount];
+      this.labels = new char[edgeCount];
+      int edge = 0;
+      for (int n = 0; n < size; n++) {
+        Node node = nodes.get(n);
+        typ[n] = node.typ;
+        tail[n] = node.tail;
+        prefix[n] = node.prefix;
+        rex[n] = node.rex;
+        endpoints[n] = node.endpoints;
+        for (int t = 0; t < NODE_SIZE; t++) {
+          offsets[n * NODE_SIZE + t] = edge;
+          Node[] group = node.children[t];
+          if (group != null) {
+            for (Node child : group) {
+              edges[edge] = index.get(child);
+              labels[edge] = child.label;
+              edge++;
+            }
+          }
+        }
+      }
+      offsets[size * NODE_SIZE] = edge;
+    }
+
+    // Same as Node.findRoute
+    Route findRoute(RouterMatch rctx, String method, String path, int node, int pos) {
+      int len = path.length();
+      int group = node * NODE_SIZE;
+      for (int ntyp = 0; ntyp < NODE_SIZE; ntyp++) {
+        int from = offsets[group + ntyp];
+        int to = offsets[group + ntyp + 1];
+        if (from == to) {
+          continue;
+        }
+        int xn;
+        int xpos = pos;
+        switch (ntyp) {
+          case ntStatic:
+            xn = findEdge(from, to, pos < len ? path.charAt(pos) : ZERO_CHAR);
+            if (xn < 0 || !path.startsWith(prefix[xn], pos)) {
+              continue;
+            }
+            xpos = pos + prefix[xn].length();
+            break;
+
+          case ntParam:
+          case ntRegexp:
+            if (pos == len) {
+              continue;
+            }
+            xn = -1;
+            for (int idx = from; idx < to; idx++) {
+              xn = edges[idx];
+
+              int p = path.indexOf(tail[xn], pos);
+              if (p < 0) {
+                if (tail[xn] == '/') {
+                  p = len;
+                } else {
+                  continue;
+                }
+              }
+
+              String value;
+              if (ntyp == ntRegexp && rex[xn] != null) {
+                value = path.substring(pos, p);
+                if (!rex[xn].matcher(value).matches()) {
+                  continue;
+                }
+              } else {
+                int slash = path.indexOf('/', pos);
+                if (slash > pos && slash < p) {
+                  // avoid a match across path segments
+                  continue;
+                }
+                value = path.substring(pos, p);
+              }
+
+              int prevlen = rctx.vars.size();
+              rctx.value(value);
+              xpos = p;
+
+              if (xpos == len && endpoints[xn] != null) {
+                Route h = endpoints[xn].get(method);
+                if (h != null) {
+                  rctx.key(h.getPathKeys());
+                  return h;
+                }
+                rctx.methodNotAllowed(endpoints[xn].keySet());
+              }
+
+              Route fin = findRoute(rctx, method, path, xn, xpos);
+              if (fin != null) {
+                return fin;
+              }
+
+              rctx.truncate(prevlen);
+              xpos = pos;
+            }
+            break;
+
+          default:
+            // catch-all nodes
+            if (pos < len) {
+              rctx.value(path.substring(pos));
+            }
+            xn = edges[from];
+            xpos = len;
+        }
+
+        if (xpos == len && endpoints[xn] != null) {
+          Route h = endpoints[xn].get(method);
+          if (h != null) {
+            rctx.key(h.getPathKeys());
+            return h;
+          }
+          rctx.methodNotAllowed(endpoints[xn].keySet());
+        }
+
+        Route fin = findRoute(rctx, method, path, xn, xpos);
+        if (fin != null) {
+          return fin;
+        }
+
+        if (typ[xn] > ntStatic) {
+          rctx.pop();
+        }
+      }
+      return null;
+    }
+
+    private int findEdge(int from, int to, char label) {
+      int i = from, j = to - 1;
+      while (i <= j) {
+        int idx = (i + j) >>> 1;
+        char c = labels[idx];
+        if (label > c) {
+          i = idx + 1;
+        } else if (label < c) {
+          j = idx - 1;
+        } else {
+          return edges[idx];
+        }
+      }
+      return -1;
+    }
+  }
+
   private static final String BASE_CATCH_ALL = "/?*";
 
   private final Node root = new Node();
@@ -800,7 +1186,16 @@ class Chi implements RouteTree {
    */
   private final Map<Object, StaticRoute> staticPaths = new ConcurrentHashMap<>();
 
+  /** Available after {@link #freeze()}. Null when static routes don't fit a perfect hash. */
+  private StaticTable staticTable;
+
+  /** Available after {@link #freeze()}. */
+  private FrozenTree frozenTree;
+
   public void insert(String method, String pattern, Route route) {
+    // Route set changed, go back to the mutable structures
+    staticTable = null;
+    frozenTree = null;
     String baseCatchAll = baseCatchAll(pattern);
     if (baseCatchAll.length() > 1) {
       // Add route pattern: /static/?* => /static
@@ -830,7 +1225,18 @@ class Chi implements RouteTree {
     insert(route.getMethod(), route.getPattern(), route);
   }
 
+  /**
+   * Compile routes into read-only structures: static routes into a perfect hash table and the radix
+   * tree into flat arrays. Must be called once all the routes have been inserted.
+   */
+  public void freeze() {
+    staticTable = StaticTable.build(staticPaths);
+    frozenTree = new FrozenTree(root);
+  }
+
   public void destroy() {
+    staticTable = null;
+    frozenTree = null;
     root.destroy();
   }
 
@@ -840,6 +1246,11 @@ class Chi implements RouteTree {
 
   @Override
   public Router.Match find(String method, String path) {
+    StaticTable table = staticTable;
+    if (table != null) {
+      StaticRouterMatch match = table.get(method, path);
+      return match == null ? findInternal(method, path) : match;
+    }
     StaticRoute staticRoute = staticPaths.get(path);
     if (staticRoute == null) {
       return findInternal(method, path);
@@ -852,7 +1263,11 @@ class Chi implements RouteTree {
   private Router.Match findInternal(String method, String path) {
     // use radix tree
     RouterMatch result = new RouterMatch();
-    Route route = root.findRoute(result, method, new Slice(path));
+    FrozenTree tree = frozenTree;
+    Route route =
+        tree == null
+            ? root.findRoute(result, method, new Slice(path))
+            : tree.findRoute(result, method, path, 0, 0);
     if (route == null) {
       return result.missing(method, path, encoder);
     }
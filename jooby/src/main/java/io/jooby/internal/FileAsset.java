@@ -36,6 +36,15 @@ public class FileAsset implements Asset {
     this.file = file;
   }
 
+  /**
+   * File location.
+   *
+   * @return File location.
+   */
+  public @NonNull Path getPath() {
+    return file;
+  }
+
   @Override
   public long getSize() {
     try {
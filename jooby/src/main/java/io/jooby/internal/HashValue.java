@@ -35,6 +35,9 @@ public class HashValue implements ValueNode {
   private final String name;
   private boolean arrayLike;
 
+  /** Urlencoded params not yet added to this node. */
+  private UrlencodedParams params;
+
   public HashValue(Context ctx, String name, Supplier<Map<String, ValueNode>> mapSupplier) {
     this.ctx = ctx;
     this.name = name;
@@ -51,13 +54,22 @@ public class HashValue implements ValueNode {
     this.name = null;
   }
 
+  /**
+   * Set urlencoded params to add lazily, on first access.
+   *
+   * @param params Urlencoded params.
+   */
+  /*package*/ void setParams(UrlencodedParams params) {
+    this.params = params;
+  }
+
   @Override
   public String name() {
     return name;
   }
 
   public void put(String path, String value) {
-    put(path, Collections.singletonList(value));
+    put(path, (name, scope) -> add(scope, name, value));
   }
 
   public void put(String path, ValueNode node) {
@@ -85,28 +97,33 @@ public class HashValue implements ValueNode {
         path,
         (name, scope) -> {
           for (String value : values) {
-            ValueNode existing = scope.get(name);
-            if (existing == null) {
-              scope.put(name, new SingleValue(ctx, name, decode(value)));
-            } else {
-              ArrayValue list;
-              if (existing instanceof ArrayValue) {
-                list = (ArrayValue) existing;
-              } else {
-                list = new ArrayValue(ctx, name).add(existing);
-                scope.put(name, list);
-              }
-              list.add(decode(value));
-            }
+            add(scope, name, value);
           }
         });
   }
 
+  private void add(Map<String, ValueNode> scope, String name, String value) {
+    ValueNode existing = scope.get(name);
+    if (existing == null) {
+      scope.put(name, new SingleValue(ctx, name, decode(value)));
+    } else {
+      ArrayValue list;
+      if (existing instanceof ArrayValue) {
+        list = (ArrayValue) existing;
+      } else {
+        list = new ArrayValue(ctx, name).add(existing);
+        scope.put(name, list);
+      }
+      list.add(decode(value));
+    }
+  }
+
   protected String decode(String value) {
     return value;
   }
 
   private void put(String path, BiConsumer<String, Map<String, ValueNode>> consumer) {
+    parse();
     // Locate node:
     int nameStart = 0;
     int nameEnd = path.length();
@@ -165,18 +182,39 @@ public class HashValue implements ValueNode {
   }
 
   private Map<String, ValueNode> hash() {
+    parse();
     if (hash == EMPTY) {
       hash = new LinkedHashMap<>();
     }
     return hash;
   }
 
+  /**
+   * Add pending urlencoded params (if any) to this node.
+   *
+   * @return Node values.
+   */
+  private Map<String, ValueNode> parse() {
+    UrlencodedParams params = this.params;
+    if (params != null) {
+      this.params = null;
+      params.forEach(this::put);
+      // keep nodes already handed out, so they match the ones from the tree
+      params.resolved().forEach(hash::put);
+    }
+    return hash;
+  }
+
   /*package*/ HashValue getOrCreateScope(String name) {
     return (HashValue) hash().computeIfAbsent(name, k -> new HashValue(ctx, k));
   }
 
   public ValueNode get(@NonNull String name) {
-    ValueNode value = hash.get(name);
+    if (params != null && !params.isNested()) {
+      // flat params: no need to build the tree
+      return params.get(ctx, name);
+    }
+    ValueNode value = parse().get(name);
     if (value == null) {
       return new MissingValue(scope(name));
     }
@@ -193,28 +231,31 @@ public class HashValue implements ValueNode {
   }
 
   public int size() {
-    return hash.size();
+    return parse().size();
   }
 
   @Override
   public String value() {
     StringJoiner joiner = new StringJoiner("&");
-    hash.forEach(
-        (k, v) -> {
-          Iterator<ValueNode> it = v.iterator();
-          while (it.hasNext()) {
-            ValueNode value = it.next();
-            String str =
-                value instanceof FileUpload ? ((FileUpload) value).getFileName() : value.toString();
-            joiner.add(k + "=" + str);
-          }
-        });
+    parse()
+        .forEach(
+            (k, v) -> {
+              Iterator<ValueNode> it = v.iterator();
+              while (it.hasNext()) {
+                ValueNode value = it.next();
+                String str =
+                    value instanceof FileUpload
+                        ? ((FileUpload) value).getFileName()
+                        : value.toString();
+                joiner.add(k + "=" + str);
+              }
+            });
     return joiner.toString();
   }
 
   @Override
   public Iterator<ValueNode> iterator() {
-    return hash.values().iterator();
+    return parse().values().iterator();
   }
 
   @NonNull @Override
@@ -239,7 +280,7 @@ public class HashValue implements ValueNode {
 
   @NonNull @Override
   public <T> Optional<T> toOptional(@NonNull Class<T> type) {
-    if (hash.isEmpty()) {
+    if (params != null ? params.isEmpty() : hash.isEmpty()) {
       return Optional.empty();
     }
     return ofNullable(to(type));
@@ -261,8 +302,8 @@ public class HashValue implements ValueNode {
 
   @Override
   public Map<String, List<String>> toMultimap() {
+    Set<Map.Entry<String, ValueNode>> entries = parse().entrySet();
     Map<String, List<String>> result = new LinkedHashMap<>(hash.size());
-    Set<Map.Entry<String, ValueNode>> entries = hash.entrySet();
     String scope = name == null ? "" : name + ".";
     for (Map.Entry<String, ValueNode> entry : entries) {
       ValueNode value = entry.getValue();
@@ -278,7 +319,7 @@ public class HashValue implements ValueNode {
 
   @Override
   public String toString() {
-    return hash.toString();
+    return parse().toString();
   }
 
   public void put(Map<String, Collection<String>> headers) {
@@ -288,7 +329,7 @@ public class HashValue implements ValueNode {
   }
 
   private <T, C extends Collection<T>> C toCollection(@NonNull Class<T> type, C collection) {
-    if (!hash.isEmpty()) {
+    if (!parse().isEmpty()) {
       if (arrayLike) {
         // indexes access, treat like a list
         for (Map.Entry<String, ValueNode> e : hash.entrySet()) {
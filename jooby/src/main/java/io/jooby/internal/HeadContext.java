@@ -23,6 +23,7 @@ import io.jooby.FileDownload;
 import io.jooby.ForwardingContext;
 import io.jooby.MediaType;
 import io.jooby.MessageEncoder;
+import io.jooby.Output;
 import io.jooby.Route;
 import io.jooby.Sender;
 import io.jooby.SneakyThrows;
@@ -72,6 +73,15 @@ public class HeadContext extends ForwardingContext {
     return this;
   }
 
+  @NonNull @Override
+  public Context send(@NonNull Output output) {
+    ctx.setResponseLength(output.size());
+    output.release();
+    checkSizeHeaders();
+    ctx.send(StatusCode.OK);
+    return this;
+  }
+
   @NonNull @Override
   public Context send(@NonNull FileChannel file) {
     try {
@@ -0,0 +1,97 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.jooby.Cookie;
+import io.jooby.Signer;
+import io.jooby.SneakyThrows;
+
+public class HmacSigner implements Signer {
+
+  /**
+   * Keys and values are encoded with the platform charset, like {@link Cookie#sign(String, String)}
+   * always did, so existing signatures remain valid.
+   */
+  private static final Charset CHARSET = Charset.defaultCharset();
+
+  /** Mac lookup and key setup happen once per thread, then the mac is reused. */
+  private static class Key extends ThreadLocal<Mac> {
+    private final SecretKeySpec spec;
+
+    Key(String secret) {
+      this.spec = new SecretKeySpec(secret.getBytes(CHARSET), Cookie.HMAC_SHA256);
+    }
+
+    @Override
+    protected Mac initialValue() {
+      try {
+        Mac mac = Mac.getInstance(Cookie.HMAC_SHA256);
+        mac.init(spec);
+        return mac;
+      } catch (GeneralSecurityException x) {
+        throw SneakyThrows.propagate(x);
+      }
+    }
+
+    byte[] mac(byte[] value) {
+      // doFinal resets the mac, so it is ready for next call
+      return get().doFinal(value);
+    }
+  }
+
+  private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+
+  private final Key[] keys;
+
+  public HmacSigner(@NonNull String secret, @NonNull String... previousSecrets) {
+    this.keys = new Key[previousSecrets.length + 1];
+    this.keys[0] = new Key(secret);
+    for (int i = 0; i < previousSecrets.length; i++) {
+      this.keys[i + 1] = new Key(previousSecrets[i]);
+    }
+  }
+
+  @NonNull @Override
+  public String sign(@NonNull String value) {
+    String signature = ENCODER.encodeToString(keys[0].mac(value.getBytes(CHARSET)));
+    return new StringBuilder(signature.length() + 1 + value.length())
+        .append(signature)
+        .append('|')
+        .append(value)
+        .toString();
+  }
+
+  @Nullable @Override
+  public String unsign(@NonNull String value) {
+    int sep = value.indexOf('|');
+    if (sep <= 0) {
+      return null;
+    }
+    // compare the canonical (unpadded) encoding: a lenient decode accepts different strings for
+    // the same signature bytes
+    byte[] signature = value.substring(0, sep).getBytes(ISO_8859_1);
+    String raw = value.substring(sep + 1);
+    byte[] bytes = raw.getBytes(CHARSET);
+    for (Key key : keys) {
+      if (MessageDigest.isEqual(signature, ENCODER.encode(key.mac(bytes)))) {
+        return raw;
+      }
+    }
+    return null;
+  }
+}
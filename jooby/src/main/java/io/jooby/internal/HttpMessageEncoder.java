@@ -12,29 +12,40 @@ import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.BufferedMessageEncoder;
 import io.jooby.Context;
 import io.jooby.FileDownload;
 import io.jooby.MediaType;
 import io.jooby.MessageEncoder;
 import io.jooby.ModelAndView;
+import io.jooby.Output;
 import io.jooby.StatusCode;
 import io.jooby.TemplateEngine;
 
-public class HttpMessageEncoder implements MessageEncoder {
+public class HttpMessageEncoder implements BufferedMessageEncoder {
 
   private Map<MediaType, MessageEncoder> encoders;
 
   private List<TemplateEngine> templateEngineList = new ArrayList<>(2);
 
+  /** Template engines with a custom <code>byte[] encode(Context, Object)</code> implementation. */
+  private Set<TemplateEngine> byteArrayEngines = Collections.newSetFromMap(new IdentityHashMap<>());
+
   public HttpMessageEncoder add(MediaType type, MessageEncoder encoder) {
-    if (encoder instanceof TemplateEngine) {
+    if (encoder instanceof TemplateEngine engine) {
       // media type is ignored for template engines. They  have a custom object type
-      templateEngineList.add((TemplateEngine) encoder);
+      templateEngineList.add(engine);
+      if (overridesByteArrayEncode(engine)) {
+        byteArrayEngines.add(engine);
+      }
     } else {
       if (encoders == null) {
         encoders = new LinkedHashMap<>();
@@ -45,15 +56,81 @@ public class HttpMessageEncoder implements MessageEncoder {
   }
 
   @Override
-  public byte[] encode(@NonNull Context ctx, @NonNull Object value) throws Exception {
-    if (value instanceof ModelAndView) {
-      ModelAndView modelAndView = (ModelAndView) value;
-      for (TemplateEngine engine : templateEngineList) {
-        if (engine.supports(modelAndView)) {
-          return engine.encode(ctx, modelAndView);
+  public boolean encode(@NonNull Context ctx, @NonNull Object value, @NonNull Output output)
+      throws Exception {
+    Boolean encoded = encodeBuffered(ctx, value, output);
+    if (encoded != null) {
+      return encoded;
+    }
+    byte[] bytes = encode(ctx, value);
+    if (bytes != null) {
+      ctx.send(bytes);
+    }
+    return false;
+  }
+
+  /**
+   * Like {@link #encode(Context, Object, Output)} but bytes produced by non buffered encoders are
+   * written into the output too, instead of being sent. Used by chunked responses, where the output
+   * is one of many items.
+   *
+   * @param ctx Web context.
+   * @param value Value to encode.
+   * @param output Output to write to.
+   * @return True when value was written into output.
+   * @throws Exception If something goes wrong.
+   */
+  public boolean encodeInto(@NonNull Context ctx, @NonNull Object value, @NonNull Output output)
+      throws Exception {
+    Boolean encoded = encodeBuffered(ctx, value, output);
+    if (encoded != null) {
+      return encoded;
+    }
+    byte[] bytes = encode(ctx, value);
+    if (bytes != null) {
+      output.write(bytes);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Encode value into output when there is a buffered encoder for it.
+   *
+   * @return Encoder result or <code>null</code> when there is no buffered encoder for the value.
+   */
+  private Boolean encodeBuffered(Context ctx, Object value, Output output) throws Exception {
+    /** Strings: */
+    if (value instanceof CharSequence) {
+      output.write(value.toString(), StandardCharsets.UTF_8);
+      return true;
+    }
+    /** Templates: */
+    if (value instanceof ModelAndView modelAndView) {
+      TemplateEngine engine = templateEngine(modelAndView);
+      if (byteArrayEngines.contains(engine)) {
+        byte[] bytes = engine.encode(ctx, modelAndView);
+        if (bytes == null) {
+          return false;
         }
+        output.write(bytes);
+        return true;
+      }
+      return engine.encode(ctx, modelAndView, output);
+    }
+    if (encoders != null && !(value instanceof Number) && !isRaw(value)) {
+      MessageEncoder encoder = negotiate(ctx);
+      if (encoder instanceof BufferedMessageEncoder) {
+        return ((BufferedMessageEncoder) encoder).encode(ctx, value, output);
       }
-      throw new IllegalArgumentException("No template engine for: " + modelAndView.getView());
+    }
+    return null;
+  }
+
+  @Override
+  public byte[] encode(@NonNull Context ctx, @NonNull Object value) throws Exception {
+    if (value instanceof ModelAndView modelAndView) {
+      return templateEngine(modelAndView).encode(ctx, modelAndView);
     }
     /** InputStream: */
     if (value instanceof InputStream) {
@@ -99,16 +176,54 @@ public class HttpMessageEncoder implements MessageEncoder {
       return null;
     }
     if (encoders != null) {
-      // Content negotiation, find best:
-      List<MediaType> produces = ctx.getRoute().getProduces();
-      if (produces.isEmpty()) {
-        produces = new ArrayList<>(encoders.keySet());
-      }
-      MediaType type = ctx.accept(produces);
-      MessageEncoder encoder = encoders.getOrDefault(type, MessageEncoder.TO_STRING);
-      return encoder.encode(ctx, value);
+      return negotiate(ctx).encode(ctx, value);
     } else {
       return MessageEncoder.TO_STRING.encode(ctx, value);
     }
   }
+
+  /**
+   * Template engines written before {@link BufferedMessageEncoder} might override <code>
+   * byte[] encode(Context, Object)</code>. Those keep going through the byte array path, so the
+   * override isn't silently ignored.
+   */
+  private static boolean overridesByteArrayEncode(TemplateEngine engine) {
+    try {
+      Class<?> declaringClass =
+          engine.getClass().getMethod("encode", Context.class, Object.class).getDeclaringClass();
+      return declaringClass != BufferedMessageEncoder.class;
+    } catch (NoSuchMethodException x) {
+      return false;
+    }
+  }
+
+  private TemplateEngine templateEngine(ModelAndView modelAndView) {
+    for (TemplateEngine engine : templateEngineList) {
+      if (engine.supports(modelAndView)) {
+        return engine;
+      }
+    }
+    throw new IllegalArgumentException("No template engine for: " + modelAndView.getView());
+  }
+
+  private MessageEncoder negotiate(Context ctx) {
+    // Content negotiation, find best:
+    List<MediaType> produces = ctx.getRoute().getProduces();
+    if (produces.isEmpty()) {
+      produces = new ArrayList<>(encoders.keySet());
+    }
+    MediaType type = ctx.accept(produces);
+    return encoders.getOrDefault(type, MessageEncoder.TO_STRING);
+  }
+
+  private static boolean isRaw(Object value) {
+    return value instanceof InputStream
+        || value instanceof StatusCode
+        || value instanceof FileChannel
+        || value instanceof File
+        || value instanceof Path
+        || value instanceof FileDownload
+        || value instanceof byte[]
+        || value instanceof ByteBuffer;
+  }
 }
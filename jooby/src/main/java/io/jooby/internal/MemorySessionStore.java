@@ -7,45 +7,152 @@ package io.jooby.internal;
 
 import java.time.Duration;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 import io.jooby.Context;
 import io.jooby.Session;
 import io.jooby.SessionStore;
 import io.jooby.SessionToken;
 
+/**
+ * In-memory session store. Sessions are kept in access ordered segments, so the least recently used
+ * session of a segment is always at the head. This makes expiration and eviction cheap:
+ *
+ * <ul>
+ *   <li>Expiration: each request sweeps one segment (round-robin) from the head and stops at the
+ *       first non expired session or after {@link #PURGE_STEPS} removals. Cost no longer depends on
+ *       the number of live sessions.
+ *   <li>Eviction: when a max number of sessions is set, each segment holds up to <code>
+ *       maxSessions / segments</code> and the least recently used session of the segment is evicted
+ *       on insert (approximate LRU across segments).
+ * </ul>
+ *
+ * <p>A session access is any read or write, like Caffeine <code>expireAfterAccess</code>.
+ */
 public class MemorySessionStore extends SessionStore.InMemory {
 
-  private ConcurrentHashMap<String, Data> sessions = new ConcurrentHashMap<>();
+  /** Max number of expired sessions removed per request. */
+  static final int PURGE_STEPS = 64;
+
+  private static final int SEGMENTS = 16;
+
+  /**
+   * Min number of sessions per segment of a bounded store. Small stores use fewer segments (down to
+   * one, an exact LRU) instead of tiny segments.
+   */
+  private static final int MIN_SEGMENT_SIZE = 64;
+
+  private static class Entry {
+    private final Data data;
+
+    private long lastAccess;
+
+    Entry(Data data, long lastAccess) {
+      this.data = data;
+      this.lastAccess = lastAccess;
+    }
+  }
+
+  private static class Segment extends LinkedHashMap<String, Entry> {
+    private final int maxSize;
+
+    Segment(int maxSize) {
+      super(16, 0.75f, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+      return maxSize > 0 && size() > maxSize;
+    }
+  }
+
+  private final Segment[] segments;
 
-  private Duration timeout;
+  private final AtomicInteger sweep = new AtomicInteger();
+
+  private final LongSupplier clock;
+
+  private volatile long timeout;
 
   public MemorySessionStore(SessionToken token, Duration timeout) {
+    this(token, timeout, 0);
+  }
+
+  public MemorySessionStore(SessionToken token, Duration timeout, int maxSessions) {
+    this(token, timeout, maxSessions, System::currentTimeMillis);
+  }
+
+  MemorySessionStore(SessionToken token, Duration timeout, int maxSessions, LongSupplier clock) {
     super(token);
-    this.timeout = Optional.ofNullable(timeout).filter(t -> t.toMillis() > 0).orElse(null);
+    setTimeout(timeout);
+    this.clock = clock;
+    int count = SEGMENTS;
+    while (maxSessions > 0 && count > 1 && maxSessions / count < MIN_SEGMENT_SIZE) {
+      count >>= 1;
+    }
+    int segmentSize = maxSessions > 0 ? Math.max(1, maxSessions / count) : 0;
+    this.segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      segments[i] = new Segment(segmentSize);
+    }
   }
 
   @Override
   protected Data getOrCreate(String sessionId, Function<String, Data> factory) {
-    return sessions.computeIfAbsent(sessionId, factory);
+    Segment segment = segment(sessionId);
+    long now = clock.getAsLong();
+    synchronized (segment) {
+      Entry entry = segment.get(sessionId);
+      if (entry == null || isExpired(entry, now)) {
+        entry = new Entry(factory.apply(sessionId), now);
+        segment.put(sessionId, entry);
+      } else {
+        entry.lastAccess = now;
+      }
+      return entry.data;
+    }
   }
 
   @Override
   protected Data getOrNull(String sessionId) {
-    return sessions.get(sessionId);
+    Segment segment = segment(sessionId);
+    long now = clock.getAsLong();
+    synchronized (segment) {
+      Entry entry = segment.get(sessionId);
+      if (entry == null) {
+        return null;
+      }
+      if (isExpired(entry, now)) {
+        segment.remove(sessionId);
+        return null;
+      }
+      entry.lastAccess = now;
+      return entry.data;
+    }
   }
 
   @Override
   protected Data remove(String sessionId) {
-    return sessions.remove(sessionId);
+    Segment segment = segment(sessionId);
+    synchronized (segment) {
+      Entry entry = segment.remove(sessionId);
+      return entry == null ? null : entry.data;
+    }
   }
 
   @Override
   protected void put(String sessionId, Data data) {
-    sessions.put(sessionId, data);
+    Segment segment = segment(sessionId);
+    Entry entry = new Entry(data, clock.getAsLong());
+    synchronized (segment) {
+      segment.put(sessionId, entry);
+    }
   }
 
   @Override
@@ -54,22 +161,60 @@ public class MemorySessionStore extends SessionStore.InMemory {
     return super.findSession(ctx);
   }
 
-  /** Check for expired session and delete them. */
+  /**
+   * Remove expired sessions from the next segment. Sessions are access ordered, so sweep stops at
+   * the first non expired session.
+   */
   private void purge() {
-    if (timeout != null) {
-      Iterator<Map.Entry<String, Data>> iterator = sessions.entrySet().iterator();
-      while (iterator.hasNext()) {
-        Map.Entry<String, Data> entry = iterator.next();
-        Data session = entry.getValue();
-        if (session.isExpired(timeout)) {
-          iterator.remove();
+    if (timeout > 0) {
+      Segment segment = segments[(sweep.getAndIncrement() & Integer.MAX_VALUE) % segments.length];
+      long now = clock.getAsLong();
+      synchronized (segment) {
+        Iterator<Entry> iterator = segment.values().iterator();
+        for (int i = 0; i < PURGE_STEPS && iterator.hasNext(); i++) {
+          if (isExpired(iterator.next(), now)) {
+            iterator.remove();
+          } else {
+            break;
+          }
         }
       }
     }
   }
 
+  /**
+   * Number of live sessions, including expired sessions not yet purged.
+   *
+   * @return Number of live sessions.
+   */
+  int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
   public SessionStore setTimeout(Duration timeout) {
-    this.timeout = timeout;
+    this.timeout =
+        Optional.ofNullable(timeout)
+            .filter(t -> t.toMillis() > 0)
+            .map(Duration::toMillis)
+            .orElse(0L);
     return this;
   }
+
+  private boolean isExpired(Entry entry, long now) {
+    return timeout > 0 && now - entry.lastAccess > timeout;
+  }
+
+  private Segment segment(String sessionId) {
+    if (segments.length == 1) {
+      return segments[0];
+    }
+    int hash = sessionId.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+  }
 }
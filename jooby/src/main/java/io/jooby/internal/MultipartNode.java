@@ -21,6 +21,11 @@ public class MultipartNode extends HashValue implements Formdata {
     super(ctx);
   }
 
+  MultipartNode(Context ctx, UrlencodedParams params) {
+    super(ctx);
+    setParams(params);
+  }
+
   @Override
   public void put(String name, FileUpload file) {
     files.computeIfAbsent(name, k -> new ArrayList<>()).add(file);
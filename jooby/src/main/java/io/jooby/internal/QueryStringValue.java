@@ -17,6 +17,12 @@ public class QueryStringValue extends HashValue implements QueryString {
     this.queryString = queryString;
   }
 
+  QueryStringValue(Context ctx, String queryString, UrlencodedParams params) {
+    super(ctx);
+    setParams(params);
+    this.queryString = queryString;
+  }
+
   protected boolean allowEmptyBean() {
     return true;
   }
@@ -32,6 +38,9 @@ public class QueryStringValue extends HashValue implements QueryString {
 
   @NonNull @Override
   public String queryString() {
+    if (queryString.length() > 0 && queryString.charAt(0) != '?') {
+      queryString = "?" + queryString;
+    }
     return queryString;
   }
 }
@@ -23,6 +23,7 @@ import io.jooby.Cookie;
 import io.jooby.FileDownload;
 import io.jooby.ForwardingContext;
 import io.jooby.MediaType;
+import io.jooby.Output;
 import io.jooby.Sender;
 import io.jooby.SneakyThrows;
 import io.jooby.StatusCode;
@@ -64,6 +65,12 @@ public class ReadOnlyContext extends ForwardingContext {
     throw new IllegalStateException(MESSAGE);
   }
 
+  @NonNull @Override
+  public Context send(@NonNull Output output) {
+    output.release();
+    throw new IllegalStateException(MESSAGE);
+  }
+
   @NonNull @Override
   public Context send(@NonNull FileDownload file) {
     throw new IllegalStateException(MESSAGE);
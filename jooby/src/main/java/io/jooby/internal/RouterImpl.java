@@ -63,6 +63,7 @@ import io.jooby.ServiceRegistry;
 import io.jooby.SessionStore;
 import io.jooby.StatusCode;
 import io.jooby.ValueConverter;
+import io.jooby.VirtualThreadExecutor;
 import io.jooby.WebSocket;
 import io.jooby.XSS;
 import io.jooby.exception.RegistryException;
@@ -167,6 +168,8 @@ public class RouterImpl implements Router {
 
   private Map<Route, Executor> routeExecutor = new HashMap<>();
 
+  private VirtualThreadExecutor virtualThreads;
+
   private Map<String, MessageDecoder> decoders = new HashMap<>();
 
   private Map<String, Object> attributes = new ConcurrentHashMap<>();
@@ -453,8 +456,16 @@ public class RouterImpl implements Router {
 
   @NonNull @Override
   public Router converter(ValueConverter converter) {
-    if (converter instanceof BeanConverter) {
-      beanConverters.add((BeanConverter) converter);
+    if (converter instanceof BeanConverter.Compiled compiled) {
+      beanConverters.add(compiled);
+    } else if (converter instanceof BeanConverter) {
+      // application converters take precedence over compiled ones
+      int index = 0;
+      while (index < beanConverters.size()
+          && !(beanConverters.get(index) instanceof BeanConverter.Compiled)) {
+        index++;
+      }
+      beanConverters.add(index, (BeanConverter) converter);
     } else {
       converters.addFirst(converter);
     }
@@ -587,6 +598,10 @@ public class RouterImpl implements Router {
     }
 
     ExecutionMode mode = app.getExecutionMode();
+    if (mode == ExecutionMode.VIRTUAL) {
+      virtualThreads = new VirtualThreadExecutor("virtual");
+      services.put(VirtualThreadExecutor.class, virtualThreads);
+    }
     for (Route route : routes) {
       String executorKey = route.getExecutorKey();
       Executor executor;
@@ -605,6 +620,10 @@ public class RouterImpl implements Router {
           executor = executor(executorKey);
         }
       }
+      /** Virtual threads, except for routes with a custom executor and web sockets: */
+      if (executor == null && virtualThreads != null && !route.getMethod().equals(Router.WS)) {
+        executor = virtualThreads;
+      }
       /** Default web socket values: */
       if (route.getHandler() instanceof WebSocketHandler) {
         if (route.getConsumes().isEmpty()) {
@@ -635,6 +654,11 @@ public class RouterImpl implements Router {
       route.setEncoder(encoder);
     }
     ((Chi) chi).setEncoder(encoder);
+    /** Route set is now immutable: */
+    ((Chi) chi).freeze();
+    if (predicateMap != null) {
+      predicateMap.values().forEach(tree -> ((Chi) tree).freeze());
+    }
 
     /** router options: */
     if (routerOptions.contains(RouterOption.IGNORE_CASE)) {
@@ -688,6 +712,10 @@ public class RouterImpl implements Router {
     routes.clear();
     routes = null;
     chi.destroy();
+    if (virtualThreads != null) {
+      virtualThreads.close();
+      virtualThreads = null;
+    }
     if (errorCodes != null) {
       errorCodes.clear();
       errorCodes = null;
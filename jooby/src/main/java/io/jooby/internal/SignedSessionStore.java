@@ -18,6 +18,12 @@ import io.jooby.SessionToken;
 
 public class SignedSessionStore implements SessionStore {
 
+  /**
+   * Context attribute with the attributes of the current token. Used to skip encoding and signing
+   * when attributes didn't change.
+   */
+  private static final String ENCODED = SignedSessionStore.class.getName() + ".encoded";
+
   private final Function<String, Map<String, String>> decoder;
 
   private final Function<Map<String, String>, String> encoder;
@@ -48,17 +54,26 @@ public class SignedSessionStore implements SessionStore {
     if (attributes == null || attributes.size() == 0) {
       return null;
     }
+    ctx.setAttribute(ENCODED, attributes);
     return Session.create(ctx, signed, new HashMap<>(attributes)).setNew(false);
   }
 
   @Override
   public void deleteSession(@NonNull Context ctx, @NonNull Session session) {
+    ctx.getAttributes().remove(ENCODED);
     token.deleteToken(ctx, null);
   }
 
   @Override
   public void touchSession(@NonNull Context ctx, @NonNull Session session) {
-    token.saveToken(ctx, encoder.apply(session.toMap()));
+    Map<String, String> attributes = session.toMap();
+    String signed = session.getId();
+    if (signed != null && attributes.equals(ctx.getAttributes().get(ENCODED))) {
+      // nothing changed, send back current token
+      token.saveToken(ctx, signed);
+    } else {
+      saveToken(ctx, session, attributes);
+    }
   }
 
   @Override
@@ -68,6 +83,13 @@ public class SignedSessionStore implements SessionStore {
 
   @Override
   public void renewSessionId(@NonNull Context ctx, @NonNull Session session) {
-    token.saveToken(ctx, encoder.apply(session.toMap()));
+    saveToken(ctx, session, session.toMap());
+  }
+
+  private void saveToken(Context ctx, Session session, Map<String, String> attributes) {
+    String signed = encoder.apply(attributes);
+    session.setId(signed);
+    token.saveToken(ctx, signed);
+    ctx.setAttribute(ENCODED, new HashMap<>(attributes));
   }
 }
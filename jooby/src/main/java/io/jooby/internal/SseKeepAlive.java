@@ -0,0 +1,151 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.Router;
+import io.jooby.ServerSentEmitter;
+
+/**
+ * Keep-alive scheduler of an application. All the emitters share one scheduler thread and emitters
+ * with the same period are grouped in one task, so the cost of a tick doesn't depend on the number
+ * of emitters.
+ *
+ * <p>Created by the first <code>sse</code> route of an application, registered as a service and
+ * closed when the application stops. Emitters of routers without one (no <code>sse</code> route
+ * added via {@link io.jooby.Jooby}) use a JVM wide instance that is never closed.
+ */
+public class SseKeepAlive implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(ServerSentEmitter.class);
+
+  private static final SseKeepAlive GLOBAL = new SseKeepAlive();
+
+  private final Map<Long, Task> tasks = new HashMap<>();
+
+  private final Map<ServerSentEmitter, Long> periods = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService scheduler;
+
+  private boolean closed;
+
+  /**
+   * Keep-alive scheduler of the emitter application.
+   *
+   * @param emitter Emitter.
+   * @return Keep-alive scheduler.
+   */
+  public static @NonNull SseKeepAlive of(@NonNull ServerSentEmitter emitter) {
+    Router router = emitter.getContext().getRouter();
+    SseKeepAlive keepAlive =
+        router == null ? null : router.getServices().getOrNull(SseKeepAlive.class);
+    return keepAlive == null ? GLOBAL : keepAlive;
+  }
+
+  /**
+   * Send heartbeats to the given emitter every <code>period</code> milliseconds, until the emitter
+   * is closed. A new period replaces the previous one. Ignored once closed.
+   *
+   * @param emitter Emitter.
+   * @param period Period in millis.
+   */
+  public synchronized void schedule(@NonNull ServerSentEmitter emitter, long period) {
+    if (closed) {
+      return;
+    }
+    Long previous = periods.put(emitter, period);
+    if (previous != null) {
+      remove(emitter, previous);
+    }
+    Task task = tasks.get(period);
+    if (task == null) {
+      task = new Task(period);
+      task.future = scheduler().scheduleAtFixedRate(task, period, period, TimeUnit.MILLISECONDS);
+      tasks.put(period, task);
+    }
+    task.emitters.add(emitter);
+  }
+
+  /** Cancel all the keep-alive tasks and shutdown the scheduler. */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    tasks.clear();
+    periods.clear();
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  private synchronized void expired(ServerSentEmitter emitter, long period) {
+    if (periods.remove(emitter, period)) {
+      remove(emitter, period);
+    }
+  }
+
+  private void remove(ServerSentEmitter emitter, long period) {
+    Task task = tasks.get(period);
+    if (task != null && task.emitters.remove(emitter) && task.emitters.isEmpty()) {
+      task.future.cancel(false);
+      tasks.remove(period);
+    }
+  }
+
+  private ScheduledExecutorService scheduler() {
+    if (scheduler == null) {
+      scheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "sse-keep-alive");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return scheduler;
+  }
+
+  /** Heartbeat of all the emitters with the same period. */
+  private class Task implements Runnable {
+    private final Set<ServerSentEmitter> emitters = ConcurrentHashMap.newKeySet();
+
+    private final long period;
+
+    private ScheduledFuture<?> future;
+
+    Task(long period) {
+      this.period = period;
+    }
+
+    @Override
+    public void run() {
+      for (ServerSentEmitter emitter : emitters) {
+        if (emitter.isOpen()) {
+          try {
+            emitter.heartbeat();
+          } catch (Exception x) {
+            log.debug("connection lost for {}", emitter.getId(), x);
+            emitter.close();
+          }
+        } else {
+          expired(emitter, period);
+        }
+      }
+    }
+  }
+}
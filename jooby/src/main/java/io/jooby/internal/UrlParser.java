@@ -14,19 +14,27 @@ import java.nio.charset.CoderResult;
 import java.nio.charset.StandardCharsets;
 
 import io.jooby.Context;
+import io.jooby.Formdata;
 import io.jooby.QueryString;
 import io.jooby.SneakyThrows;
 
 public final class UrlParser {
   private static final char SPACE = 0x20;
 
+  private static final int PARAMS_LIMIT = 1024;
+
   public static QueryString queryString(Context ctx, String queryString) {
     if (queryString == null || queryString.length() == 0) {
       return new QueryStringValue(ctx, "");
     }
-    QueryStringValue result = new QueryStringValue(ctx, "?" + queryString);
-    decodeParams(result, queryString, 0, StandardCharsets.UTF_8, 1024);
-    return result;
+    return new QueryStringValue(ctx, queryString, params(queryString, true));
+  }
+
+  public static Formdata form(Context ctx, String body) {
+    if (body == null || body.length() == 0) {
+      return new MultipartNode(ctx);
+    }
+    return new MultipartNode(ctx, params(body, false));
   }
 
   public static String decodePathSegment(String value) {
@@ -36,21 +44,26 @@ public final class UrlParser {
     return decodeComponent(value, 0, value.length(), StandardCharsets.UTF_8, true);
   }
 
-  private static void decodeParams(
-      HashValue root, String s, int from, Charset charset, int paramsLimit) {
+  /**
+   * Index name/value pairs without decoding them.
+   *
+   * @param s Urlencoded string.
+   * @param query True for query string (<code>;</code> separator and <code>#</code> fragment are
+   *     recognized), false for form body.
+   * @return Parameter offsets.
+   */
+  private static UrlencodedParams params(String s, boolean query) {
+    UrlencodedParams params = new UrlencodedParams(s);
     int len = s.length();
-    if (from >= len) {
-      return;
-    }
-    if (s.charAt(from) == '?') {
-      from++;
-    }
+    int from = s.charAt(0) == '?' ? 1 : 0;
+    int paramsLimit = PARAMS_LIMIT;
     int nameStart = from;
     int valueStart = -1;
     int i;
     loop:
     for (i = from; i < len; i++) {
-      switch (s.charAt(i)) {
+      char c = s.charAt(i);
+      switch (c) {
         case '=':
           if (nameStart == i) {
             nameStart = i + 1;
@@ -60,38 +73,43 @@ public final class UrlParser {
           break;
         case '&':
         case ';':
-          if (addParam(root, s, nameStart, valueStart, i, charset)) {
+          if (c == ';' && !query) {
+            break;
+          }
+          if (addParam(params, nameStart, valueStart, i)) {
             paramsLimit--;
             if (paramsLimit == 0) {
-              return;
+              return params;
             }
           }
           nameStart = i + 1;
           break;
         case '#':
-          break loop;
+          if (query) {
+            break loop;
+          }
+          break;
         default:
           // continue
       }
     }
-    addParam(root, s, nameStart, valueStart, i, charset);
+    addParam(params, nameStart, valueStart, i);
+    return params;
   }
 
   private static boolean addParam(
-      HashValue root, String s, int nameStart, int valueStart, int valueEnd, Charset charset) {
+      UrlencodedParams params, int nameStart, int valueStart, int valueEnd) {
     if (nameStart >= valueEnd) {
       return false;
     }
     if (valueStart <= nameStart) {
       valueStart = valueEnd + 1;
     }
-    String name = decodeComponent(s, nameStart, valueStart - 1, charset, false);
-    String value = decodeComponent(s, valueStart, valueEnd, charset, false);
-    root.put(name, value);
+    params.add(nameStart, valueStart - 1, valueStart, valueEnd);
     return true;
   }
 
-  private static String decodeComponent(
+  static String decodeComponent(
       String s, int from, int toExcluded, Charset charset, boolean isPath) {
     int len = toExcluded - from;
     if (len <= 0) {
@@ -0,0 +1,150 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import io.jooby.Context;
+import io.jooby.ValueNode;
+
+/**
+ * Offsets of name/value pairs of an urlencoded string (query string or form body). Names and values
+ * are percent-decoded on access. Lookup by name works directly over the raw string unless there is
+ * a nested (<code>a.b</code>, <code>a[0]</code>) or encoded name, in which case {@link HashValue}
+ * builds its tree.
+ */
+final class UrlencodedParams {
+  private static final int NAME_START = 0;
+  private static final int NAME_END = 1;
+  private static final int VALUE_START = 2;
+  private static final int VALUE_END = 3;
+  private static final int STRIDE = 4;
+
+  private final String source;
+
+  private int[] offsets = new int[STRIDE * 8];
+
+  private int size;
+
+  private boolean nested;
+
+  /** Values resolved by name, so repeated lookups return the same node. */
+  private Map<String, ValueNode> values;
+
+  UrlencodedParams(String source) {
+    this.source = source;
+  }
+
+  void add(int nameStart, int nameEnd, int valueStart, int valueEnd) {
+    int offset = size * STRIDE;
+    if (offset == offsets.length) {
+      offsets = Arrays.copyOf(offsets, offsets.length * 2);
+    }
+    offsets[offset + NAME_START] = nameStart;
+    offsets[offset + NAME_END] = nameEnd;
+    offsets[offset + VALUE_START] = valueStart;
+    offsets[offset + VALUE_END] = valueEnd;
+    size++;
+    if (!nested) {
+      for (int i = nameStart; i < nameEnd; i++) {
+        switch (source.charAt(i)) {
+          case '.', '[', ']', '%', '+' -> nested = true;
+          default -> {}
+        }
+      }
+    }
+  }
+
+  /**
+   * True when a name can't be compared as is against the raw string.
+   *
+   * @return True when a name can't be compared as is against the raw string.
+   */
+  boolean isNested() {
+    return nested;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Lookup a parameter. Only for non nested params.
+   *
+   * @param ctx Current context.
+   * @param name Parameter name.
+   * @return A single, array or missing value.
+   */
+  ValueNode get(Context ctx, String name) {
+    ValueNode result = values == null ? null : values.get(name);
+    if (result != null) {
+      return result;
+    }
+    int len = name.length();
+    for (int i = 0; i < size * STRIDE; i += STRIDE) {
+      int nameStart = offsets[i + NAME_START];
+      if (offsets[i + NAME_END] - nameStart == len
+          && source.regionMatches(nameStart, name, 0, len)) {
+        String value = value(i);
+        if (result == null) {
+          result = new SingleValue(ctx, name, value);
+        } else if (result instanceof ArrayValue array) {
+          array.add(value);
+        } else {
+          result = new ArrayValue(ctx, name).add(result).add(value);
+        }
+      }
+    }
+    if (result == null) {
+      return new MissingValue(name);
+    }
+    if (values == null) {
+      values = new HashMap<>();
+    }
+    values.put(name, result);
+    return result;
+  }
+
+  /**
+   * Decode all the name/value pairs.
+   *
+   * @param consumer Pair consumer.
+   */
+  void forEach(BiConsumer<String, String> consumer) {
+    for (int i = 0; i < size * STRIDE; i += STRIDE) {
+      String name =
+          UrlParser.decodeComponent(
+              source,
+              offsets[i + NAME_START],
+              offsets[i + NAME_END],
+              StandardCharsets.UTF_8,
+              false);
+      consumer.accept(name, value(i));
+    }
+  }
+
+  /**
+   * Values previously returned by {@link #get(Context, String)}.
+   *
+   * @return Values previously returned by {@link #get(Context, String)}.
+   */
+  Map<String, ValueNode> resolved() {
+    return values == null ? Map.of() : values;
+  }
+
+  private String value(int offset) {
+    return UrlParser.decodeComponent(
+        source,
+        offsets[offset + VALUE_START],
+        offsets[offset + VALUE_END],
+        StandardCharsets.UTF_8,
+        false);
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import com.typesafe.config.Config;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.Context;
+import io.jooby.WebSocket;
+import io.jooby.WebSocketBroadcast;
+
+public class WebSocketBroadcaster implements WebSocketBroadcast {
+
+  /** Default number of pending writes before a session is considered slow. */
+  private static final int MAX_PENDING_MESSAGES = 64;
+
+  private final WebSocket.SlowConsumer slowConsumer;
+
+  private final int maxPendingMessages;
+
+  public WebSocketBroadcaster(@NonNull Config conf) {
+    this.slowConsumer =
+        conf.hasPath("websocket.slowConsumer")
+            ? WebSocket.SlowConsumer.valueOf(
+                conf.getString("websocket.slowConsumer").trim().toUpperCase(Locale.ROOT))
+            : WebSocket.SlowConsumer.DROP;
+    this.maxPendingMessages =
+        conf.hasPath("websocket.maxPendingMessages")
+            ? conf.getInt("websocket.maxPendingMessages")
+            : MAX_PENDING_MESSAGES;
+  }
+
+  @NonNull @Override
+  public byte[] encode(
+      @NonNull Context ctx, @NonNull WebSocket ws, boolean binary, @NonNull Object message) {
+    if (message instanceof CharSequence) {
+      return message.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    if (message instanceof byte[] bytes) {
+      return bytes;
+    }
+    byte[][] result = new byte[1][];
+    new WebSocketSender(ctx, ws, binary, WebSocket.WriteCallback.NOOP) {
+      @NonNull @Override
+      public Context send(@NonNull String data, @NonNull Charset charset) {
+        result[0] = data.getBytes(charset);
+        return this;
+      }
+
+      @NonNull @Override
+      public Context send(@NonNull byte[] data) {
+        result[0] = data;
+        return this;
+      }
+    }.render(message);
+    if (result[0] == null) {
+      throw new IllegalStateException("Unable to encode broadcast message: " + message);
+    }
+    return result[0];
+  }
+
+  @NonNull @Override
+  public WebSocket.SlowConsumer getSlowConsumer() {
+    return slowConsumer;
+  }
+
+  @Override
+  public int getMaxPendingMessages() {
+    return maxPendingMessages;
+  }
+}
@@ -16,6 +16,7 @@ import io.jooby.Cookie;
 import io.jooby.DefaultContext;
 import io.jooby.ForwardingContext;
 import io.jooby.MediaType;
+import io.jooby.Output;
 import io.jooby.StatusCode;
 import io.jooby.WebSocket;
 
@@ -56,6 +57,18 @@ public class WebSocketSender extends ForwardingContext implements DefaultContext
     return this;
   }
 
+  @NonNull @Override
+  public Context send(@NonNull Output output) {
+    byte[] bytes = output.toByteArray();
+    output.release();
+    return send(bytes);
+  }
+
+  @NonNull @Override
+  public Output newOutput() {
+    return DefaultContext.super.newOutput();
+  }
+
   @NonNull @Override
   public Context render(@NonNull Object value) {
     DefaultContext.super.render(value);
@@ -0,0 +1,186 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.converter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.jooby.BeanConverter;
+import io.jooby.Value;
+import io.jooby.ValueNode;
+import io.jooby.exception.BadRequestException;
+import io.jooby.exception.ProvisioningException;
+
+/**
+ * Bean converter generated at compile time by <code>jooby-apt</code>. Constructor and setters are
+ * resolved at compile time and invoked via generated lambdas. Values are converted with the same
+ * code of {@link ReflectiveBeanConverter}.
+ */
+public final class CompiledBeanConverter implements BeanConverter.Compiled {
+
+  private record Property(
+      String name,
+      Class<?> type,
+      @Nullable Class<?> elementType,
+      boolean nullable,
+      String error,
+      @Nullable BiConsumer<Object, Object> setter) {
+
+    public Object value(ValueNode node, ValueNode value) {
+      try {
+        return ReflectiveBeanConverter.value(node, value, type, elementType, nullable);
+      } catch (BadRequestException x) {
+        throw new ProvisioningException(error, x);
+      }
+    }
+  }
+
+  private record Setter(Property property, Object arg) {
+    public void invoke(Object instance) {
+      property.setter.accept(instance, arg);
+    }
+  }
+
+  private static class Bean {
+    private final boolean emptyBean;
+
+    private final Function<Object[], Object> factory;
+
+    private final List<Property> args = new ArrayList<>();
+
+    private final Map<String, Property> setters = new HashMap<>();
+
+    private final Set<String> setterNames = new HashSet<>();
+
+    Bean(boolean emptyBean, Function<Object[], Object> factory) {
+      this.emptyBean = emptyBean;
+      this.factory = factory;
+    }
+
+    void setter(String method, Property property) {
+      if (method.length() > 3 && method.startsWith("set")) {
+        // setFoo matches: foo and Foo
+        char first = method.charAt(3);
+        if (Character.toUpperCase(first) == first) {
+          String name = method.substring(3);
+          setterNames.add(name);
+          setters.put(name, property);
+          char lower = Character.toLowerCase(first);
+          if (lower != first) {
+            name = lower + method.substring(4);
+            setterNames.add(name);
+            setters.put(name, property);
+          }
+        }
+      }
+      // exact name match, lower precedence than setXxx
+      if (!setterNames.contains(method)) {
+        setters.putIfAbsent(method, property);
+      }
+    }
+  }
+
+  private final Map<Class<?>, Bean> beans = new HashMap<>();
+
+  private Bean current;
+
+  @Override
+  public @NonNull CompiledBeanConverter bean(
+      @NonNull Class<?> type, boolean emptyBean, @NonNull Function<Object[], Object> factory) {
+    current = new Bean(emptyBean, factory);
+    beans.putIfAbsent(type, current);
+    return this;
+  }
+
+  @Override
+  public @NonNull CompiledBeanConverter arg(
+      @NonNull String name,
+      @NonNull Class<?> type,
+      @Nullable Class<?> elementType,
+      boolean nullable,
+      @NonNull String error) {
+    current.args.add(new Property(name, type, elementType, nullable, error, null));
+    return this;
+  }
+
+  @Override
+  public @NonNull CompiledBeanConverter setter(
+      @NonNull String method,
+      @NonNull Class<?> type,
+      @Nullable Class<?> elementType,
+      boolean nullable,
+      @NonNull String error,
+      @NonNull BiConsumer<Object, Object> setter) {
+    current.setter(method, new Property(method, type, elementType, nullable, error, setter));
+    return this;
+  }
+
+  @Override
+  public boolean supports(@NonNull Class type) {
+    return beans.containsKey(type);
+  }
+
+  @Override
+  public Object convert(@NonNull ValueNode node, @NonNull Class type) {
+    return convert(node, type, false);
+  }
+
+  @Override
+  public Object convert(@NonNull ValueNode node, @NonNull Class type, boolean allowEmptyBean) {
+    Bean bean = beans.get(type);
+    Set<ValueNode> state = new HashSet<>();
+    Object[] args = new Object[bean.args.size()];
+    for (int i = 0; i < args.length; i++) {
+      Property property = bean.args.get(i);
+      ValueNode param = node.get(property.name);
+      Object arg = property.value(node, param);
+      state.add(arg == null ? Value.missing(property.name) : param);
+      args[i] = arg;
+    }
+    List<Setter> setters = setters(bean, node, state);
+    if (!(bean.emptyBean || allowEmptyBean) && state.stream().allMatch(Value::isMissing)) {
+      return null;
+    }
+    Object instance = bean.factory.apply(args);
+    for (Setter setter : setters) {
+      setter.invoke(instance);
+    }
+    return instance;
+  }
+
+  private static List<Setter> setters(Bean bean, ValueNode node, Set<ValueNode> state) {
+    if (bean.setters.isEmpty()) {
+      return List.of();
+    }
+    List<Setter> result = new ArrayList<>();
+    for (String name : ReflectiveBeanConverter.names(node)) {
+      ValueNode value = node.get(name);
+      if (state.add(value)) {
+        Property property = bean.setters.get(name);
+        if (property != null) {
+          try {
+            result.add(new Setter(property, property.value(node, value)));
+          } catch (ProvisioningException x) {
+            throw x;
+          } catch (Exception x) {
+            throw new ProvisioningException(property.error, x);
+          }
+        } else {
+          state.remove(value);
+        }
+      }
+    }
+    return result;
+  }
+}
@@ -33,7 +33,6 @@ import io.jooby.Value;
 import io.jooby.ValueNode;
 import io.jooby.annotation.EmptyBean;
 import io.jooby.exception.BadRequestException;
-import io.jooby.exception.MissingValueException;
 import io.jooby.exception.ProvisioningException;
 import io.jooby.internal.reflect.$Types;
 import jakarta.inject.Inject;
@@ -162,7 +161,7 @@ public class ReflectiveBeanConverter {
    * @param node Root node.
    * @return Names, including file names.
    */
-  private static Set<String> names(ValueNode node) {
+  static Set<String> names(ValueNode node) {
     Set<String> names = new LinkedHashSet<>();
     for (ValueNode item : node) {
       names.add(item.name());
@@ -202,44 +201,62 @@ public class ReflectiveBeanConverter {
 
   private static Object value(Parameter parameter, ValueNode node, ValueNode value) {
     try {
-      if (isFileUpload(node, parameter)) {
-        Formdata formdata = (Formdata) node;
-        if (Set.class.isAssignableFrom(parameter.getType())) {
-          return new HashSet<>(formdata.files(value.name()));
-        } else if (Collection.class.isAssignableFrom(parameter.getType())) {
-          return formdata.files(value.name());
-        } else if (Optional.class.isAssignableFrom(parameter.getType())) {
-          List<FileUpload> files = formdata.files(value.name());
-          return files.isEmpty() ? Optional.empty() : Optional.of(files.get(0));
-        } else {
-          return formdata.file(value.name());
-        }
+      return value(
+          node,
+          value,
+          parameter.getType(),
+          $Types.parameterizedType0(parameter.getParameterizedType()),
+          isNullable(parameter));
+    } catch (BadRequestException x) {
+      throw new ProvisioningException(parameter, x);
+    }
+  }
+
+  /**
+   * Convert a bean property, shared with compiled bean converters.
+   *
+   * @param node Root node.
+   * @param value Property value.
+   * @param type Property type.
+   * @param elementType Element type of collection and optional properties, otherwise same as type.
+   * @param nullable True for nullable properties.
+   * @return Property value.
+   */
+  static Object value(
+      ValueNode node, ValueNode value, Class type, Class elementType, boolean nullable) {
+    if (isFileUpload(node, type, elementType)) {
+      Formdata formdata = (Formdata) node;
+      if (Set.class.isAssignableFrom(type)) {
+        return new HashSet<>(formdata.files(value.name()));
+      } else if (Collection.class.isAssignableFrom(type)) {
+        return formdata.files(value.name());
+      } else if (Optional.class.isAssignableFrom(type)) {
+        List<FileUpload> files = formdata.files(value.name());
+        return files.isEmpty() ? Optional.empty() : Optional.of(files.get(0));
       } else {
-        if (Set.class.isAssignableFrom(parameter.getType())) {
-          return value.toSet($Types.parameterizedType0(parameter.getParameterizedType()));
-        } else if (Collection.class.isAssignableFrom(parameter.getType())) {
-          return value.toList($Types.parameterizedType0(parameter.getParameterizedType()));
-        } else if (Optional.class.isAssignableFrom(parameter.getType())) {
-          return value.toOptional($Types.parameterizedType0(parameter.getParameterizedType()));
-        } else {
-          if (isNullable(parameter)) {
-            if (value.isSingle()) {
-              var str = value.valueOrNull();
-              if (str == null || str.length() == 0) {
-                // treat empty values as null
-                return null;
-              }
+        return formdata.file(value.name());
+      }
+    } else {
+      if (Set.class.isAssignableFrom(type)) {
+        return value.toSet(elementType);
+      } else if (Collection.class.isAssignableFrom(type)) {
+        return value.toList(elementType);
+      } else if (Optional.class.isAssignableFrom(type)) {
+        return value.toOptional(elementType);
+      } else {
+        if (nullable) {
+          if (value.isSingle()) {
+            var str = value.valueOrNull();
+            if (str == null || str.length() == 0) {
+              // treat empty values as null
+              return null;
             }
-            return value.toNullable(parameter.getType());
-          } else {
-            return value.to(parameter.getType());
           }
+          return value.toNullable(type);
+        } else {
+          return value.to(type);
         }
       }
-    } catch (MissingValueException x) {
-      throw new ProvisioningException(parameter, x);
-    } catch (BadRequestException x) {
-      throw new ProvisioningException(parameter, x);
     }
   }
 
@@ -262,9 +279,8 @@ public class ReflectiveBeanConverter {
     return false;
   }
 
-  private static boolean isFileUpload(ValueNode node, Parameter parameter) {
-    return (node instanceof Formdata) && isFileUpload(parameter.getType())
-        || isFileUpload($Types.parameterizedType0(parameter.getParameterizedType()));
+  private static boolean isFileUpload(ValueNode node, Class type, Class elementType) {
+    return (node instanceof Formdata) && isFileUpload(type) || isFileUpload(elementType);
   }
 
   private static boolean isFileUpload(Class type) {
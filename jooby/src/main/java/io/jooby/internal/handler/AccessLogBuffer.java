@@ -0,0 +1,172 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.handler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer/single-consumer ring of preallocated access log entries. Producers never
+ * block: when the ring is full the entry is dropped and counted.
+ *
+ * <p>Each slot has a sequence number (same idea as Dmitry Vyukov's bounded queue): a producer
+ * claims a slot by moving the tail, fills the preallocated entry and publishes it by updating the
+ * slot sequence. The consumer reads published slots in order and releases them for the next lap.
+ *
+ * <pre>{@code
+ * long position = buffer.claim();
+ * if (position >= 0) {
+ *   try {
+ *     Entry entry = buffer.entry(position);
+ *     ...
+ *   } finally {
+ *     buffer.publish(position);
+ *   }
+ * }
+ * }</pre>
+ */
+public class AccessLogBuffer {
+
+  /** Mutable access log entry. Owned by a producer while writing, by the consumer while reading. */
+  public static final class Entry {
+    public String remoteAddress;
+    public String user;
+    public long timestamp;
+    public String method;
+    public String path;
+    public String query;
+    public String protocol;
+    public int status;
+    public long length;
+    public long latency;
+    public final String[] requestHeaders;
+    public final String[] responseHeaders;
+
+    public Entry(int requestHeaders, int responseHeaders) {
+      this.requestHeaders = new String[requestHeaders];
+      this.responseHeaders = new String[responseHeaders];
+    }
+
+    void clear() {
+      remoteAddress = null;
+      user = null;
+      method = null;
+      path = null;
+      query = null;
+      protocol = null;
+    }
+  }
+
+  private final Entry[] entries;
+
+  private final AtomicLongArray sequences;
+
+  private final int mask;
+
+  private final AtomicLong tail = new AtomicLong();
+
+  private final LongAdder dropped = new LongAdder();
+
+  private long head;
+
+  /**
+   * Creates a new buffer.
+   *
+   * @param capacity Capacity, rounded up to a power of two.
+   * @param requestHeaders Number of request headers per entry.
+   * @param responseHeaders Number of response headers per entry.
+   */
+  public AccessLogBuffer(int capacity, int requestHeaders, int responseHeaders) {
+    int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+    this.entries = new Entry[size];
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      entries[i] = new Entry(requestHeaders, responseHeaders);
+      sequences.set(i, i);
+    }
+    this.mask = size - 1;
+  }
+
+  /**
+   * Claim a slot. Never blocks. A claimed slot must be {@link #publish(long) published}.
+   *
+   * @return Slot position or <code>-1</code> when buffer is full and entry was dropped.
+   */
+  public long claim() {
+    while (true) {
+      long position = tail.get();
+      long diff = sequences.get((int) position & mask) - position;
+      if (diff == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          return position;
+        }
+      } else if (diff < 0) {
+        // full
+        dropped.increment();
+        return -1;
+      }
+      // else: another producer claimed this position, retry
+    }
+  }
+
+  /**
+   * Entry at claimed position.
+   *
+   * @param position Claimed position.
+   * @return Entry.
+   */
+  public Entry entry(long position) {
+    return entries[(int) position & mask];
+  }
+
+  /**
+   * Make the entry at claimed position available to consumer.
+   *
+   * @param position Claimed position.
+   */
+  public void publish(long position) {
+    sequences.set((int) position & mask, position + 1);
+  }
+
+  /**
+   * Read published entries. Must be called from a single consumer thread.
+   *
+   * @param reader Entry reader.
+   * @param max Max number of entries to read.
+   * @return Number of entries read.
+   */
+  public int drain(Consumer<Entry> reader, int max) {
+    int count = 0;
+    while (count < max) {
+      int index = (int) head & mask;
+      if (sequences.get(index) != head + 1) {
+        // empty or not published yet
+        break;
+      }
+      Entry entry = entries[index];
+      try {
+        reader.accept(entry);
+      } finally {
+        entry.clear();
+        sequences.set(index, head + entries.length);
+        head++;
+      }
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Number of dropped entries.
+   *
+   * @return Number of dropped entries.
+   */
+  public long getDropped() {
+    return dropped.sum();
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.handler;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded map with idle expiration and approximate LRU eviction.
+ *
+ * <ul>
+ *   <li>Lookup of an existing key is lock-free: a map read plus a relaxed access time update (at
+ *       most once per {@link #TOUCH_RESOLUTION}).
+ *   <li>Entries not accessed within the idle timeout are treated as absent and removed by a sweep.
+ *   <li>When the number of keys goes over the maximum, a single thread removes idle entries and
+ *       then least recently used entries (sampled) until size is below {@link #LOW_WATERMARK} of
+ *       maximum, so the cost of eviction is amortized over many inserts.
+ * </ul>
+ *
+ * @param <V> Value type.
+ */
+public class BoundedStore<V> {
+  private static final long TOUCH_RESOLUTION = 1_000_000_000L;
+
+  private static final double LOW_WATERMARK = 0.9;
+
+  private static final int SAMPLE_SIZE = 256;
+
+  private static final class Entry<V> {
+    final V value;
+
+    volatile long accessedAt;
+
+    Entry(V value, long now) {
+      this.value = value;
+      this.accessedAt = now;
+    }
+  }
+
+  private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+  private final AtomicInteger size = new AtomicInteger();
+
+  private final LongAdder evicted = new LongAdder();
+
+  private final ReentrantLock cleanup = new ReentrantLock();
+
+  private final int maxKeys;
+
+  private final long idleTimeout;
+
+  private final LongSupplier clock;
+
+  private volatile long lastSweep;
+
+  /**
+   * Creates a new store.
+   *
+   * @param maxKeys Maximum number of keys.
+   * @param idleTimeoutNanos Idle timeout in nanoseconds.
+   * @param clock Clock, like {@link System#nanoTime()}.
+   */
+  public BoundedStore(int maxKeys, long idleTimeoutNanos, LongSupplier clock) {
+    this.maxKeys = maxKeys;
+    this.idleTimeout = idleTimeoutNanos;
+    this.clock = clock;
+    this.lastSweep = clock.getAsLong();
+  }
+
+  public V get(String key, Function<String, V> factory) {
+    long now = clock.getAsLong();
+    Entry<V> entry = entries.get(key);
+    if (entry != null) {
+      long accessedAt = entry.accessedAt;
+      if (now - accessedAt < idleTimeout) {
+        if (now - accessedAt > TOUCH_RESOLUTION) {
+          entry.accessedAt = now;
+        }
+        return entry.value;
+      }
+      // expired
+      if (entries.remove(key, entry)) {
+        size.decrementAndGet();
+        evicted.increment();
+      }
+    }
+    boolean[] created = {false};
+    entry =
+        entries.computeIfAbsent(
+            key,
+            k -> {
+              created[0] = true;
+              return new Entry<>(factory.apply(k), now);
+            });
+    if (created[0]) {
+      int size = this.size.incrementAndGet();
+      if (size > maxKeys || now - lastSweep > idleTimeout) {
+        cleanup(now);
+      }
+    }
+    return entry.value;
+  }
+
+  public int size() {
+    return Math.max(0, size.get());
+  }
+
+  public long getEvicted() {
+    return evicted.sum();
+  }
+
+  private void cleanup(long now) {
+    if (!cleanup.tryLock()) {
+      // someone else is on it
+      return;
+    }
+    try {
+      lastSweep = now;
+      // idle entries
+      remove(now - idleTimeout);
+      int target = (int) (maxKeys * LOW_WATERMARK);
+      int excess = size.get() - target;
+      if (size.get() > maxKeys && excess > 0) {
+        // least recently used, approximate cut off from a sample of access times
+        remove(cutoff(excess / (double) size.get(), now - idleTimeout));
+      }
+    } finally {
+      cleanup.unlock();
+    }
+  }
+
+  private long cutoff(double fraction, long defaultValue) {
+    long[] sample = new long[SAMPLE_SIZE];
+    int count = 0;
+    int skip = Math.max(1, size.get() / SAMPLE_SIZE);
+    int offset = ThreadLocalRandom.current().nextInt(skip);
+    int index = 0;
+    for (Entry<V> entry : entries.values()) {
+      if (index++ % skip == offset % skip) {
+        sample[count++] = entry.accessedAt;
+        if (count == sample.length) {
+          break;
+        }
+      }
+    }
+    if (count == 0) {
+      return defaultValue;
+    }
+    Arrays.sort(sample, 0, count);
+    int position = Math.min(count - 1, (int) Math.ceil(count * fraction) - 1);
+    return sample[Math.max(0, position)];
+  }
+
+  private void remove(long accessedBefore) {
+    for (Map.Entry<String, Entry<V>> entry : entries.entrySet()) {
+      if (entry.getValue().accessedAt - accessedBefore <= 0
+          && entries.remove(entry.getKey(), entry.getValue())) {
+        size.decrementAndGet();
+        evicted.increment();
+      }
+    }
+  }
+}
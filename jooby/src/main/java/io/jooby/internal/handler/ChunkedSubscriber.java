@@ -12,28 +12,104 @@ import org.slf4j.Logger;
 import io.jooby.Context;
 import io.jooby.MediaType;
 import io.jooby.MessageEncoder;
+import io.jooby.Output;
+import io.jooby.ReactiveSupport;
 import io.jooby.Route;
 import io.jooby.Sender;
 import io.jooby.Server;
+import io.jooby.internal.HttpMessageEncoder;
 
+/**
+ * Subscriber that writes items as a chunked response. Items are encoded straight into a batch
+ * {@link Output}, there is at most one write in flight: items received while a write is pending are
+ * coalesced and sent together once the pending write completes.
+ *
+ * <p>Items are requested in windows of {@link ReactiveSupport#REQUEST} items. Demand stops once the
+ * batch reaches {@link ReactiveSupport#BUFFER_SIZE} bytes and resumes after the batch is written.
+ */
 public class ChunkedSubscriber implements Flow.Subscriber {
 
-  private static final byte JSON_LBRACKET = '[';
-  private static final byte JSON_SEP = ',';
-  private static final byte[] JSON_RBRACKET = {']'};
+  private enum Framing {
+    /** JSON array: <code>[item,item]</code>. */
+    JSON('[', ',', -1, ']'),
+
+    /** Newline delimited JSON: <code>item\nitem\n</code>. */
+    NDJSON(-1, -1, '\n', -1),
+
+    /** Items as they are. */
+    NONE(-1, -1, -1, -1);
+
+    private final int open;
+
+    private final int separator;
+
+    private final int terminator;
+
+    private final int close;
+
+    Framing(int open, int separator, int terminator, int close) {
+      this.open = open;
+      this.separator = separator;
+      this.terminator = terminator;
+      this.close = close;
+    }
+
+    static Framing of(MediaType responseType) {
+      if (responseType.isJson()) {
+        return JSON;
+      }
+      return responseType.isNdjson() ? NDJSON : NONE;
+    }
+  }
+
+  private static final int DEFAULT_REQUEST = 64;
+
+  private final Context ctx;
+
+  private final int request;
+
+  private final int bufferSize;
+
   private Flow.Subscription subscription;
-  private Context ctx;
+
   private Sender sender;
-  private MediaType responseType;
+
+  /** Set on first item. Reset on error, so no trailing content is sent. */
+  private Framing framing;
+
+  /** Items requested but not received yet. */
+  private int pending;
+
+  private Output batch;
+
+  private boolean writing;
+
+  private boolean completed;
+
+  /** Response finished or errored. */
+  private boolean done;
 
   public ChunkedSubscriber(Context ctx) {
+    this(
+        ctx,
+        intAttribute(ctx, ReactiveSupport.REQUEST, DEFAULT_REQUEST),
+        intAttribute(
+            ctx, ReactiveSupport.BUFFER_SIZE, ctx.getRouter().getServerOptions().getBufferSize()));
+  }
+
+  public ChunkedSubscriber(Context ctx, int request, int bufferSize) {
     this.ctx = ctx;
+    this.request = Math.max(1, request);
+    this.bufferSize = Math.max(1, bufferSize);
   }
 
   @Override
   public void onSubscribe(Flow.Subscription subscription) {
     this.subscription = subscription;
-    this.subscription.request(1);
+    synchronized (this) {
+      pending = request;
+    }
+    this.subscription.request(request);
   }
 
   public void onNext(Object item) {
@@ -44,29 +120,38 @@ public class ChunkedSubscriber implements Flow.Subscriber {
         after.apply(ctx, item, null);
       }
       MessageEncoder encoder = route.getEncoder();
-      byte[] data = encoder.encode(ctx, item);
 
-      if (responseType == null) {
-        responseType = ctx.getResponseType();
-        if (responseType.isJson()) {
-          data = prepend(data, JSON_LBRACKET);
+      Output flush = null;
+      synchronized (this) {
+        if (done) {
+          return;
         }
-      } else {
-        if (responseType.isJson()) {
-          data = prepend(data, JSON_SEP);
+        pending -= 1;
+        if (batch == null) {
+          batch = ctx.newOutput();
         }
-      }
+        if (framing == null) {
+          // encode first item before framing: encoder might set the response type
+          byte[] data = encoder.encode(ctx, item);
+          framing = Framing.of(ctx.getResponseType());
+          write(batch, framing.open);
+          if (data != null) {
+            batch.write(data);
+          }
+        } else {
+          write(batch, framing.separator);
+          encode(encoder, item);
+        }
+        write(batch, framing.terminator);
 
-      sender()
-          .write(
-              data,
-              (context, x) -> {
-                if (x == null) {
-                  subscription.request(1);
-                } else {
-                  onError(x, true);
-                }
-              });
+        if (!writing) {
+          flush = takeBatch();
+        }
+      }
+      if (flush != null) {
+        send(flush);
+      }
+      demand();
     } catch (Exception x) {
       onError(x, true);
     }
@@ -77,8 +162,16 @@ public class ChunkedSubscriber implements Flow.Subscriber {
   }
 
   private void onError(Throwable x, boolean cancel) {
-    // we use it to mark the response as errored so we don't sent a possible trailing json response.
-    responseType = null;
+    synchronized (this) {
+      // we use it to mark the response as errored so we don't sent a possible trailing response.
+      framing = null;
+      completed = true;
+      done = true;
+      if (batch != null) {
+        batch.release();
+        batch = null;
+      }
+    }
     try {
       Route.After after = ctx.getRoute().getAfter();
       if (after != null) {
@@ -102,12 +195,76 @@ public class ChunkedSubscriber implements Flow.Subscriber {
   }
 
   public void onComplete() {
-    if (responseType != null && responseType.isJson()) {
-      responseType = null;
+    Output last;
+    synchronized (this) {
+      completed = true;
+      if (writing || done) {
+        // pending write completion sends what is left
+        return;
+      }
+      last = takeLast();
+    }
+    finish(last);
+  }
+
+  /**
+   * Callback of a batch write: send next batch or finish the response when the publisher is done.
+   *
+   * @param cause Write error or <code>null</code>.
+   */
+  private void onWrite(Throwable cause) {
+    if (cause != null) {
+      onError(cause, true);
+      return;
+    }
+    Output next;
+    boolean finish;
+    synchronized (this) {
+      writing = false;
+      if (done) {
+        return;
+      }
+      finish = completed;
+      if (finish) {
+        next = takeLast();
+      } else {
+        next = takeBatch();
+      }
+    }
+    if (finish) {
+      finish(next);
+    } else {
+      if (next != null) {
+        send(next);
+      }
+      demand();
+    }
+  }
+
+  /** Request more items when the current window is half consumed and the batch is not full. */
+  private void demand() {
+    long n = 0;
+    synchronized (this) {
+      if (!completed && pending <= request / 2 && (batch == null || batch.size() < bufferSize)) {
+        n = request - pending;
+        pending = request;
+      }
+    }
+    if (n > 0) {
+      subscription.request(n);
+    }
+  }
+
+  private void send(Output output) {
+    sender().write(output, (context, x) -> onWrite(x));
+  }
+
+  private void finish(Output last) {
+    if (last != null) {
       sender()
           .write(
-              JSON_RBRACKET,
-              (ctx, x) -> {
+              last,
+              (context, x) -> {
                 if (x != null) {
                   onError(x);
                 }
@@ -116,11 +273,50 @@ public class ChunkedSubscriber implements Flow.Subscriber {
     sender().close();
   }
 
-  private static byte[] prepend(byte[] data, byte c) {
-    byte[] tmp = new byte[data.length + 1];
-    System.arraycopy(data, 0, tmp, 1, data.length);
-    tmp[0] = c;
-    return tmp;
+  /**
+   * Remove current batch (if any) and mark it as in flight.
+   *
+   * @return Current batch or <code>null</code>.
+   */
+  private Output takeBatch() {
+    Output output = batch;
+    if (output != null && output.size() > 0) {
+      batch = null;
+      writing = true;
+      return output;
+    }
+    return null;
+  }
+
+  /**
+   * Remove current batch (if any), append closing content and mark response as done.
+   *
+   * @return Last batch or <code>null</code>.
+   */
+  private Output takeLast() {
+    Output output = batch;
+    batch = null;
+    if (framing != null && framing.close != -1) {
+      if (output == null) {
+        output = ctx.newOutput();
+      }
+      write(output, framing.close);
+    }
+    framing = null;
+    done = true;
+    return output;
+  }
+
+  /** Encode item straight into the batch, when possible. */
+  private void encode(MessageEncoder encoder, Object item) throws Exception {
+    if (encoder instanceof HttpMessageEncoder http) {
+      http.encodeInto(ctx, item, batch);
+    } else {
+      byte[] data = encoder.encode(ctx, item);
+      if (data != null) {
+        batch.write(data);
+      }
+    }
   }
 
   private Sender sender() {
@@ -129,4 +325,20 @@ public class ChunkedSubscriber implements Flow.Subscriber {
     }
     return sender;
   }
+
+  private static void write(Output output, int b) {
+    if (b != -1) {
+      output.write((byte) b);
+    }
+  }
+
+  private static int intAttribute(Context ctx, String name, int defaultValue) {
+    Object value = ctx.getRoute().getAttributes().get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    return value instanceof Number number
+        ? number.intValue()
+        : Integer.parseInt(value.toString().trim());
+  }
 }
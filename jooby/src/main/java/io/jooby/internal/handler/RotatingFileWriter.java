@@ -0,0 +1,96 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.handler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append text to a file. Once the file reaches the maximum size, it is renamed to <code>
+ * name.1</code> (previous <code>name.1</code> to <code>name.2</code> and so on, up to max files)
+ * and a new file is created.
+ */
+public class RotatingFileWriter implements AutoCloseable {
+  private final Path file;
+
+  private final long maxFileSize;
+
+  private final int maxFiles;
+
+  private Writer writer;
+
+  private long size;
+
+  public RotatingFileWriter(Path file, long maxFileSize, int maxFiles) {
+    this.file = file.toAbsolutePath();
+    this.maxFileSize = maxFileSize;
+    this.maxFiles = maxFiles;
+  }
+
+  /**
+   * Write a batch of lines. Rotation happens before the batch is written, so a batch is never split
+   * between two files.
+   *
+   * @param lines Lines to write.
+   * @throws IOException If write fails.
+   */
+  public void write(CharSequence lines) throws IOException {
+    if (writer == null) {
+      open();
+    } else if (maxFileSize > 0 && size > 0 && size + lines.length() > maxFileSize) {
+      rotate();
+    }
+    writer.append(lines);
+    writer.flush();
+    // ASCII for most of access log content
+    size += lines.length();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+  }
+
+  private void open() throws IOException {
+    Path parent = file.getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    writer =
+        Files.newBufferedWriter(
+            file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    size = Files.size(file);
+  }
+
+  private void rotate() throws IOException {
+    close();
+    if (maxFiles > 0) {
+      Files.deleteIfExists(backup(maxFiles));
+      for (int i = maxFiles - 1; i > 0; i--) {
+        Path source = backup(i);
+        if (Files.exists(source)) {
+          Files.move(source, backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+        }
+      }
+      Files.move(file, backup(1), StandardCopyOption.REPLACE_EXISTING);
+    } else {
+      Files.deleteIfExists(file);
+    }
+    open();
+  }
+
+  private Path backup(int index) {
+    return file.resolveSibling(file.getFileName() + "." + index);
+  }
+}
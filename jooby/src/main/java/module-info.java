@@ -27,6 +27,11 @@ module io.jooby {
   requires static com.github.spotbugs.annotations;
   requires typesafe.config;
 
+  /*
+   * Optional dependency for pinned virtual thread tracking
+   */
+  requires static jdk.jfr;
+
   /*
    * Optional dependency for rate limiting
    */
@@ -0,0 +1,59 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+public class OutputTest {
+
+  @Test
+  public void writeAndRead() throws Exception {
+    Output output = Output.create(4);
+    output.write((byte) 'a');
+    output.write("bcdef", UTF_8);
+    output.write(ByteBuffer.wrap("ghijklmno".getBytes(UTF_8)));
+    try (OutputStream stream = output.asOutputStream()) {
+      stream.write("pqrstuvwxyz".getBytes(UTF_8), 1, 10);
+    }
+    assertEquals(25, output.size());
+    assertEquals("abcdefghijklmnoqrstuvwxyz", new String(output.toByteArray(), UTF_8));
+
+    int remaining = 0;
+    for (ByteBuffer buffer : output.toByteBuffers()) {
+      remaining += buffer.remaining();
+    }
+    assertEquals(25, remaining);
+  }
+
+  @Test
+  public void largeWrite() {
+    byte[] bytes = new byte[10_000];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+    Output output = Output.create(16);
+    output.write(bytes, 0, 10);
+    output.write(bytes, 10, bytes.length - 10);
+    byte[] result = output.toByteArray();
+    assertEquals(bytes.length, result.length);
+    for (int i = 0; i < bytes.length; i++) {
+      assertEquals(bytes[i], result[i]);
+    }
+  }
+
+  @Test
+  public void empty() {
+    Output output = Output.create();
+    assertEquals(0, output.size());
+    assertEquals(0, output.toByteArray().length);
+  }
+}
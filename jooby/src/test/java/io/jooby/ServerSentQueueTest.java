@@ -0,0 +1,93 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.typesafe.config.ConfigFactory;
+
+public class ServerSentQueueTest {
+
+  @Test
+  public void dropOldest() {
+    ServerSentQueue queue = new ServerSentQueue(6, ServerSentQueue.Overflow.DROP_OLDEST);
+    assertTrue(queue.offer(null, bytes("aa")));
+    assertTrue(queue.offer(null, bytes("bb")));
+    assertTrue(queue.offer(null, bytes("cc")));
+    assertEquals(6, queue.getSize());
+
+    assertTrue(queue.offer(null, bytes("ddd")));
+    assertEquals(5, queue.getSize());
+    assertEquals("cc", string(queue.poll()));
+    assertEquals("ddd", string(queue.poll()));
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+    assertEquals(0, queue.getSize());
+  }
+
+  @Test
+  public void coalesce() {
+    ServerSentQueue queue = new ServerSentQueue(6, ServerSentQueue.Overflow.COALESCE);
+    assertTrue(queue.offer("price", bytes("1")));
+    assertTrue(queue.offer(null, bytes("a")));
+    assertTrue(queue.offer("price", bytes("2")));
+    assertTrue(queue.offer(null, bytes("b")));
+    assertEquals(3, queue.getSize());
+
+    assertEquals("a", string(queue.poll()));
+    assertEquals("2", string(queue.poll()));
+    assertEquals("b", string(queue.poll()));
+
+    // falls back to drop oldest
+    assertTrue(queue.offer("x", bytes("xxxx")));
+    assertTrue(queue.offer("y", bytes("yyyy")));
+    assertEquals("yyyy", string(queue.poll()));
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void disconnect() {
+    ServerSentQueue queue = new ServerSentQueue(4, ServerSentQueue.Overflow.DISCONNECT);
+    assertTrue(queue.offer(null, bytes("aa")));
+    assertTrue(queue.offer(null, bytes("bb")));
+    assertFalse(queue.offer(null, bytes("c")));
+    assertEquals(4, queue.getSize());
+
+    queue.clear();
+    assertTrue(queue.isEmpty());
+    assertEquals(0, queue.getSize());
+  }
+
+  @Test
+  public void fromConfig() {
+    ServerSentQueue queue =
+        ServerSentQueue.create(
+            ConfigFactory.parseMap(Map.of("sse.maxQueueSize", "4b", "sse.overflow", "disconnect")));
+    assertTrue(queue.offer(null, bytes("aaaa")));
+    assertFalse(queue.offer(null, bytes("b")));
+
+    queue = ServerSentQueue.create(ConfigFactory.parseMap(Map.of("sse.overflow", "drop-oldest")));
+    assertTrue(queue.offer(null, new byte[(int) ServerSentQueue.MAX_QUEUE_SIZE]));
+    assertTrue(queue.offer(null, bytes("b")));
+    assertEquals(1, queue.getSize());
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String string(byte[] bytes) {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
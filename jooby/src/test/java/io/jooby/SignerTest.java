@@ -0,0 +1,51 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+public class SignerTest {
+
+  @Test
+  public void signUnsign() {
+    Signer signer = Signer.hmac("987654345!$009P");
+    String signed = signer.sign("foo=bar");
+    assertEquals("1bqmVaHYY/O6zMFHI8iwJXLWaNmYKbYkuMX4gnRdO+Y|foo=bar", signed);
+    assertEquals(Cookie.sign("foo=bar", "987654345!$009P"), signed);
+    assertEquals("foo=bar", signer.unsign(signed));
+    // mac is reused
+    assertEquals(signed, signer.sign("foo=bar"));
+  }
+
+  @Test
+  public void invalid() {
+    Signer signer = Signer.hmac("987654345!$009P");
+    assertNull(signer.unsign("foo=bar"));
+    assertNull(signer.unsign("|foo=bar"));
+    assertNull(signer.unsign("1bqmVaHYY/O6zMFHI8iwJXLWaNmYKbYkuMX4gnRdO+Y|bar=foo"));
+    assertNull(signer.unsign("not base64!|foo=bar"));
+    // same decoded bytes, different encoding
+    assertNull(signer.unsign("1bqmVaHYY/O6zMFHI8iwJXLWaNmYKbYkuMX4gnRdO+Z|foo=bar"));
+    assertNull(signer.unsign("1bqmVaHYY/O6zMFHI8iwJXLWaNmYKbYkuMX4gnRdO+Y=|foo=bar"));
+    assertNull(Signer.hmac("other").unsign(signer.sign("foo=bar")));
+  }
+
+  @Test
+  public void rotation() {
+    Signer old = Signer.hmac("old");
+    Signer signer = Signer.hmac("new", "old");
+
+    String signed = signer.sign("foo=bar");
+    assertEquals(Signer.hmac("new").sign("foo=bar"), signed);
+    assertEquals("foo=bar", signer.unsign(signed));
+    assertEquals("foo=bar", signer.unsign(old.sign("foo=bar")));
+    assertNull(old.unsign(signed));
+    assertNull(signer.unsign(Signer.hmac("older").sign("foo=bar")));
+  }
+}
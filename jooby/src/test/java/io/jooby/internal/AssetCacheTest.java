@@ -0,0 +1,124 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.jooby.MediaType;
+import io.jooby.handler.Asset;
+
+public class AssetCacheTest {
+
+  @Test
+  public void invalidateOnChange(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("app.js");
+    Files.writeString(file, "var v = 1;");
+    AssetCache cache = new AssetCache(0);
+
+    assertNull(cache.get("app.js"));
+    AssetCache.Entry entry = cache.put("app.js", Asset.create(file), Asset::getContentType);
+    assertEquals(MediaType.js, entry.getContentType());
+    assertEquals(10, entry.getSize());
+    assertNull(entry.getContent());
+    assertTrue(entry.getEtag().startsWith("W/"));
+    assertSame(entry, cache.get("app.js"));
+
+    Files.writeString(file, "var value = 2;");
+    assertTrue(awaitInvalidation(cache, "app.js"));
+  }
+
+  @Test
+  public void pinned(@TempDir Path dir) throws Exception {
+    Path small = dir.resolve("small.css");
+    Files.writeString(small, "body{}");
+    Path large = dir.resolve("large.css");
+    Files.writeString(large, "body{color:red}");
+    AssetCache cache = new AssetCache(8);
+
+    AssetCache.Entry entry = cache.put("small.css", Asset.create(small), Asset::getContentType);
+    ByteBuffer content = entry.getContent();
+    assertNotNull(content);
+    assertTrue(content.isDirect());
+    assertEquals("body{}", StandardCharsets.UTF_8.decode(content).toString());
+    // views are independent
+    assertEquals(6, entry.getContent().remaining());
+    assertTrue(entry.getEtag().startsWith("\""));
+
+    assertNull(cache.put("large.css", Asset.create(large), Asset::getContentType).getContent());
+
+    Files.delete(small);
+    assertTrue(awaitInvalidation(cache, "small.css"));
+    assertNotNull(cache.get("large.css"));
+  }
+
+  @Test
+  public void sidecarInvalidatesPrimary(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("app.js");
+    Files.writeString(file, "var v = 1;");
+    AssetCache cache = new AssetCache(0);
+
+    AssetCache.Entry entry = cache.put("app.js", Asset.create(file), Asset::getContentType);
+    assertNull(entry.getEncoded("gzip", key -> null));
+
+    Files.writeString(dir.resolve("app.js.gz"), "gzip");
+    assertTrue(awaitInvalidation(cache, "app.js"));
+  }
+
+  @Test
+  public void closeStopsWatching(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("app.js");
+    Files.writeString(file, "var v = 1;");
+    AssetCache cache = new AssetCache(0);
+    cache.put("app.js", Asset.create(file), Asset::getContentType);
+    cache.close();
+    assertNull(cache.get("app.js"));
+
+    // watch service is created again when needed
+    AssetCache next = new AssetCache(0);
+    next.put("app.js", Asset.create(file), Asset::getContentType);
+    assertNotNull(next.get("app.js"));
+    Files.writeString(file, "var value = 2;");
+    assertTrue(awaitInvalidation(next, "app.js"));
+    next.close();
+  }
+
+  @Test
+  public void matchesFileAndSidecars() {
+    assertTrue(AssetCache.matches(Set.of("app.js"), "app.js"));
+    assertTrue(AssetCache.matches(Set.of("app.js.gz"), "app.js"));
+    assertTrue(AssetCache.matches(Set.of("app.js.br"), "app.js"));
+    assertFalse(AssetCache.matches(Set.of("app.jsx"), "app.js"));
+    assertFalse(AssetCache.matches(Set.of("app.jsx.gz"), "app.js"));
+    assertFalse(AssetCache.matches(Set.of("app.js.map"), "app.js"));
+  }
+
+  private static boolean awaitInvalidation(AssetCache cache, String path)
+      throws InterruptedException {
+    // watch service might take a while (polling implementations)
+    long deadline = System.currentTimeMillis() + 30_000;
+    while (System.currentTimeMillis() < deadline) {
+      if (cache.get(path) == null) {
+        return true;
+      }
+      Thread.sleep(50);
+    }
+    return false;
+  }
+}
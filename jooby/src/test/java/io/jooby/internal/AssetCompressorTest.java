@@ -0,0 +1,72 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AssetCompressorTest {
+
+  @Test
+  public void compress(@TempDir Path dir) throws Exception {
+    String content = "body { color: red; }\n".repeat(100);
+    Files.writeString(dir.resolve("app.css"), content);
+    Files.writeString(dir.resolve("small.css"), "body{}");
+    Files.writeString(dir.resolve("image.png"), content);
+
+    AssetCompressor compressor =
+        new AssetCompressor().setEncodings(List.of(AssetCompressor.GZIP)).setMinSize(100);
+    assertEquals(List.of(dir.resolve("app.css.gz")), compressor.compress(dir));
+    assertFalse(Files.exists(dir.resolve("small.css.gz")));
+    assertFalse(Files.exists(dir.resolve("image.png.gz")));
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(dir.resolve("app.css.gz")))) {
+      assertArrayEquals(content.getBytes(), in.readAllBytes());
+    }
+
+    // up to date
+    assertEquals(List.of(), compressor.compress(dir));
+
+    // custom extensions
+    assertEquals(
+        List.of(dir.resolve("image.png.gz")),
+        compressor.setExtensions(Set.of(".png")).compress(dir));
+  }
+
+  @Test
+  public void compressToTarget(@TempDir Path dir) throws Exception {
+    Path source = Files.createDirectories(dir.resolve("resources").resolve("static"));
+    Path target = dir.resolve("compressed");
+    Files.writeString(source.resolve("app.js"), "console.log('hello');\n".repeat(100));
+
+    AssetCompressor compressor =
+        new AssetCompressor().setEncodings(List.of(AssetCompressor.GZIP)).setMinSize(100);
+    Path sidecar = target.resolve("static").resolve("app.js.gz");
+    assertEquals(List.of(sidecar), compressor.compress(dir.resolve("resources"), target));
+    assertFalse(Files.exists(source.resolve("app.js.gz")));
+
+    // up to date
+    assertEquals(List.of(), compressor.compress(dir.resolve("resources"), target));
+  }
+
+  @Test
+  public void unsupportedEncoding() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new AssetCompressor().setEncodings(List.of("deflate")));
+  }
+}
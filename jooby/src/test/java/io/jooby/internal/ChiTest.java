@@ -11,6 +11,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 import io.jooby.Context;
@@ -233,6 +235,89 @@ public class ChiTest {
         });
   }
 
+  @Test
+  public void frozen() {
+    List<String> patterns =
+        List.of(
+            "/",
+            "/abcd",
+            "/abcd/",
+            "/user/{id}",
+            "/user/{id}/edit",
+            "/user/me",
+            "/file/{name}.{ext}",
+            "/page/{n:[0-9]+}",
+            "/page/{slug}",
+            "/{lang:[a-z]{2}}/",
+            "/static/?*",
+            "/api/*");
+    Chi tree = new Chi();
+    Chi frozen = new Chi();
+    for (String pattern : patterns) {
+      for (String method : List.of(Router.GET, Router.POST)) {
+        tree.insert(route(method, pattern, stringHandler(method + pattern)));
+        frozen.insert(route(method, pattern, stringHandler(method + pattern)));
+      }
+    }
+    frozen.insert(route(Router.DELETE, "/user/{id}", stringHandler("delete")));
+    tree.insert(route(Router.DELETE, "/user/{id}", stringHandler("delete")));
+    frozen.freeze();
+
+    List<String> paths =
+        List.of(
+            "/",
+            "/abcd",
+            "/abcd/",
+            "/user/1",
+            "/user/1/edit",
+            "/user/me",
+            "/user/1/2",
+            "/file/jooby.java",
+            "/page/12",
+            "/page/intro",
+            "/es/",
+            "/static",
+            "/static/js/app.js",
+            "/api/v1/missing",
+            "/missing");
+    for (String method : List.of(Router.GET, Router.POST, Router.DELETE, Router.PUT)) {
+      for (String path : paths) {
+        Router.Match expected = tree.find(method, path);
+        Router.Match actual = frozen.find(method, path);
+        assertEquals(expected.matches(), actual.matches(), method + " " + path);
+        assertEquals(expected.pathMap(), actual.pathMap(), method + " " + path);
+        if (expected.matches()) {
+          assertEquals(
+              expected.route().getPattern(), actual.route().getPattern(), method + " " + path);
+          assertEquals(
+              expected.route().getMethod(), actual.route().getMethod(), method + " " + path);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void frozenStaticRoutes() {
+    Chi router = new Chi();
+    for (int i = 0; i < 5000; i++) {
+      router.insert(route(Router.GET, "/resource" + i + "/edit", stringHandler("get" + i)));
+      router.insert(route(Router.PUT, "/resource" + i + "/edit", stringHandler("put" + i)));
+    }
+    router.freeze();
+
+    for (int i = 0; i < 5000; i++) {
+      Router.Match get = router.find(Router.GET, "/resource" + i + "/edit");
+      assertTrue(get.matches());
+      assertEquals(Router.GET, get.route().getMethod());
+      assertEquals("/resource" + i + "/edit", get.route().getPattern());
+      Router.Match put = router.find(Router.PUT, "/resource" + i + "/edit");
+      assertTrue(put.matches());
+      assertEquals(Router.PUT, put.route().getMethod());
+    }
+    assertFalse(router.find(Router.GET, "/resource5000/edit").matches());
+    assertFalse(router.find(Router.DELETE, "/resource1/edit").matches());
+  }
+
   private void find(
       Chi router, String pattern, SneakyThrows.Consumer2<Context, Router.Match> consumer) {
     Router.Match result = router.find("GET", pattern);
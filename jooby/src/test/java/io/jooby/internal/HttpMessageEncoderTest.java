@@ -0,0 +1,55 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Context;
+import io.jooby.MapModelAndView;
+import io.jooby.MediaType;
+import io.jooby.ModelAndView;
+import io.jooby.Output;
+import io.jooby.TemplateEngine;
+
+public class HttpMessageEncoderTest {
+
+  @Test
+  public void shouldRenderTemplateIntoOutput() throws Exception {
+    TemplateEngine engine = (ctx, modelAndView) -> "render:" + modelAndView.getView();
+    HttpMessageEncoder encoder = new HttpMessageEncoder().add(MediaType.html, engine);
+
+    Output output = Output.create();
+    assertTrue(encoder.encode(mock(Context.class), new MapModelAndView("index.html"), output));
+    assertEquals("render:index.html", new String(output.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void shouldHonourByteArrayEncodeOverride() throws Exception {
+    TemplateEngine engine =
+        new TemplateEngine() {
+          @Override
+          public String render(Context ctx, ModelAndView modelAndView) {
+            return "render:" + modelAndView.getView();
+          }
+
+          @Override
+          public byte[] encode(Context ctx, Object value) throws Exception {
+            return ("encode:" + ((ModelAndView) value).getView()).getBytes(StandardCharsets.UTF_8);
+          }
+        };
+    HttpMessageEncoder encoder = new HttpMessageEncoder().add(MediaType.html, engine);
+
+    Output output = Output.create();
+    assertTrue(encoder.encode(mock(Context.class), new MapModelAndView("index.html"), output));
+    assertEquals("encode:index.html", new String(output.toByteArray(), StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Context;
+import io.jooby.SessionToken;
+
+public class MemorySessionStoreTest {
+
+  @Test
+  public void expireAfterInactivity() {
+    SessionToken token = mock(SessionToken.class);
+    when(token.newToken()).thenReturn("s1", "s2");
+    AtomicLong clock = new AtomicLong();
+    MemorySessionStore store = new MemorySessionStore(token, Duration.ofMillis(100), 0, clock::get);
+
+    Context ctx = mock(Context.class);
+    store.newSession(ctx);
+    store.newSession(ctx);
+    assertEquals(2, store.size());
+
+    // access keeps s2 alive
+    when(token.findToken(ctx)).thenReturn("s2");
+    clock.addAndGet(60);
+    assertNotNull(store.findSession(ctx));
+    clock.addAndGet(60);
+
+    // s1 expired, s2 is still alive
+    when(token.findToken(ctx)).thenReturn("s1");
+    assertNull(store.findSession(ctx));
+    assertEquals(1, store.size());
+    when(token.findToken(ctx)).thenReturn("s2");
+    assertNotNull(store.findSession(ctx));
+
+    clock.addAndGet(120);
+    assertNull(store.findSession(ctx));
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  public void sweepExpiredSessions() {
+    SessionToken token = mock(SessionToken.class);
+    AtomicInteger id = new AtomicInteger();
+    when(token.newToken()).thenAnswer(invocation -> "s" + id.incrementAndGet());
+    AtomicLong clock = new AtomicLong();
+    MemorySessionStore store = new MemorySessionStore(token, Duration.ofMillis(100), 0, clock::get);
+
+    Context ctx = mock(Context.class);
+    for (int i = 0; i < 100; i++) {
+      store.newSession(ctx);
+    }
+    clock.addAndGet(101);
+
+    // each lookup sweeps one segment
+    when(token.findToken(ctx)).thenReturn("missing");
+    for (int i = 0; i < 16; i++) {
+      assertNull(store.findSession(ctx));
+    }
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  public void boundedStoreUsesSeveralSegments() {
+    SessionToken token = mock(SessionToken.class);
+    AtomicInteger id = new AtomicInteger();
+    when(token.newToken()).thenAnswer(invocation -> "s" + id.incrementAndGet());
+    MemorySessionStore store = new MemorySessionStore(token, Duration.ofMinutes(30), 256);
+
+    Context ctx = mock(Context.class);
+    for (int i = 0; i < 1000; i++) {
+      store.newSession(ctx);
+    }
+    // 4 segments of 64 sessions
+    assertTrue(store.size() <= 256);
+    assertTrue(store.size() > 64);
+
+    // most recent session is never evicted
+    when(token.findToken(ctx)).thenReturn("s1000");
+    assertNotNull(store.findSession(ctx));
+  }
+
+  @Test
+  public void evictLeastRecentlyUsed() {
+    SessionToken token = mock(SessionToken.class);
+    when(token.newToken()).thenReturn("s1", "s2", "s3");
+    MemorySessionStore store = new MemorySessionStore(token, Duration.ofMinutes(30), 2);
+
+    Context ctx = mock(Context.class);
+    store.newSession(ctx);
+    store.newSession(ctx);
+
+    when(token.findToken(ctx)).thenReturn("s1");
+    assertNotNull(store.findSession(ctx));
+
+    store.newSession(ctx);
+    assertEquals(2, store.size());
+
+    when(token.findToken(ctx)).thenReturn("s2");
+    assertNull(store.findSession(ctx));
+    when(token.findToken(ctx)).thenReturn("s1");
+    assertNotNull(store.findSession(ctx));
+    when(token.findToken(ctx)).thenReturn("s3");
+    assertNotNull(store.findSession(ctx));
+  }
+
+  @Test
+  public void noTimeout() {
+    SessionToken token = mock(SessionToken.class);
+    when(token.newToken()).thenReturn("s1");
+    MemorySessionStore store = new MemorySessionStore(token, Duration.ZERO);
+
+    Context ctx = mock(Context.class);
+    store.newSession(ctx);
+    when(token.findToken(ctx)).thenReturn("s1");
+    assertNotNull(store.findSession(ctx));
+  }
+}
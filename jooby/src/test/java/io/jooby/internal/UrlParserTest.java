@@ -0,0 +1,73 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Context;
+import io.jooby.Formdata;
+import io.jooby.QueryString;
+
+public class UrlParserTest {
+
+  @Test
+  public void flatQuery() {
+    Context ctx = ValueConverterHelper.testContext();
+    QueryString query = UrlParser.queryString(ctx, "q=a+b&sort=name;sort=id&empty&x=%C3%B1#hash");
+
+    assertEquals("?q=a+b&sort=name;sort=id&empty&x=%C3%B1#hash", query.queryString());
+    assertEquals("a b", query.get("q").value());
+    assertEquals(List.of("name", "id"), query.get("sort").toList());
+    assertEquals("", query.get("empty").value());
+    assertEquals("ñ", query.get("x").value());
+    assertTrue(query.get("hash").isMissing());
+    // same node on repeated lookups and after the tree is built
+    var sort = query.get("sort");
+    assertSame(sort, query.get("sort"));
+    assertEquals(4, query.size());
+    assertSame(sort, query.get("sort"));
+    assertEquals(
+        Map.of(
+            "q",
+            List.of("a b"),
+            "sort",
+            List.of("name", "id"),
+            "empty",
+            List.of(""),
+            "x",
+            List.of("ñ")),
+        query.toMultimap());
+  }
+
+  @Test
+  public void nestedQuery() {
+    Context ctx = ValueConverterHelper.testContext();
+    QueryString query = UrlParser.queryString(ctx, "user.name=edgar&items[0]=a&items[1]=b&%71=1");
+
+    assertEquals("edgar", query.get("user").get("name").value());
+    assertEquals(List.of("a", "b"), query.get("items").toList());
+    assertEquals("1", query.get("q").value());
+  }
+
+  @Test
+  public void urlencodedForm() {
+    Context ctx = ValueConverterHelper.testContext();
+    Formdata form = Formdata.create(ctx, "name=a;b&note=x#y&tags=1&tags=2");
+
+    assertEquals("a;b", form.get("name").value());
+    assertEquals("x#y", form.get("note").value());
+    assertEquals(List.of("1", "2"), form.get("tags").toList());
+    assertTrue(form.files().isEmpty());
+    assertTrue(Formdata.create(ctx, "").get("name").isMissing());
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AccessLogBufferTest {
+
+  @Test
+  public void shouldDrainInOrder() {
+    AccessLogBuffer buffer = new AccessLogBuffer(4, 1, 0);
+    offer(buffer, "/a");
+    offer(buffer, "/b");
+    offer(buffer, "/c");
+
+    List<String> paths = new ArrayList<>();
+    assertEquals(2, buffer.drain(entry -> paths.add(entry.path), 2));
+    assertEquals(1, buffer.drain(entry -> paths.add(entry.path), 10));
+    assertEquals(0, buffer.drain(entry -> paths.add(entry.path), 10));
+    assertEquals(List.of("/a", "/b", "/c"), paths);
+  }
+
+  @Test
+  public void shouldDropWhenFull() {
+    AccessLogBuffer buffer = new AccessLogBuffer(3, 0, 0);
+    for (int i = 0; i < 4; i++) {
+      assertTrue(offer(buffer, "/" + i));
+    }
+    assertFalse(offer(buffer, "/4"));
+    assertEquals(1, buffer.getDropped());
+
+    List<String> paths = new ArrayList<>();
+    buffer.drain(entry -> paths.add(entry.path), 10);
+    assertEquals(List.of("/0", "/1", "/2", "/3"), paths);
+
+    // slots are reused after drain
+    assertTrue(offer(buffer, "/5"));
+    paths.clear();
+    buffer.drain(entry -> paths.add(entry.path), 10);
+    assertEquals(List.of("/5"), paths);
+  }
+
+  @Test
+  public void shouldRotateFiles(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("access.log");
+    try (RotatingFileWriter writer = new RotatingFileWriter(file, 10, 2)) {
+      writer.write("first\n");
+      writer.write("second\n");
+      writer.write("third\n");
+      writer.write("fourth\n");
+    }
+    assertEquals("fourth\n", Files.readString(file));
+    assertEquals("third\n", Files.readString(dir.resolve("access.log.1")));
+    assertEquals("second\n", Files.readString(dir.resolve("access.log.2")));
+    assertFalse(Files.exists(dir.resolve("access.log.3")));
+  }
+
+  private static boolean offer(AccessLogBuffer buffer, String path) {
+    long position = buffer.claim();
+    if (position < 0) {
+      return false;
+    }
+    try {
+      buffer.entry(position).path = path;
+    } finally {
+      buffer.publish(position);
+    }
+    return true;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class BoundedStoreTest {
+
+  @Test
+  public void shouldReuseLiveEntries() {
+    AtomicLong clock = new AtomicLong();
+    BoundedStore<Object> store = new BoundedStore<>(10, TimeUnit.MINUTES.toNanos(1), clock::get);
+    Object a = store.get("a", k -> new Object());
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    assertSame(a, store.get("a", k -> new Object()));
+    // access time was updated
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(45));
+    assertSame(a, store.get("a", k -> new Object()));
+    assertEquals(1, store.size());
+    assertEquals(0, store.getEvicted());
+  }
+
+  @Test
+  public void shouldExpireIdleEntries() {
+    AtomicLong clock = new AtomicLong();
+    BoundedStore<Object> store = new BoundedStore<>(10, TimeUnit.MINUTES.toNanos(1), clock::get);
+    Object a = store.get("a", k -> new Object());
+    store.get("b", k -> new Object());
+    clock.addAndGet(TimeUnit.MINUTES.toNanos(2));
+    // a is replaced, b is removed by sweep
+    assertNotSame(a, store.get("a", k -> new Object()));
+    assertEquals(1, store.size());
+    assertEquals(2, store.getEvicted());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsed() {
+    AtomicLong clock = new AtomicLong();
+    BoundedStore<Object> store = new BoundedStore<>(100, TimeUnit.HOURS.toNanos(1), clock::get);
+    for (int i = 0; i < 100; i++) {
+      clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+      store.get("k" + i, k -> new Object());
+    }
+    Object hot = store.get("k0", k -> new Object());
+    assertEquals(100, store.size());
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    store.get("overflow", k -> new Object());
+    assertTrue(store.size() <= 90, "size: " + store.size());
+    assertTrue(store.getEvicted() >= 11);
+    // recently used key survives
+    assertSame(hot, store.get("k0", k -> new Object()));
+  }
+}
@@ -47,6 +47,7 @@ import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
 import io.jooby.internal.apt.asm.ArrayWriter;
+import io.jooby.internal.apt.asm.BeanConverterWriter;
 import io.jooby.internal.apt.asm.NameGenerator;
 import io.jooby.internal.apt.asm.RouteAttributesWriter;
 
@@ -192,6 +193,13 @@ public class ModuleCompiler {
             userAttrFilter);
 
     NameGenerator nameRegistry = new NameGenerator();
+
+    BeanConverterWriter beanConverter = new BeanConverterWriter(processingEnv);
+    for (HandlerCompiler handler : handlers) {
+      beanConverter.collect(handler.getExecutable());
+    }
+    beanConverter.write(writer, moduleInternalName, visitor, nameRegistry);
+
     for (HandlerCompiler handler : handlers) {
       visitor.visitVarInsn(ALOAD, 0);
       visitor.visitLdcInsn(handler.getPattern());
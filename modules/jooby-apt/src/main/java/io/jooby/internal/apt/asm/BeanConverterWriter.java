@@ -0,0 +1,581 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.apt.asm;
+
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACC_SYNTHETIC;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.GETSTATIC;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.ICONST_1;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.NEW;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.POP2;
+import static org.objectweb.asm.Opcodes.RETURN;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import io.jooby.internal.apt.ParamDefinition;
+import io.jooby.internal.apt.ParamKind;
+import io.jooby.internal.apt.Primitives;
+import io.jooby.internal.apt.TypeDefinition;
+
+/**
+ * Generates a <code>BeanConverter.Compiled</code> for beans used as query or form parameters:
+ *
+ * <pre>{@code
+ * app.converter(BeanConverter.compiled()
+ *     .bean(Bean.class, false, args -> new Bean((String) args[0]))
+ *     .arg("name", String.class, null, true, "...")
+ *     .setter("setAge", int.class, null, false, "...", (bean, value) -> ((Bean) bean).setAge((Integer) value)));
+ * }</pre>
+ *
+ * Constructor and setters are selected using the same rules of the reflective bean converter. Types
+ * that don't follow these rules (non public, abstract, generic, ambiguous constructors, etc.) are
+ * ignored and converted at runtime via reflection.
+ */
+public class BeanConverterWriter {
+  private static final String CONVERTER = "io/jooby/BeanConverter$Compiled";
+
+  private static final String INJECT = "jakarta.inject.Inject";
+
+  private static final String NAMED = "jakarta.inject.Named";
+
+  private static final String EMPTY_BEAN = "io.jooby.annotation.EmptyBean";
+
+  private static final Handle METAFACTORY =
+      new Handle(
+          Opcodes.H_INVOKESTATIC,
+          "java/lang/invoke/LambdaMetafactory",
+          "metafactory",
+          "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;Ljava/lang/invoke/MethodType;Ljava/lang/invoke/MethodHandle;Ljava/lang/invoke/MethodType;)Ljava/lang/invoke/CallSite;",
+          false);
+
+  private record Property(
+      String name, VariableElement parameter, TypeMirror type, ExecutableElement method) {}
+
+  private record Bean(
+      TypeElement type,
+      boolean emptyBean,
+      ExecutableElement constructor,
+      List<Property> args,
+      List<Property> setters) {}
+
+  private final ProcessingEnvironment env;
+
+  private final Types types;
+
+  private final Elements elements;
+
+  private final Map<String, Bean> beans = new LinkedHashMap<>();
+
+  public BeanConverterWriter(ProcessingEnvironment env) {
+    this.env = env;
+    this.types = env.getTypeUtils();
+    this.elements = env.getElementUtils();
+  }
+
+  /**
+   * Collect beans from query and form parameters of the given method.
+   *
+   * @param method Route method.
+   */
+  public void collect(ExecutableElement method) {
+    for (VariableElement parameter : method.getParameters()) {
+      ParamDefinition param = ParamDefinition.create(env, parameter);
+      ParamKind kind = param.getKind();
+      if ((kind == ParamKind.QUERY_PARAM || kind == ParamKind.FORM_PARAM)
+          && !param.isSimpleType()) {
+        collect(param.getType().getType());
+      }
+    }
+  }
+
+  /**
+   * Generates converter registration. Expects application at local variable <code>0</code>.
+   *
+   * @param writer Class writer.
+   * @param owner Internal name of the class where lambda methods are generated.
+   * @param visitor Method visitor.
+   * @param nameGenerator Name generator.
+   * @throws NoSuchMethodException If something goes wrong.
+   */
+  public void write(
+      ClassWriter writer, String owner, MethodVisitor visitor, NameGenerator nameGenerator)
+      throws NoSuchMethodException {
+    if (beans.isEmpty()) {
+      return;
+    }
+    visitor.visitVarInsn(ALOAD, 0);
+    visitor.visitMethodInsn(
+        INVOKESTATIC, "io/jooby/BeanConverter", "compiled", "()L" + CONVERTER + ";", true);
+    for (Bean bean : beans.values()) {
+      Type beanType = jvmType(bean.type.asType());
+      String simpleName = bean.type.getSimpleName().toString();
+      // .bean(Type.class, emptyBean, args -> new Type(...))
+      visitor.visitLdcInsn(beanType);
+      visitor.visitInsn(bean.emptyBean ? ICONST_1 : ICONST_0);
+      String factory = nameGenerator.generate("$bean", simpleName);
+      lambda(
+          visitor,
+          "apply",
+          "()Ljava/util/function/Function;",
+          "(Ljava/lang/Object;)Ljava/lang/Object;",
+          owner,
+          factory,
+          "([Ljava/lang/Object;)Ljava/lang/Object;");
+      visitor.visitMethodInsn(
+          INVOKEINTERFACE,
+          CONVERTER,
+          "bean",
+          "(Ljava/lang/Class;ZLjava/util/function/Function;)L" + CONVERTER + ";",
+          true);
+      factory(writer, factory, bean);
+
+      String constructor = describe(bean.type, bean.constructor);
+      for (Property arg : bean.args) {
+        property(visitor, arg, constructor);
+        visitor.visitMethodInsn(
+            INVOKEINTERFACE,
+            CONVERTER,
+            "arg",
+            "(Ljava/lang/String;Ljava/lang/Class;Ljava/lang/Class;ZLjava/lang/String;)L"
+                + CONVERTER
+                + ";",
+            true);
+      }
+      for (Property setter : bean.setters) {
+        property(visitor, setter, describe(bean.type, setter.method));
+        String methodName = nameGenerator.generate("$set", simpleName, setter.name);
+        lambda(
+            visitor,
+            "accept",
+            "()Ljava/util/function/BiConsumer;",
+            "(Ljava/lang/Object;Ljava/lang/Object;)V",
+            owner,
+            methodName,
+            "(Ljava/lang/Object;Ljava/lang/Object;)V");
+        visitor.visitMethodInsn(
+            INVOKEINTERFACE,
+            CONVERTER,
+            "setter",
+            "(Ljava/lang/String;Ljava/lang/Class;Ljava/lang/Class;ZLjava/lang/String;"
+                + "Ljava/util/function/BiConsumer;)L"
+                + CONVERTER
+                + ";",
+            true);
+        setter(writer, methodName, bean, setter);
+      }
+    }
+    visitor.visitMethodInsn(
+        INVOKEVIRTUAL,
+        "io/jooby/Jooby",
+        "converter",
+        "(Lio/jooby/ValueConverter;)Lio/jooby/Jooby;",
+        false);
+    visitor.visitInsn(POP);
+  }
+
+  private void collect(TypeMirror type) {
+    TypeMirror beanType = elementType(type).orElse(type);
+    if (beanType.getKind() != TypeKind.DECLARED) {
+      return;
+    }
+    TypeElement element = (TypeElement) types.asElement(beanType);
+    String name = element.getQualifiedName().toString();
+    if (beans.containsKey(name) || !isBean(element)) {
+      return;
+    }
+    ExecutableElement constructor = constructor(element);
+    if (constructor == null) {
+      return;
+    }
+    List<Property> args = new ArrayList<>();
+    for (VariableElement parameter : constructor.getParameters()) {
+      if (!isSupported(parameter.asType())) {
+        return;
+      }
+      args.add(new Property(paramName(parameter), parameter, parameter.asType(), constructor));
+    }
+    List<Property> setters = new ArrayList<>();
+    DeclaredType declaredType = (DeclaredType) element.asType();
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(element))) {
+      if (isSetter(method)) {
+        ExecutableType methodType = (ExecutableType) types.asMemberOf(declaredType, method);
+        TypeMirror parameterType = methodType.getParameterTypes().get(0);
+        if (isSupported(parameterType)) {
+          setters.add(
+              new Property(
+                  method.getSimpleName().toString(),
+                  method.getParameters().get(0),
+                  parameterType,
+                  method));
+        }
+      }
+    }
+    boolean emptyBean = hasAnnotation(element, EMPTY_BEAN);
+    beans.put(name, new Bean(element, emptyBean, constructor, args, setters));
+
+    // nested beans
+    args.forEach(it -> collect(it.type));
+    setters.forEach(it -> collect(it.type));
+  }
+
+  private boolean isBean(TypeElement element) {
+    if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.RECORD) {
+      return false;
+    }
+    if (element.getModifiers().contains(Modifier.ABSTRACT)
+        || !element.getTypeParameters().isEmpty()) {
+      return false;
+    }
+    String name = element.getQualifiedName().toString();
+    if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("io.jooby.")) {
+      return false;
+    }
+    // must be accessible from generated code
+    Element it = element;
+    while (it instanceof TypeElement) {
+      if (!it.getModifiers().contains(Modifier.PUBLIC)) {
+        return false;
+      }
+      Element parent = it.getEnclosingElement();
+      if (parent instanceof TypeElement && !it.getModifiers().contains(Modifier.STATIC)) {
+        return false;
+      }
+      it = parent;
+    }
+    return true;
+  }
+
+  /**
+   * Same as reflective: single public constructor, public constructor annotated with Inject or
+   * public no-args constructor.
+   */
+  private ExecutableElement constructor(TypeElement element) {
+    List<ExecutableElement> constructors =
+        ElementFilter.constructorsIn(element.getEnclosedElements()).stream()
+            .filter(it -> it.getModifiers().contains(Modifier.PUBLIC))
+            .toList();
+    if (constructors.size() == 1) {
+      return constructors.get(0);
+    }
+    ExecutableElement inject = null;
+    ExecutableElement noargs = null;
+    for (ExecutableElement constructor : constructors) {
+      if (hasAnnotation(constructor, INJECT)) {
+        if (inject != null) {
+          // ambiguous
+          return null;
+        }
+        inject = constructor;
+      } else if (constructor.getParameters().isEmpty()) {
+        noargs = constructor;
+      }
+    }
+    return inject == null ? noargs : inject;
+  }
+
+  private boolean isSetter(ExecutableElement method) {
+    var modifiers = method.getModifiers();
+    if (!modifiers.contains(Modifier.PUBLIC)
+        || modifiers.contains(Modifier.STATIC)
+        || method.getParameters().size() != 1
+        || !method.getTypeParameters().isEmpty()) {
+      return false;
+    }
+    String owner = ((TypeElement) method.getEnclosingElement()).getQualifiedName().toString();
+    return !owner.equals(Object.class.getName()) && !method.getSimpleName().contentEquals("equals");
+  }
+
+  /** Raw type and element type (if any) must be a class constant. */
+  private boolean isSupported(TypeMirror type) {
+    TypeKind kind = type.getKind();
+    if (kind.isPrimitive() || kind == TypeKind.ARRAY) {
+      return true;
+    }
+    if (kind != TypeKind.DECLARED) {
+      return false;
+    }
+    if (isContainer(type)) {
+      List<? extends TypeMirror> args = ((DeclaredType) type).getTypeArguments();
+      return args.size() == 1 && args.get(0).getKind() == TypeKind.DECLARED;
+    }
+    return true;
+  }
+
+  private boolean isContainer(TypeMirror type) {
+    TypeMirror erasure = types.erasure(type);
+    return types.isAssignable(erasure, erasure(Collection.class))
+        || types.isSameType(erasure, erasure(Optional.class));
+  }
+
+  private TypeMirror erasure(Class<?> type) {
+    return types.erasure(elements.getTypeElement(type.getName()).asType());
+  }
+
+  private Optional<TypeMirror> elementType(TypeMirror type) {
+    if (type.getKind() == TypeKind.DECLARED && isContainer(type)) {
+      List<? extends TypeMirror> args = ((DeclaredType) type).getTypeArguments();
+      if (args.size() == 1) {
+        return Optional.of(args.get(0));
+      }
+    }
+    return Optional.empty();
+  }
+
+  private String paramName(VariableElement parameter) {
+    return parameter.getAnnotationMirrors().stream()
+        .filter(it -> it.getAnnotationType().toString().equals(NAMED))
+        .flatMap(it -> it.getElementValues().entrySet().stream())
+        .filter(it -> it.getKey().getSimpleName().contentEquals("value"))
+        .map(it -> it.getValue().getValue().toString())
+        .filter(it -> it.length() > 0)
+        .findFirst()
+        .orElse(parameter.getSimpleName().toString());
+  }
+
+  /** Same as reflective: not primitive and not annotated with a runtime NonNull/NotNull. */
+  private boolean isNullable(Property property) {
+    if (property.type.getKind().isPrimitive()) {
+      return false;
+    }
+    for (AnnotationMirror annotation : property.parameter.getAnnotationMirrors()) {
+      Element annotationType = annotation.getAnnotationType().asElement();
+      Retention retention = annotationType.getAnnotation(Retention.class);
+      String simpleName = annotationType.getSimpleName().toString();
+      if (retention != null
+          && retention.value() == RetentionPolicy.RUNTIME
+          && (simpleName.endsWith("NotNull") || simpleName.endsWith("NonNull"))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean hasAnnotation(Element element, String type) {
+    return element.getAnnotationMirrors().stream()
+        .anyMatch(it -> it.getAnnotationType().toString().equals(type));
+  }
+
+  /** Push: name, type, elementType, nullable and error message. */
+  private void property(MethodVisitor visitor, Property property, String executable)
+      throws NoSuchMethodException {
+    visitor.visitLdcInsn(property.name);
+    classConstant(visitor, property.type);
+    Optional<TypeMirror> elementType = elementType(property.type);
+    if (elementType.isPresent()) {
+      classConstant(visitor, elementType.get());
+    } else {
+      visitor.visitInsn(ACONST_NULL);
+    }
+    visitor.visitInsn(isNullable(property) ? ICONST_1 : ICONST_0);
+    visitor.visitLdcInsn(
+        "Unable to provision parameter: '"
+            + property.parameter.getSimpleName()
+            + ": "
+            + typeName(property.type)
+            + "', require by: "
+            + executable);
+  }
+
+  private void classConstant(MethodVisitor visitor, TypeMirror type) throws NoSuchMethodException {
+    if (type.getKind().isPrimitive()) {
+      Method wrapper = Primitives.wrapper(type.getKind());
+      visitor.visitFieldInsn(
+          GETSTATIC,
+          Type.getInternalName(wrapper.getDeclaringClass()),
+          "TYPE",
+          "Ljava/lang/Class;");
+    } else {
+      visitor.visitLdcInsn(jvmType(type));
+    }
+  }
+
+  /** private static Object $beanX(Object[] args) { return new Bean((A) args[0], ...); } */
+  private void factory(ClassWriter writer, String name, Bean bean) throws NoSuchMethodException {
+    MethodVisitor visitor =
+        writer.visitMethod(
+            ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+            name,
+            "([Ljava/lang/Object;)Ljava/lang/Object;",
+            null,
+            null);
+    visitor.visitParameter("args", ACC_SYNTHETIC);
+    visitor.visitCode();
+    String beanType = jvmType(bean.type.asType()).getInternalName();
+    visitor.visitTypeInsn(NEW, beanType);
+    visitor.visitInsn(DUP);
+    for (int i = 0; i < bean.args.size(); i++) {
+      visitor.visitVarInsn(ALOAD, 0);
+      visitor.visitLdcInsn(i);
+      visitor.visitInsn(Opcodes.AALOAD);
+      cast(visitor, bean.args.get(i).type);
+    }
+    visitor.visitMethodInsn(
+        INVOKESPECIAL, beanType, "<init>", descriptor(bean.constructor.asType()), false);
+    visitor.visitInsn(ARETURN);
+    visitor.visitMaxs(0, 0);
+    visitor.visitEnd();
+  }
+
+  /** private static void $setX(Object bean, Object value) { ((Bean) bean).setX((A) value); } */
+  private void setter(ClassWriter writer, String name, Bean bean, Property setter)
+      throws NoSuchMethodException {
+    MethodVisitor visitor =
+        writer.visitMethod(
+            ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+            name,
+            "(Ljava/lang/Object;Ljava/lang/Object;)V",
+            null,
+            null);
+    visitor.visitParameter("bean", ACC_SYNTHETIC);
+    visitor.visitParameter("value", ACC_SYNTHETIC);
+    visitor.visitCode();
+    String beanType = jvmType(bean.type.asType()).getInternalName();
+    visitor.visitVarInsn(ALOAD, 0);
+    visitor.visitTypeInsn(CHECKCAST, beanType);
+    visitor.visitVarInsn(ALOAD, 1);
+    cast(visitor, setter.type);
+    ExecutableType methodType = (ExecutableType) types.erasure(setter.method.asType());
+    visitor.visitMethodInsn(INVOKEVIRTUAL, beanType, setter.name, descriptor(methodType), false);
+    TypeKind returnType = methodType.getReturnType().getKind();
+    if (returnType == TypeKind.LONG || returnType == TypeKind.DOUBLE) {
+      visitor.visitInsn(POP2);
+    } else if (returnType != TypeKind.VOID) {
+      visitor.visitInsn(POP);
+    }
+    visitor.visitInsn(RETURN);
+    visitor.visitMaxs(0, 0);
+    visitor.visitEnd();
+  }
+
+  private void cast(MethodVisitor visitor, TypeMirror type) throws NoSuchMethodException {
+    TypeKind kind = type.getKind();
+    if (kind.isPrimitive()) {
+      Method wrapper = Primitives.wrapper(kind);
+      String wrapperType = Type.getInternalName(wrapper.getDeclaringClass());
+      Method unbox = Primitives.toPrimitive(kind == TypeKind.CHAR ? "character" : kind.name());
+      visitor.visitTypeInsn(CHECKCAST, wrapperType);
+      visitor.visitMethodInsn(
+          INVOKEVIRTUAL, wrapperType, unbox.getName(), Type.getMethodDescriptor(unbox), false);
+    } else {
+      visitor.visitTypeInsn(CHECKCAST, jvmType(type).getInternalName());
+    }
+  }
+
+  private void lambda(
+      MethodVisitor visitor,
+      String name,
+      String descriptor,
+      String samType,
+      String owner,
+      String implementation,
+      String implementationType) {
+    visitor.visitInvokeDynamicInsn(
+        name,
+        descriptor,
+        METAFACTORY,
+        Type.getType(samType),
+        new Handle(Opcodes.H_INVOKESTATIC, owner, implementation, implementationType, false),
+        Type.getType(implementationType));
+  }
+
+  private Type jvmType(TypeMirror type) {
+    TypeMirror erasure = types.erasure(type);
+    if (erasure.getKind() == TypeKind.DECLARED) {
+      Name name = elements.getBinaryName((TypeElement) types.asElement(erasure));
+      return Type.getObjectType(name.toString().replace('.', '/'));
+    }
+    if (erasure.getKind() == TypeKind.ARRAY) {
+      return Type.getType("[" + jvmType(((ArrayType) erasure).getComponentType()).getDescriptor());
+    }
+    return new TypeDefinition(types, erasure).toJvmType();
+  }
+
+  private String descriptor(TypeMirror executable) {
+    ExecutableType type = (ExecutableType) types.erasure(executable);
+    StringBuilder descriptor = new StringBuilder("(");
+    for (TypeMirror parameter : type.getParameterTypes()) {
+      descriptor.append(jvmType(parameter).getDescriptor());
+    }
+    descriptor.append(")");
+    descriptor.append(jvmType(type.getReturnType()).getDescriptor());
+    return descriptor.toString();
+  }
+
+  /** Same format as ProvisioningException: constructor a.B(int) or method a.B.setC(int). */
+  private String describe(TypeElement owner, ExecutableElement executable) {
+    StringBuilder buff = new StringBuilder();
+    if (executable.getKind() == ElementKind.CONSTRUCTOR) {
+      buff.append("constructor ").append(owner.getQualifiedName());
+    } else {
+      buff.append("method ")
+          .append(owner.getQualifiedName())
+          .append(".")
+          .append(executable.getSimpleName());
+    }
+    StringJoiner params = new StringJoiner(", ", "(", ")");
+    executable.getParameters().forEach(it -> params.add(typeName(it.asType())));
+    return buff.append(params).toString();
+  }
+
+  private String typeName(TypeMirror type) {
+    if (type.getKind() == TypeKind.DECLARED) {
+      List<? extends TypeMirror> args = ((DeclaredType) type).getTypeArguments();
+      String name = ((TypeElement) types.asElement(type)).getQualifiedName().toString();
+      if (args.isEmpty()) {
+        return name;
+      }
+      StringJoiner joiner = new StringJoiner(", ", name + "<", ">");
+      args.forEach(it -> joiner.add(typeName(it)));
+      return joiner.toString();
+    }
+    return types.erasure(type).toString();
+  }
+}
@@ -0,0 +1,23 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package tests.bean;
+
+import java.util.Optional;
+
+import io.jooby.annotation.GET;
+import io.jooby.annotation.QueryParam;
+
+public class BeanController {
+  @GET("/search")
+  public String search(@QueryParam Search search) {
+    return String.valueOf(search);
+  }
+
+  @GET("/address")
+  public String address(@QueryParam Optional<Address> address) {
+    return address.map(Address::toString).orElse("none");
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package tests.bean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import org.junit.jupiter.api.Test;
+
+import io.jooby.BeanConverter;
+import io.jooby.apt.MvcModuleCompilerRunner;
+import io.jooby.test.MockContext;
+import io.jooby.test.MockRouter;
+
+public class BeanConverterTest {
+
+  @Test
+  public void shouldGenerateBeanConverter() throws Exception {
+    new MvcModuleCompilerRunner(new BeanController())
+        .module(
+            app -> {
+              var converter = app.getBeanConverters().get(0);
+              assertInstanceOf(BeanConverter.Compiled.class, converter);
+              assertEquals(true, converter.supports(Search.class));
+              assertEquals(true, converter.supports(Address.class));
+
+              MockRouter router = new MockRouter(app);
+              MockContext ctx = new MockContext();
+              ctx.setQueryString("?q=jooby&page=2&tags=a&tags=b&address.city=Lima&address.zip=15");
+              assertEquals(
+                  "jooby:2:[a, b]:Address[city=Lima, zip=15]",
+                  router.get("/search", ctx).value().toString());
+
+              ctx = new MockContext();
+              ctx.setQueryString("?q=jooby");
+              assertEquals("jooby:1:null:null", router.get("/search", ctx).value().toString());
+
+              ctx = new MockContext();
+              ctx.setQueryString("?city=Quito&zip=17");
+              assertEquals(
+                  "Address[city=Quito, zip=17]", router.get("/address", ctx).value().toString());
+
+              ctx = new MockContext();
+              ctx.setQueryString("?other=x");
+              assertEquals("null:1:null:null", router.get("/search", ctx).value().toString());
+            });
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package tests.bean;
+
+import java.util.List;
+
+public class Search {
+  private String q;
+
+  private int page = 1;
+
+  private List<String> tags;
+
+  private Address address;
+
+  public String getQ() {
+    return q;
+  }
+
+  public void setQ(String q) {
+    this.q = q;
+  }
+
+  public int getPage() {
+    return page;
+  }
+
+  public Search setPage(int page) {
+    this.page = page;
+    return this;
+  }
+
+  public List<String> getTags() {
+    return tags;
+  }
+
+  public void setTags(List<String> tags) {
+    this.tags = tags;
+  }
+
+  public Address getAddress() {
+    return address;
+  }
+
+  public void setAddress(Address address) {
+    this.address = address;
+  }
+
+  @Override
+  public String toString() {
+    return q + ":" + page + ":" + tags + ":" + address;
+  }
+}
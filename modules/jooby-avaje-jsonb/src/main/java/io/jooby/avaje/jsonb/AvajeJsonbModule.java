@@ -11,12 +11,13 @@ import java.lang.reflect.Type;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.avaje.jsonb.Jsonb;
 import io.jooby.Body;
+import io.jooby.BufferedMessageEncoder;
 import io.jooby.Context;
 import io.jooby.Extension;
 import io.jooby.Jooby;
 import io.jooby.MediaType;
 import io.jooby.MessageDecoder;
-import io.jooby.MessageEncoder;
+import io.jooby.Output;
 import io.jooby.ServiceRegistry;
 
 /**
@@ -63,7 +64,7 @@ import io.jooby.ServiceRegistry;
  * @author ZY (kzou227@qq.com)
  * @since 3.0.7
  */
-public class AvajeJsonbModule implements Extension, MessageDecoder, MessageEncoder {
+public class AvajeJsonbModule implements Extension, MessageDecoder, BufferedMessageEncoder {
 
   private final Jsonb jsonb;
 
@@ -107,4 +108,11 @@ public class AvajeJsonbModule implements Extension, MessageDecoder, MessageEncod
     ctx.setDefaultResponseType(MediaType.json);
     return jsonb.toJsonBytes(value);
   }
+
+  @Override
+  public boolean encode(@NonNull Context ctx, @NonNull Object value, @NonNull Output output) {
+    ctx.setDefaultResponseType(MediaType.json);
+    jsonb.toJson(value, output.asOutputStream());
+    return true;
+  }
 }
@@ -0,0 +1,108 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jooby.Jooby;
+import io.jooby.Server;
+import io.jooby.ServerOptions;
+import io.jooby.StartupSummary;
+import io.jooby.jackson.JacksonModule;
+import io.jooby.jetty.JettyServer;
+import io.jooby.netty.NettyServer;
+import io.jooby.undertow.UndertowServer;
+
+/**
+ * Loopback end-to-end benchmark. Starts an application on each web server and measures plaintext and
+ * JSON round trips using the JDK http client. Sample time mode reports p50/p90/p99/p999.
+ *
+ * <p>Run with more client threads using: <code>java -jar benchmarks.jar ServerBenchmark -t 8
+ * </code>
+ */
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Dorg.slf4j.simpleLogger.defaultLogLevel=warn"})
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ServerBenchmark {
+
+  private static final String MESSAGE = "Hello, World!";
+
+  @Param({"netty", "undertow", "jetty"})
+  private String server;
+
+  @Param({"plaintext", "json"})
+  private String endpoint;
+
+  @Param("8080")
+  private int port;
+
+  private Server webServer;
+
+  private HttpClient client;
+
+  private HttpRequest request;
+
+  @Setup
+  public void setup() {
+    Jooby app = new Jooby();
+    app.setStartupSummary(List.of(StartupSummary.NONE));
+    app.install(new JacksonModule());
+    app.get("/plaintext", ctx -> MESSAGE);
+    app.get("/json", ctx -> Map.of("message", MESSAGE));
+
+    webServer =
+        switch (server) {
+          case "netty" -> new NettyServer();
+          case "undertow" -> new UndertowServer();
+          case "jetty" -> new JettyServer();
+          default -> throw new IllegalArgumentException("Unknown server: " + server);
+        };
+    webServer.setOptions(new ServerOptions().setPort(port));
+    webServer.start(app);
+
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/" + endpoint)).build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    webServer.stop();
+  }
+
+  @Benchmark
+  public String roundTrip() throws Exception {
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Unexpected response: " + response.statusCode());
+    }
+    return response.body();
+  }
+}
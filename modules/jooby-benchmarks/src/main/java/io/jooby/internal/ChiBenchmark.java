@@ -0,0 +1,116 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jooby.MessageEncoder;
+import io.jooby.Route;
+import io.jooby.Router;
+
+/**
+ * Route lookup on trees of different size and shape. Every route has a distinct static prefix, so
+ * lookup cost reflects how well the tree scales with the number of routes. Each shape runs on the
+ * mutable tree and on the frozen (compiled) tree.
+ */
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ChiBenchmark {
+
+  @Param({"10", "1000", "10000"})
+  private int routes;
+
+  @Param({"static", "param", "regex", "catchall"})
+  private String tree;
+
+  @Param({"false", "true"})
+  private boolean frozen;
+
+  private Chi router;
+
+  private String first;
+
+  private String middle;
+
+  private String last;
+
+  @Setup
+  public void setup() {
+    router = new Chi();
+    for (int i = 0; i < routes; i++) {
+      router.insert(route(Router.GET, pattern(i)));
+    }
+    if (frozen) {
+      router.freeze();
+    }
+    first = path(0);
+    middle = path(routes / 2);
+    last = path(routes - 1);
+    if (!router.find(Router.GET, last).matches()) {
+      throw new IllegalStateException("No match for: " + last);
+    }
+  }
+
+  @Benchmark
+  public Router.Match first() {
+    return router.find(Router.GET, first);
+  }
+
+  @Benchmark
+  public Router.Match middle() {
+    return router.find(Router.GET, middle);
+  }
+
+  @Benchmark
+  public Router.Match last() {
+    return router.find(Router.GET, last);
+  }
+
+  @Benchmark
+  public Router.Match missing() {
+    return router.find(Router.GET, "/api/v1/missing/route");
+  }
+
+  private String pattern(int i) {
+    String prefix = "/api/v1/resource" + i;
+    return switch (tree) {
+      case "static" -> prefix + "/edit";
+      case "param" -> prefix + "/{id}";
+      case "regex" -> prefix + "/{id:[0-9]+}";
+      case "catchall" -> prefix + "/*";
+      default -> throw new IllegalArgumentException("Unknown tree: " + tree);
+    };
+  }
+
+  private String path(int i) {
+    String prefix = "/api/v1/resource" + i;
+    return switch (tree) {
+      case "static" -> prefix + "/edit";
+      case "catchall" -> prefix + "/some/deep/path";
+      default -> prefix + "/123";
+    };
+  }
+
+  private static Route route(String method, String pattern) {
+    return new Route(method, pattern, ctx -> pattern).setEncoder(MessageEncoder.TO_STRING);
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jooby.MediaType;
+import io.jooby.Output;
+import io.jooby.Route;
+import io.jooby.Router;
+import io.jooby.ServerOptions;
+import io.jooby.internal.netty.NettyOutput;
+import io.jooby.jackson.JacksonModule;
+import io.jooby.test.MockContext;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * JSON encoding through {@link HttpMessageEncoder}: byte array contract, heap output and pooled
+ * (Netty) output.
+ */
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HttpMessageEncoderBenchmark {
+
+  /** Encoded item. */
+  public record Item(long id, String name, double price, List<String> tags) {}
+
+  @Param({"10", "1000", "10000"})
+  private int items;
+
+  private HttpMessageEncoder encoder;
+
+  private MockContext ctx;
+
+  private List<Item> payload;
+
+  @Setup
+  public void setup() {
+    encoder = new HttpMessageEncoder().add(MediaType.json, new JacksonModule());
+    ctx = new MockContext();
+    ctx.setRoute(new Route(Router.GET, "/", ctx -> payload));
+    ctx.setRequestHeader("Accept", MediaType.JSON);
+    payload = new ArrayList<>(items);
+    for (int i = 0; i < items; i++) {
+      payload.add(new Item(i, "item " + i, i * 1.5, List.of("tag" + i, "jooby")));
+    }
+  }
+
+  @Benchmark
+  public byte[] byteArray() throws Exception {
+    return encoder.encode(ctx, payload);
+  }
+
+  @Benchmark
+  public int heapOutput() throws Exception {
+    Output output = Output.create();
+    encoder.encode(ctx, payload, output);
+    return output.size();
+  }
+
+  @Benchmark
+  public int pooledOutput() throws Exception {
+    Output output = new NettyOutput(PooledByteBufAllocator.DEFAULT, ServerOptions._16KB);
+    try {
+      encoder.encode(ctx, payload, output);
+      return output.size();
+    } finally {
+      output.release();
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jooby.ExecutionMode;
+import io.jooby.MessageEncoder;
+import io.jooby.Route;
+import io.jooby.Router;
+import io.jooby.test.MockContext;
+
+/** Build and execute handler chains made of a variable number of filters. */
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+  @Param({"0", "5", "20"})
+  private int filters;
+
+  @Param({"EVENT_LOOP", "WORKER"})
+  private ExecutionMode mode;
+
+  private Route.Handler pipeline;
+
+  private MockContext ctx;
+
+  @Setup
+  public void setup() {
+    Route route = route();
+    pipeline = Pipeline.build(route, mode, null, null, Collections.emptySet());
+    ctx = new MockContext();
+    ctx.setRoute(route);
+  }
+
+  @Benchmark
+  public Route.Handler build() {
+    return Pipeline.build(route(), mode, null, null, Collections.emptySet());
+  }
+
+  @Benchmark
+  public Object execute() throws Exception {
+    return pipeline.apply(ctx);
+  }
+
+  private Route route() {
+    Route route = new Route(Router.GET, "/", ctx -> "OK").setEncoder(MessageEncoder.TO_STRING);
+    Route.Filter filter = null;
+    for (int i = 0; i < filters; i++) {
+      Route.Filter passThrough = next -> ctx -> next.apply(ctx);
+      filter = filter == null ? passThrough : filter.then(passThrough);
+    }
+    route.setFilter(filter);
+    route.setAfter((ctx, result, failure) -> {});
+    return route;
+  }
+}
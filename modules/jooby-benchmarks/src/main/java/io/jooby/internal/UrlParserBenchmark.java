@@ -0,0 +1,78 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jooby.QueryString;
+import io.jooby.test.MockContext;
+
+/** Query string decoding: parse only, read a single parameter and read all of them. */
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class UrlParserBenchmark {
+
+  private static final Map<String, String> QUERIES =
+      Map.of(
+          "small", "q=jooby&page=1&size=20",
+          "encoded", "q=hello%20world&name=Pedro+P%C3%A9rez&path=%2Fapi%2Fv1&tag=a%26b",
+          "nested", "user.name=edgar&user.address.city=Bs+As&roles[0]=admin&roles[1]=user",
+          "large", large());
+
+  @Param({"small", "encoded", "nested", "large"})
+  private String query;
+
+  private String raw;
+
+  private MockContext ctx;
+
+  @Setup
+  public void setup() {
+    raw = QUERIES.get(query);
+    ctx = new MockContext();
+  }
+
+  @Benchmark
+  public QueryString parse() {
+    return UrlParser.queryString(ctx, raw);
+  }
+
+  @Benchmark
+  public String parseAndReadOne() {
+    return UrlParser.queryString(ctx, raw).get("q").valueOrNull();
+  }
+
+  @Benchmark
+  public Map<String, List<String>> parseAndReadAll() {
+    return UrlParser.queryString(ctx, raw).toMultimap();
+  }
+
+  private static String large() {
+    StringBuilder query = new StringBuilder("q=jooby");
+    for (int i = 0; i < 50; i++) {
+      query.append("&param").append(i).append("=value").append(i);
+    }
+    return query.toString();
+  }
+}
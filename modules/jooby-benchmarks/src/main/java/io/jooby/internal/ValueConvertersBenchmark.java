@@ -0,0 +1,128 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jooby.Jooby;
+import io.jooby.test.MockContext;
+
+/** {@link HashValue} lookups and {@link ValueConverters} conversions. */
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ValueConvertersBenchmark {
+
+  /** Target of bean conversion. */
+  public static class Search {
+    private String q;
+
+    private int page;
+
+    private LocalDate since;
+
+    public String getQ() {
+      return q;
+    }
+
+    public void setQ(String q) {
+      this.q = q;
+    }
+
+    public int getPage() {
+      return page;
+    }
+
+    public void setPage(int page) {
+      this.page = page;
+    }
+
+    public LocalDate getSince() {
+      return since;
+    }
+
+    public void setSince(LocalDate since) {
+      this.since = since;
+    }
+  }
+
+  /** Target of record conversion. */
+  public record Page(String q, int page, LocalDate since) {}
+
+  private HashValue hash;
+
+  private Jooby router;
+
+  @Setup
+  public void setup() {
+    router = new Jooby();
+    MockContext ctx = new MockContext();
+    ctx.setRouter(router);
+    hash = new HashValue(ctx, null);
+    hash.put("q", "jooby");
+    hash.put("page", "7");
+    hash.put("since", "2024-01-15");
+    hash.put("id", UUID.randomUUID().toString());
+    hash.put("ids", List.of("1", "2", "3", "4", "5"));
+  }
+
+  @Benchmark
+  public String string() {
+    return hash.get("q").value();
+  }
+
+  @Benchmark
+  public int intValue() {
+    return hash.get("page").intValue();
+  }
+
+  @Benchmark
+  public Integer integer() {
+    return ValueConverters.convert(hash.get("page"), Integer.class, router);
+  }
+
+  @Benchmark
+  public UUID uuid() {
+    return hash.get("id").to(UUID.class);
+  }
+
+  @Benchmark
+  public LocalDate localDate() {
+    return hash.get("since").to(LocalDate.class);
+  }
+
+  @Benchmark
+  public List<Integer> list() {
+    return hash.get("ids").toList(Integer.class);
+  }
+
+  @Benchmark
+  public Search bean() {
+    return hash.to(Search.class);
+  }
+
+  @Benchmark
+  public Page record() {
+    return hash.to(Page.class);
+  }
+}
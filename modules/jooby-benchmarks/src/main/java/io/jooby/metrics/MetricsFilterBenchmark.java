@@ -0,0 +1,97 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.jooby.Jooby;
+import io.jooby.Route;
+import io.jooby.Router;
+import io.jooby.test.MockContext;
+
+/**
+ * Instrumented request cost: metrics bound to the route once vs registry lookups on every request.
+ */
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MetricsFilterBenchmark {
+
+  @Param({"bound", "lookup"})
+  private String filter;
+
+  private Route.Handler handler;
+
+  private Jooby app;
+
+  private Route route;
+
+  @Setup
+  public void setup() {
+    MetricRegistry registry = new MetricRegistry();
+    app = new Jooby();
+    app.getServices().put(MetricRegistry.class, registry);
+    route = new Route(Router.GET, "/users/{id}", ctx -> ctx.send("OK"));
+    Route.Filter metrics = filter.equals("bound") ? new MetricsFilter(registry) : lookup();
+    metrics.setRoute(route);
+    handler = metrics.then(route.getHandler());
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object execute() throws Exception {
+    return handler.apply(newContext());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object executeConcurrent() throws Exception {
+    return handler.apply(newContext());
+  }
+
+  private MockContext newContext() {
+    MockContext ctx = new MockContext().setRouter(app);
+    ctx.setRoute(route);
+    return ctx;
+  }
+
+  /** Previous implementation: resolve registry and metrics by name on every request. */
+  private static Route.Filter lookup() {
+    return next ->
+        ctx -> {
+          MetricRegistry registry = ctx.require(MetricRegistry.class);
+          Counter counter = registry.counter("request.actives");
+          Timer.Context timer = registry.timer("request").time();
+          counter.inc();
+          ctx.onComplete(
+              context -> {
+                timer.stop();
+                counter.dec();
+                registry.meter("responses." + context.getResponseCode().value()).mark();
+              });
+          return next.apply(ctx);
+        };
+  }
+}
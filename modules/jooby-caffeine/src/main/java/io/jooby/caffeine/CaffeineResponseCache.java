@@ -0,0 +1,488 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.caffeine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.Context;
+import io.jooby.Route;
+import io.jooby.Router;
+import io.jooby.StatusCode;
+import io.jooby.internal.caffeine.CacheDirectives;
+import io.jooby.internal.caffeine.CachedResponse;
+import io.jooby.internal.caffeine.CapturingContext;
+
+/**
+ * Server side HTTP response cache backed by Caffeine.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * {
+ *   use(new CaffeineResponseCache());
+ *
+ *   get("/products", ctx -> {
+ *     ctx.setResponseHeader("Cache-Control", "public, max-age=60, stale-while-revalidate=30");
+ *     return products.findAll();
+ *   });
+ * }
+ * }</pre>
+ *
+ * <p>Only <code>GET</code> and <code>HEAD</code> requests of blocking routes are cached. A response
+ * is stored when:
+ *
+ * <ul>
+ *   <li>status code is <code>200</code> and the body was sent from memory (not a stream or file)
+ *   <li>response doesn't set cookies
+ *   <li><code>Cache-Control</code> has no <code>no-store</code>, <code>no-cache</code> or <code>
+ *       private</code> directives
+ *   <li>there is a <code>s-maxage</code> or <code>max-age</code> directive, or a default max age
+ *       was set with {@link #setDefaultMaxAge(Duration)}
+ *   <li>request has no <code>Authorization</code> header, unless response is <code>public</code> or
+ *       has a <code>s-maxage</code> directive
+ * </ul>
+ *
+ * <p>Responses are keyed by method, path, query string (or selected query parameters, see {@link
+ * #setQueryParameters(String...)}) and the values of request headers listed by the response <code>
+ * Vary</code> header.
+ *
+ * <p>Cached responses have an <code>ETag</code> (computed from body when missing), requests with a
+ * matching <code>If-None-Match</code> header get a <code>304</code> response.
+ *
+ * <p>Concurrent requests for a missing response are coalesced: one request runs the route handler
+ * while others wait for it (up to {@link #setLockTimeout(Duration)}). Once a response goes stale,
+ * it is served for <code>stale-while-revalidate</code> seconds while a single request refreshes it.
+ *
+ * <p>A response that wasn't stored marks its path as uncacheable for a short time (see {@link
+ * #setUncacheableTimeout(Duration)}). Requests for an uncacheable path aren't coalesced, they run
+ * the route handler right away.
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+public class CaffeineResponseCache implements Route.Filter {
+
+  /** Default cache size: <code>64mb</code>. */
+  public static final long DEFAULT_MAXIMUM_WEIGHT = 64 * 1024 * 1024;
+
+  private static final List<String> HEADERS =
+      List.of(
+          "Cache-Control",
+          "Content-Encoding",
+          "Content-Language",
+          "Expires",
+          "Last-Modified",
+          "Vary");
+
+  private static final String ETAG = "ETag";
+
+  private final Cache<String, CachedResponse> cache;
+
+  private final Cache<String, List<String>> varyByKey;
+
+  private final Map<String, CompletableFuture<CachedResponse>> inflight = new ConcurrentHashMap<>();
+
+  /** Primary keys whose last response wasn't stored, to deadline (nanos). */
+  private final Cache<String, Long> uncacheable;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private long defaultMaxAge;
+
+  private List<String> queryParameters;
+
+  private List<String> headers = HEADERS;
+
+  private long lockTimeout = TimeUnit.SECONDS.toNanos(5);
+
+  private long uncacheableTimeout = TimeUnit.SECONDS.toNanos(10);
+
+  /**
+   * Creates a new response cache.
+   *
+   * @param maximumWeight Maximum size in bytes of cached responses.
+   */
+  public CaffeineResponseCache(long maximumWeight) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher((String key, CachedResponse response) -> response.weight())
+            .expireAfter(
+                new Expiry<String, CachedResponse>() {
+                  @Override
+                  public long expireAfterCreate(
+                      String key, CachedResponse response, long currentTime) {
+                    return response.timeToLive();
+                  }
+
+                  @Override
+                  public long expireAfterUpdate(
+                      String key, CachedResponse response, long currentTime, long duration) {
+                    return response.timeToLive();
+                  }
+
+                  @Override
+                  public long expireAfterRead(
+                      String key, CachedResponse response, long currentTime, long duration) {
+                    return duration;
+                  }
+                })
+            .build();
+    this.varyByKey = Caffeine.newBuilder().maximumSize(10_000).build();
+    this.uncacheable = Caffeine.newBuilder().maximumSize(10_000).build();
+  }
+
+  /** Creates a new response cache of {@link #DEFAULT_MAXIMUM_WEIGHT}. */
+  public CaffeineResponseCache() {
+    this(DEFAULT_MAXIMUM_WEIGHT);
+  }
+
+  /**
+   * Max age for responses without a <code>max-age</code> or <code>s-maxage</code> directive.
+   * Default is zero: those responses aren't cached.
+   *
+   * @param maxAge Default max age.
+   * @return This cache.
+   */
+  public @NonNull CaffeineResponseCache setDefaultMaxAge(@NonNull Duration maxAge) {
+    this.defaultMaxAge = maxAge.toNanos();
+    return this;
+  }
+
+  /**
+   * Query parameters that are part of the cache key, other parameters are ignored. By default, the
+   * entire query string is part of the key.
+   *
+   * @param names Query parameter names.
+   * @return This cache.
+   */
+  public @NonNull CaffeineResponseCache setQueryParameters(@NonNull String... names) {
+    List<String> list = new ArrayList<>(Arrays.asList(names));
+    list.sort(null);
+    this.queryParameters = list;
+    return this;
+  }
+
+  /**
+   * Additional response headers to store and send back with cached responses. <code>ETag
+   * </code>, <code>Cache-Control</code>, <code>Content-Encoding</code>, <code>Content-Language
+   * </code>, <code>Expires</code>, <code>Last-Modified</code> and <code>Vary</code> are always
+   * stored.
+   *
+   * @param names Header names.
+   * @return This cache.
+   */
+  public @NonNull CaffeineResponseCache setResponseHeaders(@NonNull String... names) {
+    List<String> list = new ArrayList<>(HEADERS);
+    list.addAll(Arrays.asList(names));
+    this.headers = list;
+    return this;
+  }
+
+  /**
+   * How long a request waits for a concurrent request computing the same response. Once the timeout
+   * expires, the request runs the route handler. Default is: <code>5s</code>.
+   *
+   * @param timeout Lock timeout.
+   * @return This cache.
+   */
+  public @NonNull CaffeineResponseCache setLockTimeout(@NonNull Duration timeout) {
+    this.lockTimeout = timeout.toNanos();
+    return this;
+  }
+
+  /**
+   * How long a path whose response wasn't stored skips request coalescing. Default is: <code>10s
+   * </code>.
+   *
+   * @param timeout Uncacheable timeout.
+   * @return This cache.
+   */
+  public @NonNull CaffeineResponseCache setUncacheableTimeout(@NonNull Duration timeout) {
+    this.uncacheableTimeout = timeout.toNanos();
+    return this;
+  }
+
+  /**
+   * Number of requests served from cache (fresh, stale or coalesced).
+   *
+   * @return Number of requests served from cache.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Number of requests that executed the route handler.
+   *
+   * @return Number of requests that executed the route handler.
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** Remove all cached responses. */
+  public void invalidateAll() {
+    cache.invalidateAll();
+    varyByKey.invalidateAll();
+    uncacheable.invalidateAll();
+  }
+
+  @NonNull @Override
+  public Route.Handler apply(@NonNull Route.Handler next) {
+    return ctx -> {
+      String method = ctx.getMethod();
+      if (!(method.equals(Router.GET) || method.equals(Router.HEAD))
+          || ctx.getRoute().isNonBlocking()) {
+        return next.apply(ctx);
+      }
+      CacheDirectives request = CacheDirectives.parse(ctx.header("Cache-Control").valueOrNull());
+      if (request.noStore()) {
+        return next.apply(ctx);
+      }
+      String primaryKey = primaryKey(ctx);
+      for (int attempt = 0; ; attempt++) {
+        String key = key(ctx, primaryKey, varyByKey.getIfPresent(primaryKey));
+        long now = System.nanoTime();
+        CachedResponse cached = request.noCache() ? null : cache.getIfPresent(key);
+        if (cached != null && cached.isFresh(now)) {
+          hits.increment();
+          return cached.send(ctx, now);
+        }
+        if (cached == null && isUncacheable(primaryKey, now)) {
+          // hit-for-pass: nothing to wait for
+          return execute(ctx, next, request, primaryKey, key, null);
+        }
+        CompletableFuture<CachedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> existing = inflight.putIfAbsent(key, flight);
+        if (existing == null) {
+          return execute(ctx, next, request, primaryKey, key, flight);
+        }
+        if (cached != null) {
+          // stale while someone else revalidates
+          hits.increment();
+          return cached.send(ctx, now);
+        }
+        CachedResponse shared = await(existing);
+        if (shared != null) {
+          // leader might have produced a different variant (vary headers weren't known yet)
+          if (shared.key().equals(key(ctx, primaryKey, shared.vary()))) {
+            hits.increment();
+            return shared.send(ctx, System.nanoTime());
+          }
+          if (attempt == 0) {
+            // vary headers are known now: look up (or compute) our own variant
+            continue;
+          }
+        }
+        misses.increment();
+        return next.apply(ctx);
+      }
+    };
+  }
+
+  private Object execute(
+      Context ctx,
+      Route.Handler next,
+      CacheDirectives request,
+      String primaryKey,
+      String key,
+      CompletableFuture<CachedResponse> flight)
+      throws Exception {
+    CachedResponse response = null;
+    try {
+      misses.increment();
+      CachedResponse[] stored = {null};
+      CapturingContext capture =
+          new CapturingContext(
+              ctx, (target, body) -> stored[0] = store(target, body, primaryKey, request));
+      Object result = next.apply(capture);
+      if (!capture.isResponseStarted() && !(result instanceof CompletionStage)) {
+        capture.render(result);
+        result = ctx;
+      }
+      response = capture.hasCookies() ? null : stored[0];
+      if (response != null) {
+        cache.put(response.key(), response);
+        uncacheable.invalidate(primaryKey);
+      } else if (!(result instanceof CompletionStage)) {
+        uncacheable.put(primaryKey, System.nanoTime() + uncacheableTimeout);
+      }
+      return result == capture ? ctx : result;
+    } finally {
+      if (flight != null) {
+        inflight.remove(key, flight);
+        flight.complete(response);
+      }
+    }
+  }
+
+  private boolean isUncacheable(String primaryKey, long now) {
+    Long deadline = uncacheable.getIfPresent(primaryKey);
+    if (deadline == null) {
+      return false;
+    }
+    if (deadline - now > 0) {
+      return true;
+    }
+    uncacheable.asMap().remove(primaryKey, deadline);
+    return false;
+  }
+
+  private CachedResponse await(CompletableFuture<CachedResponse> flight) throws Exception {
+    try {
+      return flight.get(lockTimeout, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException | ExecutionException x) {
+      return null;
+    }
+  }
+
+  /**
+   * Send a captured response, stores it when cacheable.
+   *
+   * @return Cached response or <code>null</code>.
+   */
+  private CachedResponse store(
+      Context ctx, byte[] body, String primaryKey, CacheDirectives request) {
+    CachedResponse response = null;
+    if (ctx.getResponseCode().value() == StatusCode.OK_CODE
+        && ctx.getResponseHeader("Set-Cookie") == null) {
+      CacheDirectives directives = CacheDirectives.parse(ctx.getResponseHeader("Cache-Control"));
+      String vary = ctx.getResponseHeader("Vary");
+      long maxAge = maxAge(directives);
+      long stale = TimeUnit.SECONDS.toNanos(Math.max(0, directives.staleWhileRevalidate()));
+      boolean shared =
+          ctx.header("Authorization").isMissing()
+              || directives.isPublic()
+              || directives.sharedMaxAge() >= 0;
+      if (!directives.noStore()
+          && !directives.noCache()
+          && !directives.isPrivate()
+          && shared
+          && maxAge + stale > 0
+          && !"*".equals(vary)) {
+        String etag = ctx.getResponseHeader(ETAG);
+        if (etag == null) {
+          etag = etag(body);
+          ctx.setResponseHeader(ETAG, etag);
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(ETAG, etag);
+        for (String name : this.headers) {
+          String value = ctx.getResponseHeader(name);
+          if (value != null) {
+            headers.put(name, value);
+          }
+        }
+        List<String> varyHeaders = vary(vary);
+        response =
+            new CachedResponse(
+                key(ctx, primaryKey, varyHeaders),
+                varyHeaders,
+                StatusCode.OK_CODE,
+                ctx.getResponseType(),
+                headers,
+                body,
+                etag,
+                System.nanoTime(),
+                maxAge,
+                stale);
+        varyByKey.put(primaryKey, varyHeaders);
+      }
+    }
+    if (response != null
+        && CachedResponse.matches(ctx.header("If-None-Match").valueOrNull(), response.etag())) {
+      ctx.send(StatusCode.NOT_MODIFIED);
+    } else {
+      ctx.send(body);
+    }
+    return response;
+  }
+
+  private long maxAge(CacheDirectives directives) {
+    if (directives.sharedMaxAge() >= 0) {
+      return TimeUnit.SECONDS.toNanos(directives.sharedMaxAge());
+    }
+    if (directives.maxAge() >= 0) {
+      return TimeUnit.SECONDS.toNanos(directives.maxAge());
+    }
+    return defaultMaxAge;
+  }
+
+  private String primaryKey(Context ctx) {
+    // HEAD is served from GET
+    StringBuilder key = new StringBuilder(Router.GET).append(' ').append(ctx.getRequestPath());
+    if (queryParameters == null) {
+      key.append(ctx.queryString());
+    } else {
+      char separator = '?';
+      for (String name : queryParameters) {
+        List<String> values = ctx.query(name).toList();
+        if (!values.isEmpty()) {
+          key.append(separator).append(name).append('=').append(String.join(",", values));
+          separator = '&';
+        }
+      }
+    }
+    return key.toString();
+  }
+
+  private String key(Context ctx, String primaryKey, List<String> vary) {
+    if (vary == null || vary.isEmpty()) {
+      return primaryKey;
+    }
+    StringBuilder key = new StringBuilder(primaryKey);
+    for (String name : vary) {
+      key.append('\n').append(name).append(':').append(ctx.header(name).valueOrNull());
+    }
+    return key.toString();
+  }
+
+  private static List<String> vary(String value) {
+    if (value == null || value.isBlank()) {
+      return List.of();
+    }
+    List<String> names = new ArrayList<>();
+    for (String name : value.split(",")) {
+      String header = name.trim().toLowerCase(Locale.ROOT);
+      if (!header.isEmpty()) {
+        names.add(header);
+      }
+    }
+    names.sort(null);
+    return names;
+  }
+
+  private static String etag(byte[] body) {
+    CRC32C crc = new CRC32C();
+    crc.update(body);
+    return "W/\""
+        + Integer.toHexString(body.length)
+        + "-"
+        + Long.toHexString(crc.getValue())
+        + "\"";
+  }
+}
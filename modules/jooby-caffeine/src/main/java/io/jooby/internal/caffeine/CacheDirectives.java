@@ -0,0 +1,82 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.caffeine;
+
+import java.util.Locale;
+
+/**
+ * Parsed <code>Cache-Control</code> header. Only directives that matter to a shared cache are kept.
+ * Time values are in seconds, <code>-1</code> when missing.
+ *
+ * @param noStore No store directive.
+ * @param noCache No cache directive.
+ * @param isPrivate Private directive.
+ * @param isPublic Public directive.
+ * @param maxAge Max age or <code>-1</code>.
+ * @param sharedMaxAge Shared max age or <code>-1</code>.
+ * @param staleWhileRevalidate Stale while revalidate or <code>-1</code>.
+ */
+public record CacheDirectives(
+    boolean noStore,
+    boolean noCache,
+    boolean isPrivate,
+    boolean isPublic,
+    long maxAge,
+    long sharedMaxAge,
+    long staleWhileRevalidate) {
+  private static final CacheDirectives NONE =
+      new CacheDirectives(false, false, false, false, -1, -1, -1);
+
+  /**
+   * Parse a <code>Cache-Control</code> header.
+   *
+   * @param value Header value or <code>null</code>.
+   * @return Directives.
+   */
+  public static CacheDirectives parse(String value) {
+    if (value == null || value.isBlank()) {
+      return NONE;
+    }
+    boolean noStore = false;
+    boolean noCache = false;
+    boolean isPrivate = false;
+    boolean isPublic = false;
+    long maxAge = -1;
+    long sharedMaxAge = -1;
+    long staleWhileRevalidate = -1;
+    for (String directive : value.split(",")) {
+      int eq = directive.indexOf('=');
+      String name =
+          (eq > 0 ? directive.substring(0, eq) : directive).trim().toLowerCase(Locale.ROOT);
+      String argument = eq > 0 ? directive.substring(eq + 1).trim() : null;
+      switch (name) {
+        case "no-store" -> noStore = true;
+        case "no-cache" -> noCache = true;
+        case "private" -> isPrivate = true;
+        case "public" -> isPublic = true;
+        case "max-age" -> maxAge = seconds(argument);
+        case "s-maxage" -> sharedMaxAge = seconds(argument);
+        case "stale-while-revalidate" -> staleWhileRevalidate = seconds(argument);
+        default -> {
+          // ignored
+        }
+      }
+    }
+    return new CacheDirectives(
+        noStore, noCache, isPrivate, isPublic, maxAge, sharedMaxAge, staleWhileRevalidate);
+  }
+
+  private static long seconds(String value) {
+    if (value == null) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(value.replace("\"", ""));
+    } catch (NumberFormatException x) {
+      return -1;
+    }
+  }
+}
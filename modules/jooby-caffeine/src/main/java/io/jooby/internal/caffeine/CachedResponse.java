@@ -0,0 +1,107 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.caffeine;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.jooby.Context;
+import io.jooby.MediaType;
+import io.jooby.StatusCode;
+
+/**
+ * A response stored in cache.
+ *
+ * @param key Cache key.
+ * @param vary Request headers (lower case) that are part of the cache key.
+ * @param status Status code.
+ * @param type Content type.
+ * @param headers Response headers.
+ * @param body Response body.
+ * @param etag Entity tag.
+ * @param storedAt Time (nanos) the response was stored.
+ * @param maxAge How long (nanos) the response is fresh.
+ * @param staleWhileRevalidate How long (nanos) the response might be served stale after expiration.
+ */
+public record CachedResponse(
+    String key,
+    List<String> vary,
+    int status,
+    MediaType type,
+    Map<String, String> headers,
+    byte[] body,
+    String etag,
+    long storedAt,
+    long maxAge,
+    long staleWhileRevalidate) {
+
+  private static final int OVERHEAD = 256;
+
+  public boolean isFresh(long now) {
+    return now - storedAt < maxAge;
+  }
+
+  public int weight() {
+    return body.length + OVERHEAD;
+  }
+
+  /**
+   * Time to live in cache: fresh plus stale time.
+   *
+   * @return Time to live in nanos.
+   */
+  public long timeToLive() {
+    return maxAge + staleWhileRevalidate;
+  }
+
+  /**
+   * Send response. Send a <code>304</code> when request <code>If-None-Match</code> matches.
+   *
+   * @param ctx Web context.
+   * @param now Current time in nanos.
+   * @return Web context.
+   */
+  public Context send(Context ctx, long now) {
+    ctx.setResponseCode(status);
+    if (type != null) {
+      ctx.setResponseType(type, type.getCharset());
+    }
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      ctx.setResponseHeader(header.getKey(), header.getValue());
+    }
+    ctx.setResponseHeader("Age", Long.toString(TimeUnit.NANOSECONDS.toSeconds(now - storedAt)));
+    if (matches(ctx.header("If-None-Match").valueOrNull(), etag)) {
+      return ctx.send(StatusCode.NOT_MODIFIED);
+    }
+    return ctx.send(body);
+  }
+
+  /**
+   * Test an <code>If-None-Match</code> header against an entity tag (weak comparison).
+   *
+   * @param ifNoneMatch Header value or <code>null</code>.
+   * @param etag Entity tag.
+   * @return True when header matches.
+   */
+  public static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || etag == null) {
+      return false;
+    }
+    String opaque = opaque(etag);
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*") || opaque(tag).equals(opaque)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String opaque(String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+}
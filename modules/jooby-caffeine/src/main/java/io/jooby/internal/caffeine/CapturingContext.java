@@ -0,0 +1,143 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.caffeine;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.Context;
+import io.jooby.Cookie;
+import io.jooby.ForwardingContext;
+import io.jooby.Output;
+import io.jooby.SneakyThrows;
+
+/**
+ * Context that captures in-memory response bodies. Captured bytes are handed to a sink that is
+ * responsible for sending them. Other kind of responses (streams, files, etc.) go straight to the
+ * underlying context and aren't captured.
+ */
+public class CapturingContext extends ForwardingContext {
+
+  private final BiConsumer<Context, byte[]> sink;
+
+  private boolean cookies;
+
+  private boolean captured;
+
+  /**
+   * Creates a new capturing context.
+   *
+   * @param context Source context.
+   * @param sink Send captured bytes to the given context.
+   */
+  public CapturingContext(@NonNull Context context, @NonNull BiConsumer<Context, byte[]> sink) {
+    super(context);
+    this.sink = sink;
+  }
+
+  /**
+   * True when the response body was captured.
+   *
+   * @return True when the response body was captured.
+   */
+  public boolean isCaptured() {
+    return captured;
+  }
+
+  /**
+   * True when a cookie was set.
+   *
+   * @return True when a cookie was set.
+   */
+  public boolean hasCookies() {
+    return cookies;
+  }
+
+  /**
+   * Encode and send a route result.
+   *
+   * @param value Route result.
+   * @return This context.
+   */
+  @NonNull @Override
+  public Context render(@NonNull Object value) {
+    try {
+      byte[] bytes = getRoute().getEncoder().encode(this, value);
+      if (bytes != null) {
+        send(bytes);
+      }
+      // else: encoder sent the response
+      return this;
+    } catch (Exception x) {
+      throw SneakyThrows.propagate(x);
+    }
+  }
+
+  @NonNull @Override
+  public Context setResponseCookie(@NonNull Cookie cookie) {
+    cookies = true;
+    return super.setResponseCookie(cookie);
+  }
+
+  @NonNull @Override
+  public Context send(@NonNull String data) {
+    return send(data, StandardCharsets.UTF_8);
+  }
+
+  @NonNull @Override
+  public Context send(@NonNull String data, @NonNull Charset charset) {
+    return send(data.getBytes(charset));
+  }
+
+  @NonNull @Override
+  public Context send(@NonNull byte[] data) {
+    captured = true;
+    sink.accept(ctx, data);
+    return this;
+  }
+
+  @NonNull @Override
+  public Context send(@NonNull ByteBuffer data) {
+    byte[] bytes = new byte[data.remaining()];
+    data.get(bytes);
+    return send(bytes);
+  }
+
+  @NonNull @Override
+  public Context send(@NonNull byte[]... data) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    for (byte[] chunk : data) {
+      bytes.writeBytes(chunk);
+    }
+    return send(bytes.toByteArray());
+  }
+
+  @NonNull @Override
+  public Context send(@NonNull ByteBuffer[] data) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    for (ByteBuffer chunk : data) {
+      byte[] array = new byte[chunk.remaining()];
+      chunk.get(array);
+      bytes.writeBytes(array);
+    }
+    return send(bytes.toByteArray());
+  }
+
+  @NonNull @Override
+  public Context send(@NonNull Output output) {
+    byte[] bytes;
+    try {
+      bytes = output.toByteArray();
+    } finally {
+      output.release();
+    }
+    return send(bytes);
+  }
+}
@@ -0,0 +1,271 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.caffeine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Jooby;
+import io.jooby.StatusCode;
+import io.jooby.test.MockContext;
+import io.jooby.test.MockRouter;
+
+public class CaffeineResponseCacheTest {
+
+  @Test
+  public void shouldCacheResponses() {
+    AtomicInteger calls = new AtomicInteger();
+    CaffeineResponseCache cache = new CaffeineResponseCache();
+    Jooby app = new Jooby();
+    app.use(cache);
+    app.get(
+        "/products",
+        ctx -> {
+          ctx.setResponseHeader("Cache-Control", "max-age=60");
+          return "products:" + calls.incrementAndGet();
+        });
+    app.get("/private", ctx -> "private:" + calls.incrementAndGet());
+
+    MockRouter router = new MockRouter(app).setFullExecution(true);
+    String[] etag = new String[1];
+    router.get(
+        "/products",
+        rsp -> {
+          assertEquals(StatusCode.OK, rsp.getStatusCode());
+          etag[0] = (String) rsp.getHeaders().get("ETag");
+          assertNotNull(etag[0]);
+        });
+    router.get(
+        "/products",
+        rsp -> {
+          assertEquals(StatusCode.OK, rsp.getStatusCode());
+          assertEquals(etag[0], rsp.getHeaders().get("ETag"));
+          assertEquals("0", rsp.getHeaders().get("Age"));
+        });
+    assertEquals(1, calls.get());
+
+    // conditional request
+    router.get(
+        "/products",
+        new MockContext().setRequestHeader("If-None-Match", etag[0]),
+        rsp -> assertEquals(StatusCode.NOT_MODIFIED, rsp.getStatusCode()));
+    assertEquals(1, calls.get());
+
+    // bypass cache
+    router.get("/products", new MockContext().setRequestHeader("Cache-Control", "no-cache"));
+    assertEquals(2, calls.get());
+
+    // no max-age
+    router.get("/private");
+    router.get("/private");
+    assertEquals(4, calls.get());
+    assertEquals(2, cache.getHits());
+  }
+
+  @Test
+  public void shouldKeyByVaryHeaders() {
+    AtomicInteger calls = new AtomicInteger();
+    Jooby app = new Jooby();
+    app.use(new CaffeineResponseCache());
+    app.get(
+        "/greeting",
+        ctx -> {
+          calls.incrementAndGet();
+          ctx.setResponseHeader("Cache-Control", "max-age=60");
+          ctx.setResponseHeader("Vary", "Accept-Language");
+          return ctx.header("Accept-Language").value("en");
+        });
+
+    MockRouter router = new MockRouter(app).setFullExecution(true);
+    router.get("/greeting", new MockContext().setRequestHeader("Accept-Language", "es"));
+    router.get("/greeting", new MockContext().setRequestHeader("Accept-Language", "es"));
+    assertEquals(1, calls.get());
+    router.get("/greeting", new MockContext().setRequestHeader("Accept-Language", "en"));
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void shouldCoalesceConcurrentMisses() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CaffeineResponseCache cache = new CaffeineResponseCache();
+    Jooby app = new Jooby();
+    app.use(cache);
+    app.get(
+        "/catalog",
+        ctx -> {
+          calls.incrementAndGet();
+          entered.countDown();
+          release.await();
+          ctx.setResponseHeader("Cache-Control", "max-age=60");
+          return "catalog";
+        });
+
+    MockRouter router = new MockRouter(app).setFullExecution(true);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<StatusCode>> responses = new ArrayList<>();
+      responses.add(executor.submit(() -> get(router, "/catalog")));
+      entered.await();
+      for (int i = 0; i < 3; i++) {
+        responses.add(executor.submit(() -> get(router, "/catalog")));
+      }
+      // give followers some time to wait on the leader
+      Thread.sleep(100);
+      release.countDown();
+      for (Future<StatusCode> response : responses) {
+        assertEquals(StatusCode.OK, response.get(5, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, calls.get());
+    assertEquals(3, cache.getHits());
+  }
+
+  @Test
+  public void shouldNotCoalesceUncacheableResponses() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch entered = new CountDownLatch(3);
+    CountDownLatch release = new CountDownLatch(1);
+    Jooby app = new Jooby();
+    app.use(new CaffeineResponseCache());
+    app.get(
+        "/dynamic",
+        ctx -> {
+          if (calls.incrementAndGet() > 1) {
+            entered.countDown();
+            release.await();
+          }
+          return "dynamic";
+        });
+
+    MockRouter router = new MockRouter(app).setFullExecution(true);
+    // no Cache-Control: response isn't stored
+    assertEquals(StatusCode.OK, get(router, "/dynamic"));
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      List<Future<StatusCode>> responses = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        responses.add(executor.submit(() -> get(router, "/dynamic")));
+      }
+      // all of them run the handler, nobody waits for a leader
+      assertTrue(entered.await(1, TimeUnit.SECONDS));
+      release.countDown();
+      for (Future<StatusCode> response : responses) {
+        assertEquals(StatusCode.OK, response.get(5, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(4, calls.get());
+  }
+
+  @Test
+  public void shouldNotShareVariantsWhileCoalescing() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Jooby app = new Jooby();
+    app.use(new CaffeineResponseCache());
+    app.get(
+        "/greeting",
+        ctx -> {
+          calls.incrementAndGet();
+          entered.countDown();
+          release.await();
+          ctx.setResponseHeader("Cache-Control", "max-age=60");
+          ctx.setResponseHeader("Vary", "Accept-Language");
+          return ctx.header("Accept-Language").value();
+        });
+
+    MockRouter router = new MockRouter(app).setFullExecution(true);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<String> es = executor.submit(() -> greeting(router, "es"));
+      entered.await();
+      Future<String> en = executor.submit(() -> greeting(router, "en"));
+      // give follower some time to wait on the leader
+      Thread.sleep(100);
+      release.countDown();
+      assertEquals("es", es.get(5, TimeUnit.SECONDS));
+      assertEquals("en", en.get(5, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(2, calls.get());
+    // both variants are cached
+    assertEquals("es", greeting(router, "es"));
+    assertEquals("en", greeting(router, "en"));
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void shouldServeStaleWhileRevalidating() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Jooby app = new Jooby();
+    app.use(new CaffeineResponseCache());
+    app.get(
+        "/catalog",
+        ctx -> {
+          if (calls.incrementAndGet() > 1) {
+            entered.countDown();
+            release.await();
+          }
+          ctx.setResponseHeader("Cache-Control", "max-age=0, stale-while-revalidate=60");
+          return "catalog";
+        });
+
+    MockRouter router = new MockRouter(app).setFullExecution(true);
+    assertEquals(StatusCode.OK, get(router, "/catalog"));
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // revalidate
+      Future<StatusCode> revalidate = executor.submit(() -> get(router, "/catalog"));
+      entered.await();
+      // stale, doesn't wait
+      assertEquals(StatusCode.OK, get(router, "/catalog"));
+      assertEquals(2, calls.get());
+      release.countDown();
+      assertEquals(StatusCode.OK, revalidate.get(5, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static String greeting(MockRouter router, String language) {
+    String[] body = new String[1];
+    router.get(
+        "/greeting",
+        new MockContext().setRequestHeader("Accept-Language", language),
+        rsp -> body[0] = new String((byte[]) rsp.value(), StandardCharsets.UTF_8));
+    return body[0];
+  }
+
+  private static StatusCode get(MockRouter router, String path) {
+    StatusCode[] status = new StatusCode[1];
+    router.get(path, new MockContext(), rsp -> status[0] = rsp.getStatusCode());
+    return status[0];
+  }
+}
@@ -6,6 +6,8 @@
 package io.jooby.freemarker;
 
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
@@ -14,6 +16,7 @@ import freemarker.core.Environment;
 import freemarker.template.*;
 import io.jooby.Context;
 import io.jooby.ModelAndView;
+import io.jooby.Output;
 import io.jooby.SneakyThrows;
 import io.jooby.TemplateEngine;
 
@@ -34,8 +37,20 @@ class FreemarkerTemplateEngine implements TemplateEngine {
 
   @Override
   public String render(Context ctx, ModelAndView modelAndView) throws Exception {
-    var template = freemarker.getTemplate(modelAndView.getView());
     var writer = new StringWriter();
+    render(ctx, modelAndView, writer);
+    return writer.toString();
+  }
+
+  @Override
+  public void render(Context ctx, ModelAndView modelAndView, Output output) throws Exception {
+    try (var writer = output.asWriter(StandardCharsets.UTF_8)) {
+      render(ctx, modelAndView, writer);
+    }
+  }
+
+  private void render(Context ctx, ModelAndView modelAndView, Writer writer) throws Exception {
+    var template = freemarker.getTemplate(modelAndView.getView());
     var wrapper = freemarker.getObjectWrapper();
     var model = modelAndView.getModel();
     var engineModel = wrapper.wrap(model);
@@ -50,6 +65,5 @@ class FreemarkerTemplateEngine implements TemplateEngine {
             SneakyThrows.throwingConsumer(
                 (name, value) -> env.setVariable(name, wrapper.wrap(value))));
     env.process();
-    return writer.toString();
   }
 }
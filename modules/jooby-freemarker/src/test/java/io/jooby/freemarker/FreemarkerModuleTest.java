@@ -8,6 +8,7 @@ package io.jooby.freemarker;
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -25,6 +26,7 @@ import freemarker.template.Configuration;
 import io.jooby.Environment;
 import io.jooby.Jooby;
 import io.jooby.ModelAndView;
+import io.jooby.Output;
 import io.jooby.test.MockContext;
 
 public class FreemarkerModuleTest {
@@ -76,6 +78,25 @@ public class FreemarkerModuleTest {
     assertEquals("Hello foo bar var!", output.trim());
   }
 
+  @Test
+  public void renderToOutput() throws Exception {
+    Configuration freemarker =
+        FreemarkerModule.create()
+            .build(new Environment(getClass().getClassLoader(), ConfigFactory.empty(), "test"));
+    FreemarkerTemplateEngine engine =
+        new FreemarkerTemplateEngine(freemarker, Arrays.asList(".ftl"));
+    MockContext ctx =
+        new MockContext().setRouter(new Jooby().setLocales(singletonList(Locale.ENGLISH)));
+    ctx.getAttributes().put("local", "var");
+    Output output = Output.create();
+    engine.render(
+        ctx,
+        ModelAndView.map("index.ftl").put("user", new User("foo", "bär")).put("sign", "!"),
+        output);
+    assertEquals(
+        "Hello foo bär var!", new String(output.toByteArray(), StandardCharsets.UTF_8).trim());
+  }
+
   @Test
   public void renderWithLocale() throws Exception {
     Configuration freemarker =
@@ -0,0 +1,206 @@
+/**
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.gradle;
+
+import io.jooby.internal.AssetCompressor;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Generate pre-compressed (brotli and gzip) sidecar files for static assets. Sidecars are served
+ * by <code>AssetHandler.setPrecompressed(true)</code>.
+ *
+ * Sidecars are written to {@link #getOutputDirectory()}, which is part of the main source set
+ * output. The task is opt-in, add <code>classes.dependsOn compressAssets</code> to the build script
+ * so sidecars end up in the application jar.
+ *
+ * Brotli requires <code>com.aayushatharva.brotli4j:brotli4j</code> on the build classpath,
+ * otherwise only gzip files are generated.
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+@CacheableTask
+public class CompressTask extends BaseTask {
+
+  private List<File> directories;
+
+  private File outputDirectory;
+
+  private List<String> fileExtensions;
+
+  private long minSize = 1024;
+
+  private List<String> encodings;
+
+  /**
+   * Compress static assets.
+   *
+   * @throws Throwable If something goes wrong.
+   */
+  @TaskAction
+  public void compress() throws Throwable {
+    AssetCompressor compressor = new AssetCompressor().setMinSize(minSize);
+    if (fileExtensions != null && !fileExtensions.isEmpty()) {
+      compressor.setExtensions(new HashSet<>(fileExtensions));
+    }
+    if (encodings != null && !encodings.isEmpty()) {
+      compressor.setEncodings(encodings);
+    }
+    if (!AssetCompressor.isBrotliAvailable()) {
+      getLogger().info("brotli4j not found, brotli files are not generated");
+    }
+    Path target = outputDirectory.toPath();
+    for (Path dir : directories()) {
+      if (Files.isDirectory(dir)) {
+        getLogger().info("Compressing: " + dir);
+        for (Path file : compressor.compress(dir, target)) {
+          getLogger().debug("  writing: " + file);
+        }
+      }
+    }
+  }
+
+  private List<Path> directories() {
+    List<Path> result = new ArrayList<>();
+    if (directories == null || directories.isEmpty()) {
+      // resources/main
+      sourceSet(getProject(), false).stream()
+          .map(it -> it.getOutput().getResourcesDir())
+          .filter(it -> it != null)
+          .forEach(it -> result.add(it.toPath()));
+    } else {
+      directories.forEach(it -> result.add(it.toPath()));
+    }
+    return result;
+  }
+
+  /**
+   * Directories to compress. Default is the resources output directory.
+   *
+   * @return Directories to compress.
+   */
+  @Internal
+  public @Nullable List<File> getDirectories() {
+    return directories;
+  }
+
+  /**
+   * Directories to compress: {@link #getDirectories()} or the resources output directory.
+   *
+   * @return Input directories.
+   */
+  @InputFiles
+  @PathSensitive(PathSensitivity.RELATIVE)
+  public List<File> getInputDirectories() {
+    List<File> result = new ArrayList<>();
+    directories().forEach(it -> result.add(it.toFile()));
+    return result;
+  }
+
+  /**
+   * Directory where sidecar files are written, using the same relative path of the compressed
+   * file. Default is: <code>build/compressedAssets</code>.
+   *
+   * @return Output directory.
+   */
+  @OutputDirectory
+  public File getOutputDirectory() {
+    return outputDirectory;
+  }
+
+  /**
+   * Set output directory.
+   *
+   * @param outputDirectory Output directory.
+   */
+  public void setOutputDirectory(File outputDirectory) {
+    this.outputDirectory = outputDirectory;
+  }
+
+  /**
+   * Set directories to compress.
+   *
+   * @param directories Directories to compress.
+   */
+  public void setDirectories(@Nullable List<File> directories) {
+    this.directories = directories;
+  }
+
+  /**
+   * File extensions to compress. Default is: css, html, js, json, svg, etc. Not named
+   * <code>extensions</code> because it clashes with Gradle extensions of a task.
+   *
+   * @return File extensions to compress.
+   */
+  @Input
+  @org.gradle.api.tasks.Optional
+  public @Nullable List<String> getFileExtensions() {
+    return fileExtensions;
+  }
+
+  /**
+   * Set file extensions to compress.
+   *
+   * @param fileExtensions File extensions.
+   */
+  public void setFileExtensions(@Nullable List<String> fileExtensions) {
+    this.fileExtensions = fileExtensions;
+  }
+
+  /**
+   * Files smaller than this are not compressed. Default is: <code>1024</code>.
+   *
+   * @return Min file size in bytes.
+   */
+  @Input
+  public long getMinSize() {
+    return minSize;
+  }
+
+  /**
+   * Set min file size.
+   *
+   * @param minSize Min file size in bytes.
+   */
+  public void setMinSize(long minSize) {
+    this.minSize = minSize;
+  }
+
+  /**
+   * Content encodings to generate. Default is: <code>br</code> and <code>gzip</code>.
+   *
+   * @return Content encodings.
+   */
+  @Input
+  @org.gradle.api.tasks.Optional
+  public @Nullable List<String> getEncodings() {
+    return encodings;
+  }
+
+  /**
+   * Set content encodings.
+   *
+   * @param encodings Content encodings.
+   */
+  public void setEncodings(@Nullable List<String> encodings) {
+    this.encodings = encodings;
+  }
+}
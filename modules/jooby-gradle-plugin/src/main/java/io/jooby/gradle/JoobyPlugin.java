@@ -8,7 +8,11 @@ package io.jooby.gradle;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.tasks.SourceSet;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,6 +27,8 @@ public class JoobyPlugin implements Plugin<Project> {
   @Override public void apply(Project project) {
     openAPI(project);
 
+    compressAssets(project);
+
     joobyRun(project);
     joobyTestRun(project);
   }
@@ -47,6 +53,24 @@ public class JoobyPlugin implements Plugin<Project> {
     project.getTasks().create(options);
   }
 
+  private void compressAssets(Project project) {
+    Map<String, Object> options = new HashMap<>();
+    options.put(Task.TASK_TYPE, CompressTask.class);
+    options.put(Task.TASK_DEPENDS_ON, "processResources");
+    options.put(Task.TASK_NAME, "compressAssets");
+    options.put(Task.TASK_DESCRIPTION, "Generate pre-compressed (brotli/gzip) static assets");
+    options.put(Task.TASK_GROUP, "jooby");
+    CompressTask compress = (CompressTask) project.getTasks().create(options);
+    // sidecars go to their own directory, which is part of the main output. Opt-in: the task
+    // runs only when requested or when wired with: classes.dependsOn compressAssets
+    File outputDirectory = project.getLayout().getBuildDirectory().dir("compressedAssets").get()
+        .getAsFile();
+    compress.setOutputDirectory(outputDirectory);
+    project.getPlugins().withType(JavaPlugin.class, plugin ->
+        project.getExtensions().getByType(JavaPluginExtension.class).getSourceSets()
+            .getByName(SourceSet.MAIN_SOURCE_SET_NAME).getOutput().dir(outputDirectory));
+  }
+
   private void openAPI(Project project) {
     Map<String, Object> openAPIOptions = new HashMap<>();
     openAPIOptions.put(Task.TASK_TYPE, OpenAPITask.class);
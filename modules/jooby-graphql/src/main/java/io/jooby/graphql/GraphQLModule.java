@@ -12,22 +12,29 @@ import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.dataloader.DataLoader;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import graphql.GraphQL;
+import graphql.execution.preparsed.NoOpPreparsedDocumentProvider;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.SchemaGenerator;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
+import io.jooby.Context;
 import io.jooby.Extension;
 import io.jooby.Jooby;
 import io.jooby.Route;
 import io.jooby.ServiceRegistry;
 import io.jooby.SneakyThrows;
 import io.jooby.internal.graphql.BlockingGraphQLHandler;
+import io.jooby.internal.graphql.DocumentCache;
 import io.jooby.internal.graphql.GraphQLHandler;
 
 /**
@@ -44,6 +51,10 @@ import io.jooby.internal.graphql.GraphQLHandler;
  * the route path by setting the <code>graphql.path</code> property in your application
  * configuration file.
  *
+ * <p>Parsed and validated documents are cached, automatic persisted queries are supported and a
+ * request scoped {@link org.dataloader.DataLoaderRegistry} is created for registered {@link
+ * #dataLoader(String, Function) data loaders}.
+ *
  * @author edgar
  * @since 2.4.0
  */
@@ -55,6 +66,13 @@ public class GraphQLModule implements Extension {
 
   private boolean supportGetRequest;
 
+  private long documentCacheSize = 1000;
+
+  private boolean persistedQueries = true;
+
+  private final Map<String, Function<Context, DataLoader<?, ?>>> dataLoaders =
+      new LinkedHashMap<>();
+
   /**
    * Creates a new GraphQL module.
    *
@@ -107,8 +125,17 @@ public class GraphQLModule implements Extension {
   public void install(@NonNull Jooby application) throws Exception {
     String graphqlPath = application.getEnvironment().getProperty("graphql.path", "/graphql");
 
+    if (documentCacheSize > 0
+        && graphQL.getPreparsedDocumentProvider() instanceof NoOpPreparsedDocumentProvider) {
+      DocumentCache documentCache = new DocumentCache(documentCacheSize, persistedQueries);
+      graphQL = graphQL.transform(builder -> builder.preparsedDocumentProvider(documentCache));
+    }
+
+    Map<String, Function<Context, DataLoader<?, ?>>> dataLoaders = Map.copyOf(this.dataLoaders);
     GraphQLHandler handler =
-        async ? new GraphQLHandler(graphQL) : new BlockingGraphQLHandler(graphQL);
+        async
+            ? new GraphQLHandler(graphQL, dataLoaders)
+            : new BlockingGraphQLHandler(graphQL, dataLoaders);
 
     if (supportGetRequest) {
       executionMode(application.get(graphqlPath, handler), async);
@@ -142,6 +169,54 @@ public class GraphQLModule implements Extension {
     return this;
   }
 
+  /**
+   * Maximum number of parsed and validated documents to keep in memory. Set to <code>0</code> to
+   * turn off caching. The cache is installed only when the GraphQL instance doesn't have a {@link
+   * graphql.execution.preparsed.PreparsedDocumentProvider}. Default is: <code>1000</code>.
+   *
+   * @param documentCacheSize Maximum number of documents to cache.
+   * @return This module.
+   */
+  public GraphQLModule setDocumentCacheSize(long documentCacheSize) {
+    this.documentCacheSize = documentCacheSize;
+    return this;
+  }
+
+  /**
+   * Whether to support automatic persisted queries: clients send the sha256 hash of the query (
+   * <code>extensions.persistedQuery.sha256Hash</code>) instead of the full query. Requires the
+   * document cache. Default is <code>true</code>.
+   *
+   * @param persistedQueries True to support automatic persisted queries.
+   * @return This module.
+   */
+  public GraphQLModule setPersistedQueries(boolean persistedQueries) {
+    this.persistedQueries = persistedQueries;
+    return this;
+  }
+
+  /**
+   * Register a data loader. A new data loader is created per request and registered in the request
+   * {@link org.dataloader.DataLoaderRegistry}, so loads are batched and cached within a request:
+   *
+   * <pre>{@code
+   * install(new GraphQLModule(wiring)
+   *     .dataLoader("users", ctx -> DataLoaderFactory.newDataLoader(userIds -> ...)));
+   *
+   * // data fetcher
+   * env -> env.getDataLoader("users").load(env.getSource().getUserId());
+   * }</pre>
+   *
+   * @param name Data loader name.
+   * @param factory Data loader factory.
+   * @return This module.
+   */
+  public GraphQLModule dataLoader(
+      @NonNull String name, @NonNull Function<Context, DataLoader<?, ?>> factory) {
+    dataLoaders.put(name, factory);
+    return this;
+  }
+
   private void executionMode(Route route, boolean async) {
     if (async) {
       route.setReturnType(CompletableFuture.class);
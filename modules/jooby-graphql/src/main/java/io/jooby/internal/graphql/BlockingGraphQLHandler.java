@@ -5,14 +5,20 @@
  */
 package io.jooby.internal.graphql;
 
+import java.util.Map;
+import java.util.function.Function;
+
+import org.dataloader.DataLoader;
+
 import edu.umd.cs.findbugs.annotations.NonNull;
 import graphql.GraphQL;
 import io.jooby.Context;
 
 public class BlockingGraphQLHandler extends GraphQLHandler {
 
-  public BlockingGraphQLHandler(GraphQL graphQL) {
-    super(graphQL);
+  public BlockingGraphQLHandler(
+      GraphQL graphQL, Map<String, Function<Context, DataLoader<?, ?>>> dataLoaders) {
+    super(graphQL, dataLoaders);
   }
 
   @NonNull @Override
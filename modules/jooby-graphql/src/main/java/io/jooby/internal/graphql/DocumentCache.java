@@ -0,0 +1,123 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.graphql;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQueryError;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import io.jooby.SneakyThrows;
+
+/**
+ * Cache of parsed and validated documents. Plain queries are keyed by query string, automatic
+ * persisted queries by their sha256 hash:
+ *
+ * <ul>
+ *   <li>hash only request: lookup by hash or fail with <code>PersistedQueryNotFound</code>
+ *   <li>hash and query: verify hash, parse and cache by hash
+ * </ul>
+ *
+ * Documents with errors are never cached.
+ */
+public class DocumentCache implements PreparsedDocumentProvider {
+  private static final String PERSISTED_QUERY = "persistedQuery";
+
+  private static final String SHA256 = "sha256Hash";
+
+  private final Cache<String, PreparsedDocumentEntry> cache;
+
+  private final boolean persistedQueries;
+
+  public DocumentCache(long maximumSize, boolean persistedQueries) {
+    this.cache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    this.persistedQueries = persistedQueries;
+  }
+
+  @Override
+  public PreparsedDocumentEntry getDocument(
+      ExecutionInput input, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+    String query = input.getQuery();
+    String hash = persistedQueries ? persistedQueryHash(input.getExtensions()) : null;
+    if (hash == null) {
+      return get(query, input, parseAndValidate);
+    }
+    if (isHashOnly(query)) {
+      PreparsedDocumentEntry entry = cache.getIfPresent(hash);
+      if (entry == null) {
+        PersistedQueryNotFound error = new PersistedQueryNotFound(hash);
+        return error(error, error.getExtensions());
+      }
+      return entry;
+    }
+    if (!hash.equals(sha256(query))) {
+      PersistedQueryIdInvalid error = new PersistedQueryIdInvalid(hash);
+      return error(error, error.getExtensions());
+    }
+    return get(hash, input, parseAndValidate);
+  }
+
+  private PreparsedDocumentEntry get(
+      String key,
+      ExecutionInput input,
+      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+    PreparsedDocumentEntry entry = cache.getIfPresent(key);
+    if (entry == null) {
+      entry = parseAndValidate.apply(input);
+      if (!entry.hasErrors()) {
+        cache.put(key, entry);
+      }
+    }
+    return entry;
+  }
+
+  private static boolean isHashOnly(String query) {
+    return query == null
+        || query.isBlank()
+        || query.equals(PersistedQuerySupport.PERSISTED_QUERY_MARKER);
+  }
+
+  private static String persistedQueryHash(Map<String, Object> extensions) {
+    if (extensions != null
+        && extensions.get(PERSISTED_QUERY) instanceof Map<?, ?> persistedQuery
+        && persistedQuery.get(SHA256) instanceof String hash) {
+      return hash.toLowerCase(Locale.ROOT);
+    }
+    return null;
+  }
+
+  private static PreparsedDocumentEntry error(
+      PersistedQueryError error, Map<String, Object> extensions) {
+    return new PreparsedDocumentEntry(
+        GraphqlErrorBuilder.newError()
+            .errorType(error)
+            .message(error.getMessage())
+            .extensions(extensions)
+            .build());
+  }
+
+  private static String sha256(String query) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException x) {
+      throw SneakyThrows.propagate(x);
+    }
+  }
+}
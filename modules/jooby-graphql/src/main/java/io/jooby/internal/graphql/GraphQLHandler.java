@@ -7,6 +7,10 @@ package io.jooby.internal.graphql;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.Function;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -14,6 +18,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
 import io.jooby.Context;
 import io.jooby.Route;
 import io.jooby.Router;
@@ -23,8 +28,12 @@ public class GraphQLHandler implements Route.Handler {
 
   protected GraphQL graphQL;
 
-  public GraphQLHandler(GraphQL graphQL) {
+  private final Map<String, Function<Context, DataLoader<?, ?>>> dataLoaders;
+
+  public GraphQLHandler(
+      GraphQL graphQL, Map<String, Function<Context, DataLoader<?, ?>>> dataLoaders) {
     this.graphQL = graphQL;
+    this.dataLoaders = dataLoaders;
   }
 
   @NonNull @Override
@@ -38,22 +47,34 @@ public class GraphQLHandler implements Route.Handler {
       request = ctx.body(GraphQLRequest.class);
     } else {
       request = new GraphQLRequest();
-      String query = ctx.query("query").value();
+      String query = ctx.query("query").valueOrNull();
       String operationName = ctx.query("operationName").valueOrNull();
-      Map<String, Object> variables =
-          ctx.query("variables")
-              .toOptional()
-              .filter(string -> !string.equals("{}"))
-              .map(str -> json.<Map<String, Object>>fromJson(str, Map.class))
-              .orElseGet(Collections::emptyMap);
       request.setOperationName(operationName);
       request.setQuery(query);
-      request.setVariables(variables);
+      request.setVariables(jsonMap(ctx, "variables"));
+      request.setExtensions(jsonMap(ctx, "extensions"));
+    }
+    String query = request.getQuery();
+    ExecutionInput.Builder input =
+        ExecutionInput.newExecutionInput(
+                query == null ? PersistedQuerySupport.PERSISTED_QUERY_MARKER : query)
+            .operationName(request.getOperationName())
+            .graphQLContext(Map.of(Context.class, ctx))
+            .variables(request.getVariables())
+            .extensions(request.getExtensions());
+    if (!dataLoaders.isEmpty()) {
+      DataLoaderRegistry registry = new DataLoaderRegistry();
+      dataLoaders.forEach((name, factory) -> registry.register(name, factory.apply(ctx)));
+      input.dataLoaderRegistry(registry);
     }
-    return ExecutionInput.newExecutionInput(request.getQuery())
-        .operationName(request.getOperationName())
-        .graphQLContext(Map.of(Context.class, ctx))
-        .variables(request.getVariables())
-        .build();
+    return input.build();
+  }
+
+  private static Map<String, Object> jsonMap(Context ctx, String name) {
+    return ctx.query(name)
+        .toOptional()
+        .filter(string -> !string.equals("{}"))
+        .map(str -> json.<Map<String, Object>>fromJson(str, Map.class))
+        .orElseGet(Collections::emptyMap);
   }
 }
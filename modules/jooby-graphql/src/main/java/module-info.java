@@ -11,5 +11,7 @@ module io.jooby.graphql {
   requires static com.github.spotbugs.annotations;
   requires typesafe.config;
   requires com.graphqljava;
+  requires org.dataloader;
+  requires com.github.benmanes.caffeine;
   requires com.google.gson;
 }
@@ -0,0 +1,110 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+
+public class DocumentCacheTest {
+
+  private static final String QUERY = "{ hello }";
+
+  @Test
+  public void shouldCacheParsedDocuments() {
+    AtomicInteger parsed = new AtomicInteger();
+    DocumentCache cache = new DocumentCache(10, true);
+    GraphQL graphQL = graphQL(cache, parsed);
+
+    assertEquals(Map.of("hello", "world"), graphQL.execute(QUERY).getData());
+    assertEquals(Map.of("hello", "world"), graphQL.execute(QUERY).getData());
+    assertEquals(1, parsed.get());
+
+    // invalid documents are not cached
+    graphQL.execute("{ missing }");
+    graphQL.execute("{ missing }");
+    assertEquals(3, parsed.get());
+  }
+
+  @Test
+  public void shouldSupportPersistedQueries() throws Exception {
+    AtomicInteger parsed = new AtomicInteger();
+    GraphQL graphQL = graphQL(new DocumentCache(10, true), parsed);
+    String hash = sha256(QUERY);
+
+    // not registered yet
+    ExecutionResult result = graphQL.execute(persisted(null, hash));
+    assertEquals(List.of("PersistedQueryNotFound"), messages(result));
+
+    // hash mismatch
+    result = graphQL.execute(persisted(QUERY, sha256("{ other }")));
+    assertEquals(List.of("PersistedQueryIdInvalid"), messages(result));
+
+    // register
+    result = graphQL.execute(persisted(QUERY, hash));
+    assertEquals(Map.of("hello", "world"), result.getData());
+
+    // hash only
+    result = graphQL.execute(persisted(null, hash));
+    assertTrue(result.getErrors().isEmpty());
+    assertEquals(Map.of("hello", "world"), result.getData());
+    assertEquals(1, parsed.get());
+  }
+
+  private static List<String> messages(ExecutionResult result) {
+    return result.getErrors().stream().map(it -> it.getMessage()).toList();
+  }
+
+  private static ExecutionInput persisted(String query, String hash) {
+    return ExecutionInput.newExecutionInput(
+            query == null ? PersistedQuerySupport.PERSISTED_QUERY_MARKER : query)
+        .extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)))
+        .build();
+  }
+
+  private static GraphQL graphQL(DocumentCache cache, AtomicInteger parsed) {
+    GraphQLSchema schema =
+        new SchemaGenerator()
+            .makeExecutableSchema(
+                new SchemaParser().parse("type Query { hello: String }"),
+                RuntimeWiring.newRuntimeWiring()
+                    .type("Query", type -> type.dataFetcher("hello", env -> "world"))
+                    .build());
+    return GraphQL.newGraphQL(schema)
+        .preparsedDocumentProvider(
+            (input, parseAndValidate) ->
+                cache.getDocument(
+                    input,
+                    it -> {
+                      parsed.incrementAndGet();
+                      return parseAndValidate.apply(it);
+                    }))
+        .build();
+  }
+
+  private static String sha256(String value) throws Exception {
+    return HexFormat.of()
+        .formatHex(
+            MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+  }
+}
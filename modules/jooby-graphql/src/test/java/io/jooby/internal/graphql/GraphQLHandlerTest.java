@@ -0,0 +1,85 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.junit.jupiter.api.Test;
+
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.jooby.Context;
+import io.jooby.Router;
+
+public class GraphQLHandlerTest {
+
+  @Test
+  public void shouldBatchDataLoaderPerRequest() throws Exception {
+    List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger created = new AtomicInteger();
+    Function<Context, DataLoader<?, ?>> factory =
+        ctx -> {
+          created.incrementAndGet();
+          return DataLoaderFactory.newDataLoader(
+              (List<String> keys) -> {
+                batches.add(keys);
+                return CompletableFuture.completedFuture(
+                    keys.stream().map(String::toUpperCase).toList());
+              });
+        };
+    GraphQLHandler handler = new GraphQLHandler(graphQL(), Map.of("names", factory));
+
+    assertEquals(Map.of("data", Map.of("a", "A", "b", "B")), execute(handler, "{ a b }").get());
+    assertEquals(List.of(List.of("a", "b")), batches);
+
+    // new loader on every request, values aren't cached across requests
+    assertEquals(Map.of("data", Map.of("a", "A")), execute(handler, "{ a }").get());
+    assertEquals(List.of(List.of("a", "b"), List.of("a")), batches);
+    assertEquals(2, created.get());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static CompletableFuture<Object> execute(GraphQLHandler handler, String query) {
+    GraphQLRequest request = new GraphQLRequest();
+    request.setQuery(query);
+    request.setVariables(Map.of());
+    request.setExtensions(Map.of());
+    Context ctx = mock(Context.class);
+    when(ctx.getMethod()).thenReturn(Router.POST);
+    when(ctx.body(GraphQLRequest.class)).thenReturn(request);
+    return ((CompletionStage<Object>) handler.apply(ctx)).toCompletableFuture();
+  }
+
+  private static GraphQL graphQL() {
+    DataFetcher<?> name =
+        env -> env.<String, String>getDataLoader("names").load(env.getField().getName());
+    GraphQLSchema schema =
+        new SchemaGenerator()
+            .makeExecutableSchema(
+                new SchemaParser().parse("type Query { a: String b: String }"),
+                RuntimeWiring.newRuntimeWiring()
+                    .type("Query", type -> type.dataFetcher("a", name).dataFetcher("b", name))
+                    .build());
+    return GraphQL.newGraphQL(schema).build();
+  }
+}
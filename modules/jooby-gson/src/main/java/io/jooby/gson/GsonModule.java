@@ -8,20 +8,24 @@ package io.jooby.gson;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.Body;
+import io.jooby.BufferedMessageEncoder;
 import io.jooby.Context;
 import io.jooby.Extension;
 import io.jooby.Jooby;
 import io.jooby.MediaType;
 import io.jooby.MessageDecoder;
-import io.jooby.MessageEncoder;
+import io.jooby.Output;
 import io.jooby.ServiceRegistry;
 
 /**
@@ -67,7 +71,7 @@ import io.jooby.ServiceRegistry;
  * @author edgar
  * @since 2.7.2
  */
-public class GsonModule implements Extension, MessageDecoder, MessageEncoder {
+public class GsonModule implements Extension, MessageDecoder, BufferedMessageEncoder {
 
   private Gson gson;
 
@@ -112,4 +116,14 @@ public class GsonModule implements Extension, MessageDecoder, MessageEncoder {
     ctx.setDefaultResponseType(MediaType.json);
     return gson.toJson(value).getBytes(UTF_8);
   }
+
+  @Override
+  public boolean encode(@NonNull Context ctx, @NonNull Object value, @NonNull Output output)
+      throws IOException {
+    ctx.setDefaultResponseType(MediaType.json);
+    Writer writer = new OutputStreamWriter(output.asOutputStream(), UTF_8);
+    gson.toJson(value, writer);
+    writer.flush();
+    return true;
+  }
 }
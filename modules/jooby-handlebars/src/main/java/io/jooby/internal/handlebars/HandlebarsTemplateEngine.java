@@ -5,8 +5,7 @@
  */
 package io.jooby.internal.handlebars;
 
-import static com.github.jknack.handlebars.Context.newContext;
-
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
@@ -15,6 +14,7 @@ import com.github.jknack.handlebars.Template;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.Context;
 import io.jooby.ModelAndView;
+import io.jooby.Output;
 import io.jooby.TemplateEngine;
 
 public class HandlebarsTemplateEngine implements TemplateEngine {
@@ -35,7 +35,20 @@ public class HandlebarsTemplateEngine implements TemplateEngine {
   @Override
   public String render(Context ctx, ModelAndView modelAndView) throws Exception {
     Template template = handlebars.compile(modelAndView.getView());
-    var engineModel = newContext(modelAndView.getModel()).data(ctx.getAttributes());
-    return template.apply(engineModel);
+    return template.apply(newContext(ctx, modelAndView));
+  }
+
+  @Override
+  public void render(Context ctx, ModelAndView modelAndView, Output output) throws Exception {
+    Template template = handlebars.compile(modelAndView.getView());
+    try (var writer = output.asWriter(StandardCharsets.UTF_8)) {
+      template.apply(newContext(ctx, modelAndView), writer);
+    }
+  }
+
+  private static com.github.jknack.handlebars.Context newContext(
+      Context ctx, ModelAndView modelAndView) {
+    return com.github.jknack.handlebars.Context.newContext(modelAndView.getModel())
+        .data(ctx.getAttributes());
   }
 }
@@ -7,6 +7,7 @@ package io.jooby.handlebars;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.Arrays;
 
@@ -16,6 +17,7 @@ import com.github.jknack.handlebars.Handlebars;
 import com.typesafe.config.ConfigFactory;
 import io.jooby.Environment;
 import io.jooby.ModelAndView;
+import io.jooby.Output;
 import io.jooby.internal.handlebars.HandlebarsTemplateEngine;
 import io.jooby.test.MockContext;
 
@@ -55,6 +57,24 @@ public class HandlebarsModuleTest {
     assertEquals("Hello foo bar var!", output.trim());
   }
 
+  @Test
+  public void renderToOutput() throws Exception {
+    Handlebars handlebars =
+        HandlebarsModule.create()
+            .build(new Environment(getClass().getClassLoader(), ConfigFactory.empty()));
+    HandlebarsTemplateEngine engine =
+        new HandlebarsTemplateEngine(handlebars, Arrays.asList(".hbs"));
+    MockContext ctx = new MockContext();
+    ctx.getAttributes().put("local", "var");
+    Output output = Output.create();
+    engine.render(
+        ctx,
+        ModelAndView.map("index.hbs").put("user", new User("foo", "bär")).put("sign", "!"),
+        output);
+    assertEquals(
+        "Hello foo bär var!", new String(output.toByteArray(), StandardCharsets.UTF_8).trim());
+  }
+
   @Test
   public void renderFileSystem() throws Exception {
     Handlebars handlebars =
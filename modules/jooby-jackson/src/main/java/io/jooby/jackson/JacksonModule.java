@@ -24,12 +24,13 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.Body;
+import io.jooby.BufferedMessageEncoder;
 import io.jooby.Context;
 import io.jooby.Extension;
 import io.jooby.Jooby;
 import io.jooby.MediaType;
 import io.jooby.MessageDecoder;
-import io.jooby.MessageEncoder;
+import io.jooby.Output;
 import io.jooby.ServiceRegistry;
 import io.jooby.StatusCode;
 
@@ -76,7 +77,7 @@ import io.jooby.StatusCode;
  * @author edgar
  * @since 2.0.0
  */
-public class JacksonModule implements Extension, MessageDecoder, MessageEncoder {
+public class JacksonModule implements Extension, MessageDecoder, BufferedMessageEncoder {
   private final MediaType mediaType;
 
   private final ObjectMapper mapper;
@@ -157,21 +158,23 @@ public class JacksonModule implements Extension, MessageDecoder, MessageEncoder
     return mapper.writer().writeValueAsBytes(value);
   }
 
+  @Override
+  public boolean encode(@NonNull Context ctx, @NonNull Object value, @NonNull Output output)
+      throws Exception {
+    ctx.setDefaultResponseType(mediaType);
+    mapper.writer().writeValue(output.asOutputStream(), value);
+    return true;
+  }
+
   @Override
   public Object decode(Context ctx, Type type) throws Exception {
     Body body = ctx.body();
-    if (body.isInMemory()) {
+    // Stream in-memory bodies too, server body might not be backed by a byte array
+    try (InputStream stream = body.stream()) {
       if (type == JsonNode.class) {
-        return mapper.readTree(body.bytes());
-      }
-      return mapper.readValue(body.bytes(), typeFactory.constructType(type));
-    } else {
-      try (InputStream stream = body.stream()) {
-        if (type == JsonNode.class) {
-          return mapper.readTree(stream);
-        }
-        return mapper.readValue(stream, typeFactory.constructType(type));
+        return mapper.readTree(stream);
       }
+      return mapper.readValue(stream, typeFactory.constructType(type));
     }
   }
 
@@ -20,6 +20,7 @@ import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -209,12 +210,21 @@ public class JettyContext implements DefaultContext, Callback {
   @NonNull @Override
   public Formdata form() {
     if (formdata == null) {
+      String contentType = request.getHeaders().get(HttpHeader.CONTENT_TYPE);
+      if (contentType != null
+          && MimeTypes.Type.FORM_ENCODED.is(HttpField.getValueParameters(contentType, null))) {
+        // decoded lazily, query parameters are part of form as in Request.getParameters
+        String query = request.getHttpURI().getQuery();
+        String body = body().value(StandardCharsets.UTF_8);
+        formdata =
+            Formdata.create(this, query == null || query.isEmpty() ? body : query + "&" + body);
+        return formdata;
+      }
       formdata = Formdata.create(this);
 
       formParam(request, formdata);
 
       // Files:
-      String contentType = request.getHeaders().get(HttpHeader.CONTENT_TYPE);
       if (contentType != null
           && MimeTypes.Type.MULTIPART_FORM_DATA.is(
               HttpField.getValueParameters(contentType, null))) {
@@ -10,6 +10,7 @@ import java.nio.ByteBuffer;
 import org.eclipse.jetty.server.Response;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.Output;
 import io.jooby.Sender;
 
 public class JettySender implements Sender {
@@ -27,6 +28,27 @@ public class JettySender implements Sender {
     return this;
   }
 
+  @Override
+  public Sender write(@NonNull Output output, @NonNull Callback callback) {
+    write(output.toByteBuffers(), 0, toJettyCallback(ctx, callback));
+    return this;
+  }
+
+  /** Write buffers one after another, without copying them into a single buffer. */
+  private void write(ByteBuffer[] buffers, int index, org.eclipse.jetty.util.Callback callback) {
+    if (index >= buffers.length) {
+      callback.succeeded();
+    } else if (index == buffers.length - 1) {
+      response.write(false, buffers[index], callback);
+    } else {
+      response.write(
+          false,
+          buffers[index],
+          org.eclipse.jetty.util.Callback.from(
+              () -> write(buffers, index + 1, callback), callback::failed));
+    }
+  }
+
   private static org.eclipse.jetty.util.Callback toJettyCallback(
       JettyContext ctx, Callback callback) {
     return new org.eclipse.jetty.util.Callback() {
@@ -7,7 +7,6 @@ package io.jooby.internal.jetty;
 
 import java.nio.ByteBuffer;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.jetty.io.EofException;
@@ -19,8 +18,13 @@ import io.jooby.Context;
 import io.jooby.Server;
 import io.jooby.ServerSentEmitter;
 import io.jooby.ServerSentMessage;
+import io.jooby.ServerSentQueue;
 import io.jooby.SneakyThrows;
 
+/**
+ * Jetty allows one pending write per response: events sent while a write is in progress are queued
+ * and written from the write callback.
+ */
 public class JettyServerSentEmitter implements ServerSentEmitter, Callback {
   private JettyContext jetty;
 
@@ -32,10 +36,19 @@ public class JettyServerSentEmitter implements ServerSentEmitter, Callback {
 
   private SneakyThrows.Runnable closeTask;
 
+  private final ServerSentQueue queue;
+
+  /** True while a write is in progress. Guarded by this. */
+  private boolean writing;
+
+  /** Close was called while a write was in progress. Guarded by this. */
+  private boolean closing;
+
   public JettyServerSentEmitter(JettyContext jetty, Response response) {
     this.jetty = jetty;
     this.response = response;
     this.id = UUID.randomUUID().toString();
+    this.queue = ServerSentQueue.create(jetty.getRouter().getConfig());
   }
 
   @Override
@@ -62,27 +75,78 @@ public class JettyServerSentEmitter implements ServerSentEmitter, Callback {
   @NonNull @Override
   public ServerSentEmitter send(ServerSentMessage data) {
     if (isOpen()) {
-      response.write(false, ByteBuffer.wrap(data.toByteArray(jetty)), this);
+      write(data.getId(), data.toByteArray(jetty));
     }
     return this;
   }
 
   @Override
-  public void failed(Throwable failure) {
-    if (Server.connectionLost(failure) || failure instanceof EofException) {
+  public void heartbeat() {
+    synchronized (this) {
+      if (!isOpen() || writing || !queue.isEmpty()) {
+        return;
+      }
+      writing = true;
+    }
+    response.write(false, ByteBuffer.wrap(KeepAlive.FRAME), this);
+  }
+
+  @Override
+  public long getQueuedBytes() {
+    return queue.getSize();
+  }
+
+  private void write(Object eventId, byte[] frame) {
+    boolean full = false;
+    synchronized (this) {
+      if (writing) {
+        full = !queue.offer(eventId, frame);
+        if (!full) {
+          return;
+        }
+      } else {
+        writing = true;
+      }
+    }
+    if (full) {
       close();
     } else {
-      jetty.failed(failure);
+      response.write(false, ByteBuffer.wrap(frame), this);
     }
   }
 
   @Override
-  public ServerSentEmitter keepAlive(long timeInMillis) {
-    if (isOpen()) {
-      var scheduler = jetty.request.getConnectionMetaData().getConnector().getScheduler();
-      scheduler.schedule(new KeepAlive(this, timeInMillis), timeInMillis, TimeUnit.MILLISECONDS);
+  public void succeeded() {
+    byte[] next;
+    boolean last;
+    synchronized (this) {
+      next = queue.poll();
+      last = next == null && closing;
+      writing = next != null;
+    }
+    if (next != null) {
+      response.write(false, ByteBuffer.wrap(next), this);
+    } else if (last) {
+      response.write(true, null, jetty);
+    }
+  }
+
+  @Override
+  public void failed(Throwable failure) {
+    boolean last;
+    synchronized (this) {
+      writing = false;
+      last = closing;
+      closing = false;
+    }
+    if (last) {
+      // close was called while this write was pending, it is up to us to end the response
+      jetty.failed(failure);
+    } else if (Server.connectionLost(failure) || failure instanceof EofException) {
+      close();
+    } else {
+      jetty.failed(failure);
     }
-    return this;
   }
 
   @Override
@@ -98,7 +162,16 @@ public class JettyServerSentEmitter implements ServerSentEmitter, Callback {
           closeTask.run();
         }
       } finally {
-        response.write(true, null, jetty);
+        boolean pending;
+        synchronized (this) {
+          queue.clear();
+          pending = writing;
+          closing = pending;
+        }
+        // otherwise, the pending write completes the response
+        if (!pending) {
+          response.write(true, null, jetty);
+        }
       }
     }
   }
@@ -16,20 +16,26 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.StaticException;
 import org.eclipse.jetty.websocket.api.Callback;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.exceptions.CloseException;
+import org.eclipse.jetty.websocket.common.WebSocketSession;
+import org.eclipse.jetty.websocket.core.Frame;
+import org.eclipse.jetty.websocket.core.OpCode;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.Context;
 import io.jooby.Server;
 import io.jooby.SneakyThrows;
 import io.jooby.WebSocket;
+import io.jooby.WebSocketBroadcast;
 import io.jooby.WebSocketCloseStatus;
 import io.jooby.WebSocketConfigurer;
 import io.jooby.WebSocketMessage;
@@ -40,10 +46,17 @@ public class JettyWebSocket implements Session.Listener, WebSocketConfigurer, We
 
     private JettyWebSocket ws;
     private WebSocket.WriteCallback callback;
+    private boolean demand;
 
     public WriteCallbackAdaptor(JettyWebSocket ws, WebSocket.WriteCallback callback) {
+      this(ws, callback, true);
+    }
+
+    public WriteCallbackAdaptor(
+        JettyWebSocket ws, WebSocket.WriteCallback callback, boolean demand) {
       this.ws = ws;
       this.callback = callback;
+      this.demand = demand;
     }
 
     @Override
@@ -76,7 +89,9 @@ public class JettyWebSocket implements Session.Listener, WebSocketConfigurer, We
       try {
         callback.operationComplete(ws, null);
       } finally {
-        ws.demand();
+        if (demand) {
+          ws.demand();
+        }
       }
     }
   }
@@ -93,11 +108,14 @@ public class JettyWebSocket implements Session.Listener, WebSocketConfigurer, We
   private AtomicReference<WebSocket.OnClose> onCloseCallback = new AtomicReference<>();
   private WebSocket.OnError onErrorCallback;
   private AtomicBoolean open = new AtomicBoolean(false);
+  private final WebSocketBroadcast broadcaster;
+  private final AtomicInteger pending = new AtomicInteger();
 
   public JettyWebSocket(JettyContext ctx) {
     this.ctx = ctx;
     this.path = ctx.getRequestPath();
     this.key = ctx.getRoute().getPattern();
+    this.broadcaster = WebSocketBroadcast.create(ctx.getRouter().getConfig());
   }
 
   @Override
@@ -250,6 +268,59 @@ public class JettyWebSocket implements Session.Listener, WebSocketConfigurer, We
     }
   }
 
+  @Override
+  public void broadcast(
+      @NonNull Object message, boolean binary, @NonNull Predicate<WebSocket> filter) {
+    ByteBuffer content;
+    try {
+      byte[] bytes = broadcaster.encode(ctx, this, binary, message);
+      content = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    } catch (Throwable x) {
+      onWebSocketError(x);
+      return;
+    }
+    for (JettyWebSocket ws : all.getOrDefault(key, Collections.emptyList())) {
+      try {
+        if (ws.isOpen() && filter.test(ws)) {
+          ws.broadcastFrame(content.duplicate(), binary);
+        }
+      } catch (Exception cause) {
+        ctx.getRouter().getLog().debug("Broadcast of: {} resulted in exception", ws.path, cause);
+      }
+    }
+    // receivers are not reading, only the broadcasting session needs more demand
+    demand();
+  }
+
+  /**
+   * Write a view of the shared frame content, unless there are too many pending writes. Text frames
+   * go through the core session too, so the UTF-8 payload isn't encoded again per session.
+   */
+  private void broadcastFrame(ByteBuffer content, boolean binary) {
+    if (pending.get() >= broadcaster.getMaxPendingMessages()) {
+      if (broadcaster.getSlowConsumer() == SlowConsumer.CLOSE) {
+        close(WebSocketCloseStatus.SERVICE_OVERLOAD);
+      }
+      return;
+    }
+    pending.incrementAndGet();
+    Callback callback =
+        new WriteCallbackAdaptor(this, (ws, cause) -> pending.decrementAndGet(), false);
+    if (session instanceof WebSocketSession webSocketSession) {
+      Frame frame = new Frame(binary ? OpCode.BINARY : OpCode.TEXT, content);
+      webSocketSession
+          .getCoreSession()
+          .sendFrame(
+              frame,
+              org.eclipse.jetty.util.Callback.from(callback::succeed, callback::fail),
+              false);
+    } else if (binary) {
+      session.sendBinary(content, callback);
+    } else {
+      session.sendText(StandardCharsets.UTF_8.decode(content).toString(), callback);
+    }
+  }
+
   @NonNull @Override
   public WebSocket sendBinary(@NonNull String message, @NonNull WriteCallback callback) {
     return sendMessage(
@@ -17,6 +17,7 @@ module io.jooby.jetty {
   requires org.eclipse.jetty.alpn.server;
   requires org.eclipse.jetty.http2.server;
   requires org.eclipse.jetty.websocket.server;
+  requires org.eclipse.jetty.websocket.common;
 
   provides Server with
       JettyServer;
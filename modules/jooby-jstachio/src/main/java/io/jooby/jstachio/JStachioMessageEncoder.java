@@ -6,14 +6,17 @@
 package io.jooby.jstachio;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.function.BiFunction;
 
+import io.jooby.BufferedMessageEncoder;
 import io.jooby.Context;
-import io.jooby.MessageEncoder;
+import io.jooby.Output;
 import io.jstach.jstachio.JStachio;
+import io.jstach.jstachio.Output.EncodedOutput;
 import io.jstach.jstachio.output.ByteBufferEncodedOutput;
 
-class JStachioMessageEncoder extends JStachioRenderer<byte[]> implements MessageEncoder {
+class JStachioMessageEncoder extends JStachioRenderer<byte[]> implements BufferedMessageEncoder {
 
   public JStachioMessageEncoder(
       JStachio jstachio,
@@ -30,6 +33,16 @@ class JStachioMessageEncoder extends JStachioRenderer<byte[]> implements Message
     return null;
   }
 
+  @Override
+  public boolean encode(Context ctx, Object value, Output output) throws Exception {
+    if (supportsType(value.getClass())) {
+      // templates write pre-encoded bytes straight into the server output
+      write(ctx, value, EncodedOutput.of(output.asOutputStream(), StandardCharsets.UTF_8));
+      return true;
+    }
+    return false;
+  }
+
   @Override
   byte[] extractOutput(Context ctx, ByteBufferEncodedOutput stream) throws IOException {
     return stream.toByteArray();
@@ -11,6 +11,7 @@ import java.util.function.BiFunction;
 import io.jooby.Context;
 import io.jooby.MediaType;
 import io.jstach.jstachio.JStachio;
+import io.jstach.jstachio.Output.EncodedOutput;
 import io.jstach.jstachio.context.ContextJStachio;
 import io.jstach.jstachio.context.ContextNode;
 import io.jstach.jstachio.output.ByteBufferEncodedOutput;
@@ -40,23 +41,39 @@ abstract class JStachioRenderer<T> {
   public T render(Context ctx, Object model) throws Exception {
     var stream = buffer.acquire();
     try {
-      /*
-       * TODO we probably should resolve the correct media type here and more importantly charset
-       * Or at least validate that it is text/html UTF-8.
-       * However this would slow things down.
-       *
-       * The Rocker module apparently just assumes "text/html; charset=utf-8"
-       * So for now we will as well.
-       */
-      ctx.setResponseType(MediaType.html);
-      ContextNode contextNode = ContextNode.of(s -> contextFunction.apply(ctx, s));
-      jstachio.write(model, contextNode, stream);
+      write(ctx, model, stream);
       return extractOutput(ctx, stream);
     } finally {
       buffer.release(stream);
     }
   }
 
+  /**
+   * Render model into the given output.
+   *
+   * @param ctx Web context.
+   * @param model Model.
+   * @param output Output.
+   * @param <A> Output type.
+   * @param <E> Output exception.
+   * @return Output.
+   * @throws E If something goes wrong.
+   */
+  <A extends EncodedOutput<E>, E extends Exception> A write(Context ctx, Object model, A output)
+      throws E {
+    /*
+     * TODO we probably should resolve the correct media type here and more importantly charset
+     * Or at least validate that it is text/html UTF-8.
+     * However this would slow things down.
+     *
+     * The Rocker module apparently just assumes "text/html; charset=utf-8"
+     * So for now we will as well.
+     */
+    ctx.setResponseType(MediaType.html);
+    ContextNode contextNode = ContextNode.of(s -> contextFunction.apply(ctx, s));
+    return jstachio.write(model, contextNode, output);
+  }
+
   abstract T extractOutput(Context ctx, ByteBufferEncodedOutput stream) throws IOException;
 
   protected boolean supportsType(Class<?> modelClass) {
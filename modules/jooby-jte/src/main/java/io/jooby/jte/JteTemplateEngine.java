@@ -10,10 +10,12 @@ import java.util.List;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import gg.jte.TemplateEngine;
+import gg.jte.TemplateOutput;
 import gg.jte.output.StringOutput;
 import io.jooby.Context;
 import io.jooby.MapModelAndView;
 import io.jooby.ModelAndView;
+import io.jooby.Output;
 
 class JteTemplateEngine implements io.jooby.TemplateEngine {
   private final TemplateEngine jte;
@@ -32,6 +34,16 @@ class JteTemplateEngine implements io.jooby.TemplateEngine {
   @Override
   public String render(Context ctx, ModelAndView modelAndView) {
     var output = new StringOutput();
+    render(ctx, modelAndView, output);
+    return output.toString();
+  }
+
+  @Override
+  public void render(Context ctx, ModelAndView modelAndView, Output output) {
+    render(ctx, modelAndView, new Utf8TemplateOutput(output));
+  }
+
+  private void render(Context ctx, ModelAndView modelAndView, TemplateOutput output) {
     var attributes = ctx.getAttributes();
     if (modelAndView instanceof MapModelAndView mapModelAndView) {
       var mapModel = new HashMap<>();
@@ -41,7 +53,5 @@ class JteTemplateEngine implements io.jooby.TemplateEngine {
     } else {
       jte.render(modelAndView.getView(), modelAndView.getModel(), output);
     }
-
-    return output.toString();
   }
 }
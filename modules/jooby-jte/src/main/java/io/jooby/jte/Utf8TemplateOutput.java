@@ -0,0 +1,77 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.jte;
+
+import gg.jte.TemplateOutput;
+import io.jooby.Output;
+
+/**
+ * Writes jte content as UTF-8 straight into a server {@link Output}. Char ranges are encoded in
+ * place through a small scratch buffer, no substring or intermediary byte array is created.
+ * Pre-encoded static content (<code>binaryStaticContent</code>) is copied as it is.
+ */
+class Utf8TemplateOutput implements TemplateOutput {
+  private static final int BUFFER_SIZE = 1024;
+
+  private final Output output;
+
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+
+  Utf8TemplateOutput(Output output) {
+    this.output = output;
+  }
+
+  @Override
+  public void writeContent(String value) {
+    writeContent(value, 0, value.length());
+  }
+
+  @Override
+  public void writeContent(String value, int beginIndex, int endIndex) {
+    byte[] buffer = this.buffer;
+    int position = 0;
+    for (int i = beginIndex; i < endIndex; i++) {
+      if (position > BUFFER_SIZE - 4) {
+        output.write(buffer, 0, position);
+        position = 0;
+      }
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        buffer[position++] = (byte) c;
+      } else if (c < 0x800) {
+        buffer[position++] = (byte) (0xC0 | (c >> 6));
+        buffer[position++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        char low;
+        if (Character.isHighSurrogate(c)
+            && i + 1 < endIndex
+            && Character.isLowSurrogate(low = value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, low);
+          buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+          buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+          buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+          buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+          i += 1;
+        } else {
+          // malformed, same replacement as String.getBytes(UTF_8)
+          buffer[position++] = '?';
+        }
+      } else {
+        buffer[position++] = (byte) (0xE0 | (c >> 12));
+        buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buffer[position++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    if (position > 0) {
+      output.write(buffer, 0, position);
+    }
+  }
+
+  @Override
+  public void writeBinaryContent(byte[] value) {
+    output.write(value);
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.jte;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Output;
+
+public class Utf8TemplateOutputTest {
+
+  @Test
+  public void shouldEncodeCharRange() {
+    String value = "<p>ascii ñandú € 😀 \uD800x</p>";
+    for (int begin = 0; begin < value.length(); begin++) {
+      for (int end = begin; end <= value.length(); end++) {
+        Output output = Output.create();
+        new Utf8TemplateOutput(output).writeContent(value, begin, end);
+        assertArrayEquals(
+            value.substring(begin, end).getBytes(StandardCharsets.UTF_8), output.toByteArray());
+      }
+    }
+  }
+
+  @Test
+  public void shouldEncodeLargeContent() {
+    String value = "abc€😀".repeat(1000);
+    Output output = Output.create();
+    new Utf8TemplateOutput(output).writeContent(value);
+    assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), output.toByteArray());
+  }
+}
@@ -5,14 +5,25 @@
  */
 package io.jooby.jwt;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import io.jooby.Context;
@@ -22,9 +33,9 @@ import io.jooby.SessionStore;
 import io.jooby.SessionToken;
 import io.jooby.SneakyThrows;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -39,7 +50,12 @@ import io.jsonwebtoken.security.Keys;
  * }</pre>
  *
  * It uses <code>HMAC-SHA-256</code> for signing the cookie. Secret key and cookie option can be
- * specify programmatically or in your application configuration file.
+ * specify programmatically or in your application configuration file. Asymmetric keys (RSA or EC)
+ * are supported via {@link #JwtSessionStore(KeyPair, SessionToken)}.
+ *
+ * <p>Verified tokens are kept in a bounded cache (keyed by the SHA-256 hash of the token), so the
+ * same token isn't verified and decoded again on every request. A cached token is removed once it
+ * reaches its <code>exp</code> claim (when present). See {@link #setCacheSize(long)}.
  *
  * <p>This session store delegates to {@link SessionStore#signed(SessionToken, Function, Function)}
  * using JSON Web Token library.
@@ -49,8 +65,23 @@ import io.jsonwebtoken.security.Keys;
  */
 public class JwtSessionStore implements SessionStore {
 
+  /** Default number of verified tokens to keep. */
+  public static final long DEFAULT_CACHE_SIZE = 10_000;
+
+  /** Verified claims and expiration (epoch millis) of a token. */
+  private record Verified(Map<String, String> attributes, long expiresAt) {}
+
+  /** Digest instances aren't thread-safe, keep one per thread. */
+  private static final ThreadLocal<MessageDigest> SHA256 =
+      ThreadLocal.withInitial(JwtSessionStore::newSha256);
+
   private final SessionStore store;
 
+  private final JwtParser parser;
+
+  /** Replaced by {@link #setCacheSize(long)}, read on every request. */
+  private volatile Cache<ByteBuffer, Verified> cache;
+
   /**
    * Creates a JSON Web Token session store. It uses a cookie token: {@link SessionToken#SID}.
    *
@@ -79,7 +110,39 @@ public class JwtSessionStore implements SessionStore {
    * @param token Session token.
    */
   public JwtSessionStore(@NonNull SecretKey key, @NonNull SessionToken token) {
-    this.store = SessionStore.signed(token, decoder(key), encoder(key));
+    this(Jwts.parser().verifyWith(key).build(), key, token);
+  }
+
+  /**
+   * Creates a JSON Web Token session store using an asymmetric key pair (RSA or EC). Tokens are
+   * signed with the private key and verified with the public key.
+   *
+   * @param keys Key pair.
+   * @param token Session token.
+   */
+  public JwtSessionStore(@NonNull KeyPair keys, @NonNull SessionToken token) {
+    this(parser(keys.getPublic()), keys.getPrivate(), token);
+  }
+
+  private JwtSessionStore(JwtParser parser, Key signingKey, SessionToken token) {
+    this.parser = parser;
+    this.store = SessionStore.signed(token, this::decode, encoder(signingKey));
+    setCacheSize(DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * Set the maximum number of verified tokens to keep in memory. Default is: {@link
+   * #DEFAULT_CACHE_SIZE}. Zero turns off the cache.
+   *
+   * @param cacheSize Maximum number of verified tokens to keep in memory.
+   * @return This store.
+   */
+  public @NonNull JwtSessionStore setCacheSize(long cacheSize) {
+    this.cache =
+        cacheSize > 0
+            ? Caffeine.newBuilder().maximumSize(cacheSize).expireAfter(new TokenExpiry()).build()
+            : null;
+    return this;
   }
 
   @NonNull @Override
@@ -112,19 +175,77 @@ public class JwtSessionStore implements SessionStore {
     store.renewSessionId(ctx, session);
   }
 
-  static SneakyThrows.Function<String, Map<String, String>> decoder(SecretKey key) {
-    return value -> {
-      try {
-        Jws<Claims> claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(value);
-        Map<String, String> attributes = new HashMap<>();
-        for (Map.Entry<String, Object> entry : claims.getPayload().entrySet()) {
-          attributes.put(entry.getKey(), entry.getValue().toString());
-        }
-        return attributes;
-      } catch (JwtException x) {
-        return null;
+  private Map<String, String> decode(String value) {
+    Cache<ByteBuffer, Verified> cache = this.cache;
+    if (cache == null) {
+      return verify(parser, value).attributes();
+    }
+    ByteBuffer key = sha256(value);
+    Verified verified = cache.getIfPresent(key);
+    if (verified == null) {
+      verified = verify(parser, value);
+      if (verified.attributes() != null) {
+        cache.put(key, verified);
       }
-    };
+    }
+    return verified.attributes();
+  }
+
+  private static Verified verify(JwtParser parser, String value) {
+    try {
+      Claims claims = parser.parseSignedClaims(value).getPayload();
+      Map<String, String> attributes = new HashMap<>();
+      for (Map.Entry<String, Object> entry : claims.entrySet()) {
+        attributes.put(entry.getKey(), entry.getValue().toString());
+      }
+      Date expiration = claims.getExpiration();
+      return new Verified(
+          Collections.unmodifiableMap(attributes),
+          expiration == null ? Long.MAX_VALUE : expiration.getTime());
+    } catch (JwtException x) {
+      return new Verified(null, 0);
+    }
+  }
+
+  /** Expires a verified token at its <code>exp</code> claim. */
+  private static class TokenExpiry implements Expiry<ByteBuffer, Verified> {
+    @Override
+    public long expireAfterCreate(ByteBuffer key, Verified value, long currentTime) {
+      if (value.expiresAt() == Long.MAX_VALUE) {
+        return Long.MAX_VALUE;
+      }
+      return TimeUnit.MILLISECONDS.toNanos(
+          Math.max(0, value.expiresAt() - System.currentTimeMillis()));
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        ByteBuffer key, Verified value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        ByteBuffer key, Verified value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+
+  private static ByteBuffer sha256(String value) {
+    // digest() resets the instance
+    return ByteBuffer.wrap(SHA256.get().digest(value.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException x) {
+      throw SneakyThrows.propagate(x);
+    }
+  }
+
+  private static JwtParser parser(PublicKey key) {
+    return Jwts.parser().verifyWith(key).build();
   }
 
   static SneakyThrows.Function<Map<String, String>, String> encoder(Key key) {
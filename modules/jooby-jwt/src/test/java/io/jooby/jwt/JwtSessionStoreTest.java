@@ -0,0 +1,108 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.Map;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.Test;
+
+import io.jooby.Context;
+import io.jooby.Session;
+import io.jooby.SessionToken;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+public class JwtSessionStoreTest {
+
+  private static class FixedToken implements SessionToken {
+    private String value;
+
+    @Override
+    public String findToken(Context ctx) {
+      return value;
+    }
+
+    @Override
+    public void saveToken(Context ctx, String token) {
+      this.value = token;
+    }
+
+    @Override
+    public void deleteToken(Context ctx, String token) {
+      this.value = null;
+    }
+  }
+
+  private static final SecretKey KEY =
+      Keys.hmacShaKeyFor("7a85c3b6-3ef0-4625-82d3-a1da36094804".getBytes(StandardCharsets.UTF_8));
+
+  @Test
+  public void shouldFindSessionFromCachedToken() {
+    FixedToken token = new FixedToken();
+    JwtSessionStore store = new JwtSessionStore(KEY, token);
+    token.value =
+        Jwts.builder()
+            .claim("user", "edgar")
+            .expiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(KEY)
+            .compact();
+
+    Context ctx = mock(Context.class);
+    Session session = store.findSession(ctx);
+    assertNotNull(session);
+    assertEquals("edgar", session.get("user").value());
+    // from cache
+    assertEquals("edgar", store.findSession(ctx).get("user").value());
+  }
+
+  @Test
+  public void shouldRejectInvalidTokens() {
+    FixedToken token = new FixedToken();
+    JwtSessionStore store = new JwtSessionStore(KEY, token);
+    Context ctx = mock(Context.class);
+
+    token.value =
+        Jwts.builder()
+            .claim("user", "edgar")
+            .expiration(new Date(System.currentTimeMillis() - 60_000))
+            .signWith(KEY)
+            .compact();
+    assertNull(store.findSession(ctx));
+
+    String valid = Jwts.builder().claim("user", "edgar").signWith(KEY).compact();
+    token.value = valid.substring(0, valid.length() - 2) + "xx";
+    assertNull(store.findSession(ctx));
+
+    SecretKey otherKey =
+        Keys.hmacShaKeyFor("e9d3d8c6-3b8c-4b8a-9d5a-0f3b2e5f6a71".getBytes(StandardCharsets.UTF_8));
+    token.value = Jwts.builder().claim("user", "edgar").signWith(otherKey).compact();
+    assertNull(store.findSession(ctx));
+  }
+
+  @Test
+  public void shouldSignAndVerifyWithKeyPair() {
+    KeyPair keys = Jwts.SIG.ES256.keyPair().build();
+    FixedToken token = new FixedToken();
+    JwtSessionStore store = new JwtSessionStore(keys, token).setCacheSize(0);
+    Context ctx = mock(Context.class);
+
+    Session session = Session.create(ctx, null, Map.of("user", "edgar"));
+    store.renewSessionId(ctx, session);
+    assertNotNull(token.value);
+
+    assertEquals("edgar", store.findSession(ctx).get("user").value());
+  }
+}
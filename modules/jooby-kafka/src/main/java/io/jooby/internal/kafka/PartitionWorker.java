@@ -0,0 +1,215 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.kafka;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jooby.kafka.KafkaErrorHandler;
+import io.jooby.kafka.KafkaRecordHandler;
+
+/**
+ * Ordered dispatch of the records of a single partition. At most one task per partition is running
+ * on the executor; it drains the queue in chunks, so a busy partition doesn't hold a worker thread
+ * forever.
+ *
+ * <p>Records are queued by the poll thread and consumed by worker threads. Offsets are read by the
+ * poll thread when committing.
+ *
+ * <p>A record that fails and isn't recovered by the {@link KafkaErrorHandler} stops the partition:
+ * offsets never go past it and queued records are discarded, until the poll thread rewinds the
+ * partition to the failed offset and calls {@link #retry()}.
+ */
+public final class PartitionWorker implements Runnable {
+  private static final int CHUNK = 128;
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final TopicPartition partition;
+
+  private final KafkaRecordHandler<Object, Object> handler;
+
+  private final KafkaErrorHandler errorHandler;
+
+  private final Executor executor;
+
+  private final LongAdder processed;
+
+  private final LongAdder failed;
+
+  private final Queue<ConsumerRecord<Object, Object>> queue = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger pending = new AtomicInteger();
+
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  private volatile boolean revoked;
+
+  /** Next offset to commit (last handled + 1) or <code>-1</code>. */
+  private volatile long completed = -1;
+
+  /** Last committed offset, updated by poll thread. */
+  private volatile long committed = -1;
+
+  /** Paused state, updated by poll thread. */
+  private volatile boolean paused;
+
+  /** Offset of the record that stopped the partition or <code>-1</code>. */
+  private volatile long failedOffset = -1;
+
+  /** Time of failure, see {@link System#nanoTime()}. */
+  private volatile long failedAt;
+
+  public PartitionWorker(
+      TopicPartition partition,
+      KafkaRecordHandler<Object, Object> handler,
+      KafkaErrorHandler errorHandler,
+      Executor executor,
+      LongAdder processed,
+      LongAdder failed) {
+    this.partition = partition;
+    this.handler = handler;
+    this.errorHandler = errorHandler;
+    this.executor = executor;
+    this.processed = processed;
+    this.failed = failed;
+  }
+
+  public void submit(List<ConsumerRecord<Object, Object>> records) {
+    if (failedOffset >= 0) {
+      // fetched before the partition was paused, they are fetched again on retry
+      return;
+    }
+    queue.addAll(records);
+    pending.addAndGet(records.size());
+    schedule();
+  }
+
+  public TopicPartition partition() {
+    return partition;
+  }
+
+  public int pending() {
+    return pending.get();
+  }
+
+  public boolean isIdle() {
+    return !scheduled.get();
+  }
+
+  public long completed() {
+    return completed;
+  }
+
+  public long committed() {
+    return committed;
+  }
+
+  public void committed(long offset) {
+    this.committed = Math.max(committed, offset);
+  }
+
+  public boolean isPaused() {
+    return paused;
+  }
+
+  public void paused(boolean paused) {
+    this.paused = paused;
+  }
+
+  public long failedOffset() {
+    return failedOffset;
+  }
+
+  public long failedAt() {
+    return failedAt;
+  }
+
+  /** Resume after the poll thread rewound the partition to {@link #failedOffset()}. */
+  public void retry() {
+    queue.clear();
+    pending.set(0);
+    failedOffset = -1;
+  }
+
+  /** Stop handling records. Queued records are discarded, they will be fetched again. */
+  public void revoke() {
+    revoked = true;
+    queue.clear();
+    pending.set(0);
+  }
+
+  @Override
+  public void run() {
+    try {
+      ConsumerRecord<Object, Object> record;
+      int budget = CHUNK;
+      while (budget-- > 0 && !revoked && failedOffset < 0 && (record = queue.poll()) != null) {
+        try {
+          handler.handle(record);
+          processed.increment();
+        } catch (Throwable cause) {
+          failed.increment();
+          if (!recover(record, cause)) {
+            failedAt = System.nanoTime();
+            failedOffset = record.offset();
+            queue.clear();
+            pending.set(0);
+            break;
+          }
+        }
+        completed = record.offset() + 1;
+        if (!revoked) {
+          pending.decrementAndGet();
+        }
+      }
+    } finally {
+      scheduled.set(false);
+      schedule();
+    }
+  }
+
+  private boolean recover(ConsumerRecord<Object, Object> record, Throwable cause) {
+    try {
+      errorHandler.handle(record, cause);
+      log.debug(
+          "kafka listener recovered from exception: {}@{}", partition, record.offset(), cause);
+      return true;
+    } catch (Throwable x) {
+      if (x != cause) {
+        cause.addSuppressed(x);
+      }
+      log.error("kafka listener resulted in exception: {}@{}", partition, record.offset(), cause);
+      return false;
+    }
+  }
+
+  private void schedule() {
+    if (!revoked && failedOffset < 0 && !queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(this);
+      } catch (RuntimeException x) {
+        scheduled.set(false);
+        throw x;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return partition.toString();
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.SneakyThrows;
+
+/**
+ * Invoked when a {@link KafkaRecordHandler} fails.
+ *
+ * <ul>
+ *   <li>Returning normally marks the record as consumed, its offset is committed. Useful for
+ *       publishing the record to a dead letter topic.
+ *   <li>Throwing an exception stops the partition at the failed record. Its offset (and the ones
+ *       after it) isn't committed and the record is fetched and handled again after the retry
+ *       backoff.
+ * </ul>
+ *
+ * Dead letter example:
+ *
+ * <pre>{@code
+ * {
+ *   install(new KafkaListenerModule()
+ *       .listen("orders", record -> ...)
+ *       .setErrorHandler((record, cause) -> {
+ *         producer.send(new ProducerRecord<>("orders.DLT", record.key(), record.value())).get();
+ *       })
+ *   );
+ * }
+ * }</pre>
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+@FunctionalInterface
+public interface KafkaErrorHandler {
+
+  /** Default error handler: rethrow the exception, so the record is retried. */
+  KafkaErrorHandler RETRY =
+      (record, cause) -> {
+        throw SneakyThrows.propagate(cause);
+      };
+
+  /**
+   * Handle a failed record.
+   *
+   * @param record Failed record.
+   * @param cause Exception thrown by the record handler.
+   * @throws Exception To stop the partition at this record and retry it.
+   */
+  void handle(@NonNull ConsumerRecord<?, ?> record, @NonNull Throwable cause) throws Exception;
+}
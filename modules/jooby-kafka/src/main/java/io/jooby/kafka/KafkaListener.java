@@ -0,0 +1,45 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.kafka;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark a method as a record handler for one or more topics. The method must be public and accept a
+ * single {@link org.apache.kafka.clients.consumer.ConsumerRecord} argument:
+ *
+ * <pre>{@code
+ * public class OrderListener {
+ *
+ *   @KafkaListener("orders")
+ *   public void onOrder(ConsumerRecord<String, String> record) {
+ *     ...
+ *   }
+ * }
+ * }</pre>
+ *
+ * Listener instances are provisioned from application services (or dependency injection framework)
+ * at application startup.
+ *
+ * @author edgar
+ * @since 3.1.0
+ * @see KafkaListenerModule
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface KafkaListener {
+  /**
+   * Topic names.
+   *
+   * @return Topic names.
+   */
+  String[] value();
+}
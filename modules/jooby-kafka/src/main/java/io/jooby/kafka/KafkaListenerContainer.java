@@ -0,0 +1,457 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.kafka;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.internal.kafka.PartitionWorker;
+
+/**
+ * Runs a consumer poll loop and dispatches records to {@link KafkaRecordHandler handlers}.
+ *
+ * <ul>
+ *   <li>A single thread polls the consumer (consumers aren't thread-safe).
+ *   <li>Records are dispatched to an executor. Records of the same partition are handled in order,
+ *       records of different partitions run concurrently.
+ *   <li>A partition is paused when it has too many pending records and resumed once handlers catch
+ *       up.
+ *   <li>Offsets of handled records are committed asynchronously and in batch, every commit
+ *       interval. A synchronous commit happens on partition revocation and on shutdown.
+ *   <li>A failed record goes to the {@link KafkaErrorHandler}. When the error handler rethrows, the
+ *       partition is paused and offsets are never committed past the failed record. After the retry
+ *       backoff the partition is rewound to the failed record and resumed.
+ * </ul>
+ *
+ * Created and started by {@link KafkaListenerModule}. Available as a service for monitoring:
+ *
+ * <pre>{@code
+ * {
+ *   install(new KafkaListenerModule().listen("orders", record -> ...));
+ *
+ *   get("/kafka", ctx -> {
+ *     KafkaListenerContainer container = require(KafkaListenerContainer.class);
+ *     return container.getLag();
+ *   });
+ * }
+ * }</pre>
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+public class KafkaListenerContainer implements AutoCloseable {
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final Consumer<Object, Object> consumer;
+
+  private final Map<String, KafkaRecordHandler<Object, Object>> handlers = new LinkedHashMap<>();
+
+  private final KafkaErrorHandler errorHandler;
+
+  private final Duration retryBackoff;
+
+  private final Executor executor;
+
+  private final boolean closeExecutor;
+
+  private final Duration pollTimeout;
+
+  private final int maxPendingRecords;
+
+  private final Duration commitInterval;
+
+  private final Duration shutdownTimeout;
+
+  private final Map<TopicPartition, PartitionWorker> workers = new ConcurrentHashMap<>();
+
+  private final Map<TopicPartition, Long> lag = new ConcurrentHashMap<>();
+
+  private final LongAdder processed = new LongAdder();
+
+  private final LongAdder failed = new LongAdder();
+
+  private final LongAdder commits = new LongAdder();
+
+  private volatile boolean running;
+
+  private volatile long startedAt;
+
+  private Thread thread;
+
+  KafkaListenerContainer(
+      Consumer<Object, Object> consumer,
+      KafkaErrorHandler errorHandler,
+      Duration retryBackoff,
+      Executor executor,
+      boolean closeExecutor,
+      Duration pollTimeout,
+      int maxPendingRecords,
+      Duration commitInterval,
+      Duration shutdownTimeout) {
+    this.consumer = consumer;
+    this.errorHandler = errorHandler;
+    this.retryBackoff = retryBackoff;
+    this.executor = executor;
+    this.closeExecutor = closeExecutor;
+    this.pollTimeout = pollTimeout;
+    this.maxPendingRecords = maxPendingRecords;
+    this.commitInterval = commitInterval;
+    this.shutdownTimeout = shutdownTimeout;
+  }
+
+  @SuppressWarnings("unchecked")
+  synchronized void listen(String topic, KafkaRecordHandler<?, ?> handler) {
+    if (running) {
+      throw new IllegalStateException("Container is running");
+    }
+    if (handlers.putIfAbsent(topic, (KafkaRecordHandler<Object, Object>) handler) != null) {
+      throw new IllegalArgumentException("Topic already has a listener: " + topic);
+    }
+  }
+
+  /** Subscribe to topics and start the poll loop. */
+  synchronized void start() {
+    if (running || handlers.isEmpty()) {
+      return;
+    }
+    running = true;
+    startedAt = System.nanoTime();
+    thread = new Thread(this::run, "kafka-listener");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Number of successfully handled records.
+   *
+   * @return Number of successfully handled records.
+   */
+  public long getProcessed() {
+    return processed.sum();
+  }
+
+  /**
+   * Number of records that failed with an exception. Retried records are counted once per attempt.
+   *
+   * @return Number of records that failed with an exception.
+   */
+  public long getFailed() {
+    return failed.sum();
+  }
+
+  /**
+   * Number of offset commits sent to the broker.
+   *
+   * @return Number of offset commits sent to the broker.
+   */
+  public long getCommits() {
+    return commits.sum();
+  }
+
+  /**
+   * Handled records (processed and failed) per second since start.
+   *
+   * @return Handled records per second since start.
+   */
+  public double getThroughput() {
+    long elapsed = System.nanoTime() - startedAt;
+    if (!running || elapsed <= 0) {
+      return 0;
+    }
+    return (processed.sum() + failed.sum()) / (elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+  }
+
+  /**
+   * Records fetched but not handled yet.
+   *
+   * @return Records fetched but not handled yet.
+   */
+  public int getPending() {
+    return workers.values().stream().mapToInt(PartitionWorker::pending).sum();
+  }
+
+  /**
+   * Consumer lag per assigned partition, as seen by last poll.
+   *
+   * @return Consumer lag per assigned partition.
+   */
+  public @NonNull Map<TopicPartition, Long> getLag() {
+    return Map.copyOf(lag);
+  }
+
+  /**
+   * Partitions paused due to backpressure or waiting to retry a failed record.
+   *
+   * @return Paused partitions.
+   */
+  public @NonNull Set<TopicPartition> getPaused() {
+    return workers.entrySet().stream()
+        .filter(e -> e.getValue().isPaused())
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * True while the poll loop is running.
+   *
+   * @return True while the poll loop is running.
+   */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Stop polling, wait for pending records (up to shutdown timeout), commit offsets and close the
+   * consumer.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    Thread thread;
+    synchronized (this) {
+      thread = this.thread;
+      this.thread = null;
+      running = false;
+    }
+    if (thread == null) {
+      return;
+    }
+    consumer.wakeup();
+    thread.join(shutdownTimeout.toMillis() + pollTimeout.toMillis() + 1000);
+    if (closeExecutor) {
+      if (executor instanceof ExecutorService service) {
+        service.shutdown();
+      } else if (executor instanceof AutoCloseable closeable) {
+        try {
+          closeable.close();
+        } catch (Exception cause) {
+          log.debug("failed to close executor", cause);
+        }
+      }
+    }
+  }
+
+  private void run() {
+    try {
+      consumer.subscribe(handlers.keySet(), new Rebalance());
+      long lastCommit = System.nanoTime();
+      while (running) {
+        ConsumerRecords<Object, Object> records = consumer.poll(pollTimeout);
+        for (TopicPartition partition : records.partitions()) {
+          PartitionWorker worker = workers.get(partition);
+          if (worker == null) {
+            worker =
+                new PartitionWorker(
+                    partition,
+                    handlers.get(partition.topic()),
+                    errorHandler,
+                    executor,
+                    processed,
+                    failed);
+            workers.put(partition, worker);
+          }
+          worker.submit(records.records(partition));
+        }
+        retry();
+        backpressure();
+        if (System.nanoTime() - lastCommit >= commitInterval.toNanos()) {
+          commit(workers.values(), false);
+          lastCommit = System.nanoTime();
+        }
+        for (TopicPartition partition : consumer.assignment()) {
+          consumer.currentLag(partition).ifPresent(value -> lag.put(partition, value));
+        }
+      }
+    } catch (WakeupException expected) {
+      // shutdown
+    } catch (Throwable cause) {
+      log.error("kafka listener poll loop resulted in exception", cause);
+    } finally {
+      running = false;
+      shutdown();
+    }
+  }
+
+  private void shutdown() {
+    long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+    Collection<PartitionWorker> workers = this.workers.values();
+    while (workers.stream().anyMatch(it -> it.pending() > 0 || !it.isIdle())
+        && System.nanoTime() < deadline) {
+      sleep();
+    }
+    workers.forEach(PartitionWorker::revoke);
+    try {
+      try {
+        commit(workers, true);
+      } catch (WakeupException x) {
+        // wakeup call from close() wasn't consumed by poll
+        commit(workers, true);
+      }
+    } catch (Exception cause) {
+      log.error("failed to commit offsets on shutdown", cause);
+    }
+    this.workers.clear();
+    lag.clear();
+    try {
+      consumer.close();
+    } catch (Exception cause) {
+      log.debug("failed to close consumer", cause);
+    }
+  }
+
+  /**
+   * Pause partitions stopped at a failed record. Once the retry backoff elapsed, rewind them to the
+   * failed offset and resume.
+   */
+  private void retry() {
+    long now = System.nanoTime();
+    workers.forEach(
+        (partition, worker) -> {
+          long offset = worker.failedOffset();
+          if (offset < 0) {
+            return;
+          }
+          if (!worker.isPaused()) {
+            consumer.pause(List.of(partition));
+            worker.paused(true);
+          }
+          if (now - worker.failedAt() >= retryBackoff.toNanos() && worker.isIdle()) {
+            consumer.seek(partition, offset);
+            worker.retry();
+            consumer.resume(List.of(partition));
+            worker.paused(false);
+          }
+        });
+  }
+
+  private void backpressure() {
+    workers.forEach(
+        (partition, worker) -> {
+          if (worker.failedOffset() >= 0) {
+            // see retry()
+            return;
+          }
+          int pending = worker.pending();
+          if (!worker.isPaused() && pending >= maxPendingRecords) {
+            consumer.pause(List.of(partition));
+            worker.paused(true);
+          } else if (worker.isPaused() && pending <= maxPendingRecords / 2) {
+            consumer.resume(List.of(partition));
+            worker.paused(false);
+          }
+        });
+  }
+
+  private void commit(Collection<PartitionWorker> workers, boolean sync) {
+    Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+    for (PartitionWorker worker : workers) {
+      long completed = worker.completed();
+      if (completed > worker.committed()) {
+        offsets.put(worker.partition(), new OffsetAndMetadata(completed));
+      }
+    }
+    if (offsets.isEmpty()) {
+      return;
+    }
+    commits.increment();
+    if (sync) {
+      consumer.commitSync(offsets);
+      committed(offsets);
+    } else {
+      consumer.commitAsync(
+          offsets,
+          (result, cause) -> {
+            if (cause == null) {
+              committed(result);
+            } else {
+              log.warn("failed to commit offsets: {}", result, cause);
+            }
+          });
+    }
+  }
+
+  private void committed(Map<TopicPartition, OffsetAndMetadata> offsets) {
+    offsets.forEach(
+        (partition, offset) -> {
+          PartitionWorker worker = workers.get(partition);
+          if (worker != null) {
+            worker.committed(offset.offset());
+          }
+        });
+  }
+
+  private void sleep() {
+    try {
+      Thread.sleep(10);
+    } catch (InterruptedException x) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Runs on poll thread, during poll. */
+  private class Rebalance implements ConsumerRebalanceListener {
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+      List<PartitionWorker> revoked =
+          partitions.stream().map(workers::get).filter(it -> it != null).toList();
+      // stop pending records and wait for the running ones, then commit what was handled
+      revoked.forEach(PartitionWorker::revoke);
+      long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+      while (revoked.stream().anyMatch(it -> !it.isIdle()) && System.nanoTime() < deadline) {
+        sleep();
+      }
+      try {
+        commit(revoked, true);
+      } catch (Exception cause) {
+        log.warn("failed to commit offsets of revoked partitions: {}", partitions, cause);
+      }
+      remove(partitions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+      // workers are created on first record
+    }
+
+    @Override
+    public void onPartitionsLost(Collection<TopicPartition> partitions) {
+      // can't commit, partitions are owned by someone else
+      partitions.stream()
+          .map(workers::get)
+          .filter(it -> it != null)
+          .forEach(PartitionWorker::revoke);
+      remove(partitions);
+    }
+
+    private void remove(Collection<TopicPartition> partitions) {
+      partitions.forEach(
+          partition -> {
+            workers.remove(partition);
+            lag.remove(partition);
+          });
+    }
+  }
+}
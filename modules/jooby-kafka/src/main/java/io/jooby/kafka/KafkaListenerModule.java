@@ -0,0 +1,360 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.kafka;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.Extension;
+import io.jooby.Jooby;
+import io.jooby.ServiceKey;
+import io.jooby.SneakyThrows;
+import io.jooby.VirtualThreadExecutor;
+
+/**
+ * Managed kafka consumer: https://jooby.io/modules/kafka.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * {
+ *   install(new KafkaListenerModule()
+ *       .listen("orders", record -> {
+ *         // handle record
+ *       })
+ *       .listen(PaymentListener.class)
+ *   );
+ * }
+ * }</pre>
+ *
+ * Where <code>PaymentListener</code> has one or more methods annotated with {@link KafkaListener}.
+ *
+ * <p>The module creates a dedicated consumer using the <code>kafka.consumer</code> properties, a
+ * poll thread and a worker pool. See {@link KafkaListenerContainer} for details about ordering,
+ * backpressure and offset commits. Auto commit is disabled, offsets are committed once records are
+ * handled.
+ *
+ * <p>The consumer loop starts once the application has been started and it is stopped on
+ * application shutdown.
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+public class KafkaListenerModule implements Extension {
+  private final String key;
+
+  private final Map<String, KafkaRecordHandler<?, ?>> handlers = new LinkedHashMap<>();
+
+  private final List<Class<?>> listeners = new ArrayList<>();
+
+  private Function<Properties, Consumer<?, ?>> consumerFactory = KafkaConsumer::new;
+
+  private Executor executor;
+
+  private int workers = Runtime.getRuntime().availableProcessors();
+
+  private boolean virtualThreads;
+
+  private Integer batchSize;
+
+  private Duration pollTimeout = Duration.ofMillis(100);
+
+  private int maxPendingRecords = ConsumerConfig.DEFAULT_MAX_POLL_RECORDS * 2;
+
+  private Duration commitInterval = Duration.ofSeconds(1);
+
+  private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+  private KafkaErrorHandler errorHandler = KafkaErrorHandler.RETRY;
+
+  private Duration retryBackoff = Duration.ofSeconds(1);
+
+  /**
+   * Creates a new kafka listener module.
+   *
+   * @param key Consumer properties key.
+   */
+  public KafkaListenerModule(@NonNull String key) {
+    this.key = key;
+  }
+
+  /**
+   * Creates a new kafka listener module. Uses the default key: <code>kafka.consumer</code>.
+   *
+   * @param listeners Classes with methods annotated with {@link KafkaListener}.
+   */
+  public KafkaListenerModule(@NonNull Class<?>... listeners) {
+    this("kafka.consumer");
+    List.of(listeners).forEach(this::listen);
+  }
+
+  /**
+   * Add a record handler.
+   *
+   * @param topic Topic name.
+   * @param handler Record handler.
+   * @param <K> Key type.
+   * @param <V> Value type.
+   * @return This module.
+   */
+  public @NonNull <K, V> KafkaListenerModule listen(
+      @NonNull String topic, @NonNull KafkaRecordHandler<K, V> handler) {
+    if (handlers.putIfAbsent(topic, handler) != null) {
+      throw new IllegalArgumentException("Topic already has a listener: " + topic);
+    }
+    return this;
+  }
+
+  /**
+   * Add a class with methods annotated with {@link KafkaListener}. Instances are provisioned from
+   * application services at application startup.
+   *
+   * @param listener Listener class.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule listen(@NonNull Class<?> listener) {
+    if (handlerMethods(listener).isEmpty()) {
+      throw new IllegalArgumentException(
+          "No method annotated with @KafkaListener found on: " + listener.getName());
+    }
+    listeners.add(listener);
+    return this;
+  }
+
+  /**
+   * Maximum number of records returned by a poll call (<code>max.poll.records</code>). Takes
+   * precedence over the <code>max.poll.records</code> consumer property. Default is: the consumer
+   * property or <code>500</code>.
+   *
+   * @param batchSize Maximum number of records returned by a poll call.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * Poll timeout. Default is: <code>100ms</code>.
+   *
+   * @param pollTimeout Poll timeout.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule setPollTimeout(@NonNull Duration pollTimeout) {
+    this.pollTimeout = pollTimeout;
+    return this;
+  }
+
+  /**
+   * Number of worker threads. Default is: number of available processors.
+   *
+   * @param workers Number of worker threads.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule setWorkers(int workers) {
+    this.workers = workers;
+    return this;
+  }
+
+  /**
+   * Run each partition on a virtual thread (Java 21 or higher). Falls back to a worker pool when
+   * virtual threads aren't available.
+   *
+   * @param virtualThreads True to use virtual threads.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+    return this;
+  }
+
+  /**
+   * Use the given executor for handling records. The executor isn't closed on shutdown.
+   *
+   * @param executor Executor.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule setExecutor(@NonNull Executor executor) {
+    this.executor = executor;
+    return this;
+  }
+
+  /**
+   * Pause a partition when it has this many records fetched but not yet handled. Partition is
+   * resumed once pending records go below half of this number. Default is: <code>1000</code>.
+   *
+   * @param maxPendingRecords Maximum number of pending records per partition.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule setMaxPendingRecords(int maxPendingRecords) {
+    this.maxPendingRecords = maxPendingRecords;
+    return this;
+  }
+
+  /**
+   * How often handled offsets are committed. Default is: <code>1s</code>.
+   *
+   * @param commitInterval Commit interval.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule setCommitInterval(@NonNull Duration commitInterval) {
+    this.commitInterval = commitInterval;
+    return this;
+  }
+
+  /**
+   * How long to wait for pending records on shutdown or partition revocation. Default is: <code>
+   * 30s</code>.
+   *
+   * @param shutdownTimeout Shutdown timeout.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule setShutdownTimeout(@NonNull Duration shutdownTimeout) {
+    this.shutdownTimeout = shutdownTimeout;
+    return this;
+  }
+
+  /**
+   * Invoked when a record handler fails. Default is {@link KafkaErrorHandler#RETRY}: the partition
+   * stops at the failed record and retries it after the retry backoff.
+   *
+   * @param errorHandler Error handler.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule setErrorHandler(@NonNull KafkaErrorHandler errorHandler) {
+    this.errorHandler = errorHandler;
+    return this;
+  }
+
+  /**
+   * How long a partition waits before retrying a failed record. Default is: <code>1s</code>.
+   *
+   * @param retryBackoff Retry backoff.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule setRetryBackoff(@NonNull Duration retryBackoff) {
+    this.retryBackoff = retryBackoff;
+    return this;
+  }
+
+  /**
+   * Consumer factory. Default is {@link KafkaConsumer}. Useful for testing with {@link
+   * org.apache.kafka.clients.consumer.MockConsumer}.
+   *
+   * @param consumerFactory Consumer factory.
+   * @return This module.
+   */
+  public @NonNull KafkaListenerModule setConsumerFactory(
+      @NonNull Function<Properties, Consumer<?, ?>> consumerFactory) {
+    this.consumerFactory = consumerFactory;
+    return this;
+  }
+
+  @Override
+  public void install(@NonNull Jooby application) {
+    Properties properties = new Properties();
+    properties.putAll(application.getEnvironment().getProperties(key, null));
+    if (batchSize != null) {
+      properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize.toString());
+    }
+    properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+
+    boolean closeExecutor = executor == null;
+    Executor executor = closeExecutor ? newExecutor() : this.executor;
+
+    @SuppressWarnings("unchecked")
+    Consumer<Object, Object> consumer =
+        (Consumer<Object, Object>) consumerFactory.apply(properties);
+    KafkaListenerContainer container =
+        new KafkaListenerContainer(
+            consumer,
+            errorHandler,
+            retryBackoff,
+            executor,
+            closeExecutor,
+            pollTimeout,
+            maxPendingRecords,
+            commitInterval,
+            shutdownTimeout);
+    handlers.forEach(container::listen);
+
+    var services = application.getServices();
+    services.putIfAbsent(KafkaListenerContainer.class, container);
+    services.put(ServiceKey.key(KafkaListenerContainer.class, key), container);
+
+    application.onStarted(
+        () -> {
+          for (Class<?> listener : listeners) {
+            Object instance = application.require(listener);
+            for (Method method : handlerMethods(listener)) {
+              KafkaRecordHandler<?, ?> handler = record -> invoke(method, instance, record);
+              for (String topic : method.getAnnotation(KafkaListener.class).value()) {
+                container.listen(topic, handler);
+              }
+            }
+          }
+          container.start();
+        });
+    application.onStop(container);
+  }
+
+  private Executor newExecutor() {
+    if (virtualThreads && VirtualThreadExecutor.isSupported()) {
+      return new VirtualThreadExecutor("kafka-listener");
+    }
+    AtomicInteger counter = new AtomicInteger();
+    return Executors.newFixedThreadPool(
+        workers,
+        task -> {
+          Thread thread = new Thread(task, "kafka-worker-" + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  private static List<Method> handlerMethods(Class<?> listener) {
+    List<Method> methods = new ArrayList<>();
+    for (Method method : listener.getMethods()) {
+      if (method.isAnnotationPresent(KafkaListener.class)) {
+        if (Modifier.isStatic(method.getModifiers())
+            || method.getParameterCount() != 1
+            || !method.getParameterTypes()[0].isAssignableFrom(ConsumerRecord.class)) {
+          throw new IllegalArgumentException(
+              "@KafkaListener method must have a single ConsumerRecord argument: " + method);
+        }
+        methods.add(method);
+      }
+    }
+    return methods;
+  }
+
+  private static void invoke(Method method, Object instance, ConsumerRecord<?, ?> record) {
+    try {
+      method.invoke(instance, record);
+    } catch (InvocationTargetException x) {
+      throw SneakyThrows.propagate(x.getCause());
+    } catch (IllegalAccessException x) {
+      throw SneakyThrows.propagate(x);
+    }
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Handle records of a topic. Records of the same partition are handled in order, one at a time.
+ * Records of different partitions are handled concurrently.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author edgar
+ * @since 3.1.0
+ */
+@FunctionalInterface
+public interface KafkaRecordHandler<K, V> {
+  /**
+   * Handle a record. Exceptions are reported to the {@link KafkaErrorHandler}, which decides if the
+   * record is retried or considered consumed.
+   *
+   * @param record Consumer record.
+   * @throws Exception If something goes wrong.
+   */
+  void handle(@NonNull ConsumerRecord<K, V> record) throws Exception;
+}
@@ -0,0 +1,217 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+public class KafkaListenerContainerTest {
+
+  private static final TopicPartition P0 = new TopicPartition("orders", 0);
+
+  private static final TopicPartition P1 = new TopicPartition("orders", 1);
+
+  @Test
+  public void shouldDispatchInPartitionOrderAndCommit() throws Exception {
+    MockConsumer<Object, Object> consumer = newConsumer();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Long> p0 = Collections.synchronizedList(new ArrayList<>());
+    List<Long> p1 = Collections.synchronizedList(new ArrayList<>());
+    List<Long> deadLetters = Collections.synchronizedList(new ArrayList<>());
+    KafkaListenerContainer container =
+        newContainer(consumer, (record, cause) -> deadLetters.add(record.offset()), executor, 1000);
+    container.listen(
+        "orders",
+        record -> {
+          (record.partition() == 0 ? p0 : p1).add(record.offset());
+          if (record.offset() == 3) {
+            throw new IllegalStateException("intentional error");
+          }
+        });
+    consumer.schedulePollTask(
+        () -> {
+          consumer.rebalance(List.of(P0, P1));
+          for (int i = 0; i < 10; i++) {
+            consumer.addRecord(new ConsumerRecord<>("orders", 0, i, "k", "v" + i));
+            consumer.addRecord(new ConsumerRecord<>("orders", 1, i, "k", "v" + i));
+          }
+        });
+    container.start();
+
+    await(() -> container.getProcessed() + container.getFailed() == 20);
+    await(() -> committed(consumer).size() == 2);
+
+    assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), p0);
+    assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), p1);
+    assertEquals(18, container.getProcessed());
+    assertEquals(2, container.getFailed());
+    assertEquals(List.of(3L, 3L), deadLetters);
+    assertEquals(10L, committed(consumer).get(P0).offset());
+    assertEquals(10L, committed(consumer).get(P1).offset());
+
+    container.close();
+    assertFalse(container.isRunning());
+    assertTrue(consumer.closed());
+    executor.shutdown();
+  }
+
+  @Test
+  public void shouldNotCommitPastFailedRecordAndRetry() throws Exception {
+    MockConsumer<Object, Object> consumer = newConsumer();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    List<Long> p0 = Collections.synchronizedList(new ArrayList<>());
+    AtomicBoolean fail = new AtomicBoolean(true);
+    KafkaListenerContainer container =
+        newContainer(consumer, KafkaErrorHandler.RETRY, executor, 1000);
+    container.listen(
+        "orders",
+        record -> {
+          p0.add(record.offset());
+          if (record.offset() == 3 && fail.getAndSet(false)) {
+            throw new IllegalStateException("intentional error");
+          }
+        });
+    consumer.schedulePollTask(
+        () -> {
+          consumer.rebalance(List.of(P0));
+          for (int i = 0; i < 6; i++) {
+            consumer.addRecord(new ConsumerRecord<>("orders", 0, i, "k", "v" + i));
+          }
+        });
+    container.start();
+
+    await(() -> container.getFailed() == 1);
+    await(() -> committedOffset(consumer, P0) == 3L);
+    // rewound to failed record after backoff
+    await(() -> position(consumer, P0) == 3L && consumer.paused().isEmpty());
+    assertEquals(List.of(0L, 1L, 2L, 3L), p0);
+
+    // fetched again
+    synchronized (consumer) {
+      for (int i = 3; i < 6; i++) {
+        consumer.addRecord(new ConsumerRecord<>("orders", 0, i, "k", "v" + i));
+      }
+    }
+    await(() -> committedOffset(consumer, P0) == 6L);
+    assertEquals(List.of(0L, 1L, 2L, 3L, 3L, 4L, 5L), p0);
+    assertEquals(6, container.getProcessed());
+    assertEquals(1, container.getFailed());
+
+    container.close();
+    executor.shutdown();
+  }
+
+  @Test
+  public void shouldPauseSlowPartition() throws Exception {
+    MockConsumer<Object, Object> consumer = newConsumer();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    CountDownLatch release = new CountDownLatch(1);
+    KafkaListenerContainer container = newContainer(consumer, KafkaErrorHandler.RETRY, executor, 4);
+    container.listen(
+        "orders",
+        record -> {
+          if (record.partition() == 0) {
+            release.await();
+          }
+        });
+    consumer.schedulePollTask(
+        () -> {
+          consumer.rebalance(List.of(P0, P1));
+          for (int i = 0; i < 5; i++) {
+            consumer.addRecord(new ConsumerRecord<>("orders", 0, i, "k", "v" + i));
+          }
+        });
+    container.start();
+
+    await(() -> container.getPaused().equals(Set.of(P0)));
+    assertEquals(Set.of(P0), consumer.paused());
+
+    release.countDown();
+    await(() -> container.getPaused().isEmpty());
+    await(() -> consumer.paused().isEmpty());
+    await(() -> container.getProcessed() == 5);
+    await(() -> committedOffset(consumer, P0) == 5L);
+
+    container.close();
+    executor.shutdown();
+  }
+
+  private static KafkaListenerContainer newContainer(
+      MockConsumer<Object, Object> consumer,
+      KafkaErrorHandler errorHandler,
+      ExecutorService executor,
+      int maxPending) {
+    return new KafkaListenerContainer(
+        consumer,
+        errorHandler,
+        Duration.ofMillis(50),
+        executor,
+        false,
+        Duration.ofMillis(10),
+        maxPending,
+        Duration.ofMillis(10),
+        Duration.ofSeconds(5));
+  }
+
+  private static MockConsumer<Object, Object> newConsumer() {
+    MockConsumer<Object, Object> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    consumer.updateBeginningOffsets(Map.of(P0, 0L, P1, 0L));
+    return consumer;
+  }
+
+  private static Map<TopicPartition, OffsetAndMetadata> committed(
+      MockConsumer<Object, Object> consumer) {
+    synchronized (consumer) {
+      Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.of(P0, P1));
+      committed.values().removeIf(it -> it == null || it.offset() < 10);
+      return committed;
+    }
+  }
+
+  private static long committedOffset(MockConsumer<Object, Object> consumer, TopicPartition tp) {
+    synchronized (consumer) {
+      OffsetAndMetadata offset = consumer.committed(Set.of(tp)).get(tp);
+      return offset == null ? -1 : offset.offset();
+    }
+  }
+
+  private static long position(MockConsumer<Object, Object> consumer, TopicPartition tp) {
+    synchronized (consumer) {
+      return consumer.position(tp);
+    }
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) {
+        throw new AssertionError("Timeout waiting for condition");
+      }
+      Thread.sleep(10);
+    }
+  }
+}
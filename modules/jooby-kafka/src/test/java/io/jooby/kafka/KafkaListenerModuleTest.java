@@ -0,0 +1,46 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.junit.jupiter.api.Test;
+
+import com.typesafe.config.ConfigFactory;
+import io.jooby.Environment;
+import io.jooby.Jooby;
+
+public class KafkaListenerModuleTest {
+
+  @Test
+  public void batchSizeShouldOverrideConsumerProperty() {
+    assertEquals("10", consumerProperties(new KafkaListenerModule().setBatchSize(10)));
+    assertEquals("100", consumerProperties(new KafkaListenerModule()));
+  }
+
+  private static Object consumerProperties(KafkaListenerModule module) {
+    Jooby app = new Jooby();
+    app.setEnvironment(
+        new Environment(
+            KafkaListenerModuleTest.class.getClassLoader(),
+            ConfigFactory.parseMap(Map.of("kafka.consumer.max.poll.records", "100"))));
+    AtomicReference<Properties> properties = new AtomicReference<>();
+    module.setConsumerFactory(
+        it -> {
+          properties.set(it);
+          return new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        });
+    app.install(module);
+    return properties.get().get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG);
+  }
+}
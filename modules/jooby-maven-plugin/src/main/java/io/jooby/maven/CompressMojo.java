@@ -0,0 +1,115 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.maven;
+
+import static org.apache.maven.plugins.annotations.LifecyclePhase.PROCESS_CLASSES;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import io.jooby.internal.AssetCompressor;
+
+/**
+ * Generate pre-compressed (brotli and gzip) sidecar files for static assets. Sidecars are served by
+ * <code>AssetHandler.setPrecompressed(true)</code>.
+ *
+ * <p>Brotli requires <code>com.aayushatharva.brotli4j:brotli4j</code> (and the native library for
+ * your platform) as plugin dependency, otherwise only gzip files are generated.
+ *
+ * <p>Usage: https://jooby.io/#static-files-pre-compressed-assets
+ *
+ * @author edgar
+ * @since 3.1.0
+ */
+@Mojo(name = "compress", threadSafe = true, defaultPhase = PROCESS_CLASSES)
+public class CompressMojo extends AbstractMojo {
+
+  /** Directories to compress. Default is the project output directory. */
+  @Parameter(defaultValue = "${project.build.outputDirectory}")
+  private List<File> directories;
+
+  /** File extensions to compress. Default is: css, html, js, json, svg, etc. */
+  @Parameter private List<String> extensions;
+
+  /** Files smaller than this are not compressed. Default is: <code>1024</code>. */
+  @Parameter(property = "jooby.compress.minSize", defaultValue = "1024")
+  private long minSize;
+
+  /** Content encodings to generate. Default is: <code>br</code> and <code>gzip</code>. */
+  @Parameter private List<String> encodings;
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    AssetCompressor compressor = new AssetCompressor().setMinSize(minSize);
+    if (extensions != null && !extensions.isEmpty()) {
+      compressor.setExtensions(new HashSet<>(extensions));
+    }
+    if (encodings != null && !encodings.isEmpty()) {
+      compressor.setEncodings(encodings);
+    }
+    if (!AssetCompressor.isBrotliAvailable()) {
+      getLog().info("brotli4j not found, brotli files are not generated");
+    }
+    try {
+      for (File directory : directories) {
+        Path dir = directory.toPath();
+        if (Files.isDirectory(dir)) {
+          getLog().info("Compressing: " + dir);
+          for (Path file : compressor.compress(dir)) {
+            getLog().debug("  writing: " + file);
+          }
+        }
+      }
+    } catch (IOException | IllegalArgumentException x) {
+      throw new MojoExecutionException("execution of compress resulted in exception", x);
+    }
+  }
+
+  /**
+   * Set directories to compress.
+   *
+   * @param directories Directories to compress.
+   */
+  public void setDirectories(List<File> directories) {
+    this.directories = directories;
+  }
+
+  /**
+   * Set file extensions to compress.
+   *
+   * @param extensions File extensions.
+   */
+  public void setExtensions(List<String> extensions) {
+    this.extensions = extensions;
+  }
+
+  /**
+   * Set min file size.
+   *
+   * @param minSize Min file size in bytes.
+   */
+  public void setMinSize(long minSize) {
+    this.minSize = minSize;
+  }
+
+  /**
+   * Set content encodings.
+   *
+   * @param encodings Content encodings.
+   */
+  public void setEncodings(List<String> encodings) {
+    this.encodings = encodings;
+  }
+}
@@ -5,31 +5,160 @@
  */
 package io.jooby.metrics;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.LockFreeExponentiallyDecayingReservoir;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.Context;
+import io.jooby.Extension;
+import io.jooby.Jooby;
 import io.jooby.Route;
 
-public class MetricsFilter implements Route.Filter {
+/**
+ * Instrument requests: active requests, latency and response codes.
+ *
+ * <p>Besides the global <code>request</code> timer and <code>request.actives</code> counter, a
+ * timer and an active counter are created per route. They are named after the route method and
+ * pattern (not the raw path): <code>routes.GET /users/{id}</code> and <code>
+ * routes.GET /users/{id}.actives</code>, so percentiles (p50, p99, p999) are available per route
+ * from {@link MetricHandler}.
+ *
+ * <p>Metrics are bound to routes once, when the route is created. Requests don't perform any
+ * registry lookup. Timers use a lock-free reservoir, so concurrent requests don't contend on the
+ * same lock.
+ *
+ * <p>The registry is given at creation time or resolved from application services at application
+ * start, when the filter is installed as an extension:
+ *
+ * <pre>{@code
+ * {
+ *   install(new MetricsModule());
+ *
+ *   install(new MetricsFilter());
+ * }
+ * }</pre>
+ *
+ * @author edgar
+ */
+public class MetricsFilter implements Route.Filter, Extension {
+
+  private static final int MAX_STATUS_CODE = 600;
+
+  private record RouteMetrics(Timer timer, Counter actives) {}
+
+  private final Map<Route, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+  /** Routes created before the registry was bound. */
+  private final List<Route> pending = new ArrayList<>();
+
+  private final AtomicReferenceArray<Meter> responses = new AtomicReferenceArray<>(MAX_STATUS_CODE);
+
+  private volatile MetricRegistry registry;
+
+  private volatile Timer timer;
+
+  private volatile Counter actives;
+
+  /**
+   * Creates a new filter that bind metrics to the given registry.
+   *
+   * @param registry Metric registry.
+   */
+  public MetricsFilter(@NonNull MetricRegistry registry) {
+    bind(registry);
+  }
+
+  /**
+   * Creates a new filter. Metric registry is resolved from application services at application
+   * start, when installed with {@link Jooby#install(Extension)}. When added with <code>use</code>,
+   * registry is resolved on first request.
+   */
+  public MetricsFilter() {}
+
+  @Override
+  public void install(@NonNull Jooby application) {
+    application.use(this);
+    if (registry == null) {
+      application.onStarting(() -> bind(application.require(MetricRegistry.class)));
+    }
+  }
+
+  @Override
+  public synchronized void setRoute(Route route) {
+    if (registry == null) {
+      pending.add(route);
+    } else {
+      routes.computeIfAbsent(route, this::newRouteMetrics);
+    }
+  }
 
   @NonNull @Override
   public Route.Handler apply(@NonNull Route.Handler next) {
     return ctx -> {
-      MetricRegistry registry = ctx.require(MetricRegistry.class);
-      Counter counter = registry.counter("request.actives");
-      Timer.Context timer = registry.timer("request").time();
-
-      counter.inc();
-
+      if (registry == null) {
+        bind(ctx.require(MetricRegistry.class));
+      }
+      Route route = ctx.getRoute();
+      RouteMetrics metrics = routes.get(route);
+      if (metrics == null) {
+        metrics = routes.computeIfAbsent(route, this::newRouteMetrics);
+      }
+      Counter actives = this.actives;
+      Counter routeActives = metrics.actives;
+      Timer.Context timer = this.timer.time();
+      Timer.Context routeTimer = metrics.timer.time();
+      actives.inc();
+      routeActives.inc();
       ctx.onComplete(
           context -> {
+            routeTimer.stop();
             timer.stop();
-            counter.dec();
-            registry.meter("responses." + context.getResponseCode().value()).mark();
+            routeActives.dec();
+            actives.dec();
+            response(context).mark();
           });
-
       return next.apply(ctx);
     };
   }
+
+  private synchronized void bind(MetricRegistry registry) {
+    if (this.registry == null) {
+      this.timer = registry.timer("request", MetricsFilter::newTimer);
+      this.actives = registry.counter("request.actives");
+      this.registry = registry;
+      pending.forEach(route -> routes.computeIfAbsent(route, this::newRouteMetrics));
+      pending.clear();
+    }
+  }
+
+  private RouteMetrics newRouteMetrics(Route route) {
+    String name = "routes." + route.getMethod() + " " + route.getPattern();
+    return new RouteMetrics(
+        registry.timer(name, MetricsFilter::newTimer), registry.counter(name + ".actives"));
+  }
+
+  private Meter response(Context ctx) {
+    int code = ctx.getResponseCode().value();
+    if (code < 0 || code >= MAX_STATUS_CODE) {
+      return registry.meter("responses." + code);
+    }
+    Meter meter = responses.get(code);
+    if (meter == null) {
+      meter = registry.meter("responses." + code);
+      responses.set(code, meter);
+    }
+    return meter;
+  }
+
+  private static Timer newTimer() {
+    return new Timer(LockFreeExponentiallyDecayingReservoir.builder().build());
+  }
 }
@@ -0,0 +1,69 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import io.jooby.Jooby;
+import io.jooby.Server;
+import io.jooby.test.MockRouter;
+
+public class MetricsFilterTest {
+
+  @Test
+  public void shouldBindRoutesOnCreation() {
+    MetricRegistry registry = new MetricRegistry();
+    Jooby app = new Jooby();
+    app.use(new MetricsFilter(registry));
+    app.get("/users/{id}", ctx -> ctx.send("user"));
+
+    assertTrue(registry.getTimers().containsKey("request"));
+    assertTrue(registry.getTimers().containsKey("routes.GET /users/{id}"));
+    assertTrue(registry.getCounters().containsKey("routes.GET /users/{id}.actives"));
+  }
+
+  @Test
+  public void shouldBindRegistryFromServicesAtStart() {
+    MetricRegistry registry = new MetricRegistry();
+    Jooby app = new Jooby();
+    app.install(new MetricsModule(registry));
+    app.install(new MetricsFilter());
+    app.get("/users/{id}", ctx -> ctx.send("user"));
+
+    assertFalse(registry.getTimers().containsKey("routes.GET /users/{id}"));
+
+    app.start(mock(Server.class));
+
+    assertTrue(registry.getTimers().containsKey("request"));
+    assertTrue(registry.getTimers().containsKey("routes.GET /users/{id}"));
+  }
+
+  @Test
+  public void shouldRecordRequests() {
+    MetricRegistry registry = new MetricRegistry();
+    Jooby app = new Jooby();
+    app.install(new MetricsModule(registry));
+    app.install(new MetricsFilter());
+    app.get("/users/{id}", ctx -> ctx.send("user"));
+    app.start(mock(Server.class));
+
+    MockRouter router = new MockRouter(app).setFullExecution(true);
+    router.get("/users/1", rsp -> assertEquals("user", rsp.value()));
+    router.get("/users/2", rsp -> assertEquals("user", rsp.value()));
+
+    assertEquals(2, registry.timer("request").getCount());
+    assertEquals(2, registry.timer("routes.GET /users/{id}").getCount());
+    assertEquals(0, registry.counter("request.actives").getCount());
+    assertEquals(0, registry.counter("routes.GET /users/{id}.actives").getCount());
+    assertEquals(2, registry.meter("responses.200").getCount());
+  }
+}
@@ -63,7 +63,8 @@ public class HttpRawPostRequestDecoder implements InterfaceHttpPostRequestDecode
   @Override
   public InterfaceHttpPostRequestDecoder offer(HttpContent content) {
     try {
-      data.addContent(content.content().copy(), isLastHttpContent(content));
+      // No copy: keep a reference to the received chunk, released by data on delete
+      data.addContent(content.content().retainedSlice(), isLastHttpContent(content));
       return this;
     } catch (IOException x) {
       throw new HttpPostRequestDecoder.ErrorDataDecoderException(x);
@@ -5,7 +5,6 @@
  */
 package io.jooby.internal.netty;
 
-import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,6 +25,7 @@ import io.jooby.MediaType;
 import io.jooby.SneakyThrows;
 import io.jooby.Value;
 import io.jooby.ValueNode;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.handler.codec.http.multipart.HttpData;
 
 public class NettyBody implements Body {
@@ -53,7 +53,8 @@ public class NettyBody implements Body {
   public InputStream stream() {
     try {
       if (data.isInMemory()) {
-        return new ByteArrayInputStream(data.get());
+        // Read received chunks in place, buffer is owned/released by the request decoder
+        return new ByteBufInputStream(data.getByteBuf().duplicate(), false);
       }
       return new FileInputStream(data.getFile());
     } catch (IOException x) {
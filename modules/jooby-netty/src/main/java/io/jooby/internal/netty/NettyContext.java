@@ -41,6 +41,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import javax.net.ssl.SSLPeerUnverifiedException;
@@ -57,6 +59,7 @@ import io.jooby.DefaultContext;
 import io.jooby.FileUpload;
 import io.jooby.Formdata;
 import io.jooby.MediaType;
+import io.jooby.Output;
 import io.jooby.QueryString;
 import io.jooby.Route;
 import io.jooby.Router;
@@ -142,6 +145,20 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
   private String scheme;
   private int port;
 
+  /**
+   * Reference count, context is reused once it reaches zero. Holds one reference until response is
+   * sent, plus one per running handler/dispatched task and per pending write listener.
+   */
+  private final AtomicInteger refCnt = new AtomicInteger(1);
+
+  private boolean responseSent;
+
+  /** False when context escapes the request: streaming, web socket and server sent events. */
+  private boolean recyclable = true;
+
+  /** Debug mode only: context was completed, any further usage is an error. */
+  private volatile boolean recycled;
+
   public NettyContext(
       ChannelHandlerContext ctx,
       HttpRequest req,
@@ -149,11 +166,15 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
       String path,
       int bufferSize,
       boolean http2) {
-    this.path = path;
     this.ctx = ctx;
-    this.req = req;
     this.router = router;
     this.bufferSize = bufferSize;
+    init(req, path, http2);
+  }
+
+  private void init(HttpRequest req, String path, boolean http2) {
+    this.path = path;
+    this.req = req;
     this.method = req.method().name().toUpperCase();
     if (http2) {
       // Save streamId for HTTP/2
@@ -164,6 +185,78 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
     }
   }
 
+  /**
+   * Reset this context for a new request on the same connection. Caller must check {@link
+   * #isReusable(boolean)} first.
+   *
+   * @param req New request.
+   * @param path Request path.
+   * @param http2 True for HTTP/2 requests.
+   */
+  void reset(HttpRequest req, String path, boolean http2) {
+    if (needsFlush) {
+      // Previous response is still waiting for channelReadComplete
+      needsFlush = false;
+      ctx.flush();
+    }
+    setHeaders.clear();
+    route = null;
+    status = HttpResponseStatus.OK;
+    responseStarted = false;
+    query = null;
+    formdata = null;
+    files = null;
+    headers = null;
+    pathMap = Collections.EMPTY_MAP;
+    responseType = null;
+    attributes.clear();
+    contentLength = -1;
+    cookies = null;
+    responseCookies = null;
+    resetHeadersOnError = null;
+    listeners = null;
+    remoteAddress = null;
+    host = null;
+    scheme = null;
+    port = 0;
+    responseSent = false;
+    refCnt.set(1);
+    init(req, path, http2);
+  }
+
+  /**
+   * True when request/response cycle is complete and nobody else holds this context. In debug mode,
+   * context is never reused, it is marked as recycled so further usage fails.
+   *
+   * @param debug True for debug mode.
+   * @return True when context can be reset and reused.
+   */
+  boolean isReusable(boolean debug) {
+    if (recyclable && refCnt.get() == 0) {
+      if (debug) {
+        recycled = true;
+        return false;
+      }
+      return true;
+    }
+    return false;
+  }
+
+  void retain() {
+    refCnt.incrementAndGet();
+  }
+
+  void release() {
+    refCnt.decrementAndGet();
+  }
+
+  private void ensureActive() {
+    if (recycled) {
+      throw new IllegalStateException(
+          "Context used after request was completed: " + getMethod() + " " + getRequestPath());
+    }
+  }
+
   boolean isHttpGet() {
     return this.method.length() == 3
         && this.method.charAt(0) == 'G'
@@ -183,6 +276,7 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
 
   @NonNull @Override
   public Map<String, Object> getAttributes() {
+    ensureActive();
     return attributes;
   }
 
@@ -199,6 +293,7 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
 
   @NonNull @Override
   public Route getRoute() {
+    ensureActive();
     return route;
   }
 
@@ -242,7 +337,21 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
 
   @Override
   public Context dispatch(Executor executor, Runnable action) {
-    executor.execute(action);
+    ensureActive();
+    retain();
+    try {
+      executor.execute(
+          () -> {
+            try {
+              action.run();
+            } finally {
+              release();
+            }
+          });
+    } catch (RejectedExecutionException x) {
+      release();
+      throw x;
+    }
     return this;
   }
 
@@ -254,6 +363,7 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
 
   @NonNull @Override
   public QueryString query() {
+    ensureActive();
     if (query == null) {
       String uri = req.uri();
       int q = uri.indexOf('?');
@@ -264,15 +374,21 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
 
   @NonNull @Override
   public Formdata form() {
+    ensureActive();
     if (formdata == null) {
-      formdata = Formdata.create(this);
-      decodeForm(formdata);
+      if (decoder instanceof HttpRawPostRequestDecoder && isUrlencoded()) {
+        formdata = Formdata.create(this, body().value(UTF_8));
+      } else {
+        formdata = Formdata.create(this);
+        decodeForm(formdata);
+      }
     }
     return formdata;
   }
 
   @NonNull @Override
   public Value header(@NonNull String name) {
+    ensureActive();
     return Value.create(this, name, req.headers().getAll(name));
   }
 
@@ -371,6 +487,7 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
 
   @NonNull @Override
   public Body body() {
+    ensureActive();
     if (decoder != null && decoder.hasNext()) {
       return new NettyBody(this, (HttpData) decoder.next(), HttpUtil.getContentLength(req, -1L));
     }
@@ -408,6 +525,7 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
   @NonNull @Override
   public Context upgrade(WebSocket.Initializer handler) {
     try {
+      recyclable = false;
       responseStarted = true;
       Config conf = getRouter().getConfig();
       int maxSize =
@@ -453,6 +571,7 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
 
   @NonNull @Override
   public Context upgrade(@NonNull ServerSentEmitter.Handler handler) {
+    recyclable = false;
     responseStarted = true;
     ctx.writeAndFlush(new DefaultHttpResponse(HTTP_1_1, status, setHeaders));
 
@@ -478,12 +597,14 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
 
   @NonNull @Override
   public Context setResponseCode(int statusCode) {
+    ensureActive();
     this.status = HttpResponseStatus.valueOf(statusCode);
     return this;
   }
 
   @NonNull @Override
   public Context setResponseHeader(@NonNull String name, @NonNull String value) {
+    ensureActive();
     setHeaders.set(name, value);
     return this;
   }
@@ -610,7 +731,21 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
     return send(wrappedBuffer(data));
   }
 
+  @NonNull @Override
+  public Context send(@NonNull Output output) {
+    if (output instanceof NettyOutput) {
+      return send(((NettyOutput) output).byteBuf());
+    }
+    return send(Unpooled.wrappedBuffer(output.toByteBuffers()));
+  }
+
+  @NonNull @Override
+  public Output newOutput() {
+    return new NettyOutput(ctx.alloc(), bufferSize);
+  }
+
   private Context send(@NonNull ByteBuf data) {
+    ensureActive();
     try {
       responseStarted = true;
       setHeaders.set(CONTENT_LENGTH, Integer.toString(data.readableBytes()));
@@ -694,6 +829,7 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
 
   @NonNull @Override
   public Context send(@NonNull FileChannel file) {
+    recyclable = false;
     try {
       long len = file.size();
       setHeaders.set(CONTENT_LENGTH, Long.toString(len));
@@ -769,6 +905,7 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
 
   @NonNull @Override
   public Context send(StatusCode statusCode) {
+    ensureActive();
     try {
       setResponseCode(statusCode);
       responseStarted = true;
@@ -786,8 +923,15 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
   }
 
   void requestComplete() {
-    fireCompleteEvent();
-    ifSaveSession();
+    try {
+      fireCompleteEvent();
+      ifSaveSession();
+    } finally {
+      if (!responseSent) {
+        responseSent = true;
+        release();
+      }
+    }
   }
 
   @Override
@@ -795,8 +939,12 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
     try {
       destroy(future.cause());
     } finally {
-      if (!isKeepAlive(req)) {
-        future.channel().close();
+      try {
+        if (!isKeepAlive(req)) {
+          future.channel().close();
+        }
+      } finally {
+        release();
       }
     }
   }
@@ -820,7 +968,9 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
   }
 
   private ChannelPromise promise(ChannelFutureListener listener) {
-    if (pendingTasks()) {
+    // Writes from outside the event loop are queued: keep context until they complete
+    if (pendingTasks() || (recyclable && !ctx.channel().eventLoop().inEventLoop())) {
+      retain();
       return ctx.newPromise().addListener(listener);
     }
     return ctx.voidPromise();
@@ -887,6 +1037,13 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
     return upload;
   }
 
+  private boolean isUrlencoded() {
+    String contentType = req.headers().get(HttpHeaderNames.CONTENT_TYPE);
+    return contentType != null
+        && contentType.regionMatches(
+            true, 0, MediaType.FORM_URLENCODED, 0, MediaType.FORM_URLENCODED.length());
+  }
+
   private void decodeForm(Formdata form) {
     if (decoder == null || decoder instanceof HttpRawPostRequestDecoder) {
       // empty/bad form
@@ -919,6 +1076,7 @@ public class NettyContext implements DefaultContext, ChannelFutureListener {
   }
 
   private void prepareChunked() {
+    recyclable = false;
     responseStarted = true;
     // remove flusher, doesn't play well with streaming/chunked responses
     ChannelPipeline pipeline = ctx.pipeline();
@@ -37,7 +37,6 @@ import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.multipart.HttpDataFactory;
 import io.netty.handler.codec.http.multipart.HttpPostMultipartRequestDecoder;
 import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder;
-import io.netty.handler.codec.http.multipart.HttpPostStandardRequestDecoder;
 import io.netty.handler.codec.http.multipart.InterfaceHttpPostRequestDecoder;
 import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 import io.netty.handler.timeout.IdleStateEvent;
@@ -50,6 +49,14 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
   private static final Runnable INVALIDATE_TASK = () -> cachedDateString.set(null);
 
   private static final AsciiString server = AsciiString.cached("N");
+
+  /** Reuse request contexts on keep-alive connections. */
+  private static final boolean RECYCLE =
+      Boolean.parseBoolean(System.getProperty("io.jooby.netty.recycle", "true"));
+
+  /** Never reuse contexts and fail when a completed context is used. */
+  private static final boolean RECYCLE_DEBUG = Boolean.getBoolean("io.jooby.netty.recycle.debug");
+
   private static final AttributeKey<NettyContext> CONTEXT = AttributeKey.newInstance("context");
   private final ScheduledExecutorService scheduler;
   private static final int DATE_INTERVAL = 1000;
@@ -86,7 +93,11 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
     if (isHttpRequest(msg)) {
       var req = (HttpRequest) msg;
 
-      context = new NettyContext(ctx, req, router, pathOnly(req.uri()), bufferSize, http2);
+      if (RECYCLE && context != null && context.isReusable(RECYCLE_DEBUG)) {
+        context.reset(req, pathOnly(req.uri()), http2);
+      } else {
+        context = new NettyContext(ctx, req, router, pathOnly(req.uri()), bufferSize, http2);
+      }
 
       if (defaultHeaders) {
         context.setHeaders.set(HttpHeaderNames.DATE, date(router.getLog(), scheduler));
@@ -95,7 +106,7 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
       context.setHeaders.set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.TEXT_PLAIN);
 
       if (context.isHttpGet()) {
-        router.match(context).execute(context);
+        execute(context);
       } else {
         // possibly body:
         contentLength = contentLength(req);
@@ -103,7 +114,7 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
           context.decoder = newDecoder(req, factory);
         } else {
           // no body, move on
-          router.match(context).execute(context);
+          execute(context);
         }
       }
     } else if (isHttpContent(msg)) {
@@ -123,7 +134,12 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
           if (isLastHttpContent(msg)) {
             Router.Match route = router.match(context);
             resetDecoderState(context, !route.matches());
-            route.execute(context);
+            context.retain();
+            try {
+              route.execute(context);
+            } finally {
+              context.release();
+            }
           }
         }
       } finally {
@@ -136,6 +152,16 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
     }
   }
 
+  private void execute(NettyContext context) {
+    // Hold context while running on event loop, dispatch() holds it while running on worker
+    context.retain();
+    try {
+      router.match(context).execute(context);
+    } finally {
+      context.release();
+    }
+  }
+
   private void release(HttpContent ref) {
     if (ref.refCnt() > 0) {
       ref.release();
@@ -213,9 +239,8 @@ public class NettyHandler extends ChannelInboundHandlerAdapter {
       String lowerContentType = contentType.toLowerCase();
       if (lowerContentType.startsWith(MediaType.MULTIPART_FORMDATA)) {
         return new HttpPostMultipartRequestDecoder(factory, request, StandardCharsets.UTF_8);
-      } else if (lowerContentType.startsWith(MediaType.FORM_URLENCODED)) {
-        return new HttpPostStandardRequestDecoder(factory, request, StandardCharsets.UTF_8);
       }
+      // urlencoded body is kept raw and decoded lazily by Formdata
     }
     return new HttpRawPostRequestDecoder(factory, request);
   }
@@ -0,0 +1,108 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.netty;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.Output;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Output backed by a pooled {@link ByteBuf}. Buffer is allocated on first write and ownership is
+ * transferred to the channel when the output is sent.
+ */
+public class NettyOutput implements Output {
+  private final ByteBufAllocator allocator;
+
+  private final int bufferSize;
+
+  private ByteBuf buffer;
+
+  public NettyOutput(ByteBufAllocator allocator, int bufferSize) {
+    this.allocator = allocator;
+    this.bufferSize = bufferSize;
+  }
+
+  @Override
+  public int size() {
+    return buffer == null ? 0 : buffer.readableBytes();
+  }
+
+  @NonNull @Override
+  public Output write(byte b) {
+    buffer(1).writeByte(b);
+    return this;
+  }
+
+  @NonNull @Override
+  public Output write(@NonNull byte[] source, int offset, int length) {
+    buffer(length).writeBytes(source, offset, length);
+    return this;
+  }
+
+  @NonNull @Override
+  public Output write(@NonNull ByteBuffer source) {
+    buffer(source.remaining()).writeBytes(source);
+    return this;
+  }
+
+  @NonNull @Override
+  public Output write(@NonNull String source, @NonNull Charset charset) {
+    if (charset == StandardCharsets.UTF_8) {
+      ByteBufUtil.writeUtf8(buffer(source.length()), source);
+    } else {
+      buffer(source.length()).writeCharSequence(source, charset);
+    }
+    return this;
+  }
+
+  @NonNull @Override
+  public OutputStream asOutputStream() {
+    return new ByteBufOutputStream(buffer(0));
+  }
+
+  @NonNull @Override
+  public ByteBuffer[] toByteBuffers() {
+    if (buffer == null) {
+      return new ByteBuffer[0];
+    }
+    return buffer.nioBuffers();
+  }
+
+  @Override
+  public void release() {
+    if (buffer != null) {
+      buffer.release();
+      buffer = null;
+    }
+  }
+
+  /**
+   * Written bytes. Caller takes ownership of the returned buffer.
+   *
+   * @return Written bytes.
+   */
+  ByteBuf byteBuf() {
+    ByteBuf result = buffer == null ? Unpooled.EMPTY_BUFFER : buffer;
+    buffer = null;
+    return result;
+  }
+
+  private ByteBuf buffer(int required) {
+    if (buffer == null) {
+      buffer = allocator.buffer(Math.max(bufferSize, required));
+    }
+    return buffer;
+  }
+}
@@ -6,7 +6,9 @@
 package io.jooby.internal.netty;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.Output;
 import io.jooby.Sender;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
@@ -31,6 +33,18 @@ public class NettySender implements Sender {
     return this;
   }
 
+  @Override
+  public Sender write(@NonNull Output output, @NonNull Callback callback) {
+    ByteBuf data =
+        output instanceof NettyOutput
+            ? ((NettyOutput) output).byteBuf()
+            : Unpooled.wrappedBuffer(output.toByteBuffers());
+    context
+        .writeAndFlush(new DefaultHttpContent(data))
+        .addListener(newChannelFutureListener(ctx, callback));
+    return this;
+  }
+
   @Override
   public void close() {
     context.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(ctx);
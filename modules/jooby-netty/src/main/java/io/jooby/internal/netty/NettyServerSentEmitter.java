@@ -6,7 +6,6 @@
 package io.jooby.internal.netty;
 
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
@@ -17,12 +16,17 @@ import io.jooby.Context;
 import io.jooby.Server;
 import io.jooby.ServerSentEmitter;
 import io.jooby.ServerSentMessage;
+import io.jooby.ServerSentQueue;
 import io.jooby.SneakyThrows;
 import io.netty.buffer.Unpooled;
-import io.netty.channel.EventLoop;
+import io.netty.channel.Channel;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 
+/**
+ * Events are written while the channel is writable, otherwise they are queued and written once
+ * pending writes complete. Queue access happens on the channel event loop.
+ */
 public class NettyServerSentEmitter implements ServerSentEmitter, GenericFutureListener {
 
   private Logger log = LoggerFactory.getLogger(ServerSentEmitter.class);
@@ -35,9 +39,12 @@ public class NettyServerSentEmitter implements ServerSentEmitter, GenericFutureL
 
   private SneakyThrows.Runnable closeTask;
 
+  private final ServerSentQueue queue;
+
   public NettyServerSentEmitter(NettyContext netty) {
     this.netty = netty;
     this.id = UUID.randomUUID().toString();
+    this.queue = ServerSentQueue.create(netty.getRouter().getConfig());
   }
 
   @Override
@@ -64,7 +71,7 @@ public class NettyServerSentEmitter implements ServerSentEmitter, GenericFutureL
   @NonNull @Override
   public ServerSentEmitter send(ServerSentMessage data) {
     if (checkOpen()) {
-      netty.ctx.writeAndFlush(Unpooled.wrappedBuffer(data.toByteArray(netty))).addListener(this);
+      write(data.getId(), data.toByteArray(netty));
     } else {
       log.warn("server-sent-event closed: {}", id);
     }
@@ -72,12 +79,50 @@ public class NettyServerSentEmitter implements ServerSentEmitter, GenericFutureL
   }
 
   @Override
-  public ServerSentEmitter keepAlive(long timeInMillis) {
+  public void heartbeat() {
     if (checkOpen()) {
-      EventLoop executor = netty.ctx.channel().eventLoop().next();
-      executor.schedule(new KeepAlive(this, timeInMillis), timeInMillis, TimeUnit.MILLISECONDS);
+      inEventLoop(
+          () -> {
+            if (queue.isEmpty() && netty.ctx.channel().isWritable()) {
+              netty.ctx.writeAndFlush(Unpooled.wrappedBuffer(KeepAlive.FRAME)).addListener(this);
+            }
+          });
+    }
+  }
+
+  @Override
+  public long getQueuedBytes() {
+    return queue.getSize();
+  }
+
+  private void write(Object eventId, byte[] frame) {
+    inEventLoop(
+        () -> {
+          if (queue.isEmpty() && netty.ctx.channel().isWritable()) {
+            netty.ctx.writeAndFlush(Unpooled.wrappedBuffer(frame)).addListener(this);
+          } else if (!queue.offer(eventId, frame)) {
+            log.debug("server-sent-event queue is full, closing: {}", id);
+            close();
+          }
+        });
+  }
+
+  /** Write queued events while the channel is writable. Called from event loop. */
+  private void drain() {
+    Channel channel = netty.ctx.channel();
+    byte[] frame;
+    while (channel.isWritable() && (frame = queue.poll()) != null) {
+      netty.ctx.writeAndFlush(Unpooled.wrappedBuffer(frame)).addListener(this);
+    }
+  }
+
+  private void inEventLoop(Runnable task) {
+    var eventLoop = netty.ctx.channel().eventLoop();
+    if (eventLoop.inEventLoop()) {
+      task.run();
+    } else {
+      eventLoop.execute(task);
     }
-    return this;
   }
 
   @Override
@@ -95,6 +140,7 @@ public class NettyServerSentEmitter implements ServerSentEmitter, GenericFutureL
         }
       } finally {
         log.debug("closing sse {}", id);
+        queue.clear();
         netty.ctx.close();
       }
     }
@@ -102,7 +148,11 @@ public class NettyServerSentEmitter implements ServerSentEmitter, GenericFutureL
 
   @Override
   public void operationComplete(Future future) throws Exception {
-    if (!future.isSuccess()) {
+    if (future.isSuccess()) {
+      if (isOpen()) {
+        drain();
+      }
+    } else {
       if (Server.connectionLost(future.cause())) {
         close();
       } else {
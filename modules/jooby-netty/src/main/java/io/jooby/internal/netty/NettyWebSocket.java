@@ -15,6 +15,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.Context;
@@ -22,11 +23,13 @@ import io.jooby.Router;
 import io.jooby.Server;
 import io.jooby.SneakyThrows;
 import io.jooby.WebSocket;
+import io.jooby.WebSocketBroadcast;
 import io.jooby.WebSocketCloseStatus;
 import io.jooby.WebSocketConfigurer;
 import io.jooby.WebSocketMessage;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
@@ -95,11 +98,13 @@ public class NettyWebSocket implements WebSocketConfigurer, WebSocket {
   private OnError onErrorCallback;
   private CountDownLatch ready = new CountDownLatch(1);
   private AtomicBoolean open = new AtomicBoolean(false);
+  private final WebSocketBroadcast broadcaster;
 
   public NettyWebSocket(NettyContext ctx) {
     this.netty = ctx;
     this.key = ctx.getRoute().getPattern();
     this.dispatch = !ctx.isInIoThread();
+    this.broadcaster = WebSocketBroadcast.create(ctx.getRouter().getConfig());
     this.netty.ctx.channel().attr(WS).set(this);
   }
 
@@ -191,6 +196,54 @@ public class NettyWebSocket implements WebSocketConfigurer, WebSocket {
     }
   }
 
+  @Override
+  public void broadcast(
+      @NonNull Object message, boolean binary, @NonNull Predicate<WebSocket> filter) {
+    ByteBuf content;
+    try {
+      byte[] bytes = broadcaster.encode(netty, this, binary, message);
+      content = netty.ctx.alloc().directBuffer(bytes.length).writeBytes(bytes);
+    } catch (Throwable x) {
+      handleError(x);
+      return;
+    }
+    try {
+      for (NettyWebSocket ws : all.getOrDefault(key, Collections.emptyList())) {
+        try {
+          if (ws.isOpen() && filter.test(ws)) {
+            ws.broadcastFrame(content, binary);
+          }
+        } catch (Exception cause) {
+          netty
+              .getRouter()
+              .getLog()
+              .debug("Broadcast of: {} resulted in exception", netty.getRequestPath(), cause);
+        }
+      }
+    } finally {
+      content.release();
+    }
+  }
+
+  /**
+   * Write a shared frame content. Each session gets a retained duplicate, so content is encoded and
+   * copied once.
+   */
+  private void broadcastFrame(ByteBuf content, boolean binary) {
+    Channel channel = netty.ctx.channel();
+    if (!channel.isWritable()) {
+      // slow consumer: outbound buffer is above the high water mark
+      if (broadcaster.getSlowConsumer() == SlowConsumer.CLOSE) {
+        close(WebSocketCloseStatus.SERVICE_OVERLOAD);
+      }
+      return;
+    }
+    ByteBuf shared = content.retainedDuplicate();
+    WebSocketFrame frame =
+        binary ? new BinaryWebSocketFrame(shared) : new TextWebSocketFrame(shared);
+    channel.writeAndFlush(frame).addListener(new WriteCallbackAdaptor(this, WriteCallback.NOOP));
+  }
+
   @Override
   public WebSocketConfigurer onConnect(WebSocket.OnConnect callback) {
     connectCallback = callback;
@@ -0,0 +1,272 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.pac4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.pac4j.core.profile.BasicUserProfile;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.serializer.AbstractSerializer;
+import org.pac4j.core.util.serializer.JavaSerializer;
+
+import io.jooby.SneakyThrows;
+
+/**
+ * Compact binary serializer for user profiles. A profile is written as its class name, id, client
+ * name, linked id, remembered flag, attributes, authentication attributes, roles and permissions.
+ * Attribute values of common types (string, number, boolean, date, uri, collection and map) are
+ * written with a one byte tag. Anything else falls back to pac4j's {@link JavaSerializer}, which
+ * only reads classes from trusted packages (<code>java.</code>, <code>javax.</code>, <code>
+ * org.pac4j.</code>, etc.). A value that can't be read back is rejected at write time.
+ */
+public class ProfileSerializer extends AbstractSerializer {
+
+  /** Default serializer, see {@link io.jooby.pac4j.Pac4jOptions#getSerializer()}. */
+  public static final ProfileSerializer INSTANCE = new ProfileSerializer();
+
+  private static final int VERSION = 1;
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte TRUE = 2;
+  private static final byte FALSE = 3;
+  private static final byte INT = 4;
+  private static final byte LONG = 5;
+  private static final byte DOUBLE = 6;
+  private static final byte DATE = 7;
+  private static final byte URI = 8;
+  private static final byte LIST = 9;
+  private static final byte SET = 10;
+  private static final byte MAP = 11;
+  private static final byte PROFILE = 12;
+  private static final byte JAVA = 13;
+
+  private final JavaSerializer fallback = new JavaSerializer();
+
+  @Override
+  protected byte[] internalSerializeToBytes(Object value) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeByte(VERSION);
+      write(out, value);
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException x) {
+      throw SneakyThrows.propagate(x);
+    }
+  }
+
+  @Override
+  protected Object internalDeserializeFromBytes(byte[] bytes) {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      int version = in.readUnsignedByte();
+      if (version != VERSION) {
+        throw new IOException("Unsupported profile version: " + version);
+      }
+      return read(in);
+    } catch (IOException x) {
+      throw SneakyThrows.propagate(x);
+    }
+  }
+
+  private void write(DataOutputStream out, Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof String string) {
+      out.writeByte(STRING);
+      writeString(out, string);
+    } else if (value instanceof Boolean bool) {
+      out.writeByte(bool ? TRUE : FALSE);
+    } else if (value instanceof Integer number) {
+      out.writeByte(INT);
+      out.writeInt(number);
+    } else if (value instanceof Long number) {
+      out.writeByte(LONG);
+      out.writeLong(number);
+    } else if (value instanceof Double number) {
+      out.writeByte(DOUBLE);
+      out.writeDouble(number);
+    } else if (value.getClass() == Date.class) {
+      out.writeByte(DATE);
+      out.writeLong(((Date) value).getTime());
+    } else if (value instanceof URI uri) {
+      out.writeByte(URI);
+      writeString(out, uri.toString());
+    } else if (value instanceof List<?> list) {
+      out.writeByte(LIST);
+      writeCollection(out, list);
+    } else if (value instanceof Set<?> set) {
+      out.writeByte(SET);
+      writeCollection(out, set);
+    } else if (value instanceof Map<?, ?> map) {
+      out.writeByte(MAP);
+      writeMap(out, map);
+    } else if (value instanceof UserProfile profile && hasDefaultConstructor(profile)) {
+      out.writeByte(PROFILE);
+      writeProfile(out, profile);
+    } else {
+      out.writeByte(JAVA);
+      byte[] bytes = fallback.serializeToBytes(value);
+      // fail now, not when reading the session back
+      if (bytes == null || fallback.deserializeFromBytes(bytes) == null) {
+        throw new IllegalArgumentException(
+            "Unable to serialize: "
+                + value.getClass().getName()
+                + ". Type isn't Serializable or isn't trusted by "
+                + JavaSerializer.class.getName()
+                + ", see Pac4jOptions.setSerializer()");
+      }
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  private void writeProfile(DataOutputStream out, UserProfile profile) throws IOException {
+    writeString(out, profile.getClass().getName());
+    write(out, profile.getId());
+    write(out, profile.getClientName());
+    write(out, profile.getLinkedId());
+    out.writeBoolean(profile.isRemembered());
+    writeMap(out, profile.getAttributes());
+    writeMap(out, authenticationAttributes(profile));
+    writeCollection(out, profile.getRoles());
+    writeCollection(out, profile.getPermissions());
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private void writeCollection(DataOutputStream out, Collection<?> values) throws IOException {
+    out.writeInt(values.size());
+    for (Object value : values) {
+      write(out, value);
+    }
+  }
+
+  private void writeMap(DataOutputStream out, Map<?, ?> map) throws IOException {
+    out.writeInt(map.size());
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      write(out, entry.getKey());
+      write(out, entry.getValue());
+    }
+  }
+
+  private Object read(DataInputStream in) throws IOException {
+    byte tag = in.readByte();
+    return switch (tag) {
+      case NULL -> null;
+      case STRING -> readString(in);
+      case TRUE -> Boolean.TRUE;
+      case FALSE -> Boolean.FALSE;
+      case INT -> in.readInt();
+      case LONG -> in.readLong();
+      case DOUBLE -> in.readDouble();
+      case DATE -> new Date(in.readLong());
+      case URI -> java.net.URI.create(readString(in));
+      case LIST -> readCollection(in, new ArrayList<>());
+      case SET -> readCollection(in, new LinkedHashSet<>());
+      case MAP -> readMap(in);
+      case PROFILE -> readProfile(in);
+      case JAVA -> {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        yield fallback.deserializeFromBytes(bytes);
+      }
+      default -> throw new IOException("Unknown type: " + tag);
+    };
+  }
+
+  private UserProfile readProfile(DataInputStream in) throws IOException {
+    UserProfile profile = newProfile(readString(in));
+    profile.setId((String) read(in));
+    profile.setClientName((String) read(in));
+    profile.setLinkedId((String) read(in));
+    profile.setRemembered(in.readBoolean());
+    readMap(in).forEach((name, value) -> profile.addAttribute((String) name, value));
+    readMap(in).forEach((name, value) -> profile.addAuthenticationAttribute((String) name, value));
+    profile.addRoles(
+        readCollection(in, new ArrayList<>()).stream().map(String.class::cast).toList());
+    profile.addPermissions(
+        readCollection(in, new ArrayList<>()).stream().map(String.class::cast).toList());
+    return profile;
+  }
+
+  private <C extends Collection<Object>> C readCollection(DataInputStream in, C values)
+      throws IOException {
+    int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      values.add(read(in));
+    }
+    return values;
+  }
+
+  private Map<Object, Object> readMap(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    Map<Object, Object> map = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      map.put(read(in), read(in));
+    }
+    return map;
+  }
+
+  private static Map<String, Object> authenticationAttributes(UserProfile profile) {
+    if (profile instanceof BasicUserProfile basic) {
+      return basic.getAuthenticationAttributes();
+    }
+    return Map.of();
+  }
+
+  private static boolean hasDefaultConstructor(UserProfile profile) {
+    try {
+      profile.getClass().getConstructor();
+      return true;
+    } catch (NoSuchMethodException x) {
+      return false;
+    }
+  }
+
+  private static UserProfile newProfile(String className) throws IOException {
+    try {
+      ClassLoader loader =
+          Optional.ofNullable(Thread.currentThread().getContextClassLoader())
+              .orElse(ProfileSerializer.class.getClassLoader());
+      Class<?> type = Class.forName(className, false, loader);
+      // never instantiate something that isn't a profile
+      if (!UserProfile.class.isAssignableFrom(type)) {
+        throw new IOException("Not a profile: " + className);
+      }
+      return (UserProfile) type.getConstructor().newInstance();
+    } catch (ReflectiveOperationException x) {
+      throw new IOException("Unable to create profile: " + className, x);
+    }
+  }
+}
@@ -14,11 +14,6 @@ import static io.jooby.StatusCode.SEE_OTHER_CODE;
 import static io.jooby.StatusCode.TEMPORARY_REDIRECT_CODE;
 import static io.jooby.StatusCode.UNAUTHORIZED_CODE;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.Base64;
 import java.util.Optional;
 
@@ -35,10 +30,11 @@ import org.pac4j.core.exception.http.StatusAction;
 import org.pac4j.core.exception.http.UnauthorizedAction;
 import org.pac4j.core.exception.http.WithContentAction;
 import org.pac4j.core.exception.http.WithLocationAction;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.core.util.serializer.Serializer;
 
 import io.jooby.Context;
 import io.jooby.Session;
-import io.jooby.SneakyThrows;
 import io.jooby.Value;
 import io.jooby.pac4j.Pac4jContext;
 
@@ -48,6 +44,14 @@ public class SessionStoreImpl implements org.pac4j.core.context.session.SessionS
 
   private static final String BIN = "b64~";
 
+  private static final String SERIALIZED = "p4s~";
+
+  private final Serializer serializer;
+
+  public SessionStoreImpl(Serializer serializer) {
+    this.serializer = serializer;
+  }
+
   private Session getSession(WebContext context) {
     return context(context).session();
   }
@@ -75,21 +79,36 @@ public class SessionStoreImpl implements org.pac4j.core.context.session.SessionS
 
   @Override
   public Optional<Object> get(WebContext context, String key) {
-    Optional sessionValue =
-        getSessionOrEmpty(context)
-            .map(session -> session.get(key))
-            .map(SessionStoreImpl::strToObject)
-            .orElseGet(Optional::empty);
-    return sessionValue;
+    Session session = context(context).sessionOrNull();
+    if (session == null) {
+      return Optional.empty();
+    }
+    Value node = session.get(key);
+    if (node.isMissing()) {
+      return Optional.empty();
+    }
+    String encoded = node.value();
+    if (context instanceof WebContextImpl webContext) {
+      // decode at most once per request
+      return Optional.ofNullable(
+          webContext.decoded(key, encoded, value -> strToObject(serializer, value)));
+    }
+    return Optional.ofNullable(strToObject(serializer, encoded));
   }
 
   @Override
   public void set(WebContext context, String key, Object value) {
     if (value == null || value.toString().length() == 0) {
       getSessionOrEmpty(context).ifPresent(session -> session.remove(key));
+      if (context instanceof WebContextImpl webContext) {
+        webContext.setDecoded(key, null, null);
+      }
     } else {
-      String encoded = objToStr(value);
+      String encoded = objToStr(serializer, value);
       getSession(context).put(key, encoded);
+      if (context instanceof WebContextImpl webContext) {
+        webContext.setDecoded(key, encoded, value);
+      }
     }
   }
 
@@ -109,7 +128,7 @@ public class SessionStoreImpl implements org.pac4j.core.context.session.SessionS
   public Optional<SessionStore> buildFromTrackableSession(
       WebContext context, Object trackableSession) {
     if (trackableSession != null) {
-      return Optional.of(new SessionStoreImpl());
+      return Optional.of(new SessionStoreImpl(serializer));
     }
     return Optional.empty();
   }
@@ -120,39 +139,27 @@ public class SessionStoreImpl implements org.pac4j.core.context.session.SessionS
     return true;
   }
 
-  static Optional<Object> strToObject(final Value node) {
-    if (node.isMissing()) {
-      return Optional.empty();
-    }
-    String value = node.value();
-    if (value.startsWith(BIN)) {
-      try {
-        byte[] bytes = Base64.getDecoder().decode(value.substring(BIN.length()));
-        return Optional.of(new ObjectInputStream(new ByteArrayInputStream(bytes)).readObject());
-      } catch (Exception x) {
-        throw SneakyThrows.propagate(x);
-      }
+  static Object strToObject(Serializer serializer, String value) {
+    if (value.startsWith(SERIALIZED)) {
+      return serializer.deserializeFromString(value.substring(SERIALIZED.length()));
+    } else if (value.startsWith(BIN)) {
+      // Java serialization, written by previous versions. JavaSerializer only accepts trusted
+      // classes (pac4j, java.*, etc.)
+      byte[] bytes = Base64.getDecoder().decode(value.substring(BIN.length()));
+      return new JavaSerializer().deserializeFromBytes(bytes);
     } else if (value.startsWith(PAC4J)) {
-      return Optional.of(strToAction(value.substring(PAC4J.length())));
+      return strToAction(value.substring(PAC4J.length()));
     }
-    return Optional.of(value);
+    return value;
   }
 
-  static String objToStr(final Object value) {
+  static String objToStr(Serializer serializer, Object value) {
     if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean) {
       return value.toString();
     } else if (value instanceof HttpAction) {
       return actionToStr((HttpAction) value);
     }
-    try {
-      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-      ObjectOutputStream stream = new ObjectOutputStream(bytes);
-      stream.writeObject(value);
-      stream.flush();
-      return BIN + Base64.getEncoder().encodeToString(bytes.toByteArray());
-    } catch (IOException x) {
-      throw SneakyThrows.propagate(x);
-    }
+    return SERIALIZED + serializer.serializeToString(value);
   }
 
   private static String actionToStr(HttpAction action) {
@@ -6,16 +6,19 @@
 package io.jooby.internal.pac4j;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.pac4j.core.context.Cookie;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.util.serializer.Serializer;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.Context;
@@ -26,12 +29,62 @@ import io.jooby.pac4j.Pac4jOptions;
 
 public class WebContextImpl implements Pac4jContext {
 
+  /** Session value as stored in session and its decoded version. */
+  private record Decoded(String encoded, Object value) {}
+
   private Context context;
   private SessionStore sessionStore;
+  private Map<String, Decoded> decoded;
 
   public WebContextImpl(Context context) {
     this.context = context;
-    this.sessionStore = new SessionStoreImpl();
+    this.sessionStore = new SessionStoreImpl(serializer(context));
+  }
+
+  private static Serializer serializer(Context context) {
+    Pac4jOptions options = context.getRouter().getServices().getOrNull(Pac4jOptions.class);
+    return options == null ? ProfileSerializer.INSTANCE : options.getSerializer();
+  }
+
+  /**
+   * Decoded session value. Value is decoded once per request, as long as the session value doesn't
+   * change.
+   *
+   * @param key Session key.
+   * @param encoded Session value.
+   * @param decoder Decoder.
+   * @return Decoded value.
+   */
+  Object decoded(String key, String encoded, Function<String, Object> decoder) {
+    if (decoded == null) {
+      decoded = new HashMap<>();
+    }
+    Decoded entry = decoded.get(key);
+    if (entry == null || !entry.encoded.equals(encoded)) {
+      entry = new Decoded(encoded, decoder.apply(encoded));
+      decoded.put(key, entry);
+    }
+    return entry.value;
+  }
+
+  /**
+   * Save a decoded session value, or remove it when encoded value is <code>null</code>.
+   *
+   * @param key Session key.
+   * @param encoded Session value.
+   * @param value Decoded value.
+   */
+  void setDecoded(String key, String encoded, Object value) {
+    if (encoded == null) {
+      if (decoded != null) {
+        decoded.remove(key);
+      }
+    } else {
+      if (decoded == null) {
+        decoded = new HashMap<>();
+      }
+      decoded.put(key, new Decoded(encoded, value));
+    }
   }
 
   @Override
@@ -5,9 +5,12 @@
  */
 package io.jooby.pac4j;
 
+import org.pac4j.core.util.serializer.Serializer;
+
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import io.jooby.SameSite;
+import io.jooby.internal.pac4j.ProfileSerializer;
 
 /**
  * Options to configure pac4j security, callback and logout actions.
@@ -46,6 +49,8 @@ public class Pac4jOptions {
 
   private boolean forceLogoutRoutes = false;
 
+  private Serializer serializer = ProfileSerializer.INSTANCE;
+
   /**
    * Default url to redirect to after successful login. Used by {@link
    * org.pac4j.core.engine.CallbackLogic}.
@@ -304,4 +309,34 @@ public class Pac4jOptions {
     this.forceLogoutRoutes = forceLogoutRoutes;
     return this;
   }
+
+  /**
+   * Serializer for session values, like user profiles. Default is a compact binary serializer for
+   * {@link org.pac4j.core.profile.UserProfile} and common attribute types. Other attribute types
+   * fall back to {@link org.pac4j.core.util.serializer.JavaSerializer}, they must belong to one of
+   * its trusted packages (<code>java.</code>, <code>javax.</code>, <code>org.pac4j.</code>, etc.),
+   * otherwise saving them in session fails.
+   *
+   * <p>Values are saved with a <code>p4s~</code> prefix. Versions before 3.1.0 can't read them: on
+   * a rolling deploy, old and new nodes shouldn't share sessions (sticky sessions) or users might
+   * need to log in again once they hit an old node.
+   *
+   * @return Serializer for session values.
+   */
+  public @NonNull Serializer getSerializer() {
+    return serializer;
+  }
+
+  /**
+   * Set the serializer for session values, like user profiles. Pac4j provides a {@link
+   * org.pac4j.core.util.serializer.JsonSerializer} and a {@link
+   * org.pac4j.core.util.serializer.JavaSerializer}.
+   *
+   * @param serializer Serializer for session values.
+   * @return This options.
+   */
+  public @NonNull Pac4jOptions setSerializer(@NonNull Serializer serializer) {
+    this.serializer = serializer;
+    return this;
+  }
 }
@@ -0,0 +1,127 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.internal.pac4j;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.UserProfile;
+
+import io.jooby.Jooby;
+import io.jooby.test.MockContext;
+import io.jooby.test.MockSession;
+
+public class ProfileSerializerTest {
+
+  public record Untrusted(String value) implements Serializable {}
+
+  @Test
+  public void shouldWriteAndReadProfiles() {
+    CommonProfile profile = profile();
+    Map<String, UserProfile> profiles = new LinkedHashMap<>();
+    profiles.put("FormClient", profile);
+
+    ProfileSerializer serializer = new ProfileSerializer();
+    Map<?, ?> result =
+        (Map<?, ?>) serializer.deserializeFromString(serializer.serializeToString(profiles));
+
+    CommonProfile copy = (CommonProfile) result.get("FormClient");
+    assertEquals(profile.getId(), copy.getId());
+    assertEquals(profile.getClientName(), copy.getClientName());
+    assertEquals(profile.isRemembered(), copy.isRemembered());
+    assertEquals(profile.getAttributes(), copy.getAttributes());
+    assertEquals(profile.getAuthenticationAttributes(), copy.getAuthenticationAttributes());
+    assertEquals(profile.getRoles(), copy.getRoles());
+    assertEquals(profile.getPermissions(), copy.getPermissions());
+  }
+
+  @Test
+  public void shouldRejectUntrustedTypesOnWrite() {
+    CommonProfile profile = profile();
+    profile.addAttribute("custom", new Untrusted("x"));
+    ProfileSerializer serializer = new ProfileSerializer();
+    assertThrows(IllegalArgumentException.class, () -> serializer.serializeToString(profile));
+  }
+
+  @Test
+  public void shouldBeSmallerThanJavaSerialization() throws Exception {
+    CommonProfile profile = profile();
+    ProfileSerializer serializer = new ProfileSerializer();
+    assertTrue(serializer.serializeToBytes(profile).length < javaSerialization(profile).length);
+  }
+
+  @Test
+  public void shouldDecodeOncePerRequest() throws Exception {
+    MockContext ctx = new MockContext().setRouter(new Jooby());
+    new MockSession(ctx, "sid");
+    WebContextImpl webContext = new WebContextImpl(ctx);
+    SessionStoreImpl store = (SessionStoreImpl) webContext.getSessionStore();
+
+    store.set(webContext, "profile", profile());
+    Object profile = store.get(webContext, "profile").get();
+    assertSame(profile, store.get(webContext, "profile").get());
+
+    // new request
+    WebContextImpl next = new WebContextImpl(ctx);
+    Object decoded = store.get(next, "profile").get();
+    assertEquals(((CommonProfile) profile).getId(), ((CommonProfile) decoded).getId());
+    assertSame(decoded, store.get(next, "profile").get());
+
+    // previous versions
+    ctx.session()
+        .put("legacy", "b64~" + Base64.getEncoder().encodeToString(javaSerialization(profile())));
+    assertEquals("edgar", ((CommonProfile) store.get(next, "legacy").get()).getId());
+
+    // untrusted classes are never deserialized
+    ctx.session()
+        .put(
+            "untrusted",
+            "b64~" + Base64.getEncoder().encodeToString(javaSerialization(new Untrusted("x"))));
+    assertTrue(store.get(next, "untrusted").isEmpty());
+  }
+
+  private static CommonProfile profile() {
+    CommonProfile profile = new CommonProfile();
+    profile.setId("edgar");
+    profile.setClientName("FormClient");
+    profile.setRemembered(true);
+    profile.addAttribute("email", "edgar@jooby.io");
+    profile.addAttribute("age", 42);
+    profile.addAttribute("verified", true);
+    profile.addAttribute("created", new Date(0));
+    profile.addAttribute("site", URI.create("https://jooby.io"));
+    profile.addAttribute("groups", List.of("a", "b"));
+    profile.addAttribute("uuid", new UUID(1, 2));
+    profile.addAuthenticationAttribute("loginAt", 1_000L);
+    profile.addRoles(Set.of("admin"));
+    profile.addPermission("write");
+    return profile;
+  }
+
+  private static byte[] javaSerialization(Object value) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(value);
+    }
+    return bytes.toByteArray();
+  }
+}
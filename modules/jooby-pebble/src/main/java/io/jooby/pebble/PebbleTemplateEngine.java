@@ -7,6 +7,7 @@ package io.jooby.pebble;
 
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -17,6 +18,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.Context;
 import io.jooby.MapModelAndView;
 import io.jooby.ModelAndView;
+import io.jooby.Output;
 import io.jooby.TemplateEngine;
 import io.pebbletemplates.pebble.PebbleEngine;
 import io.pebbletemplates.pebble.template.PebbleTemplate;
@@ -43,9 +45,21 @@ class PebbleTemplateEngine implements TemplateEngine {
 
   @Override
   public String render(Context ctx, ModelAndView modelAndView) throws Exception {
+    Writer writer = new StringWriter();
+    render(ctx, modelAndView, writer);
+    return writer.toString();
+  }
+
+  @Override
+  public void render(Context ctx, ModelAndView modelAndView, Output output) throws Exception {
+    try (Writer writer = output.asWriter(StandardCharsets.UTF_8)) {
+      render(ctx, modelAndView, writer);
+    }
+  }
+
+  private void render(Context ctx, ModelAndView modelAndView, Writer writer) throws Exception {
     if (modelAndView instanceof MapModelAndView mapModelAndView) {
       PebbleTemplate template = engine.getTemplate(modelAndView.getView());
-      Writer writer = new StringWriter();
       Map<String, Object> model = new HashMap<>(ctx.getAttributes());
       model.putAll(mapModelAndView.getModel());
       Locale locale = modelAndView.getLocale();
@@ -53,7 +67,6 @@ class PebbleTemplateEngine implements TemplateEngine {
         locale = ctx.locale();
       }
       template.evaluate(writer, model, locale);
-      return writer.toString();
     } else {
       throw new IllegalArgumentException(
           "Only " + MapModelAndView.class.getName() + " are supported");
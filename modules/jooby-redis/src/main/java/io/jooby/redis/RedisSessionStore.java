@@ -8,10 +8,14 @@ package io.jooby.redis;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
@@ -25,15 +29,33 @@ import io.jooby.Session;
 import io.jooby.SessionStore;
 import io.jooby.SessionToken;
 import io.jooby.SneakyThrows;
+import io.lettuce.core.LettuceFutures;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
 import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.api.async.RedisAsyncCommands;
 import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import io.lettuce.core.support.ConnectionPoolSupport;
 
 /**
  * Redis session store.
  *
+ * <p>There are two modes:
+ *
+ * <ul>
+ *   <li>Pooled: created from a {@link GenericObjectPool} or {@link RedisClient}. Each operation
+ *       borrows a connection and session is written on every change.
+ *   <li>Pipelined: created from a shared {@link StatefulRedisConnection}. Lookup sends <code>
+ *       HGETALL</code> and <code>EXPIRE</code> together and waits once (one round-trip). Changes
+ *       are written after the response as deltas: only changed attributes are set (<code>HSET
+ *       </code>) or removed (<code>HDEL</code>). Nothing is written for read-only requests.
+ * </ul>
+ *
+ * Both modes support an optional local near-cache, see {@link #setNearCache(Duration,
+ * StatefulRedisPubSubConnection)}.
+ *
  * @author edgar
  * @since 2.8.5
  */
@@ -42,6 +64,9 @@ public class RedisSessionStore implements SessionStore {
   private static final String LAST_ACCESSED_AT = "__accessed_at";
   private static final String CREATED_AT = "__created_at";
 
+  /** Context attribute with the session data loaded from redis (pipelined mode). */
+  private static final String LOADED = RedisSessionStore.class.getName() + ".loaded";
+
   private Logger log = LoggerFactory.getLogger(getClass());
 
   private SessionToken token = SessionToken.cookieId(SessionToken.SID);
@@ -49,6 +74,11 @@ public class RedisSessionStore implements SessionStore {
   private Duration timeout = Duration.ofMinutes(DEFAULT_TIMEOUT);
   private GenericObjectPool<StatefulRedisConnection<String, String>> pool;
 
+  /** Shared connection, available on pipelined mode. */
+  private StatefulRedisConnection<String, String> connection;
+
+  private NearCache nearCache;
+
   /**
    * Creates a new session store.
    *
@@ -59,6 +89,16 @@ public class RedisSessionStore implements SessionStore {
     this.pool = pool;
   }
 
+  /**
+   * Creates a new session store on pipelined mode. Lettuce connections are thread-safe, commands
+   * from concurrent requests are pipelined on the given connection.
+   *
+   * @param connection Shared redis connection.
+   */
+  public RedisSessionStore(@NonNull StatefulRedisConnection<String, String> connection) {
+    this.connection = connection;
+  }
+
   /**
    * Creates a new session store.
    *
@@ -140,8 +180,55 @@ public class RedisSessionStore implements SessionStore {
     return this;
   }
 
+  /**
+   * Keep sessions in a local cache for the given time. Cached sessions are invalidated by redis
+   * keyspace notifications, so the redis server must publish them for hash, generic and expired
+   * events:
+   *
+   * <pre>
+   *   CONFIG SET notify-keyspace-events Khgx
+   * </pre>
+   *
+   * Events caused by writes of this store are ignored, the local copy is updated on write. Other
+   * events (writes from other nodes) remove the local copy.
+   *
+   * <p>Namespace must be set before calling this method.
+   *
+   * @param ttl Time to live of cached sessions. Keep it short, like a few seconds.
+   * @param pubsub Pub/sub connection used to listen for keyspace notifications.
+   * @return This store.
+   */
+  public @NonNull RedisSessionStore setNearCache(
+      @NonNull Duration ttl, @NonNull StatefulRedisPubSubConnection<String, String> pubsub) {
+    NearCache cache = new NearCache(ttl.toMillis());
+    String prefix = namespace + ":";
+    pubsub.addListener(
+        new RedisPubSubAdapter<>() {
+          @Override
+          public void message(String pattern, String channel, String event) {
+            // __keyspace@0__:sessions:ID, expire doesn't change data (sent on every lookup)
+            int start = channel.indexOf(prefix);
+            if (start > 0 && !"expire".equals(event)) {
+              cache.onEvent(channel.substring(start + prefix.length()), event);
+            }
+          }
+        });
+    pubsub.async().psubscribe("__keyspace@*__:" + prefix + "*");
+    this.nearCache = cache;
+    return this;
+  }
+
   @NonNull @Override
   public Session newSession(@NonNull Context ctx) {
+    if (connection != null) {
+      // written by saveSession, after the response
+      String sessionId = token.newToken();
+      Instant now = Instant.now();
+      token.saveToken(ctx, sessionId);
+      return Session.create(ctx, sessionId, new ConcurrentHashMap<>())
+          .setLastAccessedTime(now)
+          .setCreationTime(now);
+    }
     String sessionId = token.newToken();
 
     Instant now = Instant.now();
@@ -151,7 +238,7 @@ public class RedisSessionStore implements SessionStore {
     data.put(LAST_ACCESSED_AT, isoNow);
     data.put(CREATED_AT, isoNow);
 
-    saveSession(sessionId, data);
+    saveSession(sessionId, data, false);
 
     token.saveToken(ctx, sessionId);
 
@@ -166,53 +253,126 @@ public class RedisSessionStore implements SessionStore {
     if (sessionId == null) {
       return null;
     }
-    return withConnection(
-        connection -> {
-          RedisCommands<String, String> commands = connection.sync();
-          String redisId = key(sessionId);
-          Map<String, String> data = commands.hgetall(redisId);
-          if (data == null || data.isEmpty()) {
-            return null;
-          }
-          Optional.ofNullable(timeout)
-              .map(Duration::getSeconds)
-              .ifPresent(seconds -> commands.expire(redisId, seconds));
-          Instant lastAccessedTime = Instant.parse(data.remove(LAST_ACCESSED_AT));
-          Instant createdAt = Instant.parse(data.remove(CREATED_AT));
+    Map<String, String> data = load(sessionId);
+    if (data == null || data.isEmpty()) {
+      return null;
+    }
+    Map<String, String> attributes = new ConcurrentHashMap<>(data);
+    Instant lastAccessedTime = Instant.parse(attributes.remove(LAST_ACCESSED_AT));
+    Instant createdAt = Instant.parse(attributes.remove(CREATED_AT));
 
-          token.saveToken(ctx, sessionId);
+    token.saveToken(ctx, sessionId);
 
-          return Session.create(ctx, sessionId, new ConcurrentHashMap<>(data))
-              .setCreationTime(createdAt)
-              .setLastAccessedTime(lastAccessedTime);
-        });
+    if (connection != null) {
+      // saveSession computes deltas from it
+      ctx.setAttribute(LOADED, data);
+    }
+    return Session.create(ctx, sessionId, attributes)
+        .setCreationTime(createdAt)
+        .setLastAccessedTime(lastAccessedTime);
+  }
+
+  private Map<String, String> load(String sessionId) {
+    String redisId = key(sessionId);
+    Map<String, String> data = nearCache == null ? null : nearCache.get(sessionId);
+    if (data != null) {
+      if (connection != null) {
+        expire(connection.async(), redisId);
+      } else {
+        withConnection(
+            connection -> {
+              expire(connection.async(), redisId);
+              return null;
+            });
+      }
+      return data;
+    }
+    if (connection != null) {
+      RedisAsyncCommands<String, String> commands = connection.async();
+      // both commands are written before waiting, so they share one round-trip
+      RedisFuture<Map<String, String>> hgetall = commands.hgetall(redisId);
+      expire(commands, redisId);
+      data =
+          LettuceFutures.awaitOrCancel(
+              hgetall, connection.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+    } else {
+      data =
+          withConnection(
+              connection -> {
+                RedisCommands<String, String> commands = connection.sync();
+                Map<String, String> result = commands.hgetall(redisId);
+                if (result != null && !result.isEmpty()) {
+                  Optional.ofNullable(timeout)
+                      .map(Duration::getSeconds)
+                      .ifPresent(seconds -> commands.expire(redisId, seconds));
+                }
+                return result;
+              });
+    }
+    if (nearCache != null && data != null && !data.isEmpty()) {
+      nearCache.put(sessionId, data);
+    }
+    return data;
   }
 
   @Override
   public void deleteSession(@NonNull Context ctx, @NonNull Session session) {
     String sessionId = session.getId();
 
-    withConnection(connection -> connection.async().del(key(sessionId)));
+    if (connection != null) {
+      ctx.getAttributes().remove(LOADED);
+      connection.async().del(key(sessionId));
+    } else {
+      withConnection(connection -> connection.async().del(key(sessionId)));
+    }
+    if (nearCache != null) {
+      nearCache.remove(sessionId);
+    }
 
     token.deleteToken(ctx, sessionId);
   }
 
   @Override
   public void touchSession(@NonNull Context ctx, @NonNull Session session) {
-    saveSession(ctx, session);
+    if (connection == null) {
+      saveSession(ctx, session);
+    }
 
     token.saveToken(ctx, session.getId());
   }
 
   @Override
   public void saveSession(@NonNull Context ctx, @NonNull Session session) {
-    saveSession(session.getId(), new HashMap<>(session.toMap()));
+    if (connection == null) {
+      saveSession(session.getId(), new HashMap<>(session.toMap()), true);
+    } else {
+      Map<String, String> loaded = (Map<String, String>) ctx.getAttributes().remove(LOADED);
+      // new session or modified session
+      if (loaded == null || session.isModify()) {
+        saveDelta(session, loaded);
+      }
+    }
   }
 
   @Override
   public void renewSessionId(@NonNull Context ctx, @NonNull Session session) {}
 
-  private void saveSession(String sessionId, Map<String, String> data) {
+  /**
+   * Replace session data (pooled mode).
+   *
+   * @param sessionId Session ID.
+   * @param data Session data.
+   * @param exists True when session might exist already in redis.
+   */
+  private void saveSession(String sessionId, Map<String, String> data, boolean exists) {
+    if (nearCache != null) {
+      // DEL (when session exists) and HSET
+      if (exists) {
+        nearCache.expect(sessionId, "del", "hset");
+      } else {
+        nearCache.expect(sessionId, "hset");
+      }
+    }
     withConnection(
         connection -> {
           Instant now = Instant.now();
@@ -245,6 +405,76 @@ public class RedisSessionStore implements SessionStore {
                     }
                   });
         });
+    if (nearCache != null) {
+      // keep local copy in sync: it is up to date and other nodes get the keyspace events
+      nearCache.put(sessionId, data);
+    }
+  }
+
+  /**
+   * Write changed attributes only. Commands are not awaited.
+   *
+   * @param session Session.
+   * @param loaded Attributes loaded from redis or <code>null</code> for new sessions.
+   */
+  private void saveDelta(Session session, @Nullable Map<String, String> loaded) {
+    String sessionId = session.getId();
+    String redisId = key(sessionId);
+    Map<String, String> attributes = session.toMap();
+    Map<String, String> changes = new HashMap<>();
+    List<String> removed = new ArrayList<>();
+    for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+      String key = attribute.getKey();
+      if (loaded == null || !Objects.equals(attribute.getValue(), loaded.get(key))) {
+        changes.put(key, attribute.getValue());
+      }
+    }
+    if (loaded == null) {
+      changes.put(CREATED_AT, DateTimeFormatter.ISO_INSTANT.format(session.getCreationTime()));
+    } else {
+      for (String key : loaded.keySet()) {
+        if (!key.equals(LAST_ACCESSED_AT)
+            && !key.equals(CREATED_AT)
+            && !attributes.containsKey(key)) {
+          removed.add(key);
+        }
+      }
+    }
+    changes.put(LAST_ACCESSED_AT, DateTimeFormatter.ISO_INSTANT.format(Instant.now()));
+
+    if (nearCache != null) {
+      if (removed.isEmpty()) {
+        nearCache.expect(sessionId, "hset");
+      } else {
+        nearCache.expect(sessionId, "hset", "hdel");
+      }
+    }
+    RedisAsyncCommands<String, String> commands = connection.async();
+    commands
+        .hset(redisId, changes)
+        .whenComplete(
+            (value, cause) -> {
+              if (cause != null) {
+                log.error("unable to save session: {}", sessionId, cause);
+              }
+            });
+    if (!removed.isEmpty()) {
+      commands.hdel(redisId, removed.toArray(new String[0]));
+    }
+    expire(commands, redisId);
+
+    if (nearCache != null) {
+      Map<String, String> data = new HashMap<>(attributes);
+      data.put(CREATED_AT, loaded == null ? changes.get(CREATED_AT) : loaded.get(CREATED_AT));
+      data.put(LAST_ACCESSED_AT, changes.get(LAST_ACCESSED_AT));
+      nearCache.put(sessionId, data);
+    }
+  }
+
+  private void expire(RedisAsyncCommands<String, String> commands, String redisId) {
+    if (timeout != null) {
+      commands.expire(redisId, timeout.getSeconds());
+    }
   }
 
   private <T> T withConnection(SneakyThrows.Function<StatefulRedisConnection, T> callback) {
@@ -258,4 +488,102 @@ public class RedisSessionStore implements SessionStore {
   private String key(String id) {
     return namespace + ":" + id;
   }
+
+  /**
+   * Local cache of session data with a fixed time to live. Keyspace events don't say which client
+   * wrote a key, so the events expected from our own writes are recorded and ignored when they
+   * arrive. An expected event that never arrives is dropped after time to live: at worst a foreign
+   * event is ignored and the local copy lives until it expires, which is what happens without
+   * events.
+   */
+  private static class NearCache {
+    private static final int MAX_SIZE = 10_000;
+
+    private record Entry(Map<String, String> data, long expiresAt) {}
+
+    private record Expected(List<String> events, long expiresAt) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, Expected> expected = new ConcurrentHashMap<>();
+
+    private final long ttl;
+
+    NearCache(long ttl) {
+      this.ttl = ttl;
+    }
+
+    Map<String, String> get(String sessionId) {
+      Entry entry = entries.get(sessionId);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.expiresAt < System.currentTimeMillis()) {
+        entries.remove(sessionId, entry);
+        return null;
+      }
+      return entry.data;
+    }
+
+    void put(String sessionId, Map<String, String> data) {
+      long now = System.currentTimeMillis();
+      if (entries.size() >= MAX_SIZE) {
+        entries.values().removeIf(it -> it.expiresAt < now);
+        if (entries.size() >= MAX_SIZE) {
+          return;
+        }
+      }
+      entries.put(sessionId, new Entry(Map.copyOf(data), now + ttl));
+    }
+
+    void remove(String sessionId) {
+      entries.remove(sessionId);
+    }
+
+    /**
+     * Record keyspace events caused by a write of this store.
+     *
+     * @param sessionId Session ID.
+     * @param events Event names.
+     */
+    void expect(String sessionId, String... events) {
+      long now = System.currentTimeMillis();
+      if (expected.size() >= MAX_SIZE) {
+        expected.values().removeIf(it -> it.expiresAt < now);
+      }
+      expected.compute(
+          sessionId,
+          (key, existing) -> {
+            List<String> list = new ArrayList<>(List.of(events));
+            if (existing != null && existing.expiresAt >= now) {
+              list.addAll(existing.events);
+            }
+            return new Expected(list, now + ttl);
+          });
+    }
+
+    /**
+     * Keyspace event: ignored when expected (own write), otherwise removes the local copy.
+     *
+     * @param sessionId Session ID.
+     * @param event Event name.
+     */
+    void onEvent(String sessionId, String event) {
+      long now = System.currentTimeMillis();
+      boolean[] own = {false};
+      expected.computeIfPresent(
+          sessionId,
+          (key, existing) -> {
+            if (existing.expiresAt < now) {
+              return null;
+            }
+            List<String> events = new ArrayList<>(existing.events);
+            own[0] = events.remove(event);
+            return events.isEmpty() ? null : new Expected(events, existing.expiresAt);
+          });
+      if (!own[0]) {
+        remove(sessionId);
+      }
+    }
+  }
 }
@@ -0,0 +1,217 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.redis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import io.jooby.Jooby;
+import io.jooby.Session;
+import io.jooby.SessionToken;
+import io.jooby.test.MockContext;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.TransactionResult;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.pubsub.RedisPubSubListener;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.lettuce.core.pubsub.api.async.RedisPubSubAsyncCommands;
+
+public class RedisSessionStoreTest {
+
+  private static class Completed<T> extends CompletableFuture<T> implements RedisFuture<T> {
+    Completed(T value) {
+      complete(value);
+    }
+
+    @Override
+    public String getError() {
+      return null;
+    }
+
+    @Override
+    public boolean await(long timeout, TimeUnit unit) {
+      return true;
+    }
+  }
+
+  private StatefulRedisConnection<String, String> connection;
+
+  private RedisAsyncCommands<String, String> commands;
+
+  private Map<String, String> data;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    connection = mock(StatefulRedisConnection.class);
+    commands = mock(RedisAsyncCommands.class);
+    when(connection.async()).thenReturn(commands);
+    when(connection.getTimeout()).thenReturn(Duration.ofSeconds(1));
+    when(commands.hset(anyString(), anyMap())).thenReturn(new Completed<>(1L));
+    when(commands.exec()).thenReturn(new Completed<>((TransactionResult) null));
+
+    String now = Instant.now().toString();
+    data = new HashMap<>();
+    data.put("__accessed_at", now);
+    data.put("__created_at", now);
+    data.put("foo", "bar");
+    data.put("x", "y");
+    when(commands.hgetall("sessions:abc")).thenReturn(new Completed<>(data));
+  }
+
+  @Test
+  public void shouldPipelineLookup() {
+    RedisSessionStore store = store();
+
+    Session session = store.findSession(request(store));
+    assertNotNull(session);
+    assertEquals("bar", session.get("foo").value());
+
+    // both commands are sent before waiting for the response
+    InOrder order = inOrder(commands);
+    order.verify(commands).hgetall("sessions:abc");
+    order.verify(commands).expire("sessions:abc", 1800L);
+  }
+
+  @Test
+  public void shouldNotWriteUnmodifiedSession() {
+    RedisSessionStore store = store();
+    MockContext ctx = request(store);
+
+    Session session = store.findSession(ctx);
+    store.touchSession(ctx, session);
+    store.saveSession(ctx, session);
+
+    verify(commands, never()).hset(anyString(), anyMap());
+    verify(commands, never()).hdel(anyString(), any(String[].class));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldWriteChangedAttributesOnly() {
+    RedisSessionStore store = store();
+    MockContext ctx = request(store);
+
+    Session session = store.findSession(ctx);
+    session.put("foo", "baz");
+    session.remove("x");
+    store.saveSession(ctx, session);
+
+    ArgumentCaptor<Map<String, String>> changes = ArgumentCaptor.forClass(Map.class);
+    verify(commands).hset(anyString(), changes.capture());
+    assertEquals("baz", changes.getValue().get("foo"));
+    assertEquals(2, changes.getValue().size());
+    assertNotNull(changes.getValue().get("__accessed_at"));
+    verify(commands).hdel("sessions:abc", "x");
+  }
+
+  @Test
+  public void shouldIgnoreOwnKeyspaceEvents() {
+    StatefulRedisPubSubConnection<String, String> pubsub = pubsub();
+    RedisSessionStore store = store().setNearCache(Duration.ofMinutes(1), pubsub);
+    RedisPubSubListener<String, String> listener = listener(pubsub);
+
+    MockContext ctx = request(store);
+    Session session = store.findSession(ctx);
+    session.put("foo", "baz");
+    session.remove("x");
+    store.saveSession(ctx, session);
+
+    // events of our own write
+    listener.message("__keyspace@*__:sessions:*", "__keyspace@0__:sessions:abc", "hset");
+    listener.message("__keyspace@*__:sessions:*", "__keyspace@0__:sessions:abc", "hdel");
+    listener.message("__keyspace@*__:sessions:*", "__keyspace@0__:sessions:abc", "expire");
+
+    Session cached = store.findSession(request(store));
+    assertEquals("baz", cached.get("foo").value());
+    assertEquals(true, cached.get("x").isMissing());
+    verify(commands, times(1)).hgetall("sessions:abc");
+
+    // write from another node
+    listener.message("__keyspace@*__:sessions:*", "__keyspace@0__:sessions:abc", "hset");
+    store.findSession(request(store));
+    verify(commands, times(2)).hgetall("sessions:abc");
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldRefreshNearCacheOnPooledSave() throws Exception {
+    GenericObjectPool<StatefulRedisConnection<String, String>> pool = mock(GenericObjectPool.class);
+    when(pool.borrowObject()).thenReturn(connection);
+    RedisCommands<String, String> sync = mock(RedisCommands.class);
+    when(connection.sync()).thenReturn(sync);
+    when(sync.hgetall("sessions:abc")).thenReturn(data);
+    StatefulRedisPubSubConnection<String, String> pubsub = pubsub();
+    RedisSessionStore store = new RedisSessionStore(pool).setToken(SessionToken.header("sid"));
+    store.setNearCache(Duration.ofMinutes(1), pubsub);
+    RedisPubSubListener<String, String> listener = listener(pubsub);
+
+    MockContext ctx = request(store);
+    Session session = store.findSession(ctx);
+    session.put("foo", "baz");
+    store.saveSession(ctx, session);
+
+    // events of our own write
+    listener.message("__keyspace@*__:sessions:*", "__keyspace@0__:sessions:abc", "del");
+    listener.message("__keyspace@*__:sessions:*", "__keyspace@0__:sessions:abc", "hset");
+
+    assertEquals("baz", store.findSession(request(store)).get("foo").value());
+    verify(sync, times(1)).hgetall("sessions:abc");
+  }
+
+  private RedisSessionStore store() {
+    return new RedisSessionStore(connection).setToken(SessionToken.header("sid"));
+  }
+
+  private MockContext request(RedisSessionStore store) {
+    Jooby app = new Jooby();
+    app.setSessionStore(store);
+    return new MockContext().setRouter(app).setRequestHeader("sid", "abc");
+  }
+
+  @SuppressWarnings("unchecked")
+  private StatefulRedisPubSubConnection<String, String> pubsub() {
+    StatefulRedisPubSubConnection<String, String> pubsub =
+        mock(StatefulRedisPubSubConnection.class);
+    when(pubsub.async()).thenReturn(mock(RedisPubSubAsyncCommands.class));
+    return pubsub;
+  }
+
+  @SuppressWarnings("unchecked")
+  private RedisPubSubListener<String, String> listener(
+      StatefulRedisPubSubConnection<String, String> pubsub) {
+    ArgumentCaptor<RedisPubSubListener<String, String>> listener =
+        ArgumentCaptor.forClass(RedisPubSubListener.class);
+    verify(pubsub).addListener(listener.capture());
+    List<RedisPubSubListener<String, String>> values = listener.getAllValues();
+    return values.get(values.size() - 1);
+  }
+}
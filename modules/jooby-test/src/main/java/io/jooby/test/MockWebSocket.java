@@ -7,6 +7,7 @@ package io.jooby.test;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.Context;
@@ -74,6 +75,14 @@ public class MockWebSocket implements WebSocket {
     callback.accept(this);
   }
 
+  @Override
+  public void broadcast(
+      @NonNull Object message, boolean binary, @NonNull Predicate<WebSocket> filter) {
+    if (filter.test(this)) {
+      sendObject(message, WriteCallback.NOOP);
+    }
+  }
+
   @NonNull @Override
   public WebSocket send(@NonNull String message, @NonNull WriteCallback callback) {
     return sendObject(message, callback);
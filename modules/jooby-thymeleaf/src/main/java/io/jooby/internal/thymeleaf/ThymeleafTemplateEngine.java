@@ -5,6 +5,8 @@
  */
 package io.jooby.internal.thymeleaf;
 
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -17,6 +19,7 @@ import org.thymeleaf.context.Context;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.MapModelAndView;
 import io.jooby.ModelAndView;
+import io.jooby.Output;
 
 public class ThymeleafTemplateEngine implements io.jooby.TemplateEngine {
 
@@ -41,6 +44,24 @@ public class ThymeleafTemplateEngine implements io.jooby.TemplateEngine {
 
   @Override
   public String render(io.jooby.Context ctx, ModelAndView modelAndView) {
+    return templateEngine.process(templateName(modelAndView), newContext(ctx, modelAndView));
+  }
+
+  @Override
+  public void render(io.jooby.Context ctx, ModelAndView modelAndView, Output output)
+      throws Exception {
+    Context context = newContext(ctx, modelAndView);
+    try (Writer writer = output.asWriter(StandardCharsets.UTF_8)) {
+      templateEngine.process(templateName(modelAndView), context, writer);
+    }
+  }
+
+  private static String templateName(ModelAndView modelAndView) {
+    String templateName = modelAndView.getView();
+    return templateName.startsWith("/") ? templateName : "/" + templateName;
+  }
+
+  private static Context newContext(io.jooby.Context ctx, ModelAndView modelAndView) {
     if (modelAndView instanceof MapModelAndView mapModelAndView) {
       Map<String, Object> model = new HashMap<>(ctx.getAttributes());
       model.putAll(mapModelAndView.getModel());
@@ -51,12 +72,7 @@ public class ThymeleafTemplateEngine implements io.jooby.TemplateEngine {
         locale = ctx.locale();
       }
 
-      Context context = new Context(locale, model);
-      String templateName = modelAndView.getView();
-      if (!templateName.startsWith("/")) {
-        templateName = "/" + templateName;
-      }
-      return templateEngine.process(templateName, context);
+      return new Context(locale, model);
     } else {
       throw new IllegalArgumentException(
           "Only " + MapModelAndView.class.getName() + " are supported");
@@ -30,6 +30,7 @@ public class UndertowBodyHandler
 
   private final int bufferSize;
   private final long maxRequestSize;
+  private final Router router;
   private Router.Match route;
   private UndertowContext context;
   private long chunkSize;
@@ -38,8 +39,23 @@ public class UndertowBodyHandler
   private FileChannel channel;
   private long position;
 
+  /**
+   * Creates a body handler.
+   *
+   * @param router Router.
+   * @param route Matched route or <code>null</code> to match once body is available (urlencoded
+   *     body might carry the hidden method).
+   * @param context Context.
+   * @param bufferSize Buffer size.
+   * @param maxRequestSize Max request size.
+   */
   public UndertowBodyHandler(
-      Router.Match route, UndertowContext context, int bufferSize, long maxRequestSize) {
+      Router router,
+      Router.Match route,
+      UndertowContext context,
+      int bufferSize,
+      long maxRequestSize) {
+    this.router = router;
     this.route = route;
     this.context = context;
     this.bufferSize = bufferSize;
@@ -49,7 +65,14 @@ public class UndertowBodyHandler
   @Override
   public void handle(HttpServerExchange exchange, byte[] bytes) {
     context.body = Body.of(context, bytes);
-    route.execute(context);
+    route().execute(context);
+  }
+
+  private Router.Match route() {
+    if (route == null) {
+      route = router.match(context);
+    }
+    return route;
   }
 
   @Override
@@ -70,7 +93,7 @@ public class UndertowBodyHandler
         chunkSize += chunk.length;
         if (chunkSize > maxRequestSize) {
           try {
-            route.execute(context, Route.REQUEST_ENTITY_TOO_LARGE);
+            route().execute(context, Route.REQUEST_ENTITY_TOO_LARGE);
           } finally {
             closeChannel();
             channel = null;
@@ -111,7 +134,7 @@ public class UndertowBodyHandler
         } else {
           context.body = Body.of(context, bytes((int) chunkSize));
         }
-        route.execute(context);
+        route().execute(context);
       }
     } catch (IOException x) {
       try {
@@ -22,6 +22,7 @@ import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.cert.Certificate;
 import java.util.Arrays;
 import java.util.Collection;
@@ -292,8 +293,16 @@ public class UndertowContext implements DefaultContext, IoCallback {
   @NonNull @Override
   public Formdata form() {
     if (formdata == null) {
-      formdata = Formdata.create(this);
-      formData(formdata, exchange.getAttachment(FORM_DATA));
+      String contentType = exchange.getRequestHeaders().getFirst(Headers.CONTENT_TYPE);
+      if (body != null
+          && contentType != null
+          && contentType.regionMatches(
+              true, 0, MediaType.FORM_URLENCODED, 0, MediaType.FORM_URLENCODED.length())) {
+        formdata = Formdata.create(this, body.value(StandardCharsets.UTF_8));
+      } else {
+        formdata = Formdata.create(this);
+        formData(formdata, exchange.getAttachment(FORM_DATA));
+      }
     }
     return formdata;
   }
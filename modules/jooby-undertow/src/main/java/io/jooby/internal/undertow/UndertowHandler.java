@@ -8,6 +8,7 @@ package io.jooby.internal.undertow;
 import java.nio.charset.StandardCharsets;
 
 import io.jooby.Context;
+import io.jooby.MediaType;
 import io.jooby.Route;
 import io.jooby.Router;
 import io.jooby.StatusCode;
@@ -15,7 +16,6 @@ import io.undertow.io.Receiver;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.form.FormDataParser;
-import io.undertow.server.handlers.form.FormEncodedDataDefinition;
 import io.undertow.server.handlers.form.FormParserFactory;
 import io.undertow.server.handlers.form.MultiPartParserDefinition;
 import io.undertow.util.HeaderMap;
@@ -65,23 +65,21 @@ public class UndertowHandler implements HttpHandler {
           return;
         }
 
-        /** Eager body parsing: */
+        /** Eager body parsing (urlencoded body is read raw and decoded lazily by Formdata): */
         FormDataParser parser =
             FormParserFactory.builder(false)
                 .addParser(
                     new MultiPartParserDefinition(router.getTmpdir())
                         .setDefaultEncoding(StandardCharsets.UTF_8.name()))
-                .addParser(
-                    new FormEncodedDataDefinition()
-                        .setDefaultEncoding(StandardCharsets.UTF_8.name()))
                 .build()
                 .createParser(exchange);
         if (parser == null) {
           // Read raw body
           Receiver receiver = exchange.getRequestReceiver();
-          Router.Match route = router.match(context);
+          // urlencoded: match once body is available, hidden method might be a form field
+          Router.Match route = isFormUrlencoded(headers) ? null : router.match(context);
           UndertowBodyHandler reader =
-              new UndertowBodyHandler(route, context, bufferSize, maxRequestSize);
+              new UndertowBodyHandler(router, route, context, bufferSize, maxRequestSize);
           if (len > 0 && len <= bufferSize) {
             receiver.receiveFullBytes(reader);
           } else {
@@ -101,6 +99,13 @@ public class UndertowHandler implements HttpHandler {
     }
   }
 
+  private static boolean isFormUrlencoded(HeaderMap headers) {
+    String contentType = headers.getFirst(Headers.CONTENT_TYPE);
+    return contentType != null
+        && contentType.regionMatches(
+            true, 0, MediaType.FORM_URLENCODED, 0, MediaType.FORM_URLENCODED.length());
+  }
+
   private static long parseLen(String value) {
     try {
       return value == null ? -1 : Long.parseLong(value);
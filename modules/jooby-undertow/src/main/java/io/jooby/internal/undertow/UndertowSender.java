@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jooby.Output;
 import io.jooby.Sender;
 import io.undertow.io.IoCallback;
 import io.undertow.server.HttpServerExchange;
@@ -28,6 +29,12 @@ public class UndertowSender implements Sender {
     return this;
   }
 
+  @Override
+  public Sender write(@NonNull Output output, @NonNull Callback callback) {
+    exchange.getResponseSender().send(output.toByteBuffers(), newIoCallback(ctx, callback));
+    return this;
+  }
+
   @Override
   public void close() {
     ctx.destroy(null);
@@ -10,13 +10,7 @@ import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
-import java.nio.channels.ClosedChannelException;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
@@ -26,16 +20,16 @@ import org.xnio.ChannelListeners;
 import org.xnio.IoUtils;
 import org.xnio.channels.StreamSinkChannel;
 
-import io.jooby.Context;
-import io.jooby.ServerSentMessage;
+import io.jooby.ServerSentQueue;
 import io.undertow.connector.PooledByteBuffer;
 import io.undertow.server.HttpServerExchange;
 
 /**
  * Represents the server side of a Server Sent Events connection.
  *
- * <p>The class implements Attachable, which provides access to the underlying exchanges
- * attachments.
+ * <p>Encoded events are kept in a bounded {@link ServerSentQueue} and copied into a pooled buffer
+ * by the IO thread. Writes are resumed only while the sink doesn't accept more data, so the queue
+ * grows only when the client is slow.
  *
  * <p>Copy/adapted from {@link io.undertow.server.handlers.sse.ServerSentEventConnection}
  *
@@ -48,16 +42,14 @@ public class UndertowServerSentConnection implements Channel {
   private final UndertowServerSentConnection.SseWriteListener writeListener =
       new UndertowServerSentConnection.SseWriteListener();
 
-  private final Context context;
+  private final ServerSentQueue queue;
 
   private PooledByteBuffer pooled;
 
-  private final Deque<UndertowServerSentConnection.SSEData> queue = new ConcurrentLinkedDeque<>();
-  private final Queue<UndertowServerSentConnection.SSEData> buffered =
-      new ConcurrentLinkedDeque<>();
+  /** Event partially copied into the pooled buffer. */
+  private byte[] current;
 
-  /** Messages that have been written to the channel but flush() has failed */
-  private final Queue<UndertowServerSentConnection.SSEData> flushingMessages = new ArrayDeque<>();
+  private int currentOffset;
 
   private final List<ChannelListener<UndertowServerSentConnection>> closeTasks =
       new CopyOnWriteArrayList<>();
@@ -67,8 +59,8 @@ public class UndertowServerSentConnection implements Channel {
   private volatile boolean shutdown = false;
 
   public UndertowServerSentConnection(UndertowContext context) {
-    this.context = context;
     this.exchange = context.exchange;
+    this.queue = ServerSentQueue.create(context.getRouter().getConfig());
     this.sink = this.exchange.getResponseChannel();
     this.sink
         .getCloseSetter()
@@ -85,19 +77,19 @@ public class UndertowServerSentConnection implements Channel {
   }
 
   /**
-   * Sends an event to the remote client
+   * Sends an encoded event to the remote client.
    *
-   * @param callback A callback that is notified on Success or failure
+   * @param id Event ID or <code>null</code>.
+   * @param frame Encoded event.
+   * @return False when the queue is full and the overflow policy is disconnect.
    */
-  public synchronized void send(
-      ServerSentMessage message, UndertowServerSentConnection.EventCallback callback) {
+  public synchronized boolean send(Object id, byte[] frame) {
     if (open == 0 || shutdown) {
-      if (callback != null) {
-        callback.failed(this, message, new ClosedChannelException());
-      }
-      return;
+      return true;
+    }
+    if (!queue.offer(id, frame)) {
+      return false;
     }
-    queue.add(new UndertowServerSentConnection.SSEData(message, callback));
     sink.getIoThread()
         .execute(
             () -> {
@@ -108,14 +100,32 @@ public class UndertowServerSentConnection implements Channel {
                 }
               }
             });
+    return true;
+  }
+
+  /**
+   * True when there is nothing to write.
+   *
+   * @return True when there is nothing to write.
+   */
+  public synchronized boolean isIdle() {
+    return pooled == null && queue.isEmpty();
+  }
+
+  /**
+   * Number of queued bytes.
+   *
+   * @return Number of queued bytes.
+   */
+  public long getQueuedBytes() {
+    return queue.getSize();
   }
 
   private void fillBuffer() {
-    if (queue.isEmpty()) {
+    if (current == null && queue.isEmpty()) {
       if (pooled != null) {
         pooled.close();
         pooled = null;
-        sink.suspendWrites();
       }
       return;
     }
@@ -127,37 +137,22 @@ public class UndertowServerSentConnection implements Channel {
     }
     ByteBuffer buffer = pooled.getBuffer();
 
-    while (!queue.isEmpty() && buffer.hasRemaining()) {
-      UndertowServerSentConnection.SSEData data = queue.poll();
-      buffered.add(data);
-      if (data.leftOverData == null) {
-        byte[] messageBytes = data.message.toByteArray(context);
-        if (messageBytes.length < buffer.remaining()) {
-          buffer.put(messageBytes);
-          data.endBufferPosition = buffer.position();
-        } else {
-          queue.addFirst(data);
-          int rem = buffer.remaining();
-          buffer.put(messageBytes, 0, rem);
-          data.leftOverData = messageBytes;
-          data.leftOverDataOffset = rem;
-        }
-      } else {
-        int remainingData = data.leftOverData.length - data.leftOverDataOffset;
-        if (remainingData > buffer.remaining()) {
-          queue.addFirst(data);
-          int toWrite = buffer.remaining();
-          buffer.put(data.leftOverData, data.leftOverDataOffset, toWrite);
-          data.leftOverDataOffset += toWrite;
-        } else {
-          buffer.put(data.leftOverData, data.leftOverDataOffset, remainingData);
-          data.endBufferPosition = buffer.position();
-          data.leftOverData = null;
+    while (buffer.hasRemaining()) {
+      if (current == null) {
+        current = queue.poll();
+        currentOffset = 0;
+        if (current == null) {
+          break;
         }
       }
+      int length = Math.min(buffer.remaining(), current.length - currentOffset);
+      buffer.put(current, currentOffset, length);
+      currentOffset += length;
+      if (currentOffset == current.length) {
+        current = null;
+      }
     }
     buffer.flip();
-    sink.resumeWrites();
   }
 
   /** execute a graceful shutdown once all data has been sent */
@@ -183,29 +178,14 @@ public class UndertowServerSentConnection implements Channel {
   }
 
   @Override
-  public void close() throws IOException {
-    close(new ClosedChannelException());
-  }
-
-  private synchronized void close(IOException e) throws IOException {
+  public synchronized void close() throws IOException {
     if (openUpdater.compareAndSet(this, 1, 0)) {
       if (pooled != null) {
         pooled.close();
         pooled = null;
       }
-      List<UndertowServerSentConnection.SSEData> cb =
-          new ArrayList<>(buffered.size() + queue.size() + flushingMessages.size());
-      cb.addAll(buffered);
-      cb.addAll(queue);
-      cb.addAll(flushingMessages);
+      current = null;
       queue.clear();
-      buffered.clear();
-      flushingMessages.clear();
-      for (UndertowServerSentConnection.SSEData i : cb) {
-        if (i.callback != null) {
-          i.callback.failed(this, i.message, e);
-        }
-      }
       sink.shutdownWrites();
       if (!sink.flush()) {
         sink.getWriteSetter()
@@ -219,116 +199,27 @@ public class UndertowServerSentConnection implements Channel {
     }
   }
 
-  public interface EventCallback {
-
-    /**
-     * Notification that is called when a message is sucessfully sent
-     *
-     * @param connection The connection
-     * @param message The message event
-     */
-    void done(UndertowServerSentConnection connection, ServerSentMessage message);
-
-    /**
-     * Notification that is called when a message send fails.
-     *
-     * @param connection The connection
-     * @param message The message event
-     * @param cause The exception
-     */
-    void failed(
-        UndertowServerSentConnection connection, ServerSentMessage message, Throwable cause);
-  }
-
-  private static class SSEData {
-    final ServerSentMessage message;
-    final UndertowServerSentConnection.EventCallback callback;
-    private int endBufferPosition = -1;
-    private byte[] leftOverData;
-    private int leftOverDataOffset;
-
-    private SSEData(
-        ServerSentMessage message, UndertowServerSentConnection.EventCallback callback) {
-      this.message = message;
-      this.callback = callback;
-    }
-  }
-
   private class SseWriteListener implements ChannelListener<StreamSinkChannel> {
     @Override
     public void handleEvent(StreamSinkChannel channel) {
       synchronized (UndertowServerSentConnection.this) {
         try {
-          if (!flushingMessages.isEmpty()) {
-            if (!channel.flush()) {
-              return;
-            }
-            for (UndertowServerSentConnection.SSEData data : flushingMessages) {
-              if (data.callback != null && data.leftOverData == null) {
-                data.callback.done(UndertowServerSentConnection.this, data.message);
-              }
-            }
-            flushingMessages.clear();
+          while (pooled != null) {
             ByteBuffer buffer = pooled.getBuffer();
-            if (!buffer.hasRemaining()) {
-              fillBuffer();
-              if (pooled == null) {
-                if (channel.flush()) {
-                  channel.suspendWrites();
-                }
+            while (buffer.hasRemaining()) {
+              if (channel.write(buffer) == 0) {
+                // client is slow, wait until channel is writable again
+                channel.resumeWrites();
                 return;
               }
             }
-          } else if (pooled == null) {
-            if (channel.flush()) {
-              channel.suspendWrites();
-            }
-            return;
+            fillBuffer();
+          }
+          if (channel.flush()) {
+            channel.suspendWrites();
+          } else {
+            channel.resumeWrites();
           }
-
-          ByteBuffer buffer = pooled.getBuffer();
-          int res;
-          do {
-            res = channel.write(buffer);
-            boolean flushed = channel.flush();
-            while (!buffered.isEmpty()) {
-              // figure out which messages are complete
-              UndertowServerSentConnection.SSEData data = buffered.peek();
-              if (data.endBufferPosition > 0 && buffer.position() >= data.endBufferPosition) {
-                buffered.poll();
-                if (flushed) {
-                  if (data.callback != null && data.leftOverData == null) {
-                    data.callback.done(UndertowServerSentConnection.this, data.message);
-                  }
-                } else {
-                  // if flush was unsuccessful we defer the callback invocation, till it is actually
-                  // on the wire
-                  flushingMessages.add(data);
-                }
-
-              } else {
-                if (data.endBufferPosition <= 0) {
-                  buffered.poll();
-                }
-                break;
-              }
-            }
-            if (!flushed && !flushingMessages.isEmpty()) {
-              sink.resumeWrites();
-              return;
-            }
-
-            if (!buffer.hasRemaining()) {
-              fillBuffer();
-              if (pooled == null) {
-                return;
-              }
-            } else if (res == 0) {
-              sink.resumeWrites();
-              return;
-            }
-
-          } while (res > 0);
         } catch (IOException e) {
           handleException(e);
         }
@@ -7,22 +7,18 @@ package io.jooby.internal.undertow;
 
 import java.io.IOException;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xnio.XnioIoThread;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.jooby.Context;
-import io.jooby.Server;
 import io.jooby.ServerSentEmitter;
 import io.jooby.ServerSentMessage;
 import io.jooby.SneakyThrows;
 
-public class UndertowSeverSentEmitter
-    implements ServerSentEmitter, UndertowServerSentConnection.EventCallback {
+public class UndertowSeverSentEmitter implements ServerSentEmitter {
   private UndertowServerSentConnection connection;
 
   private Logger log = LoggerFactory.getLogger(ServerSentEmitter.class);
@@ -49,7 +45,10 @@ public class UndertowSeverSentEmitter
   @NonNull @Override
   public ServerSentEmitter send(ServerSentMessage data) {
     if (checkOpen()) {
-      connection.send(data, null);
+      if (!connection.send(data.getId(), data.toByteArray(context))) {
+        log.debug("server-sent-event queue is full, closing: {}", id);
+        close();
+      }
     } else {
       log.debug("server-sent-event closed: {}", id);
     }
@@ -57,12 +56,15 @@ public class UndertowSeverSentEmitter
   }
 
   @Override
-  public ServerSentEmitter keepAlive(long timeInMillis) {
-    if (checkOpen()) {
-      XnioIoThread executor = context.exchange.getIoThread();
-      executor.executeAfter(new KeepAlive(this, timeInMillis), timeInMillis, TimeUnit.MILLISECONDS);
+  public void heartbeat() {
+    if (checkOpen() && connection.isIdle()) {
+      connection.send(null, KeepAlive.FRAME);
     }
-    return this;
+  }
+
+  @Override
+  public long getQueuedBytes() {
+    return connection.getQueuedBytes();
   }
 
   @Override
@@ -89,47 +91,20 @@ public class UndertowSeverSentEmitter
   @NonNull @Override
   public void close() {
     if (open.compareAndSet(true, false)) {
-      if (closeTask != null) {
-        try {
+      try {
+        if (closeTask != null) {
           closeTask.run();
-        } finally {
-          try {
-            connection.close();
-          } catch (IOException cause) {
-            log.error(
-                "server-sent-event resulted in exception: id {} {}",
-                id,
-                context.getRequestPath(),
-                cause);
-          }
         }
-      }
-    }
-  }
-
-  @Override
-  public void done(UndertowServerSentConnection connection, ServerSentMessage message) {
-    log.debug(
-        "server-sent-event {} message sent id: {}, event: {}, data: {}",
-        id,
-        message.getId(),
-        message.getEvent(),
-        message.getData());
-  }
-
-  @Override
-  public void failed(
-      UndertowServerSentConnection connection, ServerSentMessage message, Throwable exception) {
-    if (Server.connectionLost(exception)) {
-      close();
-    } else {
-      log.error(
-          "server-sent-event resulted in exception: id {} {}",
-          id,
-          context.getRequestPath(),
-          exception);
-      if (SneakyThrows.isFatal(exception)) {
-        throw SneakyThrows.propagate(exception);
+      } finally {
+        try {
+          connection.close();
+        } catch (IOException cause) {
+          log.error(
+              "server-sent-event resulted in exception: id {} {}",
+              id,
+              context.getRequestPath(),
+              cause);
+        }
       }
     }
   }
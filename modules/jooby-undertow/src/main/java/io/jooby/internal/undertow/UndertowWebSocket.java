@@ -19,7 +19,9 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 import org.xnio.IoUtils;
 import org.xnio.Pooled;
@@ -30,6 +32,7 @@ import io.jooby.Context;
 import io.jooby.Server;
 import io.jooby.SneakyThrows;
 import io.jooby.WebSocket;
+import io.jooby.WebSocketBroadcast;
 import io.jooby.WebSocketCloseStatus;
 import io.jooby.WebSocketConfigurer;
 import io.jooby.WebSocketMessage;
@@ -101,6 +104,8 @@ public class UndertowWebSocket extends AbstractReceiveListener
   private CountDownLatch ready = new CountDownLatch(1);
   private AtomicBoolean open = new AtomicBoolean(false);
   private int maxSize;
+  private final WebSocketBroadcast broadcaster;
+  private final AtomicInteger pending = new AtomicInteger();
 
   public UndertowWebSocket(UndertowContext ctx, WebSocketChannel channel) {
     this.ctx = ctx;
@@ -113,6 +118,7 @@ public class UndertowWebSocket extends AbstractReceiveListener
         conf.hasPath("websocket.maxSize")
             ? conf.getBytes("websocket.maxSize").intValue()
             : WebSocket.MAX_BUFFER_SIZE;
+    broadcaster = WebSocketBroadcast.create(conf);
   }
 
   @Override
@@ -159,6 +165,48 @@ public class UndertowWebSocket extends AbstractReceiveListener
     }
   }
 
+  @Override
+  public void broadcast(
+      @NonNull Object message, boolean binary, @NonNull Predicate<WebSocket> filter) {
+    ByteBuffer content;
+    try {
+      byte[] bytes = broadcaster.encode(ctx, this, binary, message);
+      content = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    } catch (Throwable x) {
+      onError(channel, x);
+      return;
+    }
+    for (UndertowWebSocket ws : all.getOrDefault(key, Collections.emptyList())) {
+      try {
+        if (ws.isOpen() && filter.test(ws)) {
+          ws.broadcastFrame(content.duplicate(), binary);
+        }
+      } catch (Exception cause) {
+        ctx.getRouter()
+            .getLog()
+            .debug("Broadcast of: {} resulted in exception", ws.ctx.getRequestPath(), cause);
+      }
+    }
+  }
+
+  /** Write a view of the shared frame content, unless there are too many pending writes. */
+  private void broadcastFrame(ByteBuffer content, boolean binary) {
+    if (pending.get() >= broadcaster.getMaxPendingMessages()) {
+      if (broadcaster.getSlowConsumer() == SlowConsumer.CLOSE) {
+        close(WebSocketCloseStatus.SERVICE_OVERLOAD);
+      }
+      return;
+    }
+    pending.incrementAndGet();
+    WriteCallbackAdaptor callback =
+        new WriteCallbackAdaptor(this, (ws, cause) -> pending.decrementAndGet());
+    if (binary) {
+      WebSockets.sendBinary(content, channel, callback);
+    } else {
+      WebSockets.sendText(content, channel, callback);
+    }
+  }
+
   @NonNull @Override
   public WebSocket send(@NonNull String message, @NonNull WriteCallback callback) {
     return sendMessage(ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8)), false, callback);
@@ -15,12 +15,13 @@ import java.lang.reflect.Type;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import io.jooby.Body;
+import io.jooby.BufferedMessageEncoder;
 import io.jooby.Context;
 import io.jooby.Extension;
 import io.jooby.Jooby;
 import io.jooby.MediaType;
 import io.jooby.MessageDecoder;
-import io.jooby.MessageEncoder;
+import io.jooby.Output;
 import io.jooby.ServiceRegistry;
 import jakarta.json.bind.Jsonb;
 import jakarta.json.bind.JsonbBuilder;
@@ -65,7 +66,7 @@ import jakarta.json.bind.JsonbBuilder;
  *
  * Complete documentation is available at: https://jooby.io/modules/jsonb.
  */
-public class YassonModule implements Extension, MessageDecoder, MessageEncoder {
+public class YassonModule implements Extension, MessageDecoder, BufferedMessageEncoder {
 
   private final Jsonb jsonb;
 
@@ -106,4 +107,12 @@ public class YassonModule implements Extension, MessageDecoder, MessageEncoder {
     ctx.setDefaultResponseType(MediaType.json);
     return jsonb.toJson(value).getBytes(UTF_8);
   }
+
+  @Override
+  public boolean encode(
+      @NonNull final Context ctx, @NonNull final Object value, @NonNull final Output output) {
+    ctx.setDefaultResponseType(MediaType.json);
+    jsonb.toJson(value, output.asOutputStream());
+    return true;
+  }
 }
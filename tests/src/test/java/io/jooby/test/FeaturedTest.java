@@ -13,6 +13,7 @@ import static io.jooby.MediaType.xml;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static okhttp3.RequestBody.create;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -47,10 +48,14 @@ import java.util.Properties;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 
@@ -89,6 +94,7 @@ import io.jooby.handler.CsrfHandler;
 import io.jooby.handler.HeadHandler;
 import io.jooby.handler.TraceHandler;
 import io.jooby.handler.WebVariables;
+import io.jooby.internal.AssetCompressor;
 import io.jooby.jackson.JacksonModule;
 import io.jooby.junit.ServerTest;
 import io.jooby.junit.ServerTestRunner;
@@ -718,6 +724,33 @@ public class FeaturedTest {
             });
   }
 
+  @ServerTest
+  public void formWithQueryString(ServerTestRunner runner) {
+    runner
+        .define(
+            app -> {
+              app.post("/form", ctx -> ctx.form());
+            })
+        .ready(
+            client -> {
+              client.post(
+                  "/form?q=1",
+                  new FormBody.Builder().add("name", "a b").build(),
+                  rsp -> {
+                    // Jetty merges query and form parameters, like Request.getParameters does
+                    String expected =
+                        runner.getServer().equals("Jetty") ? "{q=1, name=a b}" : "{name=a b}";
+                    assertEquals(expected, rsp.body().string());
+                  });
+              client.post(
+                  "/missing",
+                  RequestBody.create("text", textplain),
+                  rsp -> {
+                    assertEquals(404, rsp.code());
+                  });
+            });
+  }
+
   @ServerTest
   public void multipart(ServerTestRunner runner) {
     runner
@@ -983,6 +1016,18 @@ public class FeaturedTest {
                     assertEquals("{\"foo\":\"bar\"}", rsp.body().string());
                   });
 
+              // in memory (multiple chunks) and disk bodies
+              for (int size : new int[] {ServerOptions._8KB, ServerOptions._16KB * 2}) {
+                String value = "x".repeat(size);
+                client.header("Content-Type", "application/json");
+                client.post(
+                    "/map",
+                    create("{\"foo\": \"" + value + "\"}", json),
+                    rsp -> {
+                      assertEquals("{\"foo\":\"" + value + "\"}", rsp.body().string());
+                    });
+              }
+
               client.header("Content-Type", "application/json");
               client.post(
                   "/toListInt",
@@ -1466,6 +1511,62 @@ public class FeaturedTest {
             });
   }
 
+  @ServerTest
+  public void reactorChunked(ServerTestRunner runner) {
+    String expected =
+        IntStream.range(0, 5000)
+            .mapToObj(i -> "{\"id\":" + i + "}")
+            .collect(Collectors.joining(",", "[", "]"));
+    runner
+        .define(
+            app -> {
+              app.install(new JacksonModule());
+              app.use(Reactor.reactor());
+              app.get(
+                  "/reactor/json",
+                  ctx -> Flux.range(0, 5000).map(i -> Map.of("id", i)).subscribeOn(parallel()));
+              app.get(
+                      "/reactor/json/window",
+                      ctx -> Flux.range(0, 5000).map(i -> Map.of("id", i)).subscribeOn(parallel()))
+                  .attribute(ReactiveSupport.REQUEST, 1)
+                  .attribute(ReactiveSupport.BUFFER_SIZE, 16);
+              app.get(
+                  "/reactor/ndjson",
+                  ctx -> {
+                    ctx.setResponseType(io.jooby.MediaType.ndjson);
+                    return Flux.range(0, 3).map(i -> Map.of("id", i));
+                  });
+              app.get("/reactor/empty", ctx -> Flux.empty());
+            })
+        .ready(
+            client -> {
+              client.get(
+                  "/reactor/json",
+                  rsp -> {
+                    assertEquals("chunked", rsp.header("transfer-encoding").toLowerCase());
+                    assertEquals(expected, rsp.body().string());
+                  });
+              client.get(
+                  "/reactor/json/window",
+                  rsp -> {
+                    assertEquals(expected, rsp.body().string());
+                  });
+              client.get(
+                  "/reactor/ndjson",
+                  rsp -> {
+                    assertEquals(
+                        "application/x-ndjson;charset=utf-8",
+                        rsp.header("content-type").toLowerCase());
+                    assertEquals("{\"id\":0}\n{\"id\":1}\n{\"id\":2}\n", rsp.body().string());
+                  });
+              client.get(
+                  "/reactor/empty",
+                  rsp -> {
+                    assertEquals("", rsp.body().string());
+                  });
+            });
+  }
+
   @ServerTest
   public void mutiny(ServerTestRunner runner) {
     runner
@@ -2814,6 +2915,102 @@ public class FeaturedTest {
             });
   }
 
+  @ServerTest
+  public void pinnedAssets(ServerTestRunner runner) {
+    AssetSource source = AssetSource.create(Router.class.getClassLoader(), "/www");
+    String content = readText(userdir("src", "test", "resources", "www", "index.html"));
+    runner
+        .define(
+            app -> {
+              app.assets("/www/?*", new AssetHandler(source).setMaxPinnedSize(1024 * 1024));
+            })
+        .ready(
+            client -> {
+              for (int i = 0; i < 2; i++) {
+                client.get(
+                    "/www/index.html",
+                    rsp -> {
+                      assertEquals(200, rsp.code());
+                      assertEquals(
+                          "text/html;charset=utf-8", rsp.header("Content-Type").toLowerCase());
+                      assertEquals(content, rsp.body().string());
+                      // strong etag
+                      String etag = rsp.header("ETag");
+                      assertTrue(etag.startsWith("\""));
+
+                      client.header("If-None-Match", etag);
+                      client.get(
+                          "/www/index.html",
+                          etagrsp -> {
+                            assertEquals(304, etagrsp.code());
+                          });
+                    });
+              }
+              client.header("Range", "bytes=0-9");
+              client.get(
+                  "/www/index.html",
+                  rsp -> {
+                    assertEquals(206, rsp.code());
+                    assertEquals(content.substring(0, 10), rsp.body().string());
+                  });
+            });
+  }
+
+  @ServerTest
+  public void precompressedAssets(ServerTestRunner runner) throws IOException {
+    Path dir = Files.createTempDirectory("precompressed");
+    String content = "console.log('precompressed');".repeat(100);
+    Files.writeString(dir.resolve("app.js"), content);
+    Files.writeString(dir.resolve("small.js"), "var v;");
+    new AssetCompressor().setEncodings(List.of(AssetCompressor.GZIP)).compress(dir);
+    long gzipLength = Files.size(dir.resolve("app.js.gz"));
+    assertFalse(Files.exists(dir.resolve("small.js.gz")));
+
+    runner
+        .define(
+            app -> {
+              // compressed responses must not be compressed again
+              app.setServerOptions(
+                  new ServerOptions().setCompressionLevel(ServerOptions.DEFAULT_COMPRESSION_LEVEL));
+              app.assets("/?*", new AssetHandler(AssetSource.create(dir)).setPrecompressed(true));
+            })
+        .ready(
+            client -> {
+              for (int i = 0; i < 2; i++) {
+                client
+                    .get("/app.js")
+                    .prepare(req -> req.addHeader("Accept-Encoding", "br;q=0, gzip"))
+                    .execute(
+                        rsp -> {
+                          assertEquals(200, rsp.code());
+                          assertEquals("gzip", rsp.header("Content-Encoding"));
+                          assertEquals("Accept-Encoding", rsp.header("Vary"));
+                          assertTrue(
+                              rsp.header("Content-Type").startsWith("application/javascript"));
+                          ResponseBody body = rsp.body();
+                          assertEquals(gzipLength, body.contentLength());
+                          assertEquals(content, ungzip(body.bytes()));
+                        });
+              }
+              client
+                  .get("/app.js")
+                  .prepare(req -> req.addHeader("Accept-Encoding", "gzip;q=0"))
+                  .execute(
+                      rsp -> {
+                        assertNull(rsp.header("Content-Encoding"));
+                        assertEquals(content, rsp.body().string());
+                      });
+              // byte ranges are served from the original file
+              client.header("Range", "bytes=0-6");
+              client.get(
+                  "/app.js",
+                  rsp -> {
+                    assertEquals(206, rsp.code());
+                    assertEquals("console", rsp.body().string());
+                  });
+            });
+  }
+
   @ServerTest
   public void staticAssetsCaching(ServerTestRunner runner) {
     AssetSource source = AssetSource.create(Router.class.getClassLoader(), "/www");
@@ -4304,6 +4501,37 @@ public class FeaturedTest {
             });
   }
 
+  @ServerTest
+  public void accessLogLine(ServerTestRunner runner) {
+    BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    runner
+        .define(
+            app -> {
+              app.use(
+                  new AccessLogHandler(ctx -> "edgar")
+                      .requestHeader("X-Req")
+                      .responseHeader("X-Rsp")
+                      .log(lines::add));
+              app.get("/log", ctx -> ctx.setResponseHeader("X-Rsp", "out").send("ok"));
+            })
+        .ready(
+            client -> {
+              client.header("X-Req", "in");
+              client.get(
+                  "/log?q=1",
+                  rsp -> {
+                    assertEquals("ok", rsp.body().string());
+                    String line = lines.poll(5, TimeUnit.SECONDS);
+                    assertNotNull(line);
+                    assertTrue(
+                        line.matches(
+                            "\\S+ - edgar \\[.+\\] \"GET /log\\?q=1 HTTP/1.1\" 200 2 \\d+ \"in\""
+                                + " \"out\""),
+                        line);
+                  });
+            });
+  }
+
   @ServerTest
   public void accessLog(ServerTestRunner runner) {
     runner
@@ -4362,6 +4590,35 @@ public class FeaturedTest {
             });
   }
 
+  @ServerTest
+  public void accessLogAsyncStopsWithApplication(ServerTestRunner runner) {
+    BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    AccessLogHandler[] accessLog = new AccessLogHandler[1];
+    runner
+        .define(
+            app -> {
+              accessLog[0] = new AccessLogHandler().log(lines::add).async();
+              app.use(accessLog[0]);
+
+              app.get("/log", Context::getRequestPath);
+            })
+        .ready(
+            client -> {
+              client.get(
+                  "/log",
+                  rsp -> {
+                    assertEquals("/log", rsp.body().string());
+                  });
+            });
+
+    // writer thread is released with the application, after writing pending entries
+    assertTrue(
+        Thread.getAllStackTraces().keySet().stream()
+            .noneMatch(thread -> thread.getName().equals("access-log")));
+    assertEquals(1, accessLog[0].getWritten());
+    assertEquals(1, lines.size());
+  }
+
   @ServerTest
   public void csrf(ServerTestRunner runner) {
     String token = UUID.randomUUID().toString();
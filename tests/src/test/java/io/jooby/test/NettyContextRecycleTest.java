@@ -0,0 +1,53 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.jooby.ExecutionMode;
+import io.jooby.StatusCode;
+import io.jooby.junit.ServerTest;
+import io.jooby.junit.ServerTestRunner;
+import io.jooby.netty.NettyServer;
+
+public class NettyContextRecycleTest {
+
+  @ServerTest(
+      server = NettyServer.class,
+      executionMode = {ExecutionMode.EVENT_LOOP, ExecutionMode.WORKER})
+  public void shouldNotLeakStateBetweenRequests(ServerTestRunner runner) {
+    runner
+        .define(
+            app -> {
+              app.get(
+                  "/recycle/{id}",
+                  ctx -> {
+                    String state = ctx.getAttributes().isEmpty() ? "clean" : "dirty";
+                    String id = ctx.path("id").value();
+                    ctx.setAttribute("id", id);
+                    if (ctx.query("odd").booleanValue(false)) {
+                      ctx.setResponseHeader("X-Odd", id);
+                      ctx.setResponseCode(StatusCode.CREATED);
+                    }
+                    return state + ":" + id + ":" + ctx.query("q").value("none");
+                  });
+            })
+        .ready(
+            http -> {
+              for (int i = 0; i < 20; i++) {
+                int id = i;
+                boolean odd = id % 2 == 1;
+                http.get(
+                    "/recycle/" + id + "?q=" + id + (odd ? "&odd=true" : ""),
+                    rsp -> {
+                      assertEquals("clean:" + id + ":" + id, rsp.body().string());
+                      assertEquals(odd ? 201 : 200, rsp.code());
+                      assertEquals(odd ? String.valueOf(id) : null, rsp.header("X-Odd"));
+                    });
+              }
+            });
+  }
+}
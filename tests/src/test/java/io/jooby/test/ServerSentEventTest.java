@@ -6,6 +6,7 @@
 package io.jooby.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -25,6 +26,7 @@ import io.jooby.ServerSentMessage;
 import io.jooby.jackson.JacksonModule;
 import io.jooby.junit.ServerTest;
 import io.jooby.junit.ServerTestRunner;
+import okio.BufferedSource;
 
 public class ServerSentEventTest {
   @ServerTest
@@ -255,41 +257,50 @@ public class ServerSentEventTest {
 
   @ServerTest
   public void shouldSendKeepAliveMessage(ServerTestRunner runner) {
-    String sseId = UUID.randomUUID().toString();
     runner
         .define(
             app -> {
               app.sse(
                   "/keep-alive",
                   sse -> {
-                    sse.setId(sseId);
                     sse.keepAlive(100);
-                    sse.send("ready");
+                    ScheduledExecutorService scheduler =
+                        Executors.newSingleThreadScheduledExecutor();
+                    // heartbeats are comments, client must see ready as first message
+                    scheduler.schedule(
+                        () -> {
+                          sse.send("ready");
+                          scheduler.shutdown();
+                        },
+                        350,
+                        TimeUnit.MILLISECONDS);
                   });
             })
         .ready(
             client -> {
-              List<String> messages = new ArrayList<>();
-              messages.add(":" + sseId);
-              messages.add(":" + sseId);
-              messages.add("ready");
-
               client
                   .sse("/keep-alive")
                   .next(
                       message -> {
-                        messages.remove(message.getData());
-                      })
-                  .next(
-                      message -> {
-                        messages.remove(message.getData());
-                      })
-                  .next(
-                      message -> {
-                        messages.remove(message.getData());
+                        assertEquals("ready", message.getData());
                       })
                   .verify();
-              assertEquals(0, messages.size());
+
+              // heartbeats are invisible to the sse client, read the raw stream
+              client.get(
+                  "/keep-alive",
+                  rsp -> {
+                    BufferedSource source = rsp.body().source();
+                    List<String> lines = new ArrayList<>();
+                    String line;
+                    while ((line = source.readUtf8Line()) != null && !line.startsWith("data:")) {
+                      lines.add(line);
+                    }
+                    assertEquals("data:ready", line);
+                    int heartbeat = lines.indexOf(":");
+                    assertTrue(heartbeat >= 0, "no heartbeat before ready: " + lines);
+                    assertEquals("", lines.get(heartbeat + 1));
+                  });
             });
   }
 
@@ -0,0 +1,73 @@
+/*
+ * Jooby https://jooby.io
+ * Apache License Version 2.0 https://jooby.io/LICENSE.txt
+ * Copyright 2014 Edgar Espina
+ */
+package io.jooby.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.jooby.ExecutionMode;
+import io.jooby.VirtualThreadExecutor;
+import io.jooby.junit.ServerTest;
+import io.jooby.junit.ServerTestRunner;
+
+public class VirtualThreadTest {
+
+  @ServerTest(executionMode = ExecutionMode.VIRTUAL)
+  public void shouldRunOnVirtualThread(ServerTestRunner runner) {
+    assumeTrue(VirtualThreadExecutor.isSupported());
+    runner
+        .define(
+            app -> {
+              app.get("/virtual", ctx -> Thread.currentThread().getName());
+
+              app.dispatch(() -> app.get("/dispatch", ctx -> Thread.currentThread().getName()));
+
+              app.get("/executorKey", ctx -> Thread.currentThread().getName())
+                  .setExecutorKey("worker");
+
+              app.get(
+                  "/stats",
+                  ctx -> {
+                    VirtualThreadExecutor executor = app.require(VirtualThreadExecutor.class);
+                    return executor.getSubmitted() > 0 && executor.getActive() > 0;
+                  });
+            })
+        .ready(
+            http -> {
+              http.get(
+                  "/virtual",
+                  rsp -> {
+                    assertTrue(rsp.body().string().startsWith("virtual-"));
+                  });
+              http.get(
+                  "/dispatch",
+                  rsp -> {
+                    assertFalse(rsp.body().string().startsWith("virtual-"));
+                  });
+              http.get(
+                  "/executorKey",
+                  rsp -> {
+                    assertFalse(rsp.body().string().startsWith("virtual-"));
+                  });
+              http.get(
+                  "/stats",
+                  rsp -> {
+                    assertEquals("true", rsp.body().string());
+                  });
+            });
+  }
+
+  @Test
+  public void shouldFailWhenNotSupported() {
+    assumeTrue(!VirtualThreadExecutor.isSupported());
+    assertThrows(IllegalStateException.class, () -> new VirtualThreadExecutor("virtual"));
+  }
+}
@@ -8,6 +8,7 @@ package io.jooby.test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import io.jooby.jackson.JacksonModule;
@@ -166,6 +167,53 @@ public class WebSocketTest {
             });
   }
 
+  @ServerTest
+  public void webSocketBroadcast(ServerTestRunner runner) {
+    runner
+        .define(
+            app -> {
+              app.install(new JacksonModule());
+
+              app.ws(
+                  "/ws/broadcast",
+                  (ctx, initializer) -> {
+                    initializer.onConnect(ws -> ws.send("connected"));
+                    initializer.onMessage(
+                        (ws, message) -> {
+                          switch (message.value()) {
+                            case "json" ->
+                                ws.broadcast(Map.of("from", "json"), false, it -> it != ws);
+                            case "binary" -> ws.broadcastBinary("binary");
+                            default -> ws.broadcast(message.value());
+                          }
+                        });
+                  });
+            })
+        .ready(
+            client -> {
+              client.syncWebSocket(
+                  "/ws/broadcast",
+                  first -> {
+                    assertEquals("connected", first.lastMessage());
+                    client.syncWebSocket(
+                        "/ws/broadcast",
+                        second -> {
+                          assertEquals("connected", second.lastMessage());
+
+                          assertEquals("text", first.send("text"));
+                          assertEquals("text", second.lastMessage());
+
+                          // sender is excluded
+                          first.send("json");
+                          assertEquals("{\"from\":\"json\"}", second.lastMessage());
+
+                          assertEquals("binary", first.send("binary"));
+                          assertEquals("binary", second.lastMessage());
+                        });
+                  });
+            });
+  }
+
   private String sid(String setCookie) {
     return setCookie.substring("jooby.sid=".length(), setCookie.indexOf(';'));
   }